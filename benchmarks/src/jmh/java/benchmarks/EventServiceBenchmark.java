@@ -0,0 +1,106 @@
+package benchmarks;
+
+import commons.Event;
+import commons.EventStatistics;
+import commons.Expense;
+import commons.Participant;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import server.EventService;
+import server.Main;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures EventService operations with the real repositories, on an in-memory H2 database
+ * that is filled with one event before the measurements start.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class EventServiceBenchmark {
+
+    @Param({"20"})
+    private int participants;
+
+    @Param({"100", "1000"})
+    private int expenses;
+
+    private ConfigurableApplicationContext context;
+    private EventService eventService;
+    private long eventId;
+    private Expense expenseDetails;
+
+    /**
+     * starts the server on a random port with an in-memory database and adds the event
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        // command line arguments, since those override the application.properties of the server
+        context = new SpringApplicationBuilder(Main.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                "--spring.h2.console.enabled=false",
+                "--logging.level.root=WARN");
+        eventService = context.getBean(EventService.class);
+
+        Random random = new Random(42);
+        eventId = eventService.createEvent(new Event("Benchmark")).getId();
+        List<Participant> people = new ArrayList<>();
+        for (Participant participant : Fixtures.participants(participants)) {
+            participant.setId(0);
+            // the client sends the event id with a new participant
+            participant.setEventIds(new HashSet<>(Set.of(eventId)));
+            people.add(eventService.addParticipantToEvent(eventId, participant));
+        }
+        Expense last = null;
+        for (int i = 0; i < expenses; i++) {
+            List<Participant> sharedBy = new ArrayList<>(people.subList(0, 1 + random.nextInt(people.size())));
+            last = eventService.addExpenseToEvent(eventId, new Expense(people.get(random.nextInt(people.size())),
+                    "food", 1 + random.nextInt(50000) / 100.0, "EUR", "2024-03-15", sharedBy, "Expense " + i, eventId));
+        }
+        expenseDetails = new Expense(last.getId(), last.getParticipant(), "travel", 12.34, "EUR",
+                last.getDate(), new ArrayList<>(last.getSplittingOption()), last.getExpenseType(), eventId);
+    }
+
+    /**
+     * stops the server, which drops the in-memory database
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * the totals per tag and participant, computed by the database
+     * @return the statistics
+     */
+    @Benchmark
+    public EventStatistics getEventStatistics() {
+        return eventService.getEventStatistics(eventId);
+    }
+
+    /**
+     * loads all expenses of the event
+     * @return the expenses
+     */
+    @Benchmark
+    public List<Expense> findExpenses() {
+        return eventService.findExpensesByEventId(eventId);
+    }
+
+    /**
+     * updates the last expense of the event, which also updates the ledger and the change log
+     * @return the updated expense
+     */
+    @Benchmark
+    public Expense updateExpense() {
+        return eventService.updateExpenseInEvent(eventId, expenseDetails.getId(), expenseDetails);
+    }
+}
@@ -0,0 +1,56 @@
+package benchmarks;
+
+import commons.Event;
+import commons.Expense;
+import commons.Participant;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures Event.updateParticipant and Event.updateExpense, which scan the lists of the event
+ * for the id. The last participant and expense are updated, which is the worst case of the scan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EventUpdateBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int size;
+
+    private Event event;
+    private Participant participantDetails;
+    private Expense expenseDetails;
+
+    /**
+     * builds an event with as many participants as expenses
+     */
+    @Setup
+    public void setUp() {
+        event = Fixtures.event(size, size);
+        participantDetails = Fixtures.participants(size).get(size - 1);
+        participantDetails.setFirstName("Changed");
+        Expense last = event.getExpenses().get(size - 1);
+        expenseDetails = new Expense(last.getId(), last.getParticipant(), "changed", 12.34, "EUR",
+                last.getDate(), last.getSplittingOption(), last.getExpenseType(), 1L);
+    }
+
+    /**
+     * updates the last participant
+     * @return whether the participant was found
+     */
+    @Benchmark
+    public boolean updateParticipant() {
+        return event.updateParticipant(participantDetails);
+    }
+
+    /**
+     * updates the last expense
+     * @return whether the expense was found
+     */
+    @Benchmark
+    public boolean updateExpense() {
+        return event.updateExpense(expenseDetails);
+    }
+}
@@ -0,0 +1,66 @@
+package benchmarks;
+
+import commons.Event;
+import commons.Expense;
+import commons.Participant;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Builds the events the benchmarks work on, with a fixed seed so every run gets the same input.
+ */
+final class Fixtures {
+    private static final String[] TAGS = {"food", "travel", "entrance fees", "drinks", "other"};
+
+    private Fixtures() {
+    }
+
+    /**
+     * creates participants with ids 1 to count
+     * @param count the number of participants
+     * @return the participants
+     */
+    static List<Participant> participants(int count) {
+        List<Participant> participants = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Participant participant = new Participant("user" + i, "First" + i, "Last" + i,
+                    "user" + i + "@example.com", "NL91ABNA04171643" + (i % 100), "ABNANL2A", "en");
+            participant.setId(i);
+            participant.setOwedAmount(new HashMap<>());
+            participant.setPayedAmount(new HashMap<>());
+            participant.setEventIds(new HashSet<>(Set.of(1L)));
+            participants.add(participant);
+        }
+        return participants;
+    }
+
+    /**
+     * creates an event where every expense is paid by a random participant and shared by a few others
+     * @param participantCount the number of participants
+     * @param expenseCount the number of expenses
+     * @return the event, with ids for the event, participants and expenses
+     */
+    static Event event(int participantCount, int expenseCount) {
+        Random random = new Random(42);
+        List<Participant> participants = participants(participantCount);
+        List<Expense> expenses = new ArrayList<>(expenseCount);
+        for (int i = 1; i <= expenseCount; i++) {
+            List<Participant> sharedBy = new ArrayList<>();
+            int sharers = 1 + random.nextInt(Math.min(8, participantCount));
+            for (int j = 0; j < sharers; j++) {
+                sharedBy.add(participants.get(random.nextInt(participantCount)));
+            }
+            Expense expense = new Expense(i, participants.get(random.nextInt(participantCount)),
+                    TAGS[random.nextInt(TAGS.length)], 1 + random.nextInt(50000) / 100.0, "EUR",
+                    "2024-03-" + (10 + random.nextInt(20)), sharedBy, "Expense " + i, 1L);
+            expenses.add(expense);
+        }
+        Event event = new Event(1L, "Benchmark", 123456789L, participants, expenses);
+        return event;
+    }
+}
@@ -0,0 +1,191 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the lookups of the repository finders on tables with a million rows, with only the tables
+ * of the migrations and with the indexes of the second one as well, on an in-memory H2 database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class IndexLookupBenchmark {
+
+    // every migration except the indexes
+    private static final String[] SCHEMA = {"V1__create_schema.sql", "V3__create_ledger.sql",
+        "V4__add_event_versions.sql", "V5__keep_amounts_in_cents.sql", "V6__add_expense_idempotency_keys.sql"};
+
+    @Param({"1000000"})
+    private int rows;
+
+    @Param({"false", "true"})
+    private boolean indexed;
+
+    private Connection connection;
+    private PreparedStatement byUsername;
+    private PreparedStatement byEmail;
+    private PreparedStatement byIban;
+    private PreparedStatement byInviteCode;
+    private PreparedStatement byTitle;
+    private PreparedStatement expensesOfEvent;
+    private PreparedStatement expensesByDate;
+    private int next;
+
+    /**
+     * creates the schema with the migrations of the server and fills the participant, event and
+     * expense tables, every event has ten expenses
+     * @throws SQLException if the database can not be created
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:indexes" + indexed + ";DB_CLOSE_DELAY=-1", "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            for (String migration : SCHEMA) {
+                statement.execute("RUNSCRIPT FROM 'classpath:/db/migration/" + migration + "'");
+            }
+            statement.execute("INSERT INTO participant (id, username, first_name, last_name, email, iban, bic, "
+                    + "language_choice) SELECT X, 'user' || X, 'First' || X, 'Last' || X, 'user' || X || '@example.com', "
+                    + "'NL' || X, 'ABNANL2A', CASEWHEN(MOD(X, 2) = 0, 'en', 'nl') FROM SYSTEM_RANGE(1, " + rows + ")");
+            statement.execute("INSERT INTO event (id, title, invite_code) "
+                    + "SELECT X, 'Event ' || X, X * 7919 FROM SYSTEM_RANGE(1, " + rows + ")");
+            statement.execute("INSERT INTO expense (id, participant_id, category, amount_in_cents, currency, date, "
+                    + "expense_type, event_id) SELECT X, 1 + MOD(X * 31, " + rows + "), 'food', MOD(X, 5000), 'EUR', "
+                    + "'2024-03-' || (10 + MOD(X, 20)) || '-' || MOD(X, 1000), 'Expense ' || X, 1 + MOD(X, "
+                    + Math.max(1, rows / 10) + ") FROM SYSTEM_RANGE(1, " + rows + ")");
+            if (indexed) {
+                statement.execute("RUNSCRIPT FROM 'classpath:/db/migration/V2__add_finder_indexes.sql'");
+            }
+            statement.execute("ANALYZE");
+        }
+        byUsername = connection.prepareStatement("SELECT * FROM participant WHERE username = ?");
+        byEmail = connection.prepareStatement("SELECT * FROM participant WHERE email = ?");
+        byIban = connection.prepareStatement("SELECT * FROM participant WHERE iban = ?");
+        byInviteCode = connection.prepareStatement("SELECT * FROM event WHERE invite_code = ?");
+        byTitle = connection.prepareStatement("SELECT * FROM event WHERE title = ?");
+        expensesOfEvent = connection.prepareStatement("SELECT * FROM expense WHERE event_id = ?");
+        expensesByDate = connection.prepareStatement("SELECT * FROM expense WHERE date = ?");
+    }
+
+    /**
+     * drops the database
+     * @throws SQLException if the database can not be dropped
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    /**
+     * ParticipantRepository.findByUsername
+     * @return the number of rows found
+     * @throws SQLException if the query fails
+     */
+    @Benchmark
+    public int findByUsername() throws SQLException {
+        byUsername.setString(1, "user" + nextKey());
+        return count(byUsername);
+    }
+
+    /**
+     * ParticipantRepository.findByEmail
+     * @return the number of rows found
+     * @throws SQLException if the query fails
+     */
+    @Benchmark
+    public int findByEmail() throws SQLException {
+        byEmail.setString(1, "user" + nextKey() + "@example.com");
+        return count(byEmail);
+    }
+
+    /**
+     * ParticipantRepository.findByIban
+     * @return the number of rows found
+     * @throws SQLException if the query fails
+     */
+    @Benchmark
+    public int findByIban() throws SQLException {
+        byIban.setString(1, "NL" + nextKey());
+        return count(byIban);
+    }
+
+    /**
+     * EventRepository.eventByInviteCode
+     * @return the number of rows found
+     * @throws SQLException if the query fails
+     */
+    @Benchmark
+    public int eventByInviteCode() throws SQLException {
+        byInviteCode.setLong(1, nextKey() * 7919L);
+        return count(byInviteCode);
+    }
+
+    /**
+     * EventRepository.eventByTitle
+     * @return the number of rows found
+     * @throws SQLException if the query fails
+     */
+    @Benchmark
+    public int eventByTitle() throws SQLException {
+        byTitle.setString(1, "Event " + nextKey());
+        return count(byTitle);
+    }
+
+    /**
+     * EventRepository.expensesOfEventById, the ten expenses of an event
+     * @return the number of rows found
+     * @throws SQLException if the query fails
+     */
+    @Benchmark
+    public int expensesOfEvent() throws SQLException {
+        expensesOfEvent.setLong(1, 1 + nextKey() % Math.max(1, rows / 10));
+        return count(expensesOfEvent);
+    }
+
+    /**
+     * ExpenseRepository.findAllByDate
+     * @return the number of rows found
+     * @throws SQLException if the query fails
+     */
+    @Benchmark
+    public int findAllByDate() throws SQLException {
+        int key = nextKey();
+        expensesByDate.setString(1, "2024-03-" + (10 + key % 20) + "-" + key % 1000);
+        return count(expensesByDate);
+    }
+
+    /**
+     * a different key for every call, so the benchmarks do not read the same rows over and over
+     * @return a key between 1 and rows
+     */
+    private int nextKey() {
+        next = next % rows + 1;
+        return next;
+    }
+
+    /**
+     * runs a query and reads all rows
+     * @param query the query
+     * @return the number of rows
+     * @throws SQLException if the query fails
+     */
+    private static int count(PreparedStatement query) throws SQLException {
+        int count = 0;
+        try (ResultSet result = query.executeQuery()) {
+            while (result.next()) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
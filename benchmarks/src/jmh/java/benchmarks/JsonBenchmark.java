@@ -0,0 +1,70 @@
+package benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import commons.Event;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the JSON (de)serialization of a whole event, which the server does for every
+ * GET of an event and the client for every refresh of the event overview.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JsonBenchmark {
+
+    @Param({"20", "200"})
+    private int participants;
+
+    @Param({"1000", "10000"})
+    private int expenses;
+
+    private ObjectMapper mapper;
+    private Event event;
+    private String json;
+
+    /**
+     * builds the event and its JSON once, the benchmarks only (de)serialize
+     * @throws JsonProcessingException if the event can not be serialized
+     */
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        mapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        event = Fixtures.event(participants, expenses);
+        json = mapper.writeValueAsString(event);
+    }
+
+    /**
+     * serializes the event
+     * @return the JSON
+     * @throws JsonProcessingException if the event can not be serialized
+     */
+    @Benchmark
+    public String serialize() throws JsonProcessingException {
+        return mapper.writeValueAsString(event);
+    }
+
+    /**
+     * serializes the event to bytes, as the HTTP message converters do
+     * @return the JSON bytes
+     * @throws JsonProcessingException if the event can not be serialized
+     */
+    @Benchmark
+    public byte[] serializeToBytes() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(event);
+    }
+
+    /**
+     * deserializes the event
+     * @return the event
+     * @throws JsonProcessingException if the JSON can not be read
+     */
+    @Benchmark
+    public Event deserialize() throws JsonProcessingException {
+        return mapper.readValue(json, Event.class);
+    }
+}
@@ -0,0 +1,81 @@
+package benchmarks;
+
+import commons.Event;
+import commons.Money;
+import commons.Participant;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures Participant.equals and hashCode, which compare and hash every field including
+ * the balance maps. Those maps have events as keys, so with balances filled in every
+ * comparison also hashes events.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ParticipantBenchmark {
+
+    @Param({"false", "true"})
+    private boolean withBalances;
+
+    private List<Participant> participants;
+    private List<Participant> copies;
+    private Set<Participant> set;
+    private int next;
+
+    /**
+     * builds the participants and equal copies of them
+     */
+    @Setup
+    public void setUp() {
+        participants = Fixtures.participants(1000);
+        copies = Fixtures.participants(1000);
+        if (withBalances) {
+            // an event without participants, a participant in its own event would make hashCode recurse
+            Event event = new Event(1L, "Benchmark", 123456789L, new ArrayList<>(), new ArrayList<>());
+            for (int i = 0; i < participants.size(); i++) {
+                participants.get(i).getOwedAmount().put(event, Money.ofMinor(i, "EUR"));
+                participants.get(i).getPayedAmount().put(event, Money.ofMinor(2L * i, "EUR"));
+                copies.get(i).getOwedAmount().put(event, Money.ofMinor(i, "EUR"));
+                copies.get(i).getPayedAmount().put(event, Money.ofMinor(2L * i, "EUR"));
+            }
+        }
+        set = new HashSet<>(participants);
+    }
+
+    /**
+     * hashes one participant
+     * @return the hash code
+     */
+    @Benchmark
+    public int hashCodeOfParticipant() {
+        next = (next + 1) % participants.size();
+        return participants.get(next).hashCode();
+    }
+
+    /**
+     * compares a participant with an equal copy, which compares every field
+     * @return true
+     */
+    @Benchmark
+    public boolean equalsCopy() {
+        next = (next + 1) % participants.size();
+        return participants.get(next).equals(copies.get(next));
+    }
+
+    /**
+     * looks up an equal copy in a hash set, as the client does when it removes participants
+     * @return true
+     */
+    @Benchmark
+    public boolean setContainsCopy() {
+        next = (next + 1) % copies.size();
+        return set.contains(copies.get(next));
+    }
+}
@@ -0,0 +1,84 @@
+package benchmarks;
+
+import commons.Transfer;
+import org.openjdk.jmh.annotations.*;
+import server.SettlementCalculator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Measures the settlement of one large event: computing the balances from all expenses
+ * and the transfers that settle them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SettlementBenchmark {
+
+    @Param({"1000", "5000"})
+    private int participants;
+
+    @Param({"100000", "300000"})
+    private int expenses;
+
+    private List<Long> participantIds;
+    private long[] payers;
+    private long[] amounts;
+    private long[][] splits;
+
+    /**
+     * generates the expenses of the event, with a fixed seed so every run gets the same input
+     */
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        participantIds = new ArrayList<>();
+        LongStream.rangeClosed(1, participants).forEach(participantIds::add);
+        payers = new long[expenses];
+        amounts = new long[expenses];
+        splits = new long[expenses][];
+        for (int i = 0; i < expenses; i++) {
+            payers[i] = 1 + random.nextInt(participants);
+            amounts[i] = 1 + random.nextInt(50000);
+            // a fifth of the expenses are shared by everyone, the rest by a small group
+            splits[i] = random.nextInt(5) == 0
+                    ? new long[0]
+                    : random.longs(1 + random.nextInt(8), 1, participants + 1).sorted().distinct().toArray();
+        }
+    }
+
+    /**
+     * balances and transfers of the whole event
+     * @return the transfers
+     */
+    @Benchmark
+    public List<Transfer> settle() {
+        return addExpenses().settle();
+    }
+
+    /**
+     * only the balances of the whole event, as the statistics and debt overviews need them
+     * @return the balance of every participant
+     */
+    @Benchmark
+    public Map<Long, Long> balances() {
+        return addExpenses().getBalances();
+    }
+
+    /**
+     * adds all expenses to a new calculator
+     * @return the calculator
+     */
+    private SettlementCalculator addExpenses() {
+        SettlementCalculator calculator = new SettlementCalculator(participantIds);
+        for (int i = 0; i < expenses; i++) {
+            calculator.addExpense(payers[i], amounts[i], splits[i]);
+        }
+        return calculator;
+    }
+}
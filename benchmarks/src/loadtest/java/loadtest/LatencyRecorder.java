@@ -0,0 +1,94 @@
+package loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the latencies of one kind of request. Every sample is kept, a load test of a few minutes
+ * has at most some hundred thousand of them, so the percentiles are exact and not estimated.
+ */
+final class LatencyRecorder {
+    private final String name;
+    private final LongAdder errors = new LongAdder();
+    private long[] samples = new long[1024];
+    private int count;
+
+    /**
+     * constructor
+     * @param name the name of the operation, used in the report
+     */
+    LatencyRecorder(String name) {
+        this.name = name;
+    }
+
+    /**
+     * adds the latency of a successful request
+     * @param nanos the time from when the request should have been sent until the response arrived
+     */
+    synchronized void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+    }
+
+    /**
+     * counts a failed request
+     */
+    void error() {
+        errors.increment();
+    }
+
+    /**
+     * getter for the name
+     * @return the name of the operation
+     */
+    String getName() {
+        return name;
+    }
+
+    /**
+     * computes the throughput and percentiles of the recorded requests
+     * @param seconds the length of the measurement
+     * @return the summary, latencies in milliseconds
+     */
+    synchronized Map<String, Object> summary(double seconds) {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("operation", name);
+        summary.put("requests", count);
+        summary.put("errors", errors.sum());
+        summary.put("throughput", count / seconds);
+        summary.put("p50Ms", millis(percentile(sorted, 0.50)));
+        summary.put("p99Ms", millis(percentile(sorted, 0.99)));
+        summary.put("p999Ms", millis(percentile(sorted, 0.999)));
+        summary.put("maxMs", millis(sorted.length == 0 ? 0 : sorted[sorted.length - 1]));
+        return summary;
+    }
+
+    /**
+     * the nearest rank percentile
+     * @param sorted the sorted samples
+     * @param fraction the percentile, between 0 and 1
+     * @return the sample at the percentile, 0 if there are no samples
+     */
+    static long percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(fraction * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    /**
+     * converts nanoseconds to milliseconds with three decimals
+     * @param nanos the time in nanoseconds
+     * @return the time in milliseconds
+     */
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+}
@@ -0,0 +1,525 @@
+package loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import commons.EventTopics;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import server.Main;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Drives the REST and STOMP interface of the server at fixed rates: it creates events, adds participants
+ * and expenses, reads statistics and listens to the expense topics of the events. Requests are sent at
+ * the times of the schedule, also when earlier responses are slow, and latencies are measured from those
+ * times, so a server that falls behind shows in the percentiles instead of lowering the request rate.
+ * Long poll clients keep thousands of participant polls open at once, and the heap and the platform
+ * threads of the server are sampled every second, so the thread modes of the server can be compared.
+ * The settings are system properties starting with "load.", see the constructor.
+ */
+public class LoadTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String JSON = "application/json";
+
+    private final String target;
+    private final int warmupSeconds;
+    private final int durationSeconds;
+    private final int events;
+    private final double createRate;
+    private final double participantRate;
+    private final double expenseRate;
+    private final double statsRate;
+    private final int stompClients;
+    private final int subscriptionsPerEvent;
+    private final int longPollClients;
+    private final boolean virtualThreads;
+    private final String resultsDirectory;
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    // every open poll has its own connection, the responses are handled on virtual threads
+    private final HttpClient pollHttp = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(30))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private final List<Long> eventIds = new CopyOnWriteArrayList<>();
+    private final Map<Long, List<Long>> participantIds = new ConcurrentHashMap<>();
+    private final Map<String, Long> expenseSentAt = new ConcurrentHashMap<>();
+    private final List<StompSession> stompSessions = new ArrayList<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger nextSession = new AtomicInteger();
+
+    private final LatencyRecorder createEvent = new LatencyRecorder("createEvent");
+    private final LatencyRecorder addParticipant = new LatencyRecorder("addParticipant");
+    private final LatencyRecorder addExpense = new LatencyRecorder("addExpense");
+    private final LatencyRecorder getStats = new LatencyRecorder("getStats");
+    private final LatencyRecorder expenseDelivery = new LatencyRecorder("expenseDelivery");
+    private final LatencyRecorder longPoll = new LatencyRecorder("longPoll");
+    private final AtomicLong serverHeapMax = new AtomicLong();
+    private final AtomicLong serverThreadsMax = new AtomicLong();
+
+    private String baseUrl;
+    private volatile long measureFrom = Long.MAX_VALUE;
+    private volatile boolean polling = true;
+
+    /**
+     * reads the settings from the system properties, the defaults are a light load a laptop can handle.
+     * The Gradle task passes every project property that starts with "load.", for example
+     * ./gradlew :benchmarks:loadTest -Pload.expenseRate=500 -Pload.duration=60
+     */
+    public LoadTest() {
+        target = System.getProperty("load.target", "");
+        warmupSeconds = Integer.getInteger("load.warmup", 5);
+        durationSeconds = Integer.getInteger("load.duration", 30);
+        events = Integer.getInteger("load.events", 10);
+        createRate = rate("load.createRate", 2);
+        participantRate = rate("load.participantRate", 20);
+        expenseRate = rate("load.expenseRate", 100);
+        statsRate = rate("load.statsRate", 50);
+        stompClients = Integer.getInteger("load.stompClients", 4);
+        subscriptionsPerEvent = Math.min(stompClients, Integer.getInteger("load.subscriptionsPerEvent", 2));
+        longPollClients = Integer.getInteger("load.longPollClients", 0);
+        virtualThreads = Boolean.getBoolean("load.virtualThreads");
+        resultsDirectory = System.getProperty("load.results", "build/results/loadtest");
+        if (durationSeconds <= 0 || events <= 0 || warmupSeconds < 0) {
+            throw new IllegalArgumentException("load.duration and load.events must be positive");
+        }
+    }
+
+    /**
+     * runs the load test, against load.target if it is set, otherwise against a server started
+     * in this JVM with the loadtest profile
+     * @param args not used
+     * @throws Exception if the server can not be started or reached
+     */
+    public static void main(String[] args) throws Exception {
+        LoadTest loadTest = new LoadTest();
+        ConfigurableApplicationContext server = null;
+        if (loadTest.target.isEmpty()) {
+            // the server shares the CPU with the load generator, set load.target to test a separate process
+            server = SpringApplication.run(Main.class, "--server.port=0", "--spring.profiles.active=loadtest",
+                    "--spring.threads.virtual.enabled=" + loadTest.virtualThreads);
+            loadTest.baseUrl = "http://localhost:" + server.getEnvironment().getProperty("local.server.port");
+        } else {
+            loadTest.baseUrl = loadTest.target.replaceAll("/+$", "");
+        }
+        int status = 0;
+        try {
+            loadTest.run();
+        } catch (Exception e) {
+            e.printStackTrace();
+            status = 1;
+        } finally {
+            if (server != null) {
+                server.close();
+            }
+        }
+        // the websocket client keeps threads alive that are not daemons
+        System.exit(status);
+    }
+
+    /**
+     * creates the first events, runs the schedule and writes the report
+     * @throws Exception if the server can not be reached
+     */
+    private void run() throws Exception {
+        connectStomp();
+        for (int i = 0; i < events; i++) {
+            createEventNow();
+        }
+
+        for (int i = 0; i < longPollClients; i++) {
+            poll();
+        }
+
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(4);
+        long start = System.nanoTime();
+        measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        schedule(scheduler, start, createRate, this::createEvent);
+        schedule(scheduler, start, participantRate, this::addParticipant);
+        schedule(scheduler, start, expenseRate, this::addExpense);
+        schedule(scheduler, start, statsRate, this::getStats);
+        scheduler.scheduleAtFixedRate(this::sampleServer, 1, 1, TimeUnit.SECONDS);
+        Thread.sleep(TimeUnit.SECONDS.toMillis(warmupSeconds + durationSeconds));
+        scheduler.shutdownNow();
+        polling = false;
+
+        // responses and messages that are still on their way are part of the measurement
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        Thread.sleep(500);
+        stompSessions.forEach(StompSession::disconnect);
+        report();
+    }
+
+    /**
+     * sends requests at a fixed rate
+     * @param scheduler the scheduler
+     * @param start the time the schedule starts
+     * @param rate the requests per second, 0 sends none
+     * @param operation sends one request, gets the time it should have been sent
+     */
+    private void schedule(ScheduledExecutorService scheduler, long start, double rate, LongConsumer operation) {
+        if (rate == 0) {
+            return;
+        }
+        long period = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        AtomicLong next = new AtomicLong();
+        scheduler.scheduleAtFixedRate(() -> operation.accept(start + next.getAndIncrement() * period),
+                0, period, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * creates an event and waits for it, used before the schedule starts
+     * @throws Exception if the event can not be created
+     */
+    private void createEventNow() throws Exception {
+        HttpResponse<String> response = http.send(createEventRequest(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Could not create an event: " + response.statusCode());
+        }
+        eventCreated(response.body());
+    }
+
+    /**
+     * creates an event
+     * @param intended the time the request should be sent
+     */
+    private void createEvent(long intended) {
+        send(createEvent, intended, createEventRequest(), this::eventCreated);
+    }
+
+    /**
+     * adds a participant to a random event
+     * @param intended the time the request should be sent
+     */
+    private void addParticipant(long intended) {
+        long eventId = randomEvent();
+        long n = sequence.incrementAndGet();
+        ObjectNode participant = MAPPER.createObjectNode()
+                .put("username", "load" + n)
+                .put("firstName", "Load")
+                .put("lastName", "Tester " + n)
+                .put("email", "load" + n + "@example.com")
+                .put("languageChoice", "en");
+        participant.putArray("eventIds").add(eventId);
+        send(addParticipant, intended, post("/api/events/" + eventId + "/participants", participant),
+                body -> participantIds.get(eventId).add(read(body).get("id").asLong()));
+    }
+
+    /**
+     * adds an expense, paid by a random participant, to a random event that has participants
+     * @param intended the time the request should be sent
+     */
+    private void addExpense(long intended) {
+        long eventId = randomEvent();
+        List<Long> payers = participantIds.get(eventId);
+        String token = "load-" + sequence.incrementAndGet();
+        ObjectNode expense = MAPPER.createObjectNode()
+                .put("category", "food")
+                .put("amount", 1 + ThreadLocalRandom.current().nextInt(10000) / 100.0)
+                .put("currency", "EUR")
+                .put("date", "2024-03-15")
+                .put("expenseType", token)
+                .put("eventId", eventId);
+        expense.putObject("participant").put("id", payers.get(ThreadLocalRandom.current().nextInt(payers.size())));
+        expense.putArray("splittingOption");
+        // the expense type identifies the expense when the subscribers receive it
+        expenseSentAt.put(token, intended);
+        send(addExpense, intended, post("/api/events/" + eventId + "/expenses", expense), null);
+    }
+
+    /**
+     * reads the statistics of a random event
+     * @param intended the time the request should be sent
+     */
+    private void getStats(long intended) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/events/" + randomEvent() + "/stats"))
+                .header("Accept", JSON)
+                .GET()
+                .build();
+        send(getStats, intended, request, null);
+    }
+
+    /**
+     * sends a request without waiting for the response
+     * @param recorder records the latency
+     * @param intended the time the request should have been sent
+     * @param request the request
+     * @param onSuccess gets the body of a successful response, may be null
+     */
+    private void send(LatencyRecorder recorder, long intended, HttpRequest request, Consumer<String> onSuccess) {
+        inFlight.incrementAndGet();
+        http.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, error) -> {
+            long latency = System.nanoTime() - intended;
+            boolean ok = error == null && response.statusCode() / 100 == 2;
+            if (intended >= measureFrom) {
+                if (ok) {
+                    recorder.record(latency);
+                } else {
+                    recorder.error();
+                }
+            }
+            if (ok && onSuccess != null) {
+                onSuccess.accept(response.body());
+            }
+            inFlight.decrementAndGet();
+        });
+    }
+
+    /**
+     * waits for the next participant of a random event, and polls again when the poll completes.
+     * The server answers 204 when no participant was added within its timeout
+     */
+    private void poll() {
+        if (!polling) {
+            return;
+        }
+        HttpRequest request = HttpRequest.newBuilder(
+                        URI.create(baseUrl + "/api/events/" + randomEvent() + "/participants/updates"))
+                .header("Accept", JSON)
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+        long sent = System.nanoTime();
+        pollHttp.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+            if (sent >= measureFrom && polling) {
+                if (error == null && (response.statusCode() == 200 || response.statusCode() == 204)) {
+                    longPoll.record(System.nanoTime() - sent);
+                } else {
+                    longPoll.error();
+                }
+            }
+            poll();
+        });
+    }
+
+    /**
+     * keeps the largest heap and number of platform threads the server reported. Virtual threads are
+     * not in the thread count, with them the count stays flat while the clients wait
+     */
+    private void sampleServer() {
+        serverHeapMax.accumulateAndGet(serverMetric("jvm.memory.used?tag=area:heap"), Math::max);
+        serverThreadsMax.accumulateAndGet(serverMetric("jvm.threads.live"), Math::max);
+    }
+
+    /**
+     * reads a metric from the actuator of the server
+     * @param metric the name of the metric with its tags
+     * @return the value of the metric, 0 if the server does not expose it
+     */
+    private long serverMetric(String metric) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/metrics/" + metric))
+                .header("Accept", JSON)
+                .GET()
+                .build();
+        try {
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                return 0;
+            }
+            return read(response.body()).path("measurements").path(0).path("value").asLong();
+        } catch (IOException e) {
+            return 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+    }
+
+    /**
+     * opens the STOMP connections
+     * @throws Exception if the server can not be reached
+     */
+    private void connectStomp() throws Exception {
+        WebSocketStompClient stomp = new WebSocketStompClient(new StandardWebSocketClient());
+        stomp.setMessageConverter(new MappingJackson2MessageConverter());
+        String url = baseUrl.replaceFirst("^http", "ws") + "/websocket";
+        for (int i = 0; i < stompClients; i++) {
+            stompSessions.add(stomp.connectAsync(url, new StompSessionHandlerAdapter() {}).get(10, TimeUnit.SECONDS));
+        }
+    }
+
+    /**
+     * remembers a new event, gives it a first participant so expenses can be added,
+     * and subscribes to its expenses
+     * @param body the created event
+     */
+    private void eventCreated(String body) {
+        long eventId = read(body).get("id").asLong();
+        participantIds.put(eventId, new CopyOnWriteArrayList<>());
+        ObjectNode participant = MAPPER.createObjectNode().put("firstName", "First").put("lastName", "Payer");
+        participant.putArray("eventIds").add(eventId);
+        try {
+            HttpResponse<String> response = http.send(post("/api/events/" + eventId + "/participants", participant),
+                    HttpResponse.BodyHandlers.ofString());
+            participantIds.get(eventId).add(read(response.body()).get("id").asLong());
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not add a participant to event " + eventId, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        for (int i = 0; i < subscriptionsPerEvent; i++) {
+            StompSession session = stompSessions.get(Math.floorMod(nextSession.getAndIncrement(), stompClients));
+            session.subscribe(EventTopics.of(eventId, EventTopics.EXPENSES), new StompFrameHandler() {
+                @Override
+                public Type getPayloadType(StompHeaders headers) {
+                    return JsonNode.class;
+                }
+
+                @Override
+                public void handleFrame(StompHeaders headers, Object payload) {
+                    expenseReceived((JsonNode) payload);
+                }
+            });
+        }
+        eventIds.add(eventId);
+    }
+
+    /**
+     * records how long an expense took from the time it should have been sent until a subscriber got it
+     * @param expense the expense that was published
+     */
+    private void expenseReceived(JsonNode expense) {
+        Long sentAt = expenseSentAt.get(expense.path("expenseType").asText());
+        if (sentAt != null && sentAt >= measureFrom) {
+            expenseDelivery.record(System.nanoTime() - sentAt);
+        }
+    }
+
+    /**
+     * prints the results and writes them as JSON
+     * @throws IOException if the results can not be written
+     */
+    private void report() throws IOException {
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (LatencyRecorder recorder : List.of(createEvent, addParticipant, addExpense, getStats, expenseDelivery)) {
+            results.add(recorder.summary(durationSeconds));
+        }
+        if (longPollClients > 0) {
+            results.add(longPoll.summary(durationSeconds));
+        }
+
+        System.out.printf("%n%-16s %9s %7s %9s %9s %9s %9s %9s%n",
+                "operation", "requests", "errors", "per sec", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (Map<String, Object> result : results) {
+            System.out.printf("%-16s %9d %7d %9.1f %9.3f %9.3f %9.3f %9.3f%n", result.get("operation"),
+                    result.get("requests"), result.get("errors"), result.get("throughput"), result.get("p50Ms"),
+                    result.get("p99Ms"), result.get("p999Ms"), result.get("maxMs"));
+        }
+        Map<String, Object> server = new LinkedHashMap<>();
+        server.put("heapMaxMb", serverHeapMax.get() / (1024 * 1024));
+        server.put("platformThreadsMax", serverThreadsMax.get());
+        // in-process the heap also holds the load generator, set load.target to measure the server alone
+        System.out.printf("%nserver heap max %d MB, platform threads max %d%n",
+                server.get("heapMaxMb"), server.get("platformThreadsMax"));
+
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("target", target.isEmpty() ? "in-process" : target);
+        settings.put("warmupSeconds", warmupSeconds);
+        settings.put("durationSeconds", durationSeconds);
+        settings.put("events", events);
+        settings.put("createRate", createRate);
+        settings.put("participantRate", participantRate);
+        settings.put("expenseRate", expenseRate);
+        settings.put("statsRate", statsRate);
+        settings.put("stompClients", stompClients);
+        settings.put("subscriptionsPerEvent", subscriptionsPerEvent);
+        settings.put("longPollClients", longPollClients);
+        settings.put("virtualThreads", target.isEmpty() ? String.valueOf(virtualThreads) : "set by the target");
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("settings", settings);
+        report.put("results", results);
+        report.put("server", server);
+
+        File file = new File(resultsDirectory, "results-"
+                + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+        file.getParentFile().mkdirs();
+        MAPPER.writerWithDefaultPrettyPrinter().writeValue(file, report);
+        System.out.println("\nResults written to " + file.getAbsolutePath());
+    }
+
+    /**
+     * builds the request that creates an event
+     * @return the request
+     */
+    private HttpRequest createEventRequest() {
+        return post("/api/events", MAPPER.createObjectNode().put("title", "Load test " + sequence.incrementAndGet()));
+    }
+
+    /**
+     * builds a POST request with a JSON body
+     * @param path the path on the server
+     * @param body the body
+     * @return the request
+     */
+    private HttpRequest post(String path, JsonNode body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", JSON)
+                .header("Accept", JSON)
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+    }
+
+    /**
+     * picks a random event
+     * @return the id of the event
+     */
+    private long randomEvent() {
+        return eventIds.get(ThreadLocalRandom.current().nextInt(eventIds.size()));
+    }
+
+    /**
+     * parses a response
+     * @param body the JSON
+     * @return the parsed JSON
+     */
+    private static JsonNode read(String body) {
+        try {
+            return MAPPER.readTree(body);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unexpected response: " + body, e);
+        }
+    }
+
+    /**
+     * reads a rate in requests per second
+     * @param property the name of the system property
+     * @param defaultRate the rate if the property is not set
+     * @return the rate, 0 disables the operation
+     */
+    private static double rate(String property, double defaultRate) {
+        double rate = Double.parseDouble(System.getProperty(property, String.valueOf(defaultRate)));
+        if (rate < 0) {
+            throw new IllegalArgumentException(property + " must not be negative");
+        }
+        return rate;
+    }
+}
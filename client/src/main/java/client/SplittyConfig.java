@@ -9,6 +9,13 @@ import java.util.Properties;
 public class SplittyConfig {
     private String splittyServerUrl;
     private String splittyWebsocketUrl;
+    private int httpMaxConnections = 20;
+    private int httpConnectTimeoutMs = 5000;
+    private int httpReadTimeoutMs = 30000;
+    private int httpAsyncThreads = 4;
+    private int cacheMaxEvents = 20;
+    private int cacheMaxAgeSeconds = 300;
+    private int offlineRetrySeconds = 5;
 
     /**
      * Loads the config and the server/websocket URL
@@ -25,12 +32,24 @@ public class SplittyConfig {
             properties.load(fis);
             splittyServerUrl = properties.getProperty("splitty.server.url").trim();
             splittyWebsocketUrl = properties.getProperty("splitty.websocket.url").trim();
+            httpMaxConnections = intProperty(properties, "splitty.http.max-connections", httpMaxConnections);
+            httpConnectTimeoutMs = intProperty(properties, "splitty.http.connect-timeout-ms", httpConnectTimeoutMs);
+            httpReadTimeoutMs = intProperty(properties, "splitty.http.read-timeout-ms", httpReadTimeoutMs);
+            httpAsyncThreads = intProperty(properties, "splitty.http.async-threads", httpAsyncThreads);
+            cacheMaxEvents = intProperty(properties, "splitty.cache.max-events", cacheMaxEvents);
+            cacheMaxAgeSeconds = intProperty(properties, "splitty.cache.max-age-seconds", cacheMaxAgeSeconds);
+            offlineRetrySeconds = intProperty(properties, "splitty.offline.retry-seconds", offlineRetrySeconds);
         } catch (IOException e) {
             AlertUtils.showErrorAlert("Server Error", "File not Fonund",
                     "Cannot Find application.properties please check the file in the root of the project");
         }
     }
 
+    private static int intProperty(Properties properties, String key, int defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null || value.isBlank() ? defaultValue : Integer.parseInt(value.trim());
+    }
+
     private void generateWebsocketUrl() {
         if (splittyWebsocketUrl == null || splittyWebsocketUrl.isEmpty()) {
             String wsScheme = splittyServerUrl.startsWith("https") ? "wss://" : "ws://";
@@ -56,4 +75,60 @@ public class SplittyConfig {
     public String getSplittyWebsocketUrl(){
         return splittyWebsocketUrl;
     }
+
+    /**
+     * the number of connections that are kept open to the server
+     * @return the maximum number of pooled HTTP connections
+     */
+    public int getHttpMaxConnections() {
+        return httpMaxConnections;
+    }
+
+    /**
+     * how long opening a connection to the server may take
+     * @return the connect timeout in milliseconds
+     */
+    public int getHttpConnectTimeoutMs() {
+        return httpConnectTimeoutMs;
+    }
+
+    /**
+     * how long the server may take to answer a request
+     * @return the read timeout in milliseconds
+     */
+    public int getHttpReadTimeoutMs() {
+        return httpReadTimeoutMs;
+    }
+
+    /**
+     * the number of threads that send the asynchronous requests
+     * @return the number of threads
+     */
+    public int getHttpAsyncThreads() {
+        return httpAsyncThreads;
+    }
+
+    /**
+     * how many events the client keeps in its cache
+     * @return the maximum number of cached events
+     */
+    public int getCacheMaxEvents() {
+        return cacheMaxEvents;
+    }
+
+    /**
+     * how long an event stays in the cache before it is downloaded again
+     * @return the maximum age in seconds
+     */
+    public int getCacheMaxAgeSeconds() {
+        return cacheMaxAgeSeconds;
+    }
+
+    /**
+     * how often the changes made while the server could not be reached are sent again
+     * @return the time between two tries in seconds
+     */
+    public int getOfflineRetrySeconds() {
+        return offlineRetrySeconds;
+    }
 }
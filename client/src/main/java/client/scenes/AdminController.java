@@ -2,13 +2,11 @@ package client.scenes;
 
 import client.utils.*;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.google.inject.Inject;
 import commons.Event;
-import commons.Expense;
-import commons.Participant;
+import commons.EventSummary;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 import javafx.collections.FXCollections;
@@ -27,7 +25,6 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 import java.util.Locale;
 import java.util.ResourceBundle;
 
@@ -48,16 +45,16 @@ public class AdminController implements LanguageChangeListener {
     @FXML
     private Button deleteAllButton;
     @FXML
-    private TableView<Event> eventsTable;
+    private TableView<EventSummary> eventsTable;
     @FXML
-    private TableColumn<Event, String> titleColumn;
+    private TableColumn<EventSummary, String> titleColumn;
     @FXML
-    private TableColumn<Event, String> creationDateColumn;
+    private TableColumn<EventSummary, String> creationDateColumn;
     @FXML
-    private TableColumn<Event, String> lastActivityColumn;
+    private TableColumn<EventSummary, String> lastActivityColumn;
     @FXML
-    private TableColumn<Event, Void> actionsColumn;
-    private ObservableList<Event> eventData = FXCollections.observableArrayList();
+    private TableColumn<EventSummary, Void> actionsColumn;
+    private ObservableList<EventSummary> eventData = FXCollections.observableArrayList();
     private DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
     private DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd/MM/yy");
     private StringProperty deleteButtonText = new SimpleStringProperty();
@@ -158,18 +155,18 @@ public class AdminController implements LanguageChangeListener {
     }
 
     /**
-     * fetches all events and puts them in the table
+     * fetches all events and puts them in the table, page by page
      */
     public void fetchAndPopulateEvents() {
-        new Thread(() -> {
-            List<Event> events = ServerUtils.getAllEvents();
-            Platform.runLater(() -> {
-                eventData.removeAll();
-                eventsTable.getItems().clear();
-                eventData.addAll(events);
-                eventsTable.setItems(eventData);
-            });
-        }).start();
+        eventData.clear();
+        eventsTable.setItems(eventData);
+        ServerUtils.getEventSummariesAsync(page -> Platform.runLater(() -> eventData.addAll(page)))
+                .exceptionally(failure -> {
+                    // the table would look complete with only the pages that arrived
+                    Platform.runLater(() -> AlertUtils.showErrorAlert(resourceBundle.getString("error"),
+                            resourceBundle.getString("failedToLoad"), failure.getMessage()));
+                    return null;
+                });
     }
 
     private void setupActionsColumn() {
@@ -189,12 +186,12 @@ public class AdminController implements LanguageChangeListener {
                 container.setPadding(new Insets(5, 0, 5, 0));
 
                 deleteButton.setOnAction(event -> {
-                    Event eventData = getTableView().getItems().get(getIndex());
+                    EventSummary eventData = getTableView().getItems().get(getIndex());
                     deleteEvent(eventData);
                 });
                 exportButton.setOnAction(event -> {
-                    Event eventData = getTableView().getItems().get(getIndex());
-                    exportEvent(eventData);
+                    EventSummary eventData = getTableView().getItems().get(getIndex());
+                    exportEvent(eventData.getId());
                 });
             }
 
@@ -217,7 +214,7 @@ public class AdminController implements LanguageChangeListener {
      * @param event button press
      */
     @FXML
-    private void deleteEvent(Event event) {
+    private void deleteEvent(EventSummary event) {
         boolean userConfirmed = AlertUtils.showConfirmationAlert(resourceBundle.getString("confirmDeletion"),
                 resourceBundle.getString("confirmDeleteEvent"));
 
@@ -225,33 +222,48 @@ public class AdminController implements LanguageChangeListener {
             return;
         }
 
-        new Thread(() -> {
-            boolean success = ServerUtils.deleteEvent(event.getId());
-            Platform.runLater(() -> {
-                if (success) {
-                    eventData.remove(event);
-                    eventsTable.setItems(eventData);
-                    AlertUtils.showInformationAlert(resourceBundle.getString("success"),
-                            resourceBundle.getString("eventDeleted"),
-                            resourceBundle.getString("eventDeletedSuccess"));
+        ServerUtils.deleteEventAsync(event.getId()).thenAccept(success -> Platform.runLater(() -> {
+            if (success) {
+                eventData.remove(event);
+                eventsTable.setItems(eventData);
+                AlertUtils.showInformationAlert(resourceBundle.getString("success"),
+                        resourceBundle.getString("eventDeleted"),
+                        resourceBundle.getString("eventDeletedSuccess"));
 
-                } else {
-                    AlertUtils.showErrorAlert(resourceBundle.getString("error"),
-                            resourceBundle.getString("deletionFailed"),
-                            resourceBundle.getString("eventDeleteFail"));
+            } else {
+                AlertUtils.showErrorAlert(resourceBundle.getString("error"),
+                        resourceBundle.getString("deletionFailed"),
+                        resourceBundle.getString("eventDeleteFail"));
 
-                }
-            });
-        }).start();
+            }
+        }));
     }
 
 
     /**
-     * method that exports given event as json
-     * @param event event tied to the button
+     * method that exports given event as json, the full event is fetched from the server
+     * since the table only holds the summaries
+     * @param eventId id of the event tied to the button
      */
     @FXML
-    public void exportEvent(Event event) {
+    public void exportEvent(long eventId) {
+        // the event is downloaded on a request thread, it is saved on the UI thread
+        ServerUtils.getEventByIdAsync(eventId).whenComplete((event, failure) -> Platform.runLater(() -> {
+            if (failure != null || event == null) {
+                AlertUtils.showErrorAlert(resourceBundle.getString("error"),
+                        resourceBundle.getString("exportFailed"),
+                        resourceBundle.getString("failedExportEvent") + eventId);
+            } else {
+                saveEvent(event);
+            }
+        }));
+    }
+
+    /**
+     * saves an event as json in the folder of the exports
+     * @param event the full event
+     */
+    private void saveEvent(Event event) {
         ObjectMapper objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule());
         objectMapper.enable(SerializationFeature.INDENT_OUTPUT); // Pretty print
@@ -285,34 +297,31 @@ public class AdminController implements LanguageChangeListener {
     }
 
     /**
-     * method that exports given event as json
+     * method that exports all events as a compressed file with one event per line,
+     * which is streamed from the server to the disk
      */
     @FXML
     public void exportAllEvents() {
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new JavaTimeModule());
-        objectMapper.enable(SerializationFeature.INDENT_OUTPUT);
-        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-        objectMapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
-
         String folderName = "splitty_files";
         File outputFolder = new File(System.getProperty("user.home") + File.separator + folderName);
         if (!outputFolder.exists()) {
             outputFolder.mkdirs();
         }
 
-        File outputFile = new File(System.getProperty("user.home")
-                + File.separator + folderName + File.separator + "AllEvents.json");
+        File outputFile = new File(outputFolder, "AllEvents.ndjson.gz");
 
-        try {
-            objectMapper.writeValue(outputFile, eventData);
-            AlertUtils.showInformationAlert(resourceBundle.getString("allEventsExported"),
-                    resourceBundle.getString("exportedTo"), outputFile.getAbsolutePath());
-        } catch (IOException e) {
-            AlertUtils.showErrorAlert(resourceBundle.getString("error"),
-                    resourceBundle.getString("exportFailedAll"),
-                    resourceBundle.getString("failedExportAllEvents") + e.getMessage());
-        }
+        // the export is downloaded on a request thread, the alert is shown once it is saved
+        ServerUtils.exportEventsAsync(outputFile).whenComplete((done, failure) -> Platform.runLater(() -> {
+            if (failure == null) {
+                AlertUtils.showInformationAlert(resourceBundle.getString("allEventsExported"),
+                        resourceBundle.getString("exportedTo"), outputFile.getAbsolutePath());
+            } else {
+                Throwable cause = failure.getCause() != null ? failure.getCause() : failure;
+                AlertUtils.showErrorAlert(resourceBundle.getString("error"),
+                        resourceBundle.getString("exportFailedAll"),
+                        resourceBundle.getString("failedExportAllEvents") + cause.getMessage());
+            }
+        }));
     }
 
     /**
@@ -321,11 +330,6 @@ public class AdminController implements LanguageChangeListener {
      */
     @FXML
     public void importEvent() {
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new JavaTimeModule());
-        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-        objectMapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
-
         final Stage dialog = new Stage();
         dialog.initModality(Modality.APPLICATION_MODAL);
         VBox dialogVbox = new VBox(20);
@@ -355,28 +359,25 @@ public class AdminController implements LanguageChangeListener {
                 return;
             }
 
-            try {
-                List<Event> importedEvents = objectMapper.readValue(file, new TypeReference<>() {});
-                importedEvents.forEach(this::addImportedEvent);
-                dialog.close();
-                AlertUtils.showInformationAlert(resourceBundle.getString("success"),
-                        resourceBundle.getString("eventsImportedAdded"),
-                        resourceBundle.getString("eventsSuccessfullyImportedAdded"));
-            } catch (IOException ex) {
-                // If reading as a list fails, try reading as a single event
-                try {
-                    Event importedEvent = objectMapper.readValue(file, Event.class);
-                    addImportedEvent(importedEvent);
-                    dialog.close();
-                    AlertUtils.showInformationAlert(resourceBundle.getString("success"),
-                            resourceBundle.getString("eventImportedAdded"),
-                            resourceBundle.getString("eventSuccessfullyImportedAdded"));
-                } catch (Exception nestedEx) {
+            // the file is uploaded on a request thread, the dialog waits without blocking the scene
+            button.setDisable(true);
+            ServerUtils.importEventsAsync(file).whenComplete((imported, failure) -> Platform.runLater(() -> {
+                button.setDisable(false);
+                if (failure != null) {
                     AlertUtils.showErrorAlert(resourceBundle.getString("error"),
                             resourceBundle.getString("importFailed"),
                             resourceBundle.getString("failedImportEvents"));
+                    return;
                 }
-            }
+                eventData.addAll(imported);
+                eventsTable.setItems(eventData);
+                dialog.close();
+                boolean single = imported.size() == 1;
+                AlertUtils.showInformationAlert(resourceBundle.getString("success"),
+                        resourceBundle.getString(single ? "eventImportedAdded" : "eventsImportedAdded"),
+                        resourceBundle.getString(single ? "eventSuccessfullyImportedAdded"
+                                : "eventsSuccessfullyImportedAdded"));
+            }));
         });
 
         dialogVbox.getChildren().add(button);
@@ -386,38 +387,6 @@ public class AdminController implements LanguageChangeListener {
         dialog.show();
     }
 
-    private void addImportedEvent(Event importedEvent) {
-        try {
-            Event addedEvent = ServerUtils.addEvent(importedEvent);
-            if (addedEvent != null) {
-                long newEventId = addedEvent.getId();
-
-                for (Participant participant : addedEvent.getPeople()) {
-                    participant.getEventIds().removeIf(id -> id == importedEvent.getId());
-                    participant.getEventIds().add(newEventId);
-                    ServerUtils.updateParticipant(newEventId, participant.getId(), participant);
-                }
-
-                for (Expense expense : addedEvent.getExpenses()) {
-                    expense.setEventId(newEventId);
-                    ServerUtils.updateExpense(expense.getId(), expense, newEventId);
-                }
-
-                Platform.runLater(() -> {
-                    eventData.add(addedEvent);
-                    eventsTable.setItems(eventData);
-                });
-            } else {
-                AlertUtils.showErrorAlert(resourceBundle.getString("error"),
-                        resourceBundle.getString("addEventFailed"),
-                        resourceBundle.getString("eventImportedNotAdded"));
-            }
-        } catch (Exception e) {
-            throw new RuntimeException("Event could not be added: " + e.getMessage(), e);
-        }
-    }
-
-
     /**
      * Goes back to the login page
      */
@@ -439,22 +408,19 @@ public class AdminController implements LanguageChangeListener {
             return;
         }
 
-        new Thread(() -> {
-            boolean success = ServerUtils.deleteAllEvents();
-            Platform.runLater(() -> {
-                if (success) {
-                    eventData.clear();
-                    eventsTable.setItems(eventData);
-                    AlertUtils.showInformationAlert(resourceBundle.getString("success"),
-                            resourceBundle.getString("allEventsDeleted"),
-                            resourceBundle.getString("allEventsSuccessfullyDeleted"));
-                } else {
-                    AlertUtils.showErrorAlert(resourceBundle.getString("error"),
-                            resourceBundle.getString("deletionFailed"),
-                            resourceBundle.getString("failedDeleteAllEvents"));
-                }
-            });
-        }).start();
+        ServerUtils.deleteAllEventsAsync().thenAccept(success -> Platform.runLater(() -> {
+            if (success) {
+                eventData.clear();
+                eventsTable.setItems(eventData);
+                AlertUtils.showInformationAlert(resourceBundle.getString("success"),
+                        resourceBundle.getString("allEventsDeleted"),
+                        resourceBundle.getString("allEventsSuccessfullyDeleted"));
+            } else {
+                AlertUtils.showErrorAlert(resourceBundle.getString("error"),
+                        resourceBundle.getString("deletionFailed"),
+                        resourceBundle.getString("failedDeleteAllEvents"));
+            }
+        }));
     }
 
 }
@@ -6,10 +6,11 @@ import client.Language;
 import client.utils.AlertUtils;
 import client.utils.LanguageUtils;
 import client.utils.ServerUtils;
+import client.utils.UpdateChannel;
 import com.google.inject.Inject;
 import commons.Event;
+import commons.EventTopics;
 import commons.Participant;
-import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
@@ -27,6 +28,7 @@ import static client.utils.AnimationUtil.animateText;
 
 public class EventOverviewController implements LanguageChangeListener {
     private ServerUtils server;
+    private final List<UpdateChannel.Subscription> subscriptions = new ArrayList<>();
     private MainController mainController;
     private Event event;
     private ResourceBundle resourceBundle;
@@ -187,19 +189,11 @@ public class EventOverviewController implements LanguageChangeListener {
      */
     public void setEvent(Event event) {
         this.event = event;
-//        ServerUtils.registerForUpdates(event.getId(), participant -> {
-//            Platform.runLater(() -> {
-//                updateParticipant(participant);
-//            });
-//        });
-
-
-        server.registerForEventUpdates("/topic/eventTitle", event.getId(), null, event1 -> {
-            Platform.runLater(() -> {
-                this.event = event1;
-                titleLabel.setText(this.event.getTitle());
-            });
-        });
+        ServerUtils.unsubscribe(subscriptions);
+        subscriptions.add(server.registerForEventUpdates(event.getId(), event1 -> {
+            this.event = event1;
+            titleLabel.setText(this.event.getTitle());
+        }));
 
         titleLabel.setText(event.getTitle());
         titleLabel.setOnMouseClicked(click -> editTitle());
@@ -216,12 +210,12 @@ public class EventOverviewController implements LanguageChangeListener {
         animateEventTitle();
 
 
-        server.registerForMessages("/topic/participantDeletion", event.getId(), null, p -> {
-            Platform.runLater(() -> {
-                removeParticipant(p.getId());
-
-            });
-        });
+        subscriptions.add(server.registerForMessages(event.getId(), EventTopics.PARTICIPANT_DELETION,
+                deleted -> deleted.forEach(p -> removeParticipant(p.getId()))));
+        // keeps the cached expenses of the open event up to date, the expense scenes read them from the cache
+        for (String topic : List.of(EventTopics.EXPENSE_UPDATES, EventTopics.EXPENSE_DELETION)) {
+            subscriptions.add(server.registerForExpenseChanges(event.getId(), topic, changed -> { }));
+        }
     }
 
     /**
@@ -300,13 +294,8 @@ public class EventOverviewController implements LanguageChangeListener {
         Optional<String> result = dialog.showAndWait();
         result.ifPresent(newTitle -> {
             titleLabel.setText(newTitle); // Update UI immediately
+            // the server sends the new title to the other clients that have this event open
             server.updateEventTitle(event.getId(), newTitle); // Send request to server
-
-            Map<String, Object> payload = new HashMap<>();
-            payload.put("eventId", event.getId());
-            payload.put("newTitle", newTitle);
-
-            server.send("/app/eventTitle", payload);
             event.setTitle(newTitle); // Update local event object
         });
     }
@@ -4,11 +4,12 @@ import client.utils.LanguageChangeListener;
 import client.utils.LanguageUtils;
 import client.utils.ServerUtils;
 import client.utils.TagUtils;
+import client.utils.UpdateChannel;
 import com.google.inject.Inject;
 import commons.Event;
+import commons.EventTopics;
 import commons.Expense;
 import commons.Participant;
-import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
@@ -28,6 +29,7 @@ public class ExpenseOverviewController implements LanguageChangeListener {
     @FXML
     private Button statisticsButton;
     private ServerUtils server;
+    private final List<UpdateChannel.Subscription> subscriptions = new ArrayList<>();
     private MainController mainController;
     private Stage primaryStage;
     private Event event;
@@ -48,16 +50,22 @@ public class ExpenseOverviewController implements LanguageChangeListener {
         this.server = server;
         this.mainController = mainController;
         this.event = event;
-        server.registerForExpenses("/topic/expense", event.getId(), this::addExpenseToUI);
     }
 
-    private void addExpenseToUI(Expense expense) {
-        if (expense.getEventId() == this.event.getId()) {
-            Platform.runLater(() -> {
-                String expenseDisplay = formatExpenseForDisplay(expense, expensesListView.getItems().size() + 1);
-                expensesListView.getItems().add(expenseDisplay);
-                updateSumOfExpenses(expense.getAmount());
-            });
+    private void addExpensesToUI(List<Expense> expenses) {
+        List<String> displays = new ArrayList<>();
+        double amount = 0;
+        for (Expense expense : expenses) {
+            if (expense.getEventId() == this.event.getId()) {
+                int expenseNumber = expensesListView.getItems().size() + displays.size() + 1;
+                displays.add(formatExpenseForDisplay(expense, expenseNumber));
+                amount += expense.getAmount();
+            }
+        }
+        if (!displays.isEmpty()) {
+            // one change of the list, so the list view is laid out once for the whole batch
+            expensesListView.getItems().addAll(displays);
+            updateSumOfExpenses(amount);
         }
     }
 
@@ -91,6 +99,13 @@ public class ExpenseOverviewController implements LanguageChangeListener {
      */
     public void setEvent(Event event) {
         this.event = event;
+        ServerUtils.unsubscribe(subscriptions);
+        subscriptions.add(server.registerForExpenses(event.getId(), this::addExpensesToUI));
+        // a changed or deleted expense is somewhere in the list, so the list is built again from the cache
+        for (String topic : List.of(EventTopics.EXPENSE_UPDATES, EventTopics.EXPENSE_DELETION)) {
+            subscriptions.add(server.registerForExpenseChanges(event.getId(), topic,
+                    changed -> initializeExpensesForEvent(this.event)));
+        }
     }
 
     /**
@@ -194,7 +209,7 @@ public class ExpenseOverviewController implements LanguageChangeListener {
      */
     public void initializeExpensesForEvent(Event event) {
         try {
-            List<Expense> expenses = ServerUtils.getExpensesForEvent(event.getId());
+            List<Expense> expenses = ServerUtils.getCache().getExpenses(event.getId());
             expensesListView.getItems().clear(); // Clear existing items
             double sumOfExpenses = 0;
             for (int i=0;i<expenses.size();i++) {
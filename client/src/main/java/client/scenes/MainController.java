@@ -1,9 +1,12 @@
 package client.scenes;
 
+import client.utils.AlertUtils;
 import client.utils.KeyboardUtils;
 import client.utils.LanguageUtils;
+import client.utils.ServerUtils;
 import commons.Event;
 import commons.Participant;
+import javafx.application.Platform;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.input.KeyCode;
@@ -15,6 +18,7 @@ import javafx.util.Pair;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.ResourceBundle;
 import java.util.prefs.Preferences;
 
 /**
@@ -118,6 +122,18 @@ public class MainController {
         this.statsController = (StatsCtrl) groupedPairs.get("statsPage").getKey();
 
         // Setup all keyboard shortcuts
+        addKeyboardShortcuts();
+        showOfflineConflicts();
+
+        // Show initial scene
+        showLoginPage();
+        primaryStage.show();
+    }
+
+    /**
+     * adds the keyboard shortcuts of every scene
+     */
+    private void addKeyboardShortcuts() {
         KeyboardUtils.addKeyboardShortcuts(startScene,
                 startPageController::logout,
                 new Pair<>(createEventCombination, startPageController::createEvent),
@@ -176,10 +192,17 @@ public class MainController {
         KeyboardUtils.addKeyboardShortcuts(statisticsScene,
                 statsController::switchToExpenseOverviewScene
         );
+    }
 
-        // Show initial scene
-        showLoginPage();
-        primaryStage.show();
+    /**
+     * tells the user when a change made offline could not be sent, because someone else changed the expense
+     */
+    private void showOfflineConflicts() {
+        ServerUtils.getOfflineSync().setConflictListener(entry -> Platform.runLater(() -> {
+            ResourceBundle bundle = ResourceBundle.getBundle("message", getStoredLanguagePreferenceOrDefault());
+            AlertUtils.showErrorAlert(bundle.getString("offlineConflictTitle"),
+                    bundle.getString("offlineConflictHeader"), bundle.getString("offlineConflictContent"));
+        }));
     }
 
     /**
@@ -350,7 +373,7 @@ public class MainController {
      * @return updated participant list
      */
     public List<Participant> getUpdatedParticipantList(Event event) {
-        return tableOfParticipantsController.getUpdatedParticipant(event);
+        return ServerUtils.getCache().getParticipants(event.getId());
     }
 
 
@@ -6,6 +6,7 @@ import client.utils.undoable.EditExpenseCommand;
 import client.utils.undoable.UndoManager;
 import com.google.inject.Inject;
 import commons.Event;
+import commons.EventTopics;
 import commons.Expense;
 import javafx.application.Platform;
 import javafx.event.ActionEvent;
@@ -35,6 +36,7 @@ public class ParticipantExpenseViewController implements LanguageChangeListener
     @FXML
     private Button undoButton;
     private final ServerUtils server;
+    private final List<UpdateChannel.Subscription> subscriptions = new ArrayList<>();
     private final MainController mainController;
     private final Stage primaryStage;
     private Event event;
@@ -63,24 +65,24 @@ public class ParticipantExpenseViewController implements LanguageChangeListener
         this.mainController = mainController;
         this.event = event;
         this.undoManager = undoManager;
-        server.registerForExpenses("/topic/expense", event.getId(), this::addExpenseToUI);
-
     }
-    private void addExpenseToUI(Expense expense) {
-        Platform.runLater(() -> {
-            if (!expensesListView.getItems().isEmpty() && expensesListView.getItems()
-                    .get(0).equals(resourceBundle.getString("noExpensesRecorded"))) {
-                expensesListView.getItems().clear();
-            }
-            updateExpenseListView(expense);
-            updateSumOfExpenses(expense.getAmount());
-        });
+    private void addExpensesToUI(List<Expense> expenses) {
+        if (!expensesListView.getItems().isEmpty() && expensesListView.getItems()
+                .get(0).equals(resourceBundle.getString("noExpensesRecorded"))) {
+            expensesListView.getItems().clear();
+        }
+        updateExpenseListView(expenses);
+        updateSumOfExpenses(expenses.stream().mapToDouble(Expense::getAmount).sum());
     }
 
 
-    private void updateExpenseListView(Expense expense) {
-        String expenseDisplay = formatExpenseForDisplay(expense);
-        expensesListView.getItems().add(expenseDisplay);
+    private void updateExpenseListView(List<Expense> expenses) {
+        List<String> expenseDisplays = new ArrayList<>();
+        for (Expense expense : expenses) {
+            expenseDisplays.add(formatExpenseForDisplay(expense));
+        }
+        expensesListView.getItems().addAll(expenseDisplays);
+        Expense expense = expenses.get(expenses.size() - 1);
         expensesListView.setCellFactory(listView -> new ListCell<>() {
             @Override
             protected void updateItem(String item, boolean empty) {
@@ -139,6 +141,12 @@ public class ParticipantExpenseViewController implements LanguageChangeListener
     public void setEvent(Event event, long participantId) {
         this.event = event;
         this.selectedParticipantId = participantId;
+        ServerUtils.unsubscribe(subscriptions);
+        subscriptions.add(server.registerForExpenses(event.getId(), this::addExpensesToUI));
+        for (String topic : List.of(EventTopics.EXPENSE_UPDATES, EventTopics.EXPENSE_DELETION)) {
+            subscriptions.add(server.registerForExpenseChanges(event.getId(), topic,
+                    changed -> initializeExpensesForParticipant(selectedParticipantId)));
+        }
         initializeExpensesForParticipant(participantId);
     }
 
@@ -198,7 +206,7 @@ public class ParticipantExpenseViewController implements LanguageChangeListener
      * @param participantId Long
      */
     public void initializeExpensesForParticipant(Long participantId) {
-        List<Expense> expenses = ServerUtils.getExpensesForParticipant(participantId);
+        List<Expense> expenses = expensesPaidBy(participantId);
 
         expensesListView.getItems().clear();
         if (expenses.isEmpty()) {
@@ -242,8 +250,20 @@ public class ParticipantExpenseViewController implements LanguageChangeListener
         });
     }
 
+    /**
+     * the expenses the participant paid, from the cache of the event
+     * @param participantId the id of the participant
+     * @return the expenses, empty before an event is set
+     */
+    private List<Expense> expensesPaidBy(long participantId) {
+        if (event == null) {
+            return List.of();
+        }
+        return ServerUtils.getCache().getExpensesPaidBy(event.getId(), participantId);
+    }
+
     private Expense getExpenseFromListView(int index, long participantId) {
-        List<Expense> expenses = ServerUtils.getExpensesForParticipant(participantId);
+        List<Expense> expenses = expensesPaidBy(participantId);
         if (index >= 0 && index < expenses.size()) {
             return expenses.get(index);
         } else {
@@ -3,6 +3,7 @@ package client.scenes;
 import client.Language;
 import client.utils.*;
 import commons.Event;
+import commons.EventSummary;
 import jakarta.inject.Inject;
 import javafx.animation.PauseTransition;
 import javafx.collections.FXCollections;
@@ -303,10 +304,13 @@ public class StartPageController implements LanguageChangeListener {
      */
 
     public void refreshEventsList() {
-        new Thread(() -> {
-            List<Event> serverEvents = ServerUtils.getAllEvents();
-            Platform.runLater(() -> events.removeIf(event -> !serverEvents.contains(event)));
-        }).start();
+        ServerUtils.getEventSummariesAsync().thenAccept(summaries -> {
+            Set<Long> serverEventIds = new HashSet<>();
+            for (EventSummary summary : summaries) {
+                serverEventIds.add(summary.getId());
+            }
+            Platform.runLater(() -> events.removeIf(event -> !serverEventIds.contains(event.getId())));
+        });
     }
 
     /**
@@ -3,7 +3,8 @@ package client.scenes;
 import client.utils.*;
 import com.google.inject.Inject;
 import commons.Event;
-import commons.Expense;
+import commons.EventStatistics;
+import commons.Money;
 import javafx.application.Platform;
 import javafx.beans.binding.Bindings;
 import javafx.fxml.FXML;
@@ -86,13 +87,12 @@ public class StatsCtrl implements LanguageChangeListener {
     private void fillPieChart(Long eventId) {
         pieChart.getData().clear();
 
-        Set<Expense> expenses = new HashSet<>(ServerUtils.getExpensesForEvent(eventId));
-        HashMap<String, Double> tagAndExpense = tagWithExpense(expenses);
-        tagAndExpense.forEach((tag, amount) -> {
-            PieChart.Data slice = new PieChart.Data(tag, amount);
-            pieChart.getData().add(slice);
-        });
-        totalCost = (tagAndExpense.values().stream().mapToDouble(Double::doubleValue).sum());
+        EventStatistics statistics = ServerUtils.getCache().getStatistics(eventId);
+        Map<String, long[]> tagAndExpense = localizeTags(statistics.getTotalsByTag());
+        for (Map.Entry<String, long[]> entry : tagAndExpense.entrySet()) {
+            pieChart.getData().add(new PieChart.Data(entry.getKey(), Money.toDouble(entry.getValue()[0])));
+        }
+        totalCost = Money.toDouble(statistics.getTotalInCents());
         AnimationUtil.animateText(cost, resourceBundle.getString("totalCost")+numberFormat.format(totalCost));
 
         pieChart.getData().forEach(data ->
@@ -106,23 +106,16 @@ public class StatsCtrl implements LanguageChangeListener {
     }
 
     /**
-     * this method sorts all the expenses per tag in a hashmap and also stores the total amount spent for each tag
-     * @param expenses the expenses
-     * @return a hashmap
+     * this method translates the tags of the totals computed by the server, tags that translate
+     * to the same name are added up
+     * @param totalsByTag the total in cents of every tag
+     * @return a hashmap with the total in cents of every localized tag, in a one element array
      */
-    private HashMap<String, Double> tagWithExpense(Set<Expense> expenses) {
-        HashMap<String, Double> tagAndExpense = new HashMap<>();
-        for (Expense expense : expenses) {
-            String tag = expense.getExpenseType();
-            if (tag != null) {
-                String localizedTag = tagKeysToLocalized.getOrDefault(tag, tag);
-                tagAndExpense.put(localizedTag, tagAndExpense.getOrDefault(localizedTag, 0.0)
-                        + expense.getAmount());
-            } else {
-                String otherTagLocalized = tagKeysToLocalized.get(TagUtils.TAG_OTHER);
-                tagAndExpense.put(otherTagLocalized, tagAndExpense.getOrDefault(otherTagLocalized, 0.0)
-                        + expense.getAmount());
-            }
+    private Map<String, long[]> localizeTags(Map<String, Long> totalsByTag) {
+        Map<String, long[]> tagAndExpense = new HashMap<>();
+        for (Map.Entry<String, Long> entry : totalsByTag.entrySet()) {
+            String localizedTag = tagKeysToLocalized.getOrDefault(entry.getKey(), entry.getKey());
+            tagAndExpense.computeIfAbsent(localizedTag, t -> new long[1])[0] += entry.getValue();
         }
         return tagAndExpense;
     }
@@ -3,6 +3,7 @@ package client.scenes;
 import client.utils.*;
 import com.google.inject.Inject;
 import commons.Event;
+import commons.EventTopics;
 import commons.Participant;
 import commons.ParticipantDeletionRequest;
 import javafx.application.Platform;
@@ -36,6 +37,7 @@ public class TableOfParticipantsController implements LanguageChangeListener {
     private Label titleLabel;
     private final ObservableList<Participant> participants = FXCollections.observableArrayList();
     private ServerUtils server;
+    private final List<UpdateChannel.Subscription> subscriptions = new ArrayList<>();
     private MainController mainController;
     private Stage primaryStage;
     private Event event;
@@ -57,8 +59,6 @@ public class TableOfParticipantsController implements LanguageChangeListener {
         this.server = server;
         this.mainController = mainController;
         this.event = event;
-
-        registerForParticipantUpdates();
     }
 
     /**
@@ -81,14 +81,16 @@ public class TableOfParticipantsController implements LanguageChangeListener {
     }
 
     private void registerForParticipantUpdates() {
+        ServerUtils.unsubscribe(subscriptions);
         if (event != null && server != null) {
-            server.registerForMessages("/topic/participants", event.getId(), null, this::handleParticipantUpdates);
-            server.registerForMessages("/topic/participantDeletion", event.getId(), null, p -> {
-                Platform.runLater(() -> {
-                    participants.removeIf(participant -> participant.getId() == p.getId());
-                    setupPagination();
-                });
-            });
+            subscriptions.add(server.registerForMessages(event.getId(), EventTopics.PARTICIPANTS,
+                    this::handleParticipantUpdates));
+            subscriptions.add(server.registerForMessages(event.getId(), EventTopics.PARTICIPANT_DELETION, deleted -> {
+                Set<Long> ids = new HashSet<>();
+                deleted.forEach(participant -> ids.add(participant.getId()));
+                participants.removeIf(participant -> ids.contains(participant.getId()));
+                setupPagination();
+            }));
         }
     }
 
@@ -108,9 +110,9 @@ public class TableOfParticipantsController implements LanguageChangeListener {
      */
     public void setEvent(Event event) {
         this.event = event;
+        registerForParticipantUpdates();
         loadParticipants();
         setupPagination();
-        ServerUtils.registerForUpdates(event.getId(),this::handleParticipantUpdates);
     }
 
     /**
@@ -335,7 +337,6 @@ public class TableOfParticipantsController implements LanguageChangeListener {
         participant.setLastName(ValidationUtils.autoCapitalizeWord(participant.getLastName()));
         long participantId = participant.getId();
         boolean isUpdated = server.updateParticipant(event.getId(), participantId, participant);
-        server.send("app/participants",participant);
         if (isUpdated) {
             refreshParticipantDetails(participant);
             AlertUtils.showInformationAlert(resourceBundle.getString("success"),
@@ -345,25 +346,27 @@ public class TableOfParticipantsController implements LanguageChangeListener {
     }
 
     /**
-     * handles participant updates when adding/mpdifying participants
-     * @param updatedParticipant Participant
+     * handles participant updates when adding/mpdifying participants, all participants that changed
+     * in one frame are applied before the pages are built again
+     * @param updatedParticipants the participants that were added or changed
      */
-    private void handleParticipantUpdates(Participant updatedParticipant) {
-        if (updatedParticipant.getEventIds().contains(event.getId())) {
-
-            Platform.runLater(() -> {
-                OptionalInt indexOpt = IntStream.range(0, participants.size())
-                        .filter(i -> participants.get(i).getId() == (updatedParticipant.getId()))
-                        .findFirst();
-
-                if (indexOpt.isPresent()) {
-                    participants.set(indexOpt.getAsInt(), updatedParticipant);
-                } else {
-                    participants.add(updatedParticipant);
-                }
-                setupPagination();
-            });
+    private void handleParticipantUpdates(List<Participant> updatedParticipants) {
+        Map<Long, Integer> indexById = new HashMap<>();
+        IntStream.range(0, participants.size()).forEach(i -> indexById.put(participants.get(i).getId(), i));
+        List<Participant> added = new ArrayList<>();
+        for (Participant updatedParticipant : updatedParticipants) {
+            if (!updatedParticipant.getEventIds().contains(event.getId())) {
+                continue;
+            }
+            Integer index = indexById.get(updatedParticipant.getId());
+            if (index != null) {
+                participants.set(index, updatedParticipant);
+            } else {
+                added.add(updatedParticipant);
+            }
         }
+        participants.addAll(added);
+        setupPagination();
     }
 
 
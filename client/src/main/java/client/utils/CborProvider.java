@@ -0,0 +1,105 @@
+package client.utils;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import commons.ParticipantReferences;
+import commons.WireFormat;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.MessageBodyReader;
+import jakarta.ws.rs.ext.MessageBodyWriter;
+import jakarta.ws.rs.ext.Provider;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+/**
+ * Reads and writes the compact binary format of the server, see {@link WireFormat#CBOR}. The participants
+ * of expenses arrive as references, {@link ParticipantReferences#resolve} puts the participants back.
+ */
+@Provider
+@Consumes(WireFormat.CBOR)
+@Produces(WireFormat.CBOR)
+public class CborProvider implements MessageBodyReader<Object>, MessageBodyWriter<Object> {
+    // Jersey closes the response stream itself
+    private static final ObjectMapper MAPPER = new ObjectMapper(new CBORFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET))
+            .findAndRegisterModules()
+            .registerModule(ParticipantReferences.module())
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    /**
+     * the mapper of the binary format, also used for the websocket messages
+     * @return the mapper
+     */
+    public static ObjectMapper mapper() {
+        return MAPPER;
+    }
+
+    /**
+     * every type can be read
+     * @param type the class of the entity
+     * @param genericType the type of the entity
+     * @param annotations the annotations of the entity
+     * @param mediaType the media type of the entity
+     * @return true
+     */
+    @Override
+    public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return true;
+    }
+
+    /**
+     * reads an entity
+     * @param type the class of the entity
+     * @param genericType the type of the entity, with its type parameters
+     * @param annotations the annotations of the entity
+     * @param mediaType the media type of the entity
+     * @param httpHeaders the headers of the response
+     * @param entityStream the body
+     * @return the entity
+     * @throws IOException if the body can not be read
+     */
+    @Override
+    public Object readFrom(Class<Object> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                           MultivaluedMap<String, String> httpHeaders, InputStream entityStream) throws IOException {
+        return MAPPER.readValue(entityStream, MAPPER.constructType(genericType));
+    }
+
+    /**
+     * every type can be written
+     * @param type the class of the entity
+     * @param genericType the type of the entity
+     * @param annotations the annotations of the entity
+     * @param mediaType the media type of the entity
+     * @return true
+     */
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return true;
+    }
+
+    /**
+     * writes an entity
+     * @param value the entity
+     * @param type the class of the entity
+     * @param genericType the type of the entity, with its type parameters
+     * @param annotations the annotations of the entity
+     * @param mediaType the media type of the entity
+     * @param httpHeaders the headers of the request
+     * @param entityStream the body
+     * @throws IOException if the body can not be written
+     */
+    @Override
+    public void writeTo(Object value, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                        MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException {
+        MAPPER.writerFor(MAPPER.constructType(genericType)).writeValue(entityStream, value);
+    }
+}
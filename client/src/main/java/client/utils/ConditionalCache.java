@@ -0,0 +1,124 @@
+package client.utils;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import commons.WireFormat;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.client.Invocation;
+import jakarta.ws.rs.client.WebTarget;
+import jakarta.ws.rs.core.GenericType;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the last body of the reads that the server tags with an ETag. The next read of the same resource
+ * sends the tag in If-None-Match, and while nothing changed the server answers 304 Not Modified without
+ * loading or sending the data. The bodies are kept as the bytes that were received, so every read gets
+ * its own objects that it can change.
+ */
+public class ConditionalCache {
+    private static final MediaType CBOR = new MediaType("application", "cbor");
+    private static final ObjectMapper JSON = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private final int maxEntries;
+    private final LinkedHashMap<String, Tagged> entries;
+
+    /**
+     * constructor
+     * @param maxEntries how many bodies are kept, the least recently read one is dropped first
+     */
+    public ConditionalCache(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("The cache must be able to hold at least one body");
+        }
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Tagged> eldest) {
+                return size() > ConditionalCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * reads a resource in the formats of {@link WireFormat#ACCEPT}, with the tag of its cached body if there is one
+     * @param target the resource
+     * @param type the type of the body
+     * @param <T> the type of the body
+     * @return the body, read from the cache if the server answered 304 Not Modified
+     * @throws NotFoundException if the server answered 404
+     * @throws WebApplicationException if the server answered with another status than 200 or 304
+     * @throws IOException if the body can not be read
+     */
+    public <T> T get(WebTarget target, GenericType<T> type) throws IOException {
+        String key = target.getUri().toString();
+        Tagged cached;
+        synchronized (this) {
+            cached = entries.get(key);
+        }
+        Invocation.Builder request = target.request(WireFormat.ACCEPT);
+        if (cached != null) {
+            request = request.header(HttpHeaders.IF_NONE_MATCH, cached.tag);
+        }
+        try (Response response = request.get()) {
+            int status = response.getStatus();
+            if (status == Response.Status.NOT_MODIFIED.getStatusCode() && cached != null) {
+                return decode(cached.mediaType, cached.body, type);
+            }
+            if (status != Response.Status.OK.getStatusCode()) {
+                remove(key);
+                throw status == Response.Status.NOT_FOUND.getStatusCode()
+                        ? new NotFoundException() : new WebApplicationException(status);
+            }
+            byte[] body = response.readEntity(byte[].class);
+            MediaType mediaType = response.getMediaType();
+            String tag = response.getHeaderString(HttpHeaders.ETAG);
+            if (tag == null) {
+                remove(key);
+            } else {
+                synchronized (this) {
+                    entries.put(key, new Tagged(tag, mediaType, body));
+                }
+            }
+            return decode(mediaType, body, type);
+        }
+    }
+
+    /**
+     * how many bodies are cached
+     * @return the number of bodies
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private synchronized void remove(String key) {
+        entries.remove(key);
+    }
+
+    private static <T> T decode(MediaType mediaType, byte[] body, GenericType<T> type) throws IOException {
+        ObjectMapper mapper = mediaType != null && mediaType.isCompatible(CBOR) ? CborProvider.mapper() : JSON;
+        return mapper.readValue(body, mapper.constructType(type.getType()));
+    }
+
+    private static final class Tagged {
+        private final String tag;
+        private final MediaType mediaType;
+        private final byte[] body;
+
+        private Tagged(String tag, MediaType mediaType, byte[] body) {
+            this.tag = tag;
+            this.mediaType = mediaType;
+            this.body = body;
+        }
+    }
+}
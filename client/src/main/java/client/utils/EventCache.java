@@ -0,0 +1,330 @@
+package client.utils;
+
+import commons.EventStatistics;
+import commons.Expense;
+import commons.Participant;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.LongFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Keeps the participants, expenses and statistics of the events the user opened recently, so switching
+ * between the scenes of an event does not download them again. Only the most recently used events are
+ * kept. The cache is kept up to date with the websocket messages of the open event and with the changes
+ * this client sends; anything it can not update is dropped and downloaded again when it is needed.
+ * A download that ran while such a change arrived may miss it, so it is returned but not cached.
+ * Changes that were missed while the websocket was not connected are not announced again, so the cache is
+ * cleared when the websocket connects again, and an event is downloaded again once it has been cached for
+ * longer than the maximum age.
+ */
+public class EventCache {
+    private final int maxEvents;
+    private final long maxAgeNanos;
+    private final LongFunction<List<Participant>> participantSource;
+    private final LongFunction<List<Expense>> expenseSource;
+    private final LongFunction<EventStatistics> statisticsSource;
+    private final LinkedHashMap<Long, CachedEvent> events;
+
+    /**
+     * constructor
+     * @param maxEvents how many events are kept, the least recently used one is dropped first
+     * @param maxAge how long an event is kept before it is downloaded again
+     * @param participantSource downloads the participants of an event
+     * @param expenseSource downloads the expenses of an event
+     * @param statisticsSource downloads the statistics of an event
+     */
+    public EventCache(int maxEvents, Duration maxAge, LongFunction<List<Participant>> participantSource,
+                      LongFunction<List<Expense>> expenseSource, LongFunction<EventStatistics> statisticsSource) {
+        if (maxEvents < 1) {
+            throw new IllegalArgumentException("The cache must be able to hold at least one event");
+        }
+        this.maxEvents = maxEvents;
+        this.maxAgeNanos = maxAge.toNanos();
+        this.participantSource = participantSource;
+        this.expenseSource = expenseSource;
+        this.statisticsSource = statisticsSource;
+        this.events = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedEvent> eldest) {
+                return size() > EventCache.this.maxEvents;
+            }
+        };
+    }
+
+    /**
+     * the participants of an event, downloaded if they are not cached
+     * @param eventId the id of the event
+     * @return a copy of the participants
+     */
+    public List<Participant> getParticipants(long eventId) {
+        synchronized (this) {
+            CachedEvent cached = fresh(eventId);
+            if (cached != null && cached.participants != null) {
+                return new ArrayList<>(cached.participants.values());
+            }
+        }
+        return new ArrayList<>(download(eventId, participantSource,
+                (cached, participants) -> cached.participants = byId(participants, Participant::getId)));
+    }
+
+    /**
+     * downloads the participants of an event again, for a participant that was added after they were cached
+     * and whose message did not arrive yet. The cached expenses are kept
+     * @param eventId the id of the event
+     * @return a copy of the participants
+     */
+    public List<Participant> reloadParticipants(long eventId) {
+        return new ArrayList<>(download(eventId, participantSource,
+                (cached, participants) -> cached.participants = byId(participants, Participant::getId)));
+    }
+
+    /**
+     * the expenses of an event, downloaded if they are not cached
+     * @param eventId the id of the event
+     * @return a copy of the expenses
+     */
+    public List<Expense> getExpenses(long eventId) {
+        synchronized (this) {
+            CachedEvent cached = fresh(eventId);
+            if (cached != null && cached.expenses != null) {
+                return new ArrayList<>(cached.expenses.values());
+            }
+        }
+        return new ArrayList<>(download(eventId, expenseSource,
+                (cached, expenses) -> cached.expenses = byId(expenses, Expense::getId)));
+    }
+
+    /**
+     * the expenses of an event that a participant paid
+     * @param eventId the id of the event
+     * @param participantId the id of the participant who paid
+     * @return the expenses paid by the participant
+     */
+    public List<Expense> getExpensesPaidBy(long eventId, long participantId) {
+        return getExpenses(eventId).stream()
+                .filter(expense -> expense.getParticipant() != null
+                        && expense.getParticipant().getId() == participantId)
+                .toList();
+    }
+
+    /**
+     * one expense of an event
+     * @param eventId the id of the event
+     * @param expenseId the id of the expense
+     * @return the expense, or null if the event does not have it
+     */
+    public Expense getExpense(long eventId, long expenseId) {
+        return getExpenses(eventId).stream()
+                .filter(expense -> expense.getId() == expenseId)
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * one cached expense, without downloading anything, for when the server can not be reached
+     * @param eventId the id of the event
+     * @param expenseId the id of the expense
+     * @return the expense, or null if it is not cached
+     */
+    public synchronized Expense findExpense(long eventId, long expenseId) {
+        CachedEvent cached = events.get(eventId);
+        return cached == null || cached.expenses == null ? null : cached.expenses.get(expenseId);
+    }
+
+    /**
+     * one cached participant, without downloading anything, for when the server can not be reached
+     * @param eventId the id of the event
+     * @param participantId the id of the participant
+     * @return the participant, or null if it is not cached
+     */
+    public synchronized Participant findParticipant(long eventId, long participantId) {
+        CachedEvent cached = events.get(eventId);
+        return cached == null || cached.participants == null ? null : cached.participants.get(participantId);
+    }
+
+    /**
+     * the statistics of an event, downloaded if they are not cached or an expense changed since
+     * @param eventId the id of the event
+     * @return the statistics
+     */
+    public EventStatistics getStatistics(long eventId) {
+        synchronized (this) {
+            CachedEvent cached = fresh(eventId);
+            if (cached != null && cached.statistics != null) {
+                return cached.statistics;
+            }
+        }
+        return download(eventId, statisticsSource, (cached, statistics) -> cached.statistics = statistics);
+    }
+
+    /**
+     * adds or replaces an expense, for example when the server sends an expense over the websocket
+     * @param eventId the id of the event
+     * @param expense the new version of the expense
+     */
+    public synchronized void putExpense(long eventId, Expense expense) {
+        CachedEvent cached = events.get(eventId);
+        if (cached == null) {
+            return;
+        }
+        cached.changes++;
+        if (cached.expenses != null) {
+            cached.expenses.put(expense.getId(), expense);
+        }
+        cached.statistics = null;
+    }
+
+    /**
+     * removes an expense that was deleted
+     * @param eventId the id of the event
+     * @param expenseId the id of the expense
+     */
+    public synchronized void removeExpense(long eventId, long expenseId) {
+        CachedEvent cached = events.get(eventId);
+        if (cached == null) {
+            return;
+        }
+        cached.changes++;
+        if (cached.expenses != null) {
+            cached.expenses.remove(expenseId);
+        }
+        cached.statistics = null;
+    }
+
+    /**
+     * adds or replaces a participant. The expenses have their own copies of the participant,
+     * so they are downloaded again when a participant they may contain changed
+     * @param eventId the id of the event
+     * @param participant the new version of the participant
+     */
+    public synchronized void putParticipant(long eventId, Participant participant) {
+        CachedEvent cached = events.get(eventId);
+        if (cached == null) {
+            return;
+        }
+        cached.changes++;
+        boolean added = cached.participants != null && !cached.participants.containsKey(participant.getId());
+        if (cached.participants != null) {
+            cached.participants.put(participant.getId(), participant);
+        }
+        if (!added) {
+            cached.expenses = null;
+            cached.statistics = null;
+        }
+    }
+
+    /**
+     * removes a participant that was deleted, the server also deletes or changes their expenses
+     * @param eventId the id of the event
+     * @param participantId the id of the participant
+     */
+    public synchronized void removeParticipant(long eventId, long participantId) {
+        CachedEvent cached = events.get(eventId);
+        if (cached == null) {
+            return;
+        }
+        cached.changes++;
+        if (cached.participants != null) {
+            cached.participants.remove(participantId);
+        }
+        cached.expenses = null;
+        cached.statistics = null;
+    }
+
+    /**
+     * forgets everything about an event, for changes the cache can not apply itself
+     * @param eventId the id of the event
+     */
+    public synchronized void invalidate(long eventId) {
+        events.remove(eventId);
+    }
+
+    /**
+     * forgets all events
+     */
+    public synchronized void clear() {
+        events.clear();
+    }
+
+    /**
+     * checks if anything of an event is cached
+     * @param eventId the id of the event
+     * @return true if the event is cached
+     */
+    public synchronized boolean contains(long eventId) {
+        return events.containsKey(eventId);
+    }
+
+    private CachedEvent cachedEvent(long eventId) {
+        return events.computeIfAbsent(eventId, id -> new CachedEvent(System.nanoTime()));
+    }
+
+    /**
+     * downloads something of an event outside the lock and caches it, unless the event changed, was
+     * invalidated or dropped during the download
+     * @param eventId the id of the event
+     * @param source downloads it
+     * @param store caches it
+     * @param <T> what is downloaded
+     * @return what was downloaded
+     */
+    private <T> T download(long eventId, LongFunction<T> source, BiConsumer<CachedEvent, T> store) {
+        CachedEvent cached;
+        long changes;
+        synchronized (this) {
+            cached = cachedEvent(eventId);
+            changes = cached.changes;
+        }
+        T downloaded = source.apply(eventId);
+        synchronized (this) {
+            if (events.get(eventId) == cached && cached.changes == changes) {
+                store.accept(cached, downloaded);
+            }
+        }
+        return downloaded;
+    }
+
+    /**
+     * what is cached of an event, an event that is cached for too long is dropped
+     * @param eventId the id of the event
+     * @return the cached event, or null if it is not cached
+     */
+    private CachedEvent fresh(long eventId) {
+        CachedEvent cached = events.get(eventId);
+        if (cached != null && System.nanoTime() - cached.cachedAt >= maxAgeNanos) {
+            events.remove(eventId);
+            return null;
+        }
+        return cached;
+    }
+
+    private static <T> LinkedHashMap<Long, T> byId(List<T> items, ToLongFunction<T> id) {
+        LinkedHashMap<Long, T> map = new LinkedHashMap<>();
+        for (T item : items) {
+            map.put(id.applyAsLong(item), item);
+        }
+        return map;
+    }
+
+    /**
+     * what is cached of one event, null if it is not cached
+     */
+    private static final class CachedEvent {
+        private final long cachedAt;
+        // the number of changes applied, a download is only cached if none was applied while it ran
+        private long changes;
+        private LinkedHashMap<Long, Participant> participants;
+        private LinkedHashMap<Long, Expense> expenses;
+        private EventStatistics statistics;
+
+        private CachedEvent(long cachedAt) {
+            this.cachedAt = cachedAt;
+        }
+    }
+}
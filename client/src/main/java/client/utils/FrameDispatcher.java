@@ -0,0 +1,238 @@
+package client.utils;
+
+import javafx.application.Platform;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Gathers the updates that arrive from the server during one frame and applies them on the UI thread
+ * in one task. A listener gets the updates of the frame as lists, so a scene can add them to its
+ * {@code ObservableList} at once instead of redrawing once per update. A burst of hundreds of expenses
+ * then costs a few frames instead of hundreds of tasks on the FX queue.
+ * <p>
+ * The updates are applied in the order they arrived, also across listeners: the updates of one source
+ * that arrive one after another form one batch per listener, and an update of another source in between
+ * starts new batches. So a deletion that arrived after an addition on another topic is applied after it.
+ * <p>
+ * A listener can give a key for its updates. When the same key arrives twice in one batch only the
+ * last update is applied, at the place of the first one.
+ */
+public class FrameDispatcher {
+    /**
+     * the length of one frame at 60 frames per second
+     */
+    public static final long FRAME_MILLIS = 16;
+
+    private final Consumer<Runnable> nextFrame;
+    // the batches of the next frame in the order they arrived, a sink can have several
+    private final List<Batch<?>> batches = new ArrayList<>();
+    private boolean frameScheduled;
+    private long queued;
+    private long maxQueued;
+    private long received;
+    private long merged;
+    private long dropped;
+    private long frames;
+
+    /**
+     * constructor
+     * @param nextFrame runs a task on the UI thread once the current frame is over
+     */
+    public FrameDispatcher(Consumer<Runnable> nextFrame) {
+        this.nextFrame = nextFrame;
+    }
+
+    /**
+     * a dispatcher that applies the updates on the FX thread, at most once per frame
+     * @return the dispatcher
+     */
+    public static FrameDispatcher onFxThread() {
+        ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "splitty-frame-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        return new FrameDispatcher(task ->
+                timer.schedule(() -> Platform.runLater(task), FRAME_MILLIS, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * adds a listener
+     * @param key gives the key of an update, updates with the same key in one batch are merged.
+     *            Null if every update has to be applied
+     * @param listener called on the UI thread with the updates of a frame, in the order they arrived
+     * @param <T> the type of the updates
+     * @return the sink the updates are offered to
+     */
+    public <T> Sink<T> sink(Function<? super T, ?> key, Consumer<List<T>> listener) {
+        return new Sink<>(null, key, listener);
+    }
+
+    /**
+     * adds a listener of a source that has several listeners, like a topic. All listeners get the same
+     * updates of the source, so their batches are only cut when an update of another source arrives
+     * @param source the source of the updates
+     * @param key gives the key of an update, updates with the same key in one batch are merged.
+     *            Null if every update has to be applied
+     * @param listener called on the UI thread with the updates of a frame, in the order they arrived
+     * @param <T> the type of the updates
+     * @return the sink the updates are offered to
+     */
+    public <T> Sink<T> sink(Object source, Function<? super T, ?> key, Consumer<List<T>> listener) {
+        return new Sink<>(source, key, listener);
+    }
+
+    /**
+     * the counters of the dispatcher: the updates that wait for the UI thread now and at most,
+     * the updates that were received, merged with a later update or dropped because their listener
+     * stopped or failed, and the number of frames that applied updates
+     * @return the counters by name
+     */
+    public synchronized Map<String, Long> metrics() {
+        Map<String, Long> metrics = new LinkedHashMap<>();
+        metrics.put("queued", queued);
+        metrics.put("maxQueued", maxQueued);
+        metrics.put("received", received);
+        metrics.put("merged", merged);
+        metrics.put("dropped", dropped);
+        metrics.put("frames", frames);
+        return metrics;
+    }
+
+    private synchronized <T> void offer(Sink<T> sink, T update) {
+        received++;
+        if (sink.closed) {
+            dropped++;
+            return;
+        }
+        Batch<T> batch = openBatch(sink);
+        Object key = sink.key == null ? new Object() : sink.key.apply(update);
+        if (batch.pending.put(key, update) == null) {
+            queued++;
+            maxQueued = Math.max(maxQueued, queued);
+        } else {
+            merged++;
+        }
+        if (!frameScheduled) {
+            frameScheduled = true;
+            nextFrame.accept(this::applyFrame);
+        }
+    }
+
+    // called with the lock. The batch of the sink among the last batches of the same source,
+    // a new batch if an update of another source arrived since
+    @SuppressWarnings("unchecked")
+    private <T> Batch<T> openBatch(Sink<T> sink) {
+        for (int i = batches.size() - 1; i >= 0 && batches.get(i).sink.source == sink.source; i--) {
+            if (batches.get(i).sink == sink) {
+                return (Batch<T>) batches.get(i);
+            }
+        }
+        Batch<T> batch = new Batch<>(sink);
+        batches.add(batch);
+        return batch;
+    }
+
+    private void applyFrame() {
+        List<Runnable> frame = new ArrayList<>();
+        synchronized (this) {
+            frameScheduled = false;
+            frames++;
+            for (Batch<?> batch : batches) {
+                frame.add(batch.take());
+            }
+            batches.clear();
+        }
+        frame.forEach(Runnable::run);
+    }
+
+    private synchronized void closed(Sink<?> sink) {
+        sink.closed = true;
+        for (Iterator<Batch<?>> it = batches.iterator(); it.hasNext(); ) {
+            Batch<?> batch = it.next();
+            if (batch.sink == sink) {
+                dropped += batch.pending.size();
+                queued -= batch.pending.size();
+                it.remove();
+            }
+        }
+    }
+
+    private synchronized void failed(int size) {
+        dropped += size;
+    }
+
+    /**
+     * the updates of one listener
+     * @param <T> the type of the updates
+     */
+    public final class Sink<T> {
+        private final Object source;
+        private final Function<? super T, ?> key;
+        private final Consumer<List<T>> listener;
+        private volatile boolean closed;
+
+        private Sink(Object source, Function<? super T, ?> key, Consumer<List<T>> listener) {
+            // a sink without a source is a source of its own
+            this.source = source == null ? this : source;
+            this.key = key;
+            this.listener = listener;
+        }
+
+        /**
+         * hands an update to the listener with the next frame
+         * @param update the update
+         */
+        public void offer(T update) {
+            FrameDispatcher.this.offer(this, update);
+        }
+
+        /**
+         * stops the listener, updates that did not reach it yet are dropped
+         */
+        public void close() {
+            closed(this);
+        }
+    }
+
+    /**
+     * updates that one sink got one after another, guarded by the dispatcher
+     * @param <T> the type of the updates
+     */
+    private final class Batch<T> {
+        private final Sink<T> sink;
+        private final Map<Object, T> pending = new LinkedHashMap<>();
+
+        private Batch(Sink<T> sink) {
+            this.sink = sink;
+        }
+
+        // called with the lock of the dispatcher
+        private Runnable take() {
+            List<T> updates = new ArrayList<>(pending.values());
+            queued -= updates.size();
+            pending.clear();
+            return () -> {
+                if (sink.closed) {
+                    failed(updates.size());
+                    return;
+                }
+                try {
+                    sink.listener.accept(updates);
+                } catch (RuntimeException e) {
+                    failed(updates.size());
+                    e.printStackTrace();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package client.utils;
+
+import client.SplittyConfig;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.glassfish.jersey.apache.connector.ApacheClientProperties;
+import org.glassfish.jersey.apache.connector.ApacheConnectorProvider;
+import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.client.ClientProperties;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * The one HTTP client of the application. Its connections to the server are pooled and kept alive,
+ * so requests do not open a new connection (and TLS session) every time. Requests that should not
+ * block the JavaFX thread are sent by a small pool of daemon threads. The Apache connector asks for gzip
+ * and unpacks the compressed responses of the server.
+ */
+public final class HttpClientPool {
+    private static final PoolingHttpClientConnectionManager CONNECTIONS = new PoolingHttpClientConnectionManager();
+    private static final Client CLIENT;
+    private static final ExecutorService ASYNC;
+
+    static {
+        SplittyConfig config = new SplittyConfig();
+        CONNECTIONS.setMaxTotal(config.getHttpMaxConnections());
+        // all requests go to the same server, so that route can use every connection
+        CONNECTIONS.setDefaultMaxPerRoute(config.getHttpMaxConnections());
+
+        ClientConfig clientConfig = new ClientConfig()
+                .connectorProvider(new ApacheConnectorProvider())
+                .property(ApacheClientProperties.CONNECTION_MANAGER, CONNECTIONS)
+                .property(ClientProperties.CONNECT_TIMEOUT, config.getHttpConnectTimeoutMs())
+                .property(ClientProperties.READ_TIMEOUT, config.getHttpReadTimeoutMs())
+                .register(CborProvider.class);
+        CLIENT = ClientBuilder.newClient(clientConfig);
+
+        AtomicInteger threads = new AtomicInteger();
+        ThreadFactory factory = runnable -> {
+            Thread thread = new Thread(runnable, "splitty-http-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        ASYNC = Executors.newFixedThreadPool(config.getHttpAsyncThreads(), factory);
+    }
+
+    private HttpClientPool() {
+    }
+
+    /**
+     * the shared client, responses have to be closed or read completely to give their connection back
+     * @return the client
+     */
+    public static Client client() {
+        return CLIENT;
+    }
+
+    /**
+     * sends a request on one of the request threads
+     * @param request the blocking request
+     * @param <T> the type of the result
+     * @return the result of the request, completed on a request thread
+     */
+    public static <T> CompletableFuture<T> async(Supplier<T> request) {
+        return CompletableFuture.supplyAsync(request, ASYNC);
+    }
+
+    /**
+     * sends a request without a result on one of the request threads
+     * @param request the blocking request
+     * @return completed on a request thread when the request is done
+     */
+    public static CompletableFuture<Void> async(Runnable request) {
+        return CompletableFuture.runAsync(request, ASYNC);
+    }
+
+    /**
+     * stops the request threads and closes the pooled connections
+     */
+    public static void close() {
+        ASYNC.shutdownNow();
+        CLIENT.close();
+        CONNECTIONS.close();
+    }
+}
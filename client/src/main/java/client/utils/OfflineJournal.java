@@ -0,0 +1,350 @@
+package client.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import commons.Expense;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The changes to expenses that could not be sent to the server yet. Every change is appended as one
+ * line of JSON and synced to the disk before it is shown as done, so the changes survive a crash or
+ * a restart of the client. When a change reached the server a line marking it as done is appended,
+ * and once every change is done the file is emptied.
+ * <p>
+ * Expenses that were added while offline get a temporary negative id until the server gave them
+ * their real id.
+ */
+public class OfflineJournal {
+
+    /**
+     * what a line of the journal records
+     */
+    public enum Type {
+        ADD_EXPENSE, UPDATE_EXPENSE, DELETE_EXPENSE, DONE
+    }
+
+    private final File file;
+    private final ObjectMapper objectMapper;
+    private final LinkedHashMap<Long, Entry> pending = new LinkedHashMap<>();
+    private final Map<Long, Long> realIds = new HashMap<>();
+    private long lastSeq;
+
+    /**
+     * opens the journal, the changes that were not done before the client stopped are pending again
+     * @param file the journal file, it is created when the first change is written
+     */
+    public OfflineJournal(File file) {
+        this.file = file;
+        this.objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        objectMapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        load();
+    }
+
+    private void load() {
+        if (!file.exists()) {
+            return;
+        }
+        try {
+            byte[] content = Files.readAllBytes(file.toPath());
+            int end = content.length;
+            while (end > 0 && content[end - 1] != '\n') {
+                end--;
+            }
+            if (end < content.length) {
+                // the client stopped while the last line was written, that change was never shown as done.
+                // It is cut off, otherwise the next change would be appended to the unfinished line
+                try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+                    channel.truncate(end);
+                }
+            }
+            for (String line : new String(content, 0, end, StandardCharsets.UTF_8).split("\n")) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                Entry entry;
+                try {
+                    entry = objectMapper.readValue(line, Entry.class);
+                } catch (JsonProcessingException e) {
+                    System.err.println("Skipping an unreadable line of the offline journal: " + e.getMessage());
+                    continue;
+                }
+                lastSeq = Math.max(lastSeq, entry.getSeq());
+                if (entry.getType() == Type.DONE) {
+                    markDone(entry);
+                } else {
+                    pending.put(entry.getSeq(), entry);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the offline journal " + file, e);
+        }
+    }
+
+    /**
+     * appends a change. An added expense gets the temporary id -seq, and a key the server uses to
+     * add it only once however often it is sent
+     * @param type the kind of change, not DONE
+     * @param eventId the id of the event of the expense
+     * @param expenseId the id of the changed expense, ignored for added expenses
+     * @param expense the added or changed expense, null for deleted expenses
+     * @param original the expense as the client had it before the change, null if it is not known
+     * @return the appended change
+     */
+    public synchronized Entry append(Type type, long eventId, long expenseId, Expense expense, Expense original) {
+        if (type == Type.DONE) {
+            throw new IllegalArgumentException("Use done() to mark a change as done");
+        }
+        Entry entry = new Entry();
+        entry.setSeq(lastSeq + 1);
+        entry.setType(type);
+        entry.setEventId(eventId);
+        entry.setExpenseId(type == Type.ADD_EXPENSE ? -entry.getSeq() : expenseId);
+        if (type == Type.ADD_EXPENSE) {
+            expense.setId(entry.getExpenseId());
+            entry.setIdempotencyKey(UUID.randomUUID().toString());
+        }
+        entry.setExpense(expense);
+        entry.setOriginal(original);
+        write(entry);
+        lastSeq = entry.getSeq();
+        pending.put(entry.getSeq(), entry);
+        return entry;
+    }
+
+    /**
+     * marks a change as done, because the server has it or because it conflicted with the server
+     * @param entry the pending change
+     * @param expenseId the id the server gave the expense
+     * @param conflict true if the change was not made because the server has a different version
+     */
+    public synchronized void done(Entry entry, long expenseId, boolean conflict) {
+        Entry done = new Entry();
+        done.setSeq(entry.getSeq());
+        done.setType(Type.DONE);
+        done.setEventId(entry.getEventId());
+        done.setExpenseId(expenseId);
+        done.setConflict(conflict);
+        write(done);
+        markDone(done);
+        if (pending.isEmpty()) {
+            compact();
+        }
+    }
+
+    private void markDone(Entry done) {
+        Entry entry = pending.remove(done.getSeq());
+        if (entry != null && entry.getType() == Type.ADD_EXPENSE && !done.isConflict()) {
+            realIds.put(entry.getExpenseId(), done.getExpenseId());
+        }
+    }
+
+    private void write(Entry entry) {
+        try {
+            file.getParentFile().mkdirs();
+            try (FileOutputStream out = new FileOutputStream(file, true)) {
+                out.write((objectMapper.writeValueAsString(entry) + "\n").getBytes(StandardCharsets.UTF_8));
+                out.getFD().sync();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write the offline journal " + file, e);
+        }
+    }
+
+    /**
+     * empties the file once nothing is pending, the ids of the added expenses are kept in memory
+     * for the expenses that the scenes still show with their temporary id
+     */
+    private void compact() {
+        try {
+            Files.write(file.toPath(), new byte[0]);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not empty the offline journal " + file, e);
+        }
+    }
+
+    /**
+     * the changes that are not done, in the order they were made
+     * @return a copy of the pending changes
+     */
+    public synchronized List<Entry> pending() {
+        return new ArrayList<>(pending.values());
+    }
+
+    /**
+     * checks if changes are waiting for the server
+     * @return true if nothing is pending
+     */
+    public synchronized boolean isEmpty() {
+        return pending.isEmpty();
+    }
+
+    /**
+     * the id the server gave an expense that was added while offline
+     * @param expenseId an id, temporary ids are negative
+     * @return the real id, or the given id if it is not temporary or not on the server yet
+     */
+    public synchronized long realId(long expenseId) {
+        return expenseId < 0 ? realIds.getOrDefault(expenseId, expenseId) : expenseId;
+    }
+
+    /**
+     * one line of the journal
+     */
+    public static class Entry {
+        private long seq;
+        private Type type;
+        private long eventId;
+        private long expenseId;
+        private Expense expense;
+        private Expense original;
+        private String idempotencyKey;
+        private boolean conflict;
+
+        /**
+         * the number of the change, changes are numbered in the order they were made
+         * @return the number
+         */
+        public long getSeq() {
+            return seq;
+        }
+
+        /**
+         * setter for the number of the change
+         * @param seq the number
+         */
+        public void setSeq(long seq) {
+            this.seq = seq;
+        }
+
+        /**
+         * the kind of change
+         * @return the type
+         */
+        public Type getType() {
+            return type;
+        }
+
+        /**
+         * setter for the kind of change
+         * @param type the type
+         */
+        public void setType(Type type) {
+            this.type = type;
+        }
+
+        /**
+         * the event of the expense
+         * @return the id of the event
+         */
+        public long getEventId() {
+            return eventId;
+        }
+
+        /**
+         * setter for the event of the expense
+         * @param eventId the id of the event
+         */
+        public void setEventId(long eventId) {
+            this.eventId = eventId;
+        }
+
+        /**
+         * the changed expense, for a DONE line the id the server gave it
+         * @return the id of the expense
+         */
+        public long getExpenseId() {
+            return expenseId;
+        }
+
+        /**
+         * setter for the id of the expense
+         * @param expenseId the id of the expense
+         */
+        public void setExpenseId(long expenseId) {
+            this.expenseId = expenseId;
+        }
+
+        /**
+         * the added or changed expense
+         * @return the expense, null for a deletion
+         */
+        public Expense getExpense() {
+            return expense;
+        }
+
+        /**
+         * setter for the added or changed expense
+         * @param expense the expense
+         */
+        public void setExpense(Expense expense) {
+            this.expense = expense;
+        }
+
+        /**
+         * the expense as the client had it before the change, to find changes of other clients
+         * @return the expense, null if it is not known
+         */
+        public Expense getOriginal() {
+            return original;
+        }
+
+        /**
+         * setter for the expense before the change
+         * @param original the expense
+         */
+        public void setOriginal(Expense original) {
+            this.original = original;
+        }
+
+        /**
+         * the key an added expense is sent with, the server does not add it again when a batch is sent twice
+         * @return the key, null for other changes
+         */
+        public String getIdempotencyKey() {
+            return idempotencyKey;
+        }
+
+        /**
+         * setter for the key an added expense is sent with
+         * @param idempotencyKey the key
+         */
+        public void setIdempotencyKey(String idempotencyKey) {
+            this.idempotencyKey = idempotencyKey;
+        }
+
+        /**
+         * for a DONE line, whether the change was dropped because of a conflict
+         * @return true if the change conflicted
+         */
+        public boolean isConflict() {
+            return conflict;
+        }
+
+        /**
+         * setter for the conflict
+         * @param conflict true if the change conflicted
+         */
+        public void setConflict(boolean conflict) {
+            this.conflict = conflict;
+        }
+    }
+}
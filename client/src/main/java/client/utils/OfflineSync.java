@@ -0,0 +1,391 @@
+package client.utils;
+
+import client.utils.OfflineJournal.Entry;
+import client.utils.OfflineJournal.Type;
+import commons.Expense;
+import commons.Participant;
+import jakarta.ws.rs.ProcessingException;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+import org.apache.http.conn.ConnectTimeoutException;
+
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
+import java.net.http.HttpConnectTimeoutException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Sends the changes of the {@link OfflineJournal} to the server once it can be reached again.
+ * The changes are shown in the {@link EventCache} right away, so the scenes do not wait for the server.
+ * <p>
+ * Expenses that were added one after another are sent in batches. Before an update or a deletion is
+ * sent, the expense on the server is compared with the expense the client changed. If another client
+ * changed it in the meantime, the change is dropped, the event is downloaded again and the conflict
+ * listener is told about it.
+ */
+public class OfflineSync {
+    /**
+     * the most expenses sent in one request. The batch endpoint of the server takes up to 10000, smaller
+     * batches keep the request that is sent again after a lost answer short
+     */
+    static final int MAX_BATCH_SIZE = 500;
+    /**
+     * while changes stay pending the time between two tries doubles, up to this many periods
+     */
+    static final int MAX_BACKOFF_PERIODS = 32;
+
+    /**
+     * the requests the changes are sent with
+     */
+    public interface Server {
+        /**
+         * adds expenses to an event in one request
+         * @param eventId the id of the event
+         * @param expenses the new expenses
+         * @return the ids the server gave them, in the same order
+         */
+        List<Long> addExpenses(long eventId, List<Expense> expenses);
+
+        /**
+         * the expenses of an event as the server has them now
+         * @param eventId the id of the event
+         * @return the expenses
+         */
+        List<Expense> expensesOf(long eventId);
+
+        /**
+         * replaces an expense
+         * @param eventId the id of the event
+         * @param expenseId the id of the expense
+         * @param expense the new version
+         */
+        void updateExpense(long eventId, long expenseId, Expense expense);
+
+        /**
+         * deletes an expense
+         * @param eventId the id of the event
+         * @param expenseId the id of the expense
+         */
+        void deleteExpense(long eventId, long expenseId);
+    }
+
+    private final OfflineJournal journal;
+    private final Server server;
+    private final EventCache cache;
+    private final ScheduledExecutorService retries;
+    private volatile Consumer<Entry> conflictListener = entry -> { };
+
+    /**
+     * constructor
+     * @param journal the changes that were not sent yet
+     * @param server sends the changes
+     * @param cache shows the changes before they reach the server
+     */
+    public OfflineSync(OfflineJournal journal, Server server, EventCache cache) {
+        this.journal = journal;
+        this.server = server;
+        this.cache = cache;
+        this.retries = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "splitty-offline-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * tries to send the pending changes every period, until {@link #stop()} is called
+     * @param periodSeconds the time between two tries
+     */
+    public void start(long periodSeconds) {
+        schedule(periodSeconds, periodSeconds);
+    }
+
+    private void schedule(long periodSeconds, long delaySeconds) {
+        if (retries.isShutdown()) {
+            return;
+        }
+        retries.schedule(() -> {
+            try {
+                replay();
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+            // a server that is down or restarting is not asked again every period
+            long next = hasPending() ? Math.min(delaySeconds * 2, periodSeconds * MAX_BACKOFF_PERIODS)
+                    : periodSeconds;
+            schedule(periodSeconds, next);
+        }, delaySeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * stops trying to send the changes, they stay in the journal for the next start
+     */
+    public void stop() {
+        retries.shutdownNow();
+    }
+
+    /**
+     * sets what happens with a change that the server did not take
+     * @param listener called on the sync thread with the dropped change
+     */
+    public void setConflictListener(Consumer<Entry> listener) {
+        this.conflictListener = listener;
+    }
+
+    /**
+     * checks if changes are waiting for the server, new changes have to wait behind them
+     * @return true if changes are pending
+     */
+    public boolean hasPending() {
+        return !journal.isEmpty();
+    }
+
+    /**
+     * checks if a request failed before it reached the server. Only such a change can be queued: after a
+     * read timeout or a lost answer the server may already have made the change
+     * @param e the exception of the request
+     * @return true if the connection to the server could not be made, because the host is unknown or
+     *         unreachable, the connection was refused or connecting timed out
+     */
+    public static boolean connectionFailed(ProcessingException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectException || cause instanceof NoRouteToHostException
+                    || cause instanceof UnknownHostException || cause instanceof ConnectTimeoutException
+                    || cause instanceof HttpConnectTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * checks if the server refused a change for good, such a change is dropped. After any other failure,
+     * like a 5xx answer while the server restarts, the change stays pending
+     * @param e the exception of the request
+     * @return true if the server answered with a 4xx status that does not ask to try again
+     */
+    public static boolean refused(WebApplicationException e) {
+        Response response = e.getResponse();
+        if (response == null) {
+            return false;
+        }
+        int status = response.getStatus();
+        return response.getStatusInfo().getFamily() == Response.Status.Family.CLIENT_ERROR
+                && status != Response.Status.REQUEST_TIMEOUT.getStatusCode()
+                && status != Response.Status.TOO_MANY_REQUESTS.getStatusCode();
+    }
+
+    /**
+     * queues a new expense
+     * @param eventId the id of the event
+     * @param expense the new expense, it gets a temporary negative id
+     * @return the expense
+     */
+    public Expense queueAdd(long eventId, Expense expense) {
+        journal.append(Type.ADD_EXPENSE, eventId, 0, expense, null);
+        cache.putExpense(eventId, expense);
+        return expense;
+    }
+
+    /**
+     * queues a change to an expense
+     * @param eventId the id of the event
+     * @param expenseId the id of the expense
+     * @param expense the new version
+     * @param original the expense as the client showed it before, null if it is not known
+     */
+    public void queueUpdate(long eventId, long expenseId, Expense expense, Expense original) {
+        expense.setId(expenseId);
+        journal.append(Type.UPDATE_EXPENSE, eventId, expenseId, expense, original);
+        cache.putExpense(eventId, expense);
+    }
+
+    /**
+     * queues the deletion of an expense
+     * @param eventId the id of the event
+     * @param expenseId the id of the expense
+     * @param original the expense as the client showed it before, null if it is not known
+     */
+    public void queueDelete(long eventId, long expenseId, Expense original) {
+        journal.append(Type.DELETE_EXPENSE, eventId, expenseId, null, original);
+        cache.removeExpense(eventId, expenseId);
+    }
+
+    /**
+     * sends the pending changes in the order they were made. It stops at the first change that could
+     * not reach the server or that the server failed to make, the remaining changes are tried again later
+     * @return the number of changes that are done
+     */
+    public synchronized int replay() {
+        List<Entry> pending = journal.pending();
+        // the expenses on the server, downloaded once per event
+        Map<Long, Map<Long, Expense>> onServer = new HashMap<>();
+        int done = 0;
+        int next = 0;
+        try {
+            while (next < pending.size()) {
+                Entry entry = pending.get(next);
+                if (entry.getType() == Type.ADD_EXPENSE) {
+                    List<Entry> batch = addBatch(pending, next);
+                    sendAdds(batch, onServer);
+                    next += batch.size();
+                    done += batch.size();
+                } else {
+                    send(entry, onServer);
+                    next++;
+                    done++;
+                }
+            }
+        } catch (ProcessingException | WebApplicationException e) {
+            // the server can not be reached or failed, the change stays pending
+        }
+        return done;
+    }
+
+    private static List<Entry> addBatch(List<Entry> pending, int from) {
+        long eventId = pending.get(from).getEventId();
+        int to = from;
+        while (to < pending.size() && to - from < MAX_BATCH_SIZE
+                && pending.get(to).getType() == Type.ADD_EXPENSE && pending.get(to).getEventId() == eventId) {
+            to++;
+        }
+        return pending.subList(from, to);
+    }
+
+    private void sendAdds(List<Entry> batch, Map<Long, Map<Long, Expense>> onServer) {
+        long eventId = batch.get(0).getEventId();
+        // the server adds an expense only once per key, so a batch whose answer was lost can be sent again
+        batch.forEach(entry -> entry.getExpense().setIdempotencyKey(entry.getIdempotencyKey()));
+        List<Long> ids;
+        try {
+            ids = server.addExpenses(eventId, batch.stream().map(Entry::getExpense).toList());
+        } catch (WebApplicationException e) {
+            if (!refused(e)) {
+                throw e;
+            }
+            // the server refused the batch, for example because the event or a participant was deleted
+            batch.forEach(this::conflict);
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            Entry entry = batch.get(i);
+            Expense expense = entry.getExpense();
+            journal.done(entry, ids.get(i), false);
+            cache.removeExpense(eventId, entry.getExpenseId());
+            expense.setId(ids.get(i));
+            expense.setEventId(eventId);
+            cache.putExpense(eventId, expense);
+            Map<Long, Expense> expenses = onServer.get(eventId);
+            if (expenses != null) {
+                expenses.put(expense.getId(), expense);
+            }
+        }
+    }
+
+    private void send(Entry entry, Map<Long, Map<Long, Expense>> onServer) {
+        long eventId = entry.getEventId();
+        long expenseId = journal.realId(entry.getExpenseId());
+        if (expenseId < 0) {
+            // the expense was added offline, but the server did not take it
+            if (entry.getType() == Type.DELETE_EXPENSE) {
+                journal.done(entry, expenseId, false);
+            } else {
+                conflict(entry);
+            }
+            return;
+        }
+        Map<Long, Expense> expenses = onServer.computeIfAbsent(eventId, this::download);
+        Expense current = expenses.get(expenseId);
+        if (entry.getType() == Type.DELETE_EXPENSE && current == null) {
+            // someone else already deleted it, or the answer to an earlier try was lost
+            journal.done(entry, expenseId, false);
+            return;
+        }
+        if (entry.getType() == Type.UPDATE_EXPENSE && current != null && sameVersion(current, entry.getExpense())) {
+            // an earlier try reached the server but its answer was lost
+            journal.done(entry, expenseId, false);
+            return;
+        }
+        if (current == null || !sameVersion(current, entry.getOriginal())) {
+            conflict(entry);
+            return;
+        }
+        try {
+            if (entry.getType() == Type.UPDATE_EXPENSE) {
+                entry.getExpense().setId(expenseId);
+                server.updateExpense(eventId, expenseId, entry.getExpense());
+                expenses.put(expenseId, entry.getExpense());
+                cache.putExpense(eventId, entry.getExpense());
+            } else {
+                server.deleteExpense(eventId, expenseId);
+                expenses.remove(expenseId);
+                cache.removeExpense(eventId, expenseId);
+            }
+        } catch (WebApplicationException e) {
+            if (!refused(e)) {
+                throw e;
+            }
+            conflict(entry);
+            return;
+        }
+        journal.done(entry, expenseId, false);
+    }
+
+    private Map<Long, Expense> download(long eventId) {
+        Map<Long, Expense> expenses = new LinkedHashMap<>();
+        for (Expense expense : server.expensesOf(eventId)) {
+            expenses.put(expense.getId(), expense);
+        }
+        return expenses;
+    }
+
+    private void conflict(Entry entry) {
+        journal.done(entry, entry.getExpenseId(), true);
+        // the optimistic change is wrong, the event is downloaded again when it is shown
+        cache.invalidate(entry.getEventId());
+        conflictListener.accept(entry);
+    }
+
+    /**
+     * checks if the expense on the server is still the one the client changed. The server does not
+     * keep a version per expense, so the fields a user can edit are compared
+     * @param current the expense on the server
+     * @param original the expense the client changed, null if it is not known
+     * @return true if nobody else changed the expense
+     */
+    public static boolean sameVersion(Expense current, Expense original) {
+        if (original == null) {
+            return true;
+        }
+        return Objects.equals(current.getCategory(), original.getCategory())
+                && Objects.equals(current.getCurrency(), original.getCurrency())
+                && Objects.equals(current.getDate(), original.getDate())
+                && Objects.equals(current.getExpenseType(), original.getExpenseType())
+                && current.getAmountInCents() == original.getAmountInCents()
+                && Objects.equals(participantId(current.getParticipant()), participantId(original.getParticipant()))
+                && participantIds(current.getSplittingOption()).equals(participantIds(original.getSplittingOption()));
+    }
+
+    private static Long participantId(Participant participant) {
+        return participant == null ? null : participant.getId();
+    }
+
+    private static List<Long> participantIds(List<Participant> participants) {
+        List<Long> ids = new ArrayList<>();
+        if (participants != null) {
+            participants.forEach(participant -> ids.add(participant.getId()));
+        }
+        ids.sort(null);
+        return ids;
+    }
+}
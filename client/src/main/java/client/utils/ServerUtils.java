@@ -17,44 +17,64 @@ package client.utils;
 
 import client.SplittyConfig;
 import commons.Event;
+import commons.EventChanges;
+import commons.EventStatistics;
+import commons.EventTopics;
+import commons.EventSummary;
 import commons.Expense;
+import commons.KeysetPage;
 import commons.Participant;
+import commons.ParticipantReferences;
+import commons.WireFormat;
 import jakarta.ws.rs.client.Client;
-import jakarta.ws.rs.client.ClientBuilder;
 import jakarta.ws.rs.client.Entity;
+import jakarta.ws.rs.client.WebTarget;
 import jakarta.ws.rs.core.GenericType;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
-import org.glassfish.jersey.client.ClientConfig;
 
+import java.io.File;
 import java.io.IOException;
-import java.lang.reflect.Type;
-import java.net.*;
-import java.nio.charset.StandardCharsets;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON;
 import jakarta.ws.rs.BadRequestException;
 import jakarta.ws.rs.NotFoundException;
-import org.springframework.messaging.converter.MappingJackson2MessageConverter;
-import org.springframework.messaging.simp.stomp.StompFrameHandler;
-import org.springframework.messaging.simp.stomp.StompHeaders;
-import org.springframework.messaging.simp.stomp.StompSession;
-import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
-import org.springframework.web.socket.client.standard.StandardWebSocketClient;
-import org.springframework.web.socket.messaging.WebSocketStompClient;
+import jakarta.ws.rs.ProcessingException;
+import jakarta.ws.rs.WebApplicationException;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.RequestEntityProcessing;
 
 
 public class ServerUtils {
-    private static final Client client = ClientBuilder.newClient(new ClientConfig());
+    private static final Client client = HttpClientPool.client();
     private static final SplittyConfig splittyConfig = new SplittyConfig(); // Inject SplittyConfig
     private static final String SERVER = splittyConfig.getSplittyServerUrl();
+    private static final int PAGE_SIZE = 100;
+    // the event, its participants and its expenses for every cached event
+    private static final ConditionalCache reads = new ConditionalCache(splittyConfig.getCacheMaxEvents() * 3);
+    private static final EventCache cache = new EventCache(splittyConfig.getCacheMaxEvents(),
+            Duration.ofSeconds(splittyConfig.getCacheMaxAgeSeconds()),
+            ServerUtils::getParticipantsByEventId, ServerUtils::getExpensesForEvent, ServerUtils::getEventStatistics);
+    private static final OfflineJournal offlineJournal = new OfflineJournal(new File(System.getProperty("user.home")
+            + File.separator + "splitty_files", "offline-journal.ndjson"));
+    private static final OfflineSync offlineSync = new OfflineSync(offlineJournal, new JournalServer(), cache);
+
+    static {
+        offlineSync.start(splittyConfig.getOfflineRetrySeconds());
+    }
 
 
     /**
@@ -65,25 +85,40 @@ public class ServerUtils {
         return SERVER;
     }
 
+    /**
+     * the participants, expenses and statistics of the recently opened events, scenes read from it
+     * instead of downloading the same data again
+     * @return the cache
+     */
+    public static EventCache getCache() {
+        return cache;
+    }
+
+    /**
+     * sends the changes to expenses that were made while the server could not be reached
+     * @return the sync of the offline changes
+     */
+    public static OfflineSync getOfflineSync() {
+        return offlineSync;
+    }
+
     /**
      * Get event by invite code
      * @param inviteCode String
      * @return event
      */
     public static Event getEventByInviteCode(String inviteCode) {
-
-        Client client = ClientBuilder.newClient();
-        try {
-            // Send GET request to the server
-            Response response = client.target(SERVER)
-                    .path("api/events/inviteCode/" + Long.parseLong(inviteCode))
-                    .request(MediaType.APPLICATION_JSON)
-                    .get();
+        // Send GET request to the server
+        try (Response response = client.target(SERVER)
+                .path("api/events/inviteCode/" + Long.parseLong(inviteCode))
+                .request(WireFormat.ACCEPT)
+                .get()) {
 
             // Check if response is successful (status code 200)
             if (response.getStatus() == Response.Status.OK.getStatusCode()) {
                 // Deserialize the response entity into an Event object
                 Event event = response.readEntity(Event.class);
+                ParticipantReferences.resolve(event);
                 return event;
             } else {
                 // Handle non-OK response status code
@@ -93,10 +128,7 @@ public class ServerUtils {
         } catch (Exception e) {
             e.printStackTrace();
             return null; // Handle error appropriately
-        } finally {
-            client.close(); // Close the client to release resources
         }
-
     }
 
     /**
@@ -105,18 +137,19 @@ public class ServerUtils {
      * @return participant
      */
     public static Participant getParticipant(long participantId) {
-        Response response = client.target(SERVER)
+        try (Response response = client.target(SERVER)
                 .path("api/participants/{id}")
                 .resolveTemplate("id", participantId)
                 .request(APPLICATION_JSON)
                 .accept(APPLICATION_JSON)
-                .get();
-        if (response.getStatus() == Response.Status.NOT_FOUND.getStatusCode()) {
-            throw new RuntimeException("Participant not found with the id: " + participantId);
-        }else if (response.getStatusInfo().getFamily() != Response.Status.Family.SUCCESSFUL) {
-            throw new RuntimeException("Failed to retrieve participant. Status code: " + response.getStatus());
+                .get()) {
+            if (response.getStatus() == Response.Status.NOT_FOUND.getStatusCode()) {
+                throw new RuntimeException("Participant not found with the id: " + participantId);
+            } else if (response.getStatusInfo().getFamily() != Response.Status.Family.SUCCESSFUL) {
+                throw new RuntimeException("Failed to retrieve participant. Status code: " + response.getStatus());
+            }
+            return response.readEntity(Participant.class);
         }
-        return response.readEntity(Participant.class);
     }
 
 
@@ -130,18 +163,30 @@ public class ServerUtils {
      * @return Expense
      */
     public static Expense addExpense(long participantId, String description, double amountValue, long eventId, String tag) {
+        if (offlineSync.hasPending()) {
+            // the expense has to reach the server after the changes that are still waiting
+            return queueExpense(participantId, description, amountValue, eventId, tag);
+        }
         try {
             Participant participant = getParticipant(participantId);
             Expense expense = new Expense(participant, description, amountValue,eventId);
             expense.setExpenseType(tag);
             System.out.println(eventId);
-            return client.target(SERVER)
+            Expense added = client.target(SERVER)
                     .path("api/events/{eventId}/expenses")
                     .resolveTemplate("eventId", eventId)
                     .request(APPLICATION_JSON)
                     .accept(APPLICATION_JSON)
-                    .post(Entity.entity(expense, APPLICATION_JSON), Expense.class)
-                    ;
+                    .post(Entity.entity(expense, APPLICATION_JSON), Expense.class);
+            cache.putExpense(eventId, added);
+            return added;
+        } catch (ProcessingException e) {
+            // only a request that never reached the server can be sent again later
+            if (OfflineSync.connectionFailed(e)) {
+                return queueExpense(participantId, description, amountValue, eventId, tag);
+            }
+            throw new RuntimeException("The server did not answer, the expense may have been added: "
+                    + e.getMessage());
         } catch (BadRequestException e) {
             throw new RuntimeException("Bad request: " + e.getMessage());
         } catch (RuntimeException e) {
@@ -149,6 +194,28 @@ public class ServerUtils {
         }
     }
 
+    /**
+     * keeps a new expense in the offline journal until the server can be reached
+     * @param participantId the person who paid for the expense
+     * @param description description of the expense
+     * @param amountValue the amount the person has paid for the expense
+     * @param eventId event ID
+     * @param tag expense tag
+     * @return the expense, with a temporary negative id
+     */
+    private static Expense queueExpense(long participantId, String description, double amountValue,
+                                        long eventId, String tag) {
+        Participant participant = cache.findParticipant(eventId, participantId);
+        if (participant == null) {
+            // the server only needs the id to find the participant
+            participant = new Participant();
+            participant.setId(participantId);
+        }
+        Expense expense = new Expense(participant, description, amountValue, eventId);
+        expense.setExpenseType(tag);
+        return offlineSync.queueAdd(eventId, expense);
+    }
+
     /**
      * Deletes an expense from the database
      * @param expenseId the id of the expense
@@ -156,31 +223,53 @@ public class ServerUtils {
      * @return expense
      */
     public static Expense deleteExpense(long expenseId, long eventId){
+        expenseId = offlineJournal.realId(expenseId);
+        if (offlineSync.hasPending()) {
+            return queueDeletion(expenseId, eventId);
+        }
         try{
             Expense deletedExpense= findSpecificExpenseByEventId(expenseId,eventId);
-            Response response = deleteExpenseFromEvent(expenseId, eventId);
-            if(response.getStatus() == Response.Status.OK.getStatusCode()) {
-                response = client.target(SERVER)
+            int status;
+            try (Response response = deleteExpenseFromEvent(expenseId, eventId)) {
+                status = response.getStatus();
+            }
+            if(status == Response.Status.OK.getStatusCode()) {
+                try (Response response = client.target(SERVER)
                         .path("api/expenses/{id}")
                         .resolveTemplate("id", expenseId)
                         .request(APPLICATION_JSON)
-                        .delete();
+                        .delete()) {
+                    status = response.getStatus();
+                }
 
-                if(response.getStatus() == Response.Status.OK.getStatusCode()) {
+                if(status == Response.Status.OK.getStatusCode()) {
+                    cache.removeExpense(eventId, expenseId);
                     System.out.println("Expense deleted successfully");
                     return deletedExpense;
-                } else if (response.getStatus() == Response.Status.NOT_FOUND.getStatusCode()) {
+                } else if (status == Response.Status.NOT_FOUND.getStatusCode()) {
                     throw new RuntimeException("Expense not found with ID: " + expenseId);
                 } else {
-                    throw new RuntimeException("Failed to delete expense. HTTP status code: " + response.getStatus());
+                    throw new RuntimeException("Failed to delete expense. HTTP status code: " + status);
                 }
             } else{
-                throw new RuntimeException("Failed to remove expense from event. HTTP status code: " + response.getStatus());
+                throw new RuntimeException("Failed to remove expense from event. HTTP status code: " + status);
+            }
+        } catch (ProcessingException e) {
+            if (OfflineSync.connectionFailed(e)) {
+                return queueDeletion(expenseId, eventId);
             }
+            throw new RuntimeException("The server did not answer, the expense may have been deleted: "
+                    + e.getMessage());
         } catch(RuntimeException e){
             throw new RuntimeException("Failed to delete expense: " + e.getMessage());
         }
     }
+    private static Expense queueDeletion(long expenseId, long eventId) {
+        Expense deletedExpense = cache.findExpense(eventId, expenseId);
+        offlineSync.queueDelete(eventId, expenseId, deletedExpense);
+        return deletedExpense;
+    }
+
     /**
      * fetch specific expense through eventId
      * @param expenseId the specific expenseId
@@ -190,14 +279,7 @@ public class ServerUtils {
 
     public static Expense findSpecificExpenseByEventId(long expenseId,long eventId) {
         try {
-            // Fetch all expenses associated with the event
-            List<Expense> expenses = getExpensesForEvent(eventId);
-
-            // Find the expense by its ID
-            return expenses.stream()
-                    .filter(expense -> expense.getId() == expenseId)
-                    .findFirst()
-                    .orElse(null);
+            return cache.getExpense(eventId, expenseId);
         } catch (Exception e) {
             e.printStackTrace();
             return null;
@@ -234,8 +316,6 @@ public class ServerUtils {
      * @return A boolean indicating whether the deletion was successful.
      */
     public static boolean deleteAllEvents() {
-        Client client = ClientBuilder.newClient();
-
         try (Response response = client.target(SERVER)
                 .path("api/events/all")
                 .request()
@@ -250,8 +330,6 @@ public class ServerUtils {
         } catch (Exception e) {
             e.printStackTrace();
             return false;
-        } finally {
-            client.close();
         }
     }
 
@@ -259,7 +337,7 @@ public class ServerUtils {
      * deletes an expense from the event
      * @param expenseId the expense id
      * @param eventId the event id
-     * @return a response
+     * @return a response, which the caller closes
      */
     private static Response deleteExpenseFromEvent(long expenseId, long eventId) {
         Response response = client.target(SERVER)
@@ -278,13 +356,30 @@ public class ServerUtils {
      * @param eventId id of the event
      */
     public static void updateExpense(long expenseId, Expense updatedExpense, long eventId){
-        try {
-            client.target(SERVER)
-                    .path("api/events/{eventId}/expenses/{expenseId}")
-                    .resolveTemplate("eventId", eventId)
-                    .resolveTemplate("expenseId", expenseId)
-                    .request()
-                    .put(Entity.entity(updatedExpense, APPLICATION_JSON));
+        expenseId = offlineJournal.realId(expenseId);
+        if (offlineSync.hasPending()) {
+            offlineSync.queueUpdate(eventId, expenseId, updatedExpense, cache.findExpense(eventId, expenseId));
+            return;
+        }
+        try (Response response = client.target(SERVER)
+                .path("api/events/{eventId}/expenses/{expenseId}")
+                .resolveTemplate("eventId", eventId)
+                .resolveTemplate("expenseId", expenseId)
+                .request()
+                .put(Entity.entity(updatedExpense, APPLICATION_JSON))) {
+            if (response.getStatus() == Response.Status.NOT_FOUND.getStatusCode()) {
+                throw new NotFoundException();
+            }
+            if (response.getStatus() == Response.Status.OK.getStatusCode()) {
+                // the websocket also sends it, but the scene that changed it shows it right away
+                cache.putExpense(eventId, response.readEntity(Expense.class));
+            }
+        } catch (ProcessingException e) {
+            if (!OfflineSync.connectionFailed(e)) {
+                throw new RuntimeException("The server did not answer, the expense may have been updated: "
+                        + e.getMessage());
+            }
+            offlineSync.queueUpdate(eventId, expenseId, updatedExpense, cache.findExpense(eventId, expenseId));
         } catch(NotFoundException e) {
             throw new RuntimeException("Expense not found with ID: " + expenseId);
         } catch(RuntimeException e) {
@@ -318,12 +413,10 @@ public class ServerUtils {
      */
     public static List<Expense> getExpensesForEvent(Long eventId) {
         try {
-            List<Expense> expenses = client.target(SERVER)
+            List<Expense> expenses = reads.get(client.target(SERVER)
                     .path("api/events/{eventId}/expenses")
-                    .resolveTemplate("eventId", eventId)
-                    .request(APPLICATION_JSON)
-                    .accept(APPLICATION_JSON)
-                    .get(new GenericType<List<Expense>>() {});
+                    .resolveTemplate("eventId", eventId), new GenericType<List<Expense>>() {});
+            resolveParticipants(eventId, expenses);
             return expenses;
         } catch (NotFoundException e) {
             // Instead of throwing an exception, return an empty list
@@ -333,6 +426,54 @@ public class ServerUtils {
         }
     }
 
+    /**
+     * Fetches the totals of the expenses of an event per tag and per participant,
+     * computed by the server so the expenses themselves are not downloaded.
+     *
+     * @param eventId The unique identifier of the event.
+     * @return the statistics of the event, amounts in cents.
+     */
+    public static EventStatistics getEventStatistics(Long eventId) {
+        try {
+            return client.target(SERVER)
+                    .path("api/events/{eventId}/stats")
+                    .resolveTemplate("eventId", eventId)
+                    .request(APPLICATION_JSON)
+                    .accept(APPLICATION_JSON)
+                    .get(EventStatistics.class);
+        } catch (Exception e) {
+            throw new RuntimeException("Error fetching statistics for event: " + e.getMessage());
+        }
+    }
+
+    /**
+     * gets what changed in an event after the version the client has, instead of
+     * downloading all participants and expenses again
+     * @param eventId the id of the event
+     * @param since the version of the event the client has
+     * @return the changes, or null if the server does not know the version anymore
+     * and the whole event has to be downloaded again
+     */
+    public static EventChanges getEventChanges(long eventId, long since) {
+        try (Response response = client.target(SERVER)
+                .path("api/events/{eventId}/changes")
+                .resolveTemplate("eventId", eventId)
+                .queryParam("since", since)
+                .request(APPLICATION_JSON)
+                .accept(APPLICATION_JSON)
+                .get()) {
+            if (response.getStatus() == Response.Status.CONFLICT.getStatusCode()) {
+                return null;
+            }
+            if (response.getStatus() != Response.Status.OK.getStatusCode()) {
+                throw new RuntimeException("Server responded with status " + response.getStatus());
+            }
+            return response.readEntity(EventChanges.class);
+        } catch (Exception e) {
+            throw new RuntimeException("Error fetching changes for event: " + e.getMessage());
+        }
+    }
+
 
 
 
@@ -343,8 +484,7 @@ public class ServerUtils {
      * @return participant
      */
     public static Participant addParticipant(Participant participant) {
-        return ClientBuilder.newClient(new ClientConfig())
-                .target(SERVER).path("api/participants")
+        return client.target(SERVER).path("api/participants")
                 .request(APPLICATION_JSON)
                 .accept(APPLICATION_JSON)
                 .post(Entity.entity(participant, APPLICATION_JSON), Participant.class);
@@ -357,8 +497,7 @@ public class ServerUtils {
      */
     public static Event addEvent(Event event) {
         try {
-            return ClientBuilder.newClient(new ClientConfig())
-                    .target(SERVER).path("api/events")
+            return client.target(SERVER).path("api/events")
                     .request(APPLICATION_JSON)
                     .accept(APPLICATION_JSON)
                     .post(Entity.entity(event, APPLICATION_JSON), Event.class);
@@ -367,6 +506,48 @@ public class ServerUtils {
         }
     }
 
+    /**
+     * imports an export of one or all events. The server gives the events, participants and expenses
+     * new ids and inserts them in one transaction. A compressed export (.gz) is sent as it is. The file is
+     * streamed to the server in chunks, so a large export is never read into memory at once. The server
+     * answers only once the whole import is committed, so this request waits without a read timeout: a
+     * client that gave up and tried again would import every event twice
+     * @param file the exported events
+     * @return the summaries of the imported events
+     * @throws IOException if the file can not be read
+     */
+    public static List<EventSummary> importEvents(File file) throws IOException {
+        boolean compressed = file.getName().endsWith(".gz");
+        try (InputStream body = Files.newInputStream(file.toPath())) {
+            return client.target(SERVER).path("api/admin/import")
+                    .property(ClientProperties.REQUEST_ENTITY_PROCESSING, RequestEntityProcessing.CHUNKED)
+                    .property(ClientProperties.READ_TIMEOUT, 0)
+                    .request(APPLICATION_JSON)
+                    .accept(APPLICATION_JSON)
+                    .header(HttpHeaders.CONTENT_ENCODING, compressed ? "gzip" : null)
+                    .post(Entity.entity(body, APPLICATION_JSON), new GenericType<List<EventSummary>>() {});
+        }
+    }
+
+    /**
+     * exports all events, compressed and one event per line. The export is copied to the file while
+     * the server writes it, so neither side has all events in memory
+     * @param file where the export is saved
+     * @throws IOException if the export fails or the file can not be written
+     */
+    public static void exportEvents(File file) throws IOException {
+        Response response = client.target(SERVER).path("api/admin/export")
+                .queryParam("gzip", true)
+                .request("application/gzip")
+                .get();
+        try (response; InputStream body = response.readEntity(InputStream.class)) {
+            if (response.getStatus() != Response.Status.OK.getStatusCode()) {
+                throw new IOException("the server answered " + response.getStatus());
+            }
+            Files.copy(body, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
 
     /**
      * Updated title of event
@@ -374,81 +555,107 @@ public class ServerUtils {
      * @param newTitle new title
      */
     public static void updateEventTitle(Long eventId, String newTitle) {
-        try {
-            // Encode the new title to ensure proper URL formatting
-            String encodedNewTitle = URLEncoder.encode(newTitle, StandardCharsets.UTF_8);
-
-            // Construct the URL with the new title as a query parameter
-            String urlString = SERVER + "api/events/" + eventId + "/updateTitle?newTitle=" + encodedNewTitle;
-            URL url = new URL(urlString);
-
-            // Open connection
-            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-            connection.setRequestMethod("PUT");
-            connection.setRequestProperty("Content-Type", "application/json");
-            connection.setDoOutput(true);
-
-            // No need for request body in this case
-
-            // Perform the request
-            int responseCode = connection.getResponseCode();
-            if (responseCode == HttpURLConnection.HTTP_OK) {
-                // If needed, read and handle the response here
-            } else {
+        try (Response response = client.target(SERVER)
+                .path("api/events/{eventId}/updateTitle")
+                .resolveTemplate("eventId", eventId)
+                .queryParam("newTitle", newTitle)
+                .request(APPLICATION_JSON)
+                .put(Entity.entity("", APPLICATION_JSON))) {
+            if (response.getStatus() != Response.Status.OK.getStatusCode()) {
                 // Handle unsuccessful response
-                System.err.println("Failed to update event title. Response code: " + responseCode);
+                System.err.println("Failed to update event title. Response code: " + response.getStatus());
             }
-
-            // Disconnect the connection
-            connection.disconnect();
-        } catch (IOException e) {
+        } catch (Exception e) {
             e.printStackTrace();
         }
     }
 
     /**
      * gets all participants (will need changing for different events )
+     * the participants are fetched page by page
      * @return an arrray list of participants
+     * @throws RuntimeException if a page could not be fetched
      */
     public static List<Participant> getAllParticipants() {
-        try {
-            Response response = client.target(SERVER)
-                    .path("api/participants")
-                    .request(MediaType.APPLICATION_JSON)
-                    .get();
+        List<Participant> participants = new ArrayList<>();
+        getAllParticipants(participants::addAll);
+        return participants;
+    }
 
-            if (response.getStatus() == Response.Status.OK.getStatusCode()) {
-                return response.readEntity(new GenericType<List<Participant>>(){});
-            } else {
-                System.err.println("Error fetching participants: " + response.getStatus());
-                return Collections.emptyList();
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-            return Collections.emptyList();
-        }
+    /**
+     * gets all participants page by page, so they can be shown before everything is loaded
+     * @param pageConsumer called with the participants of every page, in order of id
+     * @throws RuntimeException if a page could not be fetched, the pages before it were already handed over
+     */
+    public static void getAllParticipants(Consumer<List<Participant>> pageConsumer) {
+        fetchPages("api/participants/page", new GenericType<KeysetPage<Participant>>(){}, pageConsumer);
     }
 
     /**
-     * Fetches all events from the server.
+     * Fetches all events from the server, page by page.
      * @return A list of all events.
+     * @throws RuntimeException if a page could not be fetched
      */
     public static List<Event> getAllEvents() {
+        List<Event> events = new ArrayList<>();
+        getAllEvents(events::addAll);
+        return events;
+    }
+
+    /**
+     * Fetches all events from the server page by page, so they can be handled before everything is loaded
+     * @param pageConsumer called with the events of every page, in order of id
+     * @throws RuntimeException if a page could not be fetched, the pages before it were already handed over
+     */
+    public static void getAllEvents(Consumer<List<Event>> pageConsumer) {
+        fetchPages("api/events/page", new GenericType<KeysetPage<Event>>(){}, pageConsumer);
+    }
+
+    /**
+     * Fetches the summaries of all events from the server, without their participants and expenses.
+     * @return A list of all event summaries.
+     * @throws RuntimeException if a page could not be fetched
+     */
+    public static List<EventSummary> getEventSummaries() {
+        List<EventSummary> summaries = new ArrayList<>();
+        getEventSummaries(summaries::addAll);
+        return summaries;
+    }
+
+    /**
+     * Fetches the summaries of all events page by page, so they can be shown before everything is loaded
+     * @param pageConsumer called with the summaries of every page, in order of id
+     * @throws RuntimeException if a page could not be fetched, the pages before it were already handed over
+     */
+    public static void getEventSummaries(Consumer<List<EventSummary>> pageConsumer) {
+        fetchPages("api/events/summaries/page", new GenericType<KeysetPage<EventSummary>>(){}, pageConsumer);
+    }
+
+    /**
+     * Fetches one page of a listing
+     * @param path the path of the listing endpoint
+     * @param cursor the cursor of the previous page, null for the first page
+     * @param type the type of the page
+     * @param <T> the type of the items
+     * @return the page, or null if it could not be retrieved
+     */
+    public static <T> KeysetPage<T> getPage(String path, String cursor, GenericType<KeysetPage<T>> type) {
         Response response = null;
         try {
-            response = client.target(SERVER)
-                    .path("api/events")
-                    .request(MediaType.APPLICATION_JSON)
-                    .get();
+            WebTarget target = client.target(SERVER).path(path).queryParam("limit", PAGE_SIZE);
+            if (cursor != null) {
+                target = target.queryParam("cursor", cursor);
+            }
+            response = target.request(MediaType.APPLICATION_JSON).get();
             if (response.getStatus() == Response.Status.OK.getStatusCode()) {
-                return response.readEntity(new GenericType<List<Event>>(){});
+                return response.readEntity(type);
             } else {
-                System.err.println("Failed to retrieve all events. Status code: " + response.getStatus());
-                return Collections.emptyList();
+                System.err.println("Failed to retrieve a page of " + path + ". Status code: " + response.getStatus());
+                return null;
             }
         } catch (Exception e) {
             e.printStackTrace();
-            return Collections.emptyList();
+            return null;
         } finally {
             if (response != null) {
                 response.close();
@@ -456,6 +663,63 @@ public class ServerUtils {
         }
     }
 
+    private static <T> void fetchPages(String path, GenericType<KeysetPage<T>> type, Consumer<List<T>> pageConsumer) {
+        String cursor = null;
+        do {
+            KeysetPage<T> page = getPage(path, cursor, type);
+            if (page == null) {
+                // a partial listing would look complete, for example deleted events would be dropped
+                throw new RuntimeException("Could not fetch every page of " + path);
+            }
+            if (!page.getItems().isEmpty()) {
+                pageConsumer.accept(page.getItems());
+            }
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+    }
+
+    /**
+     * puts the participants of the event into expenses that were read in the binary format, which only
+     * sends their ids. A participant that is not cached yet was added since, so the participants are
+     * downloaded again; the expenses must never keep a participant that only has an id, saving one
+     * would overwrite the participant on the server. Downloads, so never call it on the FX thread
+     * @param eventId the id of the event
+     * @param expenses the expenses, changed in place
+     * @throws IllegalStateException if an expense refers to a participant the event does not have
+     */
+    private static void resolveParticipants(long eventId, Collection<Expense> expenses) {
+        if (!ParticipantReferences.hasReferences(expenses)) {
+            return;
+        }
+        ParticipantReferences.resolve(expenses, cache.getParticipants(eventId));
+        if (ParticipantReferences.hasReferences(expenses)) {
+            ParticipantReferences.resolve(expenses, cache.reloadParticipants(eventId));
+        }
+        if (ParticipantReferences.hasReferences(expenses)) {
+            throw new IllegalStateException("An expense refers to a participant that is not in event " + eventId);
+        }
+    }
+
+    /**
+     * Fetches a single event with its participants and expenses from the server. The server answers
+     * 304 Not Modified while the event did not change, the event is then read from the last response.
+     * @param eventId the id of the event
+     * @return the event, or null if it could not be retrieved
+     */
+    public static Event getEventById(long eventId) {
+        try {
+            Event event = reads.get(client.target(SERVER).path("api/events/" + eventId), new GenericType<Event>() {});
+            ParticipantReferences.resolve(event);
+            return event;
+        } catch (WebApplicationException e) {
+            System.err.println("Failed to retrieve event " + eventId + ". Status code: " + e.getResponse().getStatus());
+            return null;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
     /**
      * get the participants by the event id
      * @param eventId as a long number
@@ -463,17 +727,12 @@ public class ServerUtils {
      */
     public static List<Participant> getParticipantsByEventId(long eventId) {
         try {
-            Response response = client.target(SERVER)
-                    .path("api/events/" + eventId + "/participants")
-                    .request(MediaType.APPLICATION_JSON)
-                    .get();
-            if (response.getStatus() == Response.Status.OK.getStatusCode()) {
-                return response.readEntity(new GenericType<List<Participant>>(){});
-            } else {
-                System.err.println("Error getting participants for event with id: "
-                        + eventId + ", Status code: " + response.getStatus());
-                return Collections.emptyList();
-            }
+            return reads.get(client.target(SERVER).path("api/events/" + eventId + "/participants"),
+                    new GenericType<List<Participant>>(){});
+        } catch (WebApplicationException e) {
+            System.err.println("Error getting participants for event with id: "
+                    + eventId + ", Status code: " + e.getResponse().getStatus());
+            return Collections.emptyList();
         } catch (Exception e) {
             e.printStackTrace();
             return Collections.emptyList();
@@ -488,10 +747,12 @@ public class ServerUtils {
      */
     public static Participant addParticipantToEvent(long eventId, Participant participant) {
         try {
-            return client.target(SERVER)
+            Participant added = client.target(SERVER)
                     .path("api/events/" + eventId + "/participants")
                     .request(APPLICATION_JSON)
                     .post(Entity.entity(participant, APPLICATION_JSON), Participant.class);
+            cache.putParticipant(eventId, added);
+            return added;
         } catch (Exception e) {
             e.printStackTrace();
             return null;
@@ -507,14 +768,16 @@ public class ServerUtils {
      * @return participant
      */
     public static boolean updateParticipant(long eventId, long participantId, Participant participantDetails) {
-        try {
-            Response response = client.target(SERVER)
-                    .path("api/events/" + eventId + "/participants/" + participantId)
-                    .request(APPLICATION_JSON)
-                    .put(Entity.entity(participantDetails, APPLICATION_JSON));
+        try (Response response = client.target(SERVER)
+                .path("api/events/" + eventId + "/participants/" + participantId)
+                .request(APPLICATION_JSON)
+                .put(Entity.entity(participantDetails, APPLICATION_JSON))) {
 
             if (response.getStatusInfo().getFamily() == Response.Status.Family.SUCCESSFUL) {
                 Participant updatedParticipant = response.readEntity(Participant.class);
+                if (updatedParticipant != null) {
+                    cache.putParticipant(eventId, updatedParticipant);
+                }
                 return updatedParticipant != null;
             } else {
                 System.err.println("Update failed with status code: " + response.getStatus());
@@ -534,13 +797,15 @@ public class ServerUtils {
      * @return true if the deletion was successful, false otherwise
      */
     public static boolean deleteParticipant(long participantId, long eventId) {
-        try {
-            Response response = client.target(SERVER)
-                    .path("api/events/"+eventId+"/participants/" + participantId)
-                    .request(APPLICATION_JSON)
-                    .delete();
-
-            return response.getStatus() == Response.Status.OK.getStatusCode();
+        try (Response response = client.target(SERVER)
+                .path("api/events/"+eventId+"/participants/" + participantId)
+                .request(APPLICATION_JSON)
+                .delete()) {
+            if (response.getStatus() != Response.Status.OK.getStatusCode()) {
+                return false;
+            }
+            cache.removeParticipant(eventId, participantId);
+            return true;
         } catch (Exception e) {
             e.printStackTrace();
             return false;
@@ -553,12 +818,10 @@ public class ServerUtils {
      * @return The participant with the given ID, or null if not found.
      */
     public static Participant findParticipantById(long participantId) {
-        try {
-            Response response = client.target(SERVER)
-                    .path("api/participants/" + participantId)
-                    .request(MediaType.APPLICATION_JSON)
-                    .get();
-
+        try (Response response = client.target(SERVER)
+                .path("api/participants/" + participantId)
+                .request(MediaType.APPLICATION_JSON)
+                .get()) {
             if (response.getStatus() == Response.Status.OK.getStatusCode()) {
                 return response.readEntity(Participant.class);
             } else if (response.getStatus() == Response.Status.NOT_FOUND.getStatusCode()) {
@@ -579,14 +842,11 @@ public class ServerUtils {
      * @param adminPassword randomly generated password
      */
     public static void sendAdminPasswordToServer(String adminPassword) {
-        try {
-            Entity<String> passwordEntity = Entity.entity(adminPassword, MediaType.TEXT_PLAIN);
-
-            Response response = client.target(SERVER)
-                    .path("api/admin/setAdminPassword")
-                    .request(MediaType.TEXT_PLAIN)
-                    .post(passwordEntity);
-
+        Entity<String> passwordEntity = Entity.entity(adminPassword, MediaType.TEXT_PLAIN);
+        try (Response response = client.target(SERVER)
+                .path("api/admin/setAdminPassword")
+                .request(MediaType.TEXT_PLAIN)
+                .post(passwordEntity)) {
             if (response.getStatus() != Response.Status.OK.getStatusCode()) {
                 System.err.println("Failed to send admin password. Status code: " + response.getStatus());
             }
@@ -598,75 +858,341 @@ public class ServerUtils {
 
 
     /**
-     * Long polling of Participants
+     * gets an event by its invite code without blocking the calling thread
+     * @param inviteCode String
+     * @return completed with the event, or null if it could not be retrieved
      */
-    private static final ExecutorService EXEC = Executors.newSingleThreadExecutor();
+    public static CompletableFuture<Event> getEventByInviteCodeAsync(String inviteCode) {
+        return HttpClientPool.async(() -> getEventByInviteCode(inviteCode));
+    }
 
     /**
-     * register for updates (websockets)
+     * fetches a single event without blocking the calling thread
+     * @param eventId the id of the event
+     * @return completed with the event, or null if it could not be retrieved
+     */
+    public static CompletableFuture<Event> getEventByIdAsync(long eventId) {
+        return HttpClientPool.async(() -> getEventById(eventId));
+    }
+
+    /**
+     * adds an event without blocking the calling thread
+     * @param event an event
+     * @return completed with the created event
+     */
+    public static CompletableFuture<Event> addEventAsync(Event event) {
+        return HttpClientPool.async(() -> addEvent(event));
+    }
+
+    /**
+     * deletes an event without blocking the calling thread
+     * @param eventId the id of the event
+     * @return completed with whether the deletion was successful
+     */
+    public static CompletableFuture<Boolean> deleteEventAsync(long eventId) {
+        return HttpClientPool.async(() -> deleteEvent(eventId));
+    }
+
+    /**
+     * deletes all events without blocking the calling thread
+     * @return completed with whether the deletion was successful
+     */
+    public static CompletableFuture<Boolean> deleteAllEventsAsync() {
+        return HttpClientPool.async(ServerUtils::deleteAllEvents);
+    }
+
+    /**
+     * fetches the summaries of all events without blocking the calling thread
+     * @return completed with the summaries of all events
+     */
+    public static CompletableFuture<List<EventSummary>> getEventSummariesAsync() {
+        return HttpClientPool.async(() -> getEventSummaries());
+    }
+
+    /**
+     * fetches the summaries of all events page by page without blocking the calling thread
+     * @param pageConsumer called on a request thread with the summaries of every page, in order of id
+     * @return completed when all pages are fetched
+     */
+    public static CompletableFuture<Void> getEventSummariesAsync(Consumer<List<EventSummary>> pageConsumer) {
+        return HttpClientPool.async(() -> getEventSummaries(pageConsumer));
+    }
+
+    /**
+     * fetches the participants of an event without blocking the calling thread
+     * @param eventId the id of the event
+     * @return completed with the participants
+     */
+    public static CompletableFuture<List<Participant>> getParticipantsByEventIdAsync(long eventId) {
+        return HttpClientPool.async(() -> getParticipantsByEventId(eventId));
+    }
+
+    /**
+     * fetches the expenses of an event without blocking the calling thread
+     * @param eventId the id of the event
+     * @return completed with the expenses
+     */
+    public static CompletableFuture<List<Expense>> getExpensesForEventAsync(long eventId) {
+        return HttpClientPool.async(() -> getExpensesForEvent(eventId));
+    }
+
+    /**
+     * fetches the statistics of an event without blocking the calling thread
+     * @param eventId the id of the event
+     * @return completed with the statistics, amounts in cents
+     */
+    public static CompletableFuture<EventStatistics> getEventStatisticsAsync(long eventId) {
+        return HttpClientPool.async(() -> getEventStatistics(eventId));
+    }
+
+    /**
+     * gets what changed in an event without blocking the calling thread
+     * @param eventId the id of the event
+     * @param since the version of the event the client has
+     * @return completed with the changes, or null if the whole event has to be downloaded again
+     */
+    public static CompletableFuture<EventChanges> getEventChangesAsync(long eventId, long since) {
+        return HttpClientPool.async(() -> getEventChanges(eventId, since));
+    }
+
+    /**
+     * adds an expense to an event without blocking the calling thread
+     * @param participantId the person who paid for the expense
+     * @param description description of the expense
+     * @param amountValue the amount the person has paid for the expense
+     * @param eventId event ID
+     * @param tag expense tag
+     * @return completed with the created expense
+     */
+    public static CompletableFuture<Expense> addExpenseAsync(long participantId, String description,
+                                                             double amountValue, long eventId, String tag) {
+        return HttpClientPool.async(() -> addExpense(participantId, description, amountValue, eventId, tag));
+    }
+
+    /**
+     * adds a participant to an event without blocking the calling thread
+     * @param eventId long
+     * @param participant a participant
+     * @return completed with the created participant, or null if it could not be added
+     */
+    public static CompletableFuture<Participant> addParticipantToEventAsync(long eventId, Participant participant) {
+        return HttpClientPool.async(() -> addParticipantToEvent(eventId, participant));
+    }
+
+    /**
+     * updates a participant without blocking the calling thread
+     * @param eventId long
+     * @param participantId long
+     * @param participantDetails participant
+     * @return completed with whether the update was successful
+     */
+    public static CompletableFuture<Boolean> updateParticipantAsync(long eventId, long participantId,
+                                                                    Participant participantDetails) {
+        return HttpClientPool.async(() -> updateParticipant(eventId, participantId, participantDetails));
+    }
+
+    /**
+     * deletes a participant from an event without blocking the calling thread
+     * @param participantId long
+     * @param eventId id of the event
+     * @return completed with whether the deletion was successful
+     */
+    public static CompletableFuture<Boolean> deleteParticipantAsync(long participantId, long eventId) {
+        return HttpClientPool.async(() -> deleteParticipant(participantId, eventId));
+    }
+
+    /**
+     * updates an expense without blocking the calling thread
+     * @param expenseId the id of the expense that needs to be updated
+     * @param updatedExpense the new updated version of the expense
+     * @param eventId id of the event
+     * @return completed when the expense is updated
+     */
+    public static CompletableFuture<Void> updateExpenseAsync(long expenseId, Expense updatedExpense, long eventId) {
+        return HttpClientPool.async(() -> updateExpense(expenseId, updatedExpense, eventId));
+    }
+
+    /**
+     * deletes an expense without blocking the calling thread
+     * @param expenseId the id of the expense
+     * @param eventId id of the event
+     * @return completed with the deleted expense
+     */
+    public static CompletableFuture<Expense> deleteExpenseAsync(long expenseId, long eventId) {
+        return HttpClientPool.async(() -> deleteExpense(expenseId, eventId));
+    }
+
+    /**
+     * updates the title of an event without blocking the calling thread
      * @param eventId event id
-     * @param consumer participant consumer
+     * @param newTitle new title
+     * @return completed when the title is updated
      */
-    public static void registerForUpdates(long eventId, Consumer<Participant> consumer) {
-        EXEC.submit(()->{
-            while (!Thread.interrupted()) {
-                var res = ClientBuilder.newClient(new ClientConfig())
-                        .target(SERVER).path("api/events/" + eventId + "/participants/updates")
-                        .request(APPLICATION_JSON)
-                        .accept(APPLICATION_JSON)
-                        .get(Response.class);
-                if (res.getStatus()==204){
-                    continue;
-                }
-                var q = res.readEntity(Participant.class);
-                consumer.accept(q);
+    public static CompletableFuture<Void> updateEventTitleAsync(Long eventId, String newTitle) {
+        return HttpClientPool.async(() -> updateEventTitle(eventId, newTitle));
+    }
+
+    /**
+     * adds a participant without blocking the calling thread
+     * @param participant a participant
+     * @return completed with the created participant
+     */
+    public static CompletableFuture<Participant> addParticipantAsync(Participant participant) {
+        return HttpClientPool.async(() -> addParticipant(participant));
+    }
+
+    /**
+     * gets a participant by id without blocking the calling thread
+     * @param participantId participant id
+     * @return completed with the participant
+     */
+    public static CompletableFuture<Participant> getParticipantAsync(long participantId) {
+        return HttpClientPool.async(() -> getParticipant(participantId));
+    }
+
+    /**
+     * finds a participant by id without blocking the calling thread
+     * @param participantId the id of the participant
+     * @return completed with the participant, or null if not found
+     */
+    public static CompletableFuture<Participant> findParticipantByIdAsync(long participantId) {
+        return HttpClientPool.async(() -> findParticipantById(participantId));
+    }
+
+    /**
+     * fetches all participants without blocking the calling thread
+     * @return completed with all participants
+     */
+    public static CompletableFuture<List<Participant>> getAllParticipantsAsync() {
+        return HttpClientPool.async(() -> getAllParticipants());
+    }
+
+    /**
+     * fetches all participants page by page without blocking the calling thread
+     * @param pageConsumer called on a request thread with the participants of every page, in order of id
+     * @return completed when all pages are fetched
+     */
+    public static CompletableFuture<Void> getAllParticipantsAsync(Consumer<List<Participant>> pageConsumer) {
+        return HttpClientPool.async(() -> getAllParticipants(pageConsumer));
+    }
+
+    /**
+     * fetches all events without blocking the calling thread
+     * @return completed with all events
+     */
+    public static CompletableFuture<List<Event>> getAllEventsAsync() {
+        return HttpClientPool.async(() -> getAllEvents());
+    }
+
+    /**
+     * fetches all events page by page without blocking the calling thread
+     * @param pageConsumer called on a request thread with the events of every page, in order of id
+     * @return completed when all pages are fetched
+     */
+    public static CompletableFuture<Void> getAllEventsAsync(Consumer<List<Event>> pageConsumer) {
+        return HttpClientPool.async(() -> getAllEvents(pageConsumer));
+    }
+
+    /**
+     * fetches the expenses a participant paid without blocking the calling thread
+     * @param participantId the id of the participant
+     * @return completed with the expenses
+     */
+    public static CompletableFuture<List<Expense>> getExpensesForParticipantAsync(Long participantId) {
+        return HttpClientPool.async(() -> getExpensesForParticipant(participantId));
+    }
+
+    /**
+     * imports an export of one or all events without blocking the calling thread
+     * @param file the exported events
+     * @return completed with the summaries of the imported events, or with an {@link UncheckedIOException}
+     *         if the file can not be read
+     */
+    public static CompletableFuture<List<EventSummary>> importEventsAsync(File file) {
+        return HttpClientPool.async(() -> {
+            try {
+                return importEvents(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * exports all events without blocking the calling thread
+     * @param file where the export is saved
+     * @return completed when the export is saved, or with an {@link UncheckedIOException} if it failed
+     */
+    public static CompletableFuture<Void> exportEventsAsync(File file) {
+        return HttpClientPool.async(() -> {
+            try {
+                exportEvents(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
         });
     }
 
     /**
-     * Stops the ExecutorService
+     * sends the admin password to the server without blocking the calling thread
+     * @param adminPassword randomly generated password
+     * @return completed when the password is sent
+     */
+    public static CompletableFuture<Void> sendAdminPasswordToServerAsync(String adminPassword) {
+        return HttpClientPool.async(() -> sendAdminPasswordToServer(adminPassword));
+    }
+
+    /**
+     * Stops the background work and closes the connections to the server
      */
     public void stop(){
-        EXEC.shutdownNow();
+        offlineSync.stop();
+        CHANNEL.close();
+        HttpClientPool.close();
     }
 
     private static final String WEBSOCKETSERVER = splittyConfig.getSplittyWebsocketUrl();
-    private final StompSession session = connect(WEBSOCKETSERVER);
-    private StompSession connect (String url){
-        var client = new StandardWebSocketClient();
-        var stomp = new WebSocketStompClient(client);
-        stomp.setMessageConverter(new MappingJackson2MessageConverter());
-        try{
-            return stomp.connect(url, new StompSessionHandlerAdapter() {}).get();}
-        catch(InterruptedException e ){
-            Thread.currentThread().interrupt();
-        }
-        catch (ExecutionException e ){
-            throw new RuntimeException(e);
-        }
-        throw new IllegalStateException();
+    private static final FrameDispatcher DISPATCHER = FrameDispatcher.onFxThread();
+    /**
+     * the one websocket connection of the client, shared by all scenes
+     */
+    private static final UpdateChannel CHANNEL = UpdateChannel.of(WEBSOCKETSERVER, DISPATCHER);
+
+    static {
+        // the updates missed while the websocket was not connected are not sent again
+        CHANNEL.onReconnect(cache::clear);
     }
 
     /**
-     * registers for messages
-     * @param dest destination
-     * @param eventId evend ID
-     * @param participantId participant ID
-     * @param consumer participant consumer
-     */
-    public void registerForMessages(String dest, Long eventId, Long participantId, Consumer<Participant> consumer){
-        session.subscribe(dest, new StompFrameHandler() {
-            @Override
-            public Type getPayloadType(StompHeaders headers) {
-                return Participant.class;
-            }
+     * the counters of the updates that wait for the UI thread, see {@link FrameDispatcher#metrics()}
+     * @return the counters by name
+     */
+    public static Map<String, Long> getUpdateMetrics() {
+        return DISPATCHER.metrics();
+    }
 
-            @Override
-            public void handleFrame(StompHeaders headers, Object payload) {
-                consumer.accept((Participant) payload);
-            }
-        });
+    /**
+     * registers for participant messages of one event, the server only sends the changes of
+     * an event to the clients that subscribed to that event. The messages of one frame are
+     * handed over together, with only the last message of a participant
+     * @param eventId event ID
+     * @param topic {@link EventTopics#PARTICIPANTS} or {@link EventTopics#PARTICIPANT_DELETION}
+     * @param consumer called on the FX thread with the participants of one frame
+     * @return the subscription, to unsubscribe when another event is opened
+     */
+    public UpdateChannel.Subscription registerForMessages(long eventId, String topic,
+                                                          Consumer<List<Participant>> consumer){
+        return CHANNEL.subscribeBatches(EventTopics.of(eventId, topic), Participant.class, Participant::getId,
+                participants -> {
+                    for (Participant participant : participants) {
+                        if (EventTopics.PARTICIPANT_DELETION.equals(topic)) {
+                            cache.removeParticipant(eventId, participant.getId());
+                        } else {
+                            cache.putParticipant(eventId, participant);
+                        }
+                    }
+                    consumer.accept(participants);
+                });
     }
 
     /**
@@ -675,48 +1201,128 @@ public class ServerUtils {
      * @param o object
      */
     public void send(String dest, Object o){
-        session.send(dest,o);
+        CHANNEL.send(dest, o);
     }
 
     /**
-     * registers for event updates
-     * @param dest destination
+     * registers for the title changes of one event, of several changes in one frame only the last is handed over
      * @param eventId event id
-     * @param newTitle new title
      * @param consumer event consumer
+     * @return the subscription, to unsubscribe when another event is opened
      */
-    public void registerForEventUpdates(String dest, long eventId, String newTitle, Consumer<Event> consumer){
-        session.subscribe(dest, new StompFrameHandler() {
-            @Override
-            public Type getPayloadType(StompHeaders headers) {
-                return Event.class;
-            }
-
-            @Override
-            public void handleFrame(StompHeaders headers, Object payload) {
-                consumer.accept((Event) payload);
-            }
-        });
+    public UpdateChannel.Subscription registerForEventUpdates(long eventId, Consumer<Event> consumer){
+        return CHANNEL.subscribeBatches(EventTopics.of(eventId, EventTopics.TITLE), Event.class, Event::getId,
+                events -> consumer.accept(events.get(events.size() - 1)));
     }
 
     /**
-     * Websocket subscription to expenses
-     * @param dest String as destination
+     * Websocket subscription to the expenses added to one event. The expenses of one frame are
+     * handed over together, an expense that changed twice only once. Their participants are filled in
+     * on the websocket thread, an expense with an unknown participant is left out
      * @param eventId long
-     * @param consumer Expense
+     * @param consumer called on the FX thread with the expenses of one frame
+     * @return the subscription, to unsubscribe when another event is opened
+     */
+    public UpdateChannel.Subscription registerForExpenses(long eventId, Consumer<List<Expense>> consumer){
+        return CHANNEL.subscribeBatches(EventTopics.of(eventId, EventTopics.EXPENSES), Expense.class, Expense::getId,
+                expense -> resolveParticipants(eventId, List.of(expense)),
+                expenses -> {
+                    expenses.forEach(expense -> cache.putExpense(eventId, expense));
+                    consumer.accept(expenses);
+                });
+    }
+
+    /**
+     * Websocket subscription to the expenses of one event that were changed or deleted, so the cache and
+     * the scenes do not show them as they were. The expenses of one frame are handed over together
+     * @param eventId the id of the event
+     * @param topic {@link EventTopics#EXPENSE_UPDATES} or {@link EventTopics#EXPENSE_DELETION}
+     * @param consumer called on the FX thread with the expenses of one frame, after the cache has them
+     * @return the subscription, to unsubscribe when another event is opened
+     */
+    public UpdateChannel.Subscription registerForExpenseChanges(long eventId, String topic,
+                                                                Consumer<List<Expense>> consumer) {
+        boolean deletion = EventTopics.EXPENSE_DELETION.equals(topic);
+        return CHANNEL.subscribeBatches(EventTopics.of(eventId, topic), Expense.class, Expense::getId,
+                deletion ? null : expense -> resolveParticipants(eventId, List.of(expense)),
+                expenses -> {
+                    if (deletion) {
+                        expenses.forEach(expense -> cache.removeExpense(eventId, expense.getId()));
+                    } else {
+                        expenses.forEach(expense -> cache.putExpense(eventId, expense));
+                    }
+                    consumer.accept(expenses);
+                });
+    }
+
+    /**
+     * unsubscribes from the topics of the event that was open before
+     * @param subscriptions the subscriptions, the list is emptied
+     */
+    public static void unsubscribe(List<UpdateChannel.Subscription> subscriptions) {
+        subscriptions.forEach(UpdateChannel.Subscription::unsubscribe);
+        subscriptions.clear();
+    }
+
+    /**
+     * the requests that send the changes of the offline journal. They throw a {@link ProcessingException}
+     * while the server can not be reached or does not answer, the change is then sent again later, and a
+     * {@link WebApplicationException} with the status the server answered, a change is only dropped if it
+     * was refused with a 4xx status. Added expenses carry the key of their
+     * journal entry, so the batch endpoint does not add them twice
      */
-    public void registerForExpenses(String dest, Long eventId, Consumer<Expense> consumer){
-        session.subscribe(dest, new StompFrameHandler() {
-            @Override
-            public Type getPayloadType(StompHeaders headers) {
-                return Expense.class;
+    private static final class JournalServer implements OfflineSync.Server {
+        @Override
+        public List<Long> addExpenses(long eventId, List<Expense> expenses) {
+            return client.target(SERVER)
+                    .path("api/events/{eventId}/expenses:batch")
+                    .resolveTemplate("eventId", eventId)
+                    .request(APPLICATION_JSON)
+                    .accept(APPLICATION_JSON)
+                    .post(Entity.entity(expenses, APPLICATION_JSON), new GenericType<List<Long>>() {});
+        }
+
+        @Override
+        public List<Expense> expensesOf(long eventId) {
+            return client.target(SERVER)
+                    .path("api/events/{eventId}/expenses")
+                    .resolveTemplate("eventId", eventId)
+                    .request(APPLICATION_JSON)
+                    .accept(APPLICATION_JSON)
+                    .get(new GenericType<List<Expense>>() {});
+        }
+
+        @Override
+        public void updateExpense(long eventId, long expenseId, Expense expense) {
+            try (Response response = client.target(SERVER)
+                    .path("api/events/{eventId}/expenses/{expenseId}")
+                    .resolveTemplate("eventId", eventId)
+                    .resolveTemplate("expenseId", expenseId)
+                    .request()
+                    .put(Entity.entity(expense, APPLICATION_JSON))) {
+                if (response.getStatus() != Response.Status.OK.getStatusCode()) {
+                    throw new WebApplicationException(response.getStatus());
+                }
             }
+        }
 
-            @Override
-            public void handleFrame(StompHeaders headers, Object payload) {
-                consumer.accept((Expense) payload);
+        @Override
+        public void deleteExpense(long eventId, long expenseId) {
+            try (Response response = deleteExpenseFromEvent(expenseId, eventId)) {
+                if (response.getStatus() != Response.Status.OK.getStatusCode()) {
+                    throw new WebApplicationException(response.getStatus());
+                }
             }
-        });
+            try (Response response = client.target(SERVER)
+                    .path("api/expenses/{id}")
+                    .resolveTemplate("id", expenseId)
+                    .request(APPLICATION_JSON)
+                    .delete()) {
+                if (response.getStatus() != Response.Status.OK.getStatusCode()
+                        && response.getStatus() != Response.Status.NOT_FOUND.getStatusCode()) {
+                    throw new WebApplicationException(response.getStatus());
+                }
+            }
+        }
     }
-
-}
\ No newline at end of file
+}
@@ -0,0 +1,379 @@
+package client.utils;
+
+import commons.WireFormat;
+import org.springframework.messaging.converter.CompositeMessageConverter;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandler;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.util.MimeType;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * The one connection of the client that receives the updates of the server. All scenes subscribe through
+ * it, and scenes that listen to the same topic share one STOMP subscription. When the connection is lost
+ * it is opened again after a delay that doubles with every failed try, with some randomness so clients
+ * that lost the same server do not all come back at once. The subscriptions are renewed after a reconnect,
+ * and the updates missed in between are not sent again, so the reconnect listener is told to drop what it
+ * knows.
+ * <p>
+ * The updates are handed to the listeners on the UI thread by a {@link FrameDispatcher}, which gathers
+ * the updates of one frame into one batch per listener.
+ */
+public class UpdateChannel {
+    static final long MIN_RECONNECT_DELAY_MS = 500;
+    static final long MAX_RECONNECT_DELAY_MS = 30_000;
+
+    private final Function<StompSessionHandler, CompletableFuture<StompSession>> connector;
+    private final FrameDispatcher dispatcher;
+    private final ScheduledExecutorService reconnects;
+    private final Map<String, Topic> topics = new HashMap<>();
+    private StompSession session;
+    private int failedAttempts;
+    private boolean closed;
+    private boolean connectedBefore;
+    private Runnable reconnectListener = () -> { };
+
+    /**
+     * constructor, the channel connects when {@link #start()} is called
+     * @param connector opens a STOMP session that reports to the given handler
+     * @param dispatcher hands the updates to the listeners on the UI thread
+     * @param reconnects schedules the reconnects
+     */
+    public UpdateChannel(Function<StompSessionHandler, CompletableFuture<StompSession>> connector,
+                         FrameDispatcher dispatcher, ScheduledExecutorService reconnects) {
+        this.connector = connector;
+        this.dispatcher = dispatcher;
+        this.reconnects = reconnects;
+    }
+
+    /**
+     * a channel to the STOMP endpoint of the server
+     * @param url the websocket URL of the server
+     * @param dispatcher hands the updates to the listeners on the UI thread
+     * @return the channel, it connects in the background
+     */
+    public static UpdateChannel of(String url, FrameDispatcher dispatcher) {
+        WebSocketStompClient stomp = new WebSocketStompClient(new StandardWebSocketClient());
+        // messages are sent in JSON, updates are read in JSON or in the binary format of the server
+        MappingJackson2MessageConverter cbor = new MappingJackson2MessageConverter(MimeType.valueOf(WireFormat.STOMP_CBOR));
+        cbor.setObjectMapper(CborProvider.mapper());
+        stomp.setMessageConverter(new CompositeMessageConverter(List.of(new MappingJackson2MessageConverter(), cbor)));
+        ScheduledExecutorService reconnects = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "splitty-update-channel");
+            thread.setDaemon(true);
+            return thread;
+        });
+        UpdateChannel channel = new UpdateChannel(handler -> stomp.connectAsync(url, handler), dispatcher, reconnects);
+        channel.start();
+        return channel;
+    }
+
+    /**
+     * opens the connection, without waiting for it
+     */
+    public void start() {
+        connect();
+    }
+
+    /**
+     * sets what is run after the channel connected again, when the subscriptions are renewed and the
+     * updates sent while it was not connected were missed
+     * @param listener runs on the thread of the connection
+     */
+    public synchronized void onReconnect(Runnable listener) {
+        this.reconnectListener = listener;
+    }
+
+    /**
+     * closes the connection and stops reconnecting
+     */
+    public void close() {
+        StompSession open;
+        synchronized (this) {
+            closed = true;
+            open = session;
+            session = null;
+        }
+        reconnects.shutdownNow();
+        if (open != null && open.isConnected()) {
+            open.disconnect();
+        }
+    }
+
+    /**
+     * checks if the channel is connected, updates sent while it is not are missed
+     * @return true if connected
+     */
+    public synchronized boolean isConnected() {
+        return session != null && session.isConnected();
+    }
+
+    /**
+     * listens to every update of a topic
+     * @param destination the topic
+     * @param type the type of the updates, the same for all listeners of the topic
+     * @param listener called on the UI thread with every update
+     * @param <T> the type of the updates
+     * @return the subscription, to stop listening
+     * @see #subscribeBatches(String, Class, Function, Consumer)
+     */
+    public <T> Subscription subscribe(String destination, Class<T> type, Consumer<T> listener) {
+        return subscribeBatches(destination, type, null, batch -> batch.forEach(listener));
+    }
+
+    /**
+     * listens to a topic. The first listener of a topic subscribes to it on the server, the others share
+     * that subscription. Listening starts right away, also when the channel is not connected yet
+     * @param destination the topic
+     * @param type the type of the updates, the same for all listeners of the topic
+     * @param key gives the key of an update, only the last update of a key in one frame is delivered.
+     *            Null to deliver every update
+     * @param listener called on the UI thread with the updates of one frame
+     * @param <T> the type of the updates
+     * @return the subscription, to stop listening
+     */
+    public <T> Subscription subscribeBatches(String destination, Class<T> type,
+                                             Function<? super T, ?> key, Consumer<List<T>> listener) {
+        return subscribeBatches(destination, type, key, null, listener);
+    }
+
+    /**
+     * listens to a topic, with work on every update that must not run on the UI thread, like downloads
+     * @param destination the topic
+     * @param type the type of the updates, the same for all listeners of the topic
+     * @param key gives the key of an update, only the last update of a key in one frame is delivered.
+     *            Null to deliver every update
+     * @param prepare called on the thread of the connection with every update before it is handed to the
+     *                UI thread. An update it throws an exception for is left out. Null if there is nothing to do
+     * @param listener called on the UI thread with the updates of one frame
+     * @param <T> the type of the updates
+     * @return the subscription, to stop listening
+     */
+    public synchronized <T> Subscription subscribeBatches(String destination, Class<T> type,
+                                                          Function<? super T, ?> key, Consumer<? super T> prepare,
+                                                          Consumer<List<T>> listener) {
+        Topic topic = topics.computeIfAbsent(destination, name -> new Topic(name, type));
+        if (topic.type != type) {
+            throw new IllegalArgumentException(destination + " has updates of type " + topic.type.getName());
+        }
+        Function<Object, ?> keyOf = key == null ? null : payload -> key.apply(type.cast(payload));
+        // the listeners of a topic get the same updates, their batches only end at an update of another topic
+        Consumer<Object> prepareOf = prepare == null ? null : payload -> prepare.accept(type.cast(payload));
+        Listener registered = new Listener(destination, prepareOf, dispatcher.sink(topic, keyOf,
+                batch -> listener.accept(batch.stream().map(type::cast).toList())));
+        topic.listeners.add(registered);
+        if (topic.subscription == null && isConnected()) {
+            topic.subscription = session.subscribe(destination, topic);
+        }
+        return registered;
+    }
+
+    /**
+     * sends a message to the server
+     * @param destination the destination on the server
+     * @param payload the message
+     * @throws IllegalStateException if the channel is not connected
+     */
+    public void send(String destination, Object payload) {
+        StompSession open;
+        synchronized (this) {
+            if (!isConnected()) {
+                throw new IllegalStateException("Not connected to the server");
+            }
+            open = session;
+        }
+        open.send(destination, payload);
+    }
+
+    /**
+     * getter for the number of topics with listeners
+     * @return the number of topics the channel is subscribed to
+     */
+    public synchronized int topicCount() {
+        return topics.size();
+    }
+
+    private synchronized void unsubscribe(Listener listener) {
+        listener.sink.close();
+        Topic topic = topics.get(listener.destination);
+        if (topic == null || !topic.listeners.remove(listener) || !topic.listeners.isEmpty()) {
+            return;
+        }
+        topics.remove(listener.destination);
+        if (topic.subscription != null && isConnected()) {
+            topic.subscription.unsubscribe();
+        }
+    }
+
+    private void connect() {
+        Attempt attempt = new Attempt();
+        try {
+            connector.apply(attempt).whenComplete((connected, error) -> {
+                if (error != null) {
+                    lost(attempt);
+                }
+            });
+        } catch (RuntimeException e) {
+            lost(attempt);
+        }
+    }
+
+    private synchronized void connected(Attempt attempt, StompSession connected) {
+        if (closed || attempt.lost) {
+            connected.disconnect();
+            return;
+        }
+        session = connected;
+        failedAttempts = 0;
+        for (Topic topic : topics.values()) {
+            topic.subscription = connected.subscribe(topic.destination, topic);
+        }
+        // after subscribing, so anything that is downloaded again gets the updates that follow
+        if (connectedBefore) {
+            reconnectListener.run();
+        }
+        connectedBefore = true;
+    }
+
+    private synchronized void lost(Attempt attempt) {
+        // a lost connection is reported by the handler and by the future of the connect
+        if (attempt.lost || closed) {
+            return;
+        }
+        attempt.lost = true;
+        session = null;
+        topics.values().forEach(topic -> topic.subscription = null);
+        long delay = reconnectDelay(failedAttempts++);
+        reconnects.schedule(this::connect, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * the time before the next try to connect, it doubles with every failed try up to a maximum
+     * and a random part of up to half of it is left out
+     * @param failedAttempts the number of tries that failed since the last connection
+     * @return the delay in milliseconds
+     */
+    static long reconnectDelay(int failedAttempts) {
+        long delay = MIN_RECONNECT_DELAY_MS << Math.min(failedAttempts, 16);
+        delay = Math.min(delay, MAX_RECONNECT_DELAY_MS);
+        return delay - ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    private void deliver(Topic topic, Object payload) {
+        List<Listener> listeners;
+        synchronized (this) {
+            listeners = new ArrayList<>(topic.listeners);
+        }
+        for (Listener listener : listeners) {
+            if (listener.prepare != null) {
+                try {
+                    listener.prepare.accept(payload);
+                } catch (RuntimeException e) {
+                    // the listener could not use the update, the others still get it
+                    e.printStackTrace();
+                    continue;
+                }
+            }
+            listener.sink.offer(payload);
+        }
+    }
+
+    /**
+     * a listener of a topic
+     */
+    public interface Subscription {
+        /**
+         * stops listening, the topic is unsubscribed on the server when it has no listeners anymore
+         */
+        void unsubscribe();
+    }
+
+    /**
+     * one listener of a topic
+     */
+    private final class Listener implements Subscription {
+        private final String destination;
+        private final Consumer<Object> prepare;
+        private final FrameDispatcher.Sink<Object> sink;
+
+        private Listener(String destination, Consumer<Object> prepare, FrameDispatcher.Sink<Object> sink) {
+            this.destination = destination;
+            this.prepare = prepare;
+            this.sink = sink;
+        }
+
+        @Override
+        public void unsubscribe() {
+            UpdateChannel.this.unsubscribe(this);
+        }
+    }
+
+    /**
+     * a topic with its listeners and its subscription on the server, null while not connected
+     */
+    private final class Topic implements StompFrameHandler {
+        private final String destination;
+        private final Class<?> type;
+        private final List<Listener> listeners = new ArrayList<>();
+        private StompSession.Subscription subscription;
+
+        private Topic(String destination, Class<?> type) {
+            this.destination = destination;
+            this.type = type;
+        }
+
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return type;
+        }
+
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+            deliver(this, payload);
+        }
+    }
+
+    /**
+     * one try to connect, it reports the connection and its loss to the channel
+     */
+    private final class Attempt extends StompSessionHandlerAdapter {
+        // guarded by the channel
+        private boolean lost;
+
+        @Override
+        public void afterConnected(StompSession connected, StompHeaders headers) {
+            connected(this, connected);
+        }
+
+        @Override
+        public void handleTransportError(StompSession failed, Throwable exception) {
+            if (!failed.isConnected()) {
+                lost(this);
+            }
+        }
+
+        @Override
+        public void handleException(StompSession failed, StompCommand command, StompHeaders headers,
+                                    byte[] payload, Throwable exception) {
+            exception.printStackTrace();
+        }
+    }
+}
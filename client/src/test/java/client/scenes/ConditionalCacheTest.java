@@ -0,0 +1,122 @@
+package client.scenes;
+
+import client.utils.CborProvider;
+import client.utils.ConditionalCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import commons.Participant;
+import commons.WireFormat;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.client.Invocation;
+import jakarta.ws.rs.client.WebTarget;
+import jakarta.ws.rs.core.GenericType;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ConditionalCacheTest {
+    private static final GenericType<List<Participant>> PARTICIPANTS = new GenericType<>() {};
+    private static final MediaType JSON = new MediaType("application", "json");
+
+    private ConditionalCache cache;
+    private WebTarget target;
+    private Invocation.Builder request;
+    private byte[] body;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        cache = new ConditionalCache(2);
+        target = mock(WebTarget.class);
+        request = mock(Invocation.Builder.class);
+        when(target.getUri()).thenReturn(URI.create("http://localhost:8080/api/events/1/participants"));
+        when(target.request(WireFormat.ACCEPT)).thenReturn(request);
+        when(request.header(anyString(), any())).thenReturn(request);
+        body = new ObjectMapper().writeValueAsBytes(List.of(new Participant("Ann", "Smith")));
+    }
+
+    private static Response response(int status, String tag, MediaType mediaType, byte[] body) {
+        Response response = mock(Response.class);
+        when(response.getStatus()).thenReturn(status);
+        when(response.getHeaderString(HttpHeaders.ETAG)).thenReturn(tag);
+        when(response.getMediaType()).thenReturn(mediaType);
+        when(response.readEntity(byte[].class)).thenReturn(body);
+        return response;
+    }
+
+    @Test
+    void testUnchangedBodyIsReadFromTheCache() throws IOException {
+        Response downloaded = response(200, "W/\"4\"", JSON, body);
+        Response notModified = response(304, "W/\"4\"", null, null);
+        when(request.get()).thenReturn(downloaded, notModified);
+
+        List<Participant> first = cache.get(target, PARTICIPANTS);
+        List<Participant> second = cache.get(target, PARTICIPANTS);
+
+        verify(request, times(1)).header(HttpHeaders.IF_NONE_MATCH, "W/\"4\"");
+        assertEquals(first, second);
+        assertEquals("Ann", second.get(0).getFirstName());
+        assertNotSame(first.get(0), second.get(0));
+    }
+
+    @Test
+    void testChangedBodyReplacesTheCachedOne() throws IOException {
+        byte[] changed = new ObjectMapper().writeValueAsBytes(List.of(new Participant("Bob", "Jones")));
+        Response downloaded = response(200, "W/\"4\"", JSON, body);
+        Response changedResponse = response(200, "W/\"5\"", JSON, changed);
+        Response notModified = response(304, "W/\"5\"", null, null);
+        when(request.get()).thenReturn(downloaded, changedResponse, notModified);
+
+        cache.get(target, PARTICIPANTS);
+        cache.get(target, PARTICIPANTS);
+        List<Participant> third = cache.get(target, PARTICIPANTS);
+
+        verify(request).header(HttpHeaders.IF_NONE_MATCH, "W/\"5\"");
+        assertEquals("Bob", third.get(0).getFirstName());
+    }
+
+    @Test
+    void testUntaggedBodyIsNotCached() throws IOException {
+        Response untagged = response(200, null, JSON, body);
+        when(request.get()).thenReturn(untagged);
+
+        cache.get(target, PARTICIPANTS);
+        cache.get(target, PARTICIPANTS);
+
+        verify(request, never()).header(anyString(), any());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testNotFoundDropsTheCachedBody() throws IOException {
+        Response downloaded = response(200, "W/\"4\"", JSON, body);
+        Response notFound = response(404, null, null, null);
+        when(request.get()).thenReturn(downloaded, notFound);
+
+        cache.get(target, PARTICIPANTS);
+        assertEquals(1, cache.size());
+
+        assertThrows(NotFoundException.class, () -> cache.get(target, PARTICIPANTS));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testBinaryBodyIsRead() throws IOException {
+        byte[] cbor = CborProvider.mapper().writeValueAsBytes(List.of(new Participant("Ann", "Smith")));
+        Response downloaded = response(200, "W/\"4\"", new MediaType("application", "cbor"), cbor);
+        Response notModified = response(304, "W/\"4\"", null, null);
+        when(request.get()).thenReturn(downloaded, notModified);
+
+        cache.get(target, PARTICIPANTS);
+        List<Participant> cached = cache.get(target, PARTICIPANTS);
+
+        assertEquals("Smith", cached.get(0).getLastName());
+    }
+}
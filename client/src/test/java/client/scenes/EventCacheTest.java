@@ -0,0 +1,222 @@
+package client.scenes;
+
+import client.utils.EventCache;
+import commons.EventStatistics;
+import commons.Expense;
+import commons.Participant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventCacheTest {
+    private Map<Long, List<Participant>> participants;
+    private Map<Long, List<Expense>> expenses;
+    private int participantDownloads;
+    private int expenseDownloads;
+    private int statisticsDownloads;
+    private EventCache cache;
+
+    @BeforeEach
+    void setUp() {
+        participants = new HashMap<>();
+        expenses = new HashMap<>();
+        participantDownloads = 0;
+        expenseDownloads = 0;
+        statisticsDownloads = 0;
+        cache = newCache(2, Duration.ofMinutes(5));
+    }
+
+    private EventCache newCache(int maxEvents, Duration maxAge) {
+        return new EventCache(maxEvents, maxAge,
+                eventId -> {
+                    participantDownloads++;
+                    return new ArrayList<>(participants.getOrDefault(eventId, List.of()));
+                },
+                eventId -> {
+                    expenseDownloads++;
+                    return new ArrayList<>(expenses.getOrDefault(eventId, List.of()));
+                },
+                eventId -> {
+                    statisticsDownloads++;
+                    return new EventStatistics();
+                });
+    }
+
+    private static Participant participant(long id, String name) {
+        Participant participant = new Participant(name, name);
+        participant.setId(id);
+        return participant;
+    }
+
+    private static Expense expense(long id, Participant payer, long eventId) {
+        Expense expense = new Expense(payer, "food", 10, eventId);
+        expense.setId(id);
+        return expense;
+    }
+
+    @Test
+    void reloadedParticipantsKeepTheExpenses() {
+        Participant alice = participant(1, "alice");
+        Participant bob = participant(2, "bob");
+        participants.put(7L, List.of(alice));
+        expenses.put(7L, List.of(expense(10, alice, 7)));
+        cache.getParticipants(7);
+        cache.getExpenses(7);
+
+        participants.put(7L, List.of(alice, bob));
+
+        assertEquals(List.of(alice, bob), cache.reloadParticipants(7));
+        assertSame(bob, cache.findParticipant(7, 2));
+        assertEquals(1, cache.getExpenses(7).size());
+        assertEquals(2, participantDownloads);
+        assertEquals(1, expenseDownloads);
+    }
+
+    @Test
+    void secondReadComesFromTheCache() {
+        Participant alice = participant(1, "alice");
+        participants.put(7L, List.of(alice));
+        expenses.put(7L, List.of(expense(10, alice, 7)));
+
+        assertEquals(List.of(alice), cache.getParticipants(7));
+        assertEquals(List.of(alice), cache.getParticipants(7));
+        assertEquals(1, cache.getExpenses(7).size());
+        assertEquals(1, cache.getExpenses(7).size());
+        cache.getStatistics(7);
+        cache.getStatistics(7);
+
+        assertEquals(1, participantDownloads);
+        assertEquals(1, expenseDownloads);
+        assertEquals(1, statisticsDownloads);
+    }
+
+    @Test
+    void leastRecentlyUsedEventIsDropped() {
+        cache.getExpenses(1);
+        cache.getExpenses(2);
+        cache.getExpenses(1);
+        cache.getExpenses(3);
+
+        assertTrue(cache.contains(1));
+        assertFalse(cache.contains(2));
+        assertTrue(cache.contains(3));
+        assertEquals(3, expenseDownloads);
+    }
+
+    @Test
+    void oldEventsAreDownloadedAgain() {
+        cache = newCache(2, Duration.ZERO);
+        cache.getExpenses(7);
+        cache.getExpenses(7);
+        assertEquals(2, expenseDownloads);
+    }
+
+    @Test
+    void websocketExpensesAreApplied() {
+        Participant alice = participant(1, "alice");
+        Participant bob = participant(2, "bob");
+        expenses.put(7L, List.of(expense(10, alice, 7)));
+        cache.getExpenses(7);
+        cache.getStatistics(7);
+
+        cache.putExpense(7, expense(11, bob, 7));
+        cache.putExpense(7, expense(10, bob, 7));
+        cache.removeExpense(7, 11);
+
+        List<Expense> cached = cache.getExpenses(7);
+        assertEquals(1, cached.size());
+        assertEquals(bob, cached.get(0).getParticipant());
+        assertEquals(List.of(), cache.getExpensesPaidBy(7, 1));
+        assertEquals(cached, cache.getExpensesPaidBy(7, 2));
+        assertNull(cache.getExpense(7, 11));
+        cache.getStatistics(7);
+        assertEquals(1, expenseDownloads);
+        assertEquals(2, statisticsDownloads);
+    }
+
+    @Test
+    void changesOfEventsThatAreNotCachedAreIgnored() {
+        cache.putExpense(7, expense(10, participant(1, "alice"), 7));
+        cache.putParticipant(7, participant(1, "alice"));
+        assertFalse(cache.contains(7));
+    }
+
+    @Test
+    void newParticipantKeepsTheExpenses() {
+        Participant alice = participant(1, "alice");
+        participants.put(7L, List.of(alice));
+        cache.getParticipants(7);
+        cache.getExpenses(7);
+
+        Participant bob = participant(2, "bob");
+        cache.putParticipant(7, bob);
+        assertEquals(List.of(alice, bob), cache.getParticipants(7));
+        cache.getExpenses(7);
+        assertEquals(1, expenseDownloads);
+
+        cache.putParticipant(7, participant(1, "alicia"));
+        cache.getExpenses(7);
+        assertEquals(2, expenseDownloads);
+
+        cache.removeParticipant(7, 2);
+        assertEquals(1, cache.getParticipants(7).size());
+        cache.getExpenses(7);
+        assertEquals(3, expenseDownloads);
+        assertEquals(1, participantDownloads);
+    }
+
+    @Test
+    void invalidateAndClear() {
+        cache.getExpenses(1);
+        cache.getExpenses(2);
+        cache.invalidate(1);
+        assertFalse(cache.contains(1));
+        cache.clear();
+        assertFalse(cache.contains(2));
+    }
+
+    @Test
+    void downloadThatMissedAChangeIsNotCached() {
+        Participant alice = participant(1, "alice");
+        Expense sent = expense(11, alice, 7);
+        cache = new EventCache(2, Duration.ofMinutes(5),
+                eventId -> List.of(),
+                eventId -> {
+                    expenseDownloads++;
+                    // the websocket update of an expense the server added after this list was read
+                    cache.putExpense(7, sent);
+                    return new ArrayList<>(List.of(expense(10, alice, 7)));
+                },
+                eventId -> new EventStatistics());
+
+        assertEquals(1, cache.getExpenses(7).size());
+        cache.getExpenses(7);
+        assertEquals(2, expenseDownloads);
+    }
+
+    @Test
+    void downloadOfAClearedEventIsNotCached() {
+        cache = new EventCache(2, Duration.ofMinutes(5),
+                eventId -> {
+                    cache.clear();
+                    return List.of(participant(1, "alice"));
+                },
+                eventId -> List.of(),
+                eventId -> new EventStatistics());
+
+        assertEquals(1, cache.getParticipants(7).size());
+        assertNull(cache.findParticipant(7, 1));
+    }
+
+    @Test
+    void cacheNeedsRoom() {
+        assertThrows(IllegalArgumentException.class, () -> newCache(0, Duration.ZERO));
+    }
+}
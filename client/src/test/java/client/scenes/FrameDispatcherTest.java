@@ -0,0 +1,162 @@
+package client.scenes;
+
+import client.utils.FrameDispatcher;
+import commons.Participant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrameDispatcherTest {
+    private List<Runnable> frames;
+    private FrameDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        frames = new ArrayList<>();
+        dispatcher = new FrameDispatcher(frames::add);
+    }
+
+    private void runFrames() {
+        List<Runnable> tasks = new ArrayList<>(frames);
+        frames.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    private static Participant participant(long id, String firstName) {
+        Participant participant = new Participant(firstName, "Smith");
+        participant.setId(id);
+        return participant;
+    }
+
+    @Test
+    void updatesOfOneFrameArriveAsOneBatch() {
+        List<List<String>> batches = new ArrayList<>();
+        FrameDispatcher.Sink<String> sink = dispatcher.sink(null, batches::add);
+
+        sink.offer("a");
+        sink.offer("b");
+        sink.offer("a");
+
+        assertEquals(1, frames.size());
+        runFrames();
+        assertEquals(List.of(List.of("a", "b", "a")), batches);
+    }
+
+    @Test
+    void lastUpdateOfAKeyIsAppliedAtItsFirstPlace() {
+        List<List<Participant>> batches = new ArrayList<>();
+        FrameDispatcher.Sink<Participant> sink = dispatcher.sink(Participant::getId, batches::add);
+
+        sink.offer(participant(1, "Ann"));
+        sink.offer(participant(2, "Bob"));
+        sink.offer(participant(1, "Anna"));
+        runFrames();
+
+        List<Participant> batch = batches.get(0);
+        assertEquals(2, batch.size());
+        assertEquals("Anna", batch.get(0).getFirstName());
+        assertEquals("Bob", batch.get(1).getFirstName());
+        assertEquals(1L, dispatcher.metrics().get("merged"));
+    }
+
+    @Test
+    void listenersShareOneFrameInTheOrderTheUpdatesArrived() {
+        List<String> applied = new ArrayList<>();
+        FrameDispatcher.Sink<String> first = dispatcher.sink(null, batch -> applied.add("first" + batch));
+        FrameDispatcher.Sink<String> second = dispatcher.sink(null, batch -> applied.add("second" + batch));
+
+        second.offer("x");
+        second.offer("w");
+        first.offer("y");
+        second.offer("z");
+
+        assertEquals(1, frames.size());
+        runFrames();
+        assertEquals(List.of("second[x, w]", "first[y]", "second[z]"), applied);
+    }
+
+    @Test
+    void deletionAfterAnAdditionOnAnotherTopicStaysLast() {
+        List<String> shown = new ArrayList<>();
+        FrameDispatcher.Sink<Participant> added = dispatcher.sink("participants", Participant::getId,
+                batch -> batch.forEach(p -> shown.add(p.getFirstName())));
+        FrameDispatcher.Sink<Participant> deleted = dispatcher.sink("participantDeletion", Participant::getId,
+                batch -> batch.forEach(p -> shown.remove(p.getFirstName())));
+
+        deleted.offer(participant(1, "Quinn"));
+        added.offer(participant(2, "Pat"));
+        deleted.offer(participant(2, "Pat"));
+        runFrames();
+
+        assertTrue(shown.isEmpty());
+    }
+
+    @Test
+    void listenersOfOneSourceKeepOneBatchEach() {
+        List<String> applied = new ArrayList<>();
+        FrameDispatcher.Sink<String> first = dispatcher.sink("topic", null, batch -> applied.add("first" + batch));
+        FrameDispatcher.Sink<String> second = dispatcher.sink("topic", null, batch -> applied.add("second" + batch));
+
+        first.offer("x");
+        second.offer("x");
+        first.offer("y");
+        second.offer("y");
+        runFrames();
+
+        assertEquals(List.of("first[x, y]", "second[x, y]"), applied);
+    }
+
+    @Test
+    void nextFrameIsScheduledAfterTheLastOneRan() {
+        List<List<String>> batches = new ArrayList<>();
+        FrameDispatcher.Sink<String> sink = dispatcher.sink(null, batches::add);
+
+        sink.offer("a");
+        runFrames();
+        sink.offer("b");
+
+        assertEquals(1, frames.size());
+        runFrames();
+        assertEquals(List.of(List.of("a"), List.of("b")), batches);
+        assertEquals(2L, dispatcher.metrics().get("frames"));
+    }
+
+    @Test
+    void updatesOfAClosedSinkAreDropped() {
+        List<List<String>> batches = new ArrayList<>();
+        FrameDispatcher.Sink<String> sink = dispatcher.sink(null, batches::add);
+
+        sink.offer("a");
+        sink.offer("b");
+        assertEquals(2L, dispatcher.metrics().get("queued"));
+        sink.close();
+        sink.offer("c");
+        runFrames();
+
+        assertTrue(batches.isEmpty());
+        assertEquals(0L, dispatcher.metrics().get("queued"));
+        assertEquals(2L, dispatcher.metrics().get("maxQueued"));
+        assertEquals(3L, dispatcher.metrics().get("dropped"));
+    }
+
+    @Test
+    void failingListenerDoesNotStopTheOthers() {
+        List<List<String>> batches = new ArrayList<>();
+        FrameDispatcher.Sink<String> failing = dispatcher.sink(null, batch -> {
+            throw new IllegalStateException("broken scene");
+        });
+        FrameDispatcher.Sink<String> working = dispatcher.sink(null, batches::add);
+
+        failing.offer("a");
+        working.offer("b");
+        runFrames();
+
+        assertEquals(List.of(List.of("b")), batches);
+        assertEquals(1L, dispatcher.metrics().get("dropped"));
+        assertEquals(2L, dispatcher.metrics().get("received"));
+    }
+}
@@ -0,0 +1,135 @@
+package client.scenes;
+
+import client.utils.OfflineJournal;
+import client.utils.OfflineJournal.Entry;
+import client.utils.OfflineJournal.Type;
+import commons.Expense;
+import commons.Participant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OfflineJournalTest {
+    @TempDir
+    Path directory;
+    private File file;
+
+    @BeforeEach
+    void setUp() {
+        file = directory.resolve("splitty_files").resolve("offline-journal.ndjson").toFile();
+    }
+
+    private static Expense expense(String category) {
+        Participant payer = new Participant("Ann", "Smith");
+        payer.setId(7);
+        return new Expense(payer, category, 12.5, 3);
+    }
+
+    @Test
+    void addedExpenseGetsTemporaryId() {
+        OfflineJournal journal = new OfflineJournal(file);
+        Expense expense = expense("food");
+
+        Entry entry = journal.append(Type.ADD_EXPENSE, 3, 0, expense, null);
+
+        assertEquals(1, entry.getSeq());
+        assertEquals(-1, entry.getExpenseId());
+        assertEquals(-1, expense.getId());
+        assertFalse(journal.isEmpty());
+        assertTrue(file.exists());
+    }
+
+    @Test
+    void pendingChangesSurviveRestart() {
+        OfflineJournal journal = new OfflineJournal(file);
+        Entry added = journal.append(Type.ADD_EXPENSE, 3, 0, expense("food"), null);
+        journal.append(Type.DELETE_EXPENSE, 3, 42, null, expense("drinks"));
+
+        List<Entry> pending = new OfflineJournal(file).pending();
+
+        assertEquals(2, pending.size());
+        assertEquals(Type.ADD_EXPENSE, pending.get(0).getType());
+        assertEquals("food", pending.get(0).getExpense().getCategory());
+        assertEquals(1250, pending.get(0).getExpense().getAmountInCents());
+        assertEquals(7, pending.get(0).getExpense().getParticipant().getId());
+        assertNotNull(added.getIdempotencyKey());
+        assertEquals(added.getIdempotencyKey(), pending.get(0).getIdempotencyKey());
+        assertEquals(Type.DELETE_EXPENSE, pending.get(1).getType());
+        assertNull(pending.get(1).getIdempotencyKey());
+        assertEquals(42, pending.get(1).getExpenseId());
+        assertEquals("drinks", pending.get(1).getOriginal().getCategory());
+    }
+
+    @Test
+    void doneChangesAreNotPendingAfterRestart() {
+        OfflineJournal journal = new OfflineJournal(file);
+        Entry first = journal.append(Type.ADD_EXPENSE, 3, 0, expense("food"), null);
+        journal.append(Type.ADD_EXPENSE, 3, 0, expense("drinks"), null);
+        journal.done(first, 100, false);
+
+        OfflineJournal reopened = new OfflineJournal(file);
+
+        assertEquals(1, reopened.pending().size());
+        assertEquals(-2, reopened.pending().get(0).getExpenseId());
+        assertEquals(100, reopened.realId(-1));
+        // numbering goes on after the changes that were written before
+        assertEquals(3, reopened.append(Type.DELETE_EXPENSE, 3, 5, null, null).getSeq());
+    }
+
+    @Test
+    void fileIsEmptiedWhenEverythingIsDone() throws IOException {
+        OfflineJournal journal = new OfflineJournal(file);
+        Entry entry = journal.append(Type.ADD_EXPENSE, 3, 0, expense("food"), null);
+
+        journal.done(entry, 100, false);
+
+        assertTrue(journal.isEmpty());
+        assertEquals(0, Files.size(file.toPath()));
+        assertEquals(100, journal.realId(-1));
+    }
+
+    @Test
+    void conflictingAddHasNoRealId() {
+        OfflineJournal journal = new OfflineJournal(file);
+        Entry entry = journal.append(Type.ADD_EXPENSE, 3, 0, expense("food"), null);
+
+        journal.done(entry, entry.getExpenseId(), true);
+
+        assertEquals(-1, journal.realId(-1));
+        assertEquals(5, journal.realId(5));
+    }
+
+    @Test
+    void unfinishedLastLineIsSkipped() throws IOException {
+        OfflineJournal journal = new OfflineJournal(file);
+        journal.append(Type.ADD_EXPENSE, 3, 0, expense("food"), null);
+        Files.writeString(file.toPath(), "{\"seq\":2,\"type\":\"ADD_EX", StandardCharsets.UTF_8,
+                StandardOpenOption.APPEND);
+
+        OfflineJournal reopened = new OfflineJournal(file);
+
+        assertEquals(1, reopened.pending().size());
+        assertEquals("food", reopened.pending().get(0).getExpense().getCategory());
+
+        reopened.append(Type.ADD_EXPENSE, 3, 0, expense("drinks"), null);
+        assertEquals(2, new OfflineJournal(file).pending().size());
+    }
+
+    @Test
+    void doneCanNotBeAppended() {
+        OfflineJournal journal = new OfflineJournal(file);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> journal.append(Type.DONE, 3, 0, null, null));
+    }
+}
@@ -0,0 +1,330 @@
+package client.scenes;
+
+import client.utils.EventCache;
+import client.utils.OfflineJournal;
+import client.utils.OfflineJournal.Entry;
+import client.utils.OfflineSync;
+import commons.EventStatistics;
+import commons.Expense;
+import commons.Participant;
+import jakarta.ws.rs.ProcessingException;
+import jakarta.ws.rs.WebApplicationException;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OfflineSyncTest {
+    private static final long EVENT = 3;
+
+    @TempDir
+    Path directory;
+    private FakeServer server;
+    private OfflineJournal journal;
+    private EventCache cache;
+    private OfflineSync sync;
+    private List<Entry> conflicts;
+    private Participant payer;
+
+    @BeforeEach
+    void setUp() {
+        server = new FakeServer();
+        journal = new OfflineJournal(directory.resolve("offline-journal.ndjson").toFile());
+        cache = new EventCache(5, Duration.ofMinutes(5), eventId -> new ArrayList<>(),
+                eventId -> new ArrayList<>(server.expenses.values()), eventId -> new EventStatistics());
+        sync = new OfflineSync(journal, server, cache);
+        conflicts = new ArrayList<>();
+        sync.setConflictListener(conflicts::add);
+        payer = new Participant("Ann", "Smith");
+        payer.setId(7);
+    }
+
+    private Expense expense(long id, String category) {
+        Expense expense = new Expense(payer, category, 10, EVENT);
+        expense.setId(id);
+        return expense;
+    }
+
+    private Expense copy(Expense expense) {
+        return expense(expense.getId(), expense.getCategory());
+    }
+
+    @Test
+    void addsAreShownRightAwayAndSentInOneBatch() {
+        cache.getExpenses(EVENT);
+        sync.queueAdd(EVENT, expense(0, "food"));
+        sync.queueAdd(EVENT, expense(0, "drinks"));
+
+        assertEquals(2, cache.getExpenses(EVENT).size());
+        assertNotNull(cache.findExpense(EVENT, -1));
+        assertEquals(2, sync.replay());
+
+        assertEquals(1, server.batches);
+        assertEquals(2, server.expenses.size());
+        assertFalse(sync.hasPending());
+        assertNull(cache.findExpense(EVENT, -1));
+        assertEquals("food", cache.findExpense(EVENT, 100).getCategory());
+        assertEquals(100, journal.realId(-1));
+    }
+
+    @Test
+    void changesStayPendingWhileServerIsUnreachable() {
+        sync.queueAdd(EVENT, expense(0, "food"));
+        server.offline = true;
+
+        assertEquals(0, sync.replay());
+        assertTrue(sync.hasPending());
+
+        server.offline = false;
+        assertEquals(1, sync.replay());
+        assertFalse(sync.hasPending());
+    }
+
+    @Test
+    void batchWhoseAnswerWasLostIsNotAddedTwice() {
+        sync.queueAdd(EVENT, expense(0, "food"));
+        sync.queueAdd(EVENT, expense(0, "drinks"));
+        server.loseAnswer = true;
+
+        assertEquals(0, sync.replay());
+        assertTrue(sync.hasPending());
+
+        server.loseAnswer = false;
+        assertEquals(2, sync.replay());
+
+        assertEquals(2, server.batches);
+        assertEquals(2, server.expenses.size());
+        assertEquals(100, journal.realId(-1));
+        assertEquals(101, journal.realId(-2));
+    }
+
+    @Test
+    void updateWhoseAnswerWasLostIsDone() {
+        server.expenses.put(50L, expense(50, "food"));
+        sync.queueUpdate(EVENT, 50, expense(0, "lunch"), expense(50, "food"));
+        server.loseAnswer = true;
+
+        assertEquals(0, sync.replay());
+
+        server.loseAnswer = false;
+        assertEquals(1, sync.replay());
+        assertEquals("lunch", server.expenses.get(50L).getCategory());
+        assertTrue(conflicts.isEmpty());
+    }
+
+    @Test
+    void onlyFailedConnectionsCanBeQueued() {
+        assertTrue(OfflineSync.connectionFailed(new ProcessingException(new ConnectException("Connection refused"))));
+        assertTrue(OfflineSync.connectionFailed(new ProcessingException(new UnknownHostException("splitty.example"))));
+        assertTrue(OfflineSync.connectionFailed(new ProcessingException(new ConnectTimeoutException("Connect timed out"))));
+        assertFalse(OfflineSync.connectionFailed(new ProcessingException(new SocketTimeoutException("Read timed out"))));
+        assertFalse(OfflineSync.connectionFailed(new ProcessingException("No message body reader")));
+    }
+
+    @Test
+    void updateOfExpenseAddedOfflineUsesRealId() {
+        Expense added = sync.queueAdd(EVENT, expense(0, "food"));
+        sync.queueUpdate(EVENT, added.getId(), expense(0, "lunch"), copy(added));
+
+        assertEquals(2, sync.replay());
+
+        assertEquals("lunch", server.expenses.get(100L).getCategory());
+        assertTrue(conflicts.isEmpty());
+    }
+
+    @Test
+    void updateConflictsWhenSomeoneElseChangedTheExpense() {
+        Expense original = expense(50, "food");
+        server.expenses.put(50L, expense(50, "dinner"));
+        cache.getExpenses(EVENT);
+
+        sync.queueUpdate(EVENT, 50, expense(0, "lunch"), original);
+        assertEquals(1, sync.replay());
+
+        assertEquals("dinner", server.expenses.get(50L).getCategory());
+        assertEquals(1, conflicts.size());
+        assertFalse(cache.contains(EVENT));
+        assertFalse(sync.hasPending());
+    }
+
+    @Test
+    void deleteOfExpenseThatIsGoneIsDone() {
+        sync.queueDelete(EVENT, 50, expense(50, "food"));
+
+        assertEquals(1, sync.replay());
+
+        assertTrue(conflicts.isEmpty());
+        assertFalse(sync.hasPending());
+    }
+
+    @Test
+    void deleteOfUnchangedExpense() {
+        server.expenses.put(50L, expense(50, "food"));
+
+        sync.queueDelete(EVENT, 50, expense(50, "food"));
+        sync.replay();
+
+        assertTrue(server.expenses.isEmpty());
+        assertTrue(conflicts.isEmpty());
+    }
+
+    @Test
+    void refusedBatchIsAConflict() {
+        server.refuse = true;
+        sync.queueAdd(EVENT, expense(0, "food"));
+        sync.queueAdd(EVENT, expense(0, "drinks"));
+
+        sync.replay();
+
+        assertEquals(2, conflicts.size());
+        assertFalse(sync.hasPending());
+        assertEquals(-1, journal.realId(-1));
+    }
+
+    @Test
+    void batchTheServerFailedToAddStaysPending() {
+        server.status = 503;
+        sync.queueAdd(EVENT, expense(0, "food"));
+
+        assertEquals(0, sync.replay());
+
+        assertTrue(conflicts.isEmpty());
+        assertTrue(sync.hasPending());
+        server.status = 0;
+        assertEquals(1, sync.replay());
+        assertEquals("food", server.expenses.get(100L).getCategory());
+    }
+
+    @Test
+    void updateTheServerFailedToMakeStaysPending() {
+        server.expenses.put(50L, expense(50, "food"));
+        sync.queueUpdate(EVENT, 50, expense(0, "lunch"), expense(50, "food"));
+        server.status = 500;
+
+        assertEquals(0, sync.replay());
+
+        assertTrue(conflicts.isEmpty());
+        assertTrue(sync.hasPending());
+    }
+
+    @Test
+    void onlyFinalClientErrorsAreRefusals() {
+        assertTrue(OfflineSync.refused(new WebApplicationException(409)));
+        assertTrue(OfflineSync.refused(new WebApplicationException(404)));
+        assertFalse(OfflineSync.refused(new WebApplicationException(429)));
+        assertFalse(OfflineSync.refused(new WebApplicationException(500)));
+        assertFalse(OfflineSync.refused(new WebApplicationException(503)));
+    }
+
+    @Test
+    void pendingChangesAreSentAfterRestart() {
+        sync.queueAdd(EVENT, expense(0, "food"));
+        OfflineJournal reopened = new OfflineJournal(directory.resolve("offline-journal.ndjson").toFile());
+
+        assertEquals(1, new OfflineSync(reopened, server, cache).replay());
+
+        assertEquals("food", server.expenses.get(100L).getCategory());
+    }
+
+    @Test
+    void expensesAreComparedOnTheFieldsUsersEdit() {
+        Expense current = expense(50, "food");
+        Expense same = expense(50, "food");
+        same.setParticipant(new Participant("Other", "Copy"));
+        same.getParticipant().setId(7);
+        Expense otherAmount = expense(50, "food");
+        otherAmount.setAmount(11);
+
+        assertTrue(OfflineSync.sameVersion(current, same));
+        assertFalse(OfflineSync.sameVersion(current, otherAmount));
+        assertTrue(OfflineSync.sameVersion(current, null));
+    }
+
+    /**
+     * a server that keeps the expenses of one event in memory
+     */
+    private static class FakeServer implements OfflineSync.Server {
+        private final Map<Long, Expense> expenses = new LinkedHashMap<>();
+        private long nextId = 100;
+        private int batches;
+        private final Map<String, Long> keys = new HashMap<>();
+        private boolean offline;
+        private boolean refuse;
+        // answered with this status instead when it is not 0
+        private int status;
+        // the change is made, but the answer does not reach the client
+        private boolean loseAnswer;
+
+        private void check() {
+            if (offline) {
+                throw new ProcessingException(new ConnectException("Connection refused"));
+            }
+            if (refuse) {
+                throw new WebApplicationException(400);
+            }
+            if (status != 0) {
+                throw new WebApplicationException(status);
+            }
+        }
+
+        @Override
+        public List<Long> addExpenses(long eventId, List<Expense> added) {
+            check();
+            batches++;
+            List<Long> ids = new ArrayList<>();
+            for (Expense expense : added) {
+                Long sent = keys.get(expense.getIdempotencyKey());
+                if (sent != null) {
+                    ids.add(sent);
+                    continue;
+                }
+                Expense stored = new Expense(expense.getParticipant(), expense.getCategory(),
+                        expense.getAmount(), eventId);
+                stored.setId(nextId++);
+                expenses.put(stored.getId(), stored);
+                keys.put(expense.getIdempotencyKey(), stored.getId());
+                ids.add(stored.getId());
+            }
+            answer();
+            return ids;
+        }
+
+        @Override
+        public List<Expense> expensesOf(long eventId) {
+            check();
+            return new ArrayList<>(expenses.values());
+        }
+
+        @Override
+        public void updateExpense(long eventId, long expenseId, Expense expense) {
+            check();
+            expenses.put(expenseId, expense);
+            answer();
+        }
+
+        private void answer() {
+            if (loseAnswer) {
+                throw new ProcessingException(new SocketTimeoutException("Read timed out"));
+            }
+        }
+
+        @Override
+        public void deleteExpense(long eventId, long expenseId) {
+            check();
+            expenses.remove(expenseId);
+        }
+    }
+}
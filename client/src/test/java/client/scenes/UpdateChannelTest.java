@@ -0,0 +1,221 @@
+package client.scenes;
+
+import client.utils.FrameDispatcher;
+import client.utils.UpdateChannel;
+import commons.Participant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class UpdateChannelTest {
+    private static final String TOPIC = "/topic/events/1/participants";
+
+    private List<StompSessionHandler> handlers;
+    private List<Runnable> uiTasks;
+    private ScheduledExecutorService reconnects;
+    private StompSession.Subscription onServer;
+    private UpdateChannel channel;
+
+    @BeforeEach
+    void setUp() {
+        handlers = new ArrayList<>();
+        uiTasks = new ArrayList<>();
+        reconnects = mock(ScheduledExecutorService.class);
+        onServer = mock(StompSession.Subscription.class);
+        channel = new UpdateChannel(handler -> {
+            handlers.add(handler);
+            return new CompletableFuture<>();
+        }, new FrameDispatcher(uiTasks::add), reconnects);
+        channel.start();
+    }
+
+    private StompSession connect() {
+        StompSession session = mock(StompSession.class);
+        when(session.isConnected()).thenReturn(true);
+        when(session.subscribe(anyString(), any(StompFrameHandler.class))).thenReturn(onServer);
+        handlers.get(handlers.size() - 1).afterConnected(session, new StompHeaders());
+        return session;
+    }
+
+    private StompFrameHandler frameHandler(StompSession session) {
+        ArgumentCaptor<StompFrameHandler> handler = ArgumentCaptor.forClass(StompFrameHandler.class);
+        verify(session).subscribe(eq(TOPIC), handler.capture());
+        return handler.getValue();
+    }
+
+    private void runUiTasks() {
+        List<Runnable> tasks = new ArrayList<>(uiTasks);
+        uiTasks.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    private static Participant participant(long id) {
+        Participant participant = new Participant("Ann", "Smith");
+        participant.setId(id);
+        return participant;
+    }
+
+    @Test
+    void listenersOfOneTopicShareOneSubscription() {
+        StompSession session = connect();
+        List<Participant> first = new ArrayList<>();
+        List<Participant> second = new ArrayList<>();
+
+        channel.subscribe(TOPIC, Participant.class, first::add);
+        channel.subscribe(TOPIC, Participant.class, second::add);
+        frameHandler(session).handleFrame(new StompHeaders(), participant(4));
+        runUiTasks();
+
+        verify(session, times(1)).subscribe(eq(TOPIC), any(StompFrameHandler.class));
+        assertEquals(1, channel.topicCount());
+        assertEquals(4, first.get(0).getId());
+        assertEquals(4, second.get(0).getId());
+    }
+
+    @Test
+    void topicIsUnsubscribedWithItsLastListener() {
+        connect();
+        UpdateChannel.Subscription first = channel.subscribe(TOPIC, Participant.class, participant -> { });
+        UpdateChannel.Subscription second = channel.subscribe(TOPIC, Participant.class, participant -> { });
+
+        first.unsubscribe();
+        verify(onServer, never()).unsubscribe();
+        assertEquals(1, channel.topicCount());
+
+        second.unsubscribe();
+        verify(onServer).unsubscribe();
+        assertEquals(0, channel.topicCount());
+    }
+
+    @Test
+    void updatesAreNotDeliveredAfterUnsubscribing() {
+        StompSession session = connect();
+        List<Participant> received = new ArrayList<>();
+        UpdateChannel.Subscription subscription = channel.subscribe(TOPIC, Participant.class, received::add);
+
+        frameHandler(session).handleFrame(new StompHeaders(), participant(4));
+        subscription.unsubscribe();
+        runUiTasks();
+
+        assertTrue(received.isEmpty());
+    }
+
+    @Test
+    void updatesWaitingForTheUiThreadAreDeliveredInOneTask() {
+        StompSession session = connect();
+        List<Participant> received = new ArrayList<>();
+        channel.subscribe(TOPIC, Participant.class, received::add);
+        StompFrameHandler handler = frameHandler(session);
+
+        handler.handleFrame(new StompHeaders(), participant(4));
+        handler.handleFrame(new StompHeaders(), participant(5));
+        handler.handleFrame(new StompHeaders(), participant(6));
+
+        assertEquals(1, uiTasks.size());
+        runUiTasks();
+        assertEquals(3, received.size());
+        assertEquals(6, received.get(2).getId());
+    }
+
+    @Test
+    void updatesArePreparedBeforeTheUiThreadAndLeftOutIfThatFails() {
+        StompSession session = connect();
+        List<Participant> received = new ArrayList<>();
+        List<Long> prepared = new ArrayList<>();
+        channel.subscribeBatches(TOPIC, Participant.class, Participant::getId, participant -> {
+            prepared.add(participant.getId());
+            if (participant.getId() == 5) {
+                throw new IllegalStateException("unknown participant");
+            }
+            participant.setFirstName("Prepared");
+        }, received::addAll);
+        StompFrameHandler handler = frameHandler(session);
+
+        handler.handleFrame(new StompHeaders(), participant(4));
+        handler.handleFrame(new StompHeaders(), participant(5));
+        assertEquals(List.of(4L, 5L), prepared);
+        assertTrue(received.isEmpty());
+        runUiTasks();
+
+        assertEquals(1, received.size());
+        assertEquals("Prepared", received.get(0).getFirstName());
+    }
+
+    @Test
+    void topicsAreSubscribedAgainAfterReconnect() {
+        channel.subscribe(TOPIC, Participant.class, participant -> { });
+        StompSession first = connect();
+        frameHandler(first);
+
+        when(first.isConnected()).thenReturn(false);
+        handlers.get(0).handleTransportError(first, new IllegalStateException("Connection closed"));
+        assertFalse(channel.isConnected());
+        ArgumentCaptor<Runnable> reconnect = ArgumentCaptor.forClass(Runnable.class);
+        verify(reconnects).schedule(reconnect.capture(), anyLong(), eq(TimeUnit.MILLISECONDS));
+
+        reconnect.getValue().run();
+        assertEquals(2, handlers.size());
+        StompSession second = connect();
+
+        assertTrue(channel.isConnected());
+        frameHandler(second);
+    }
+
+    @Test
+    void reconnectListenerOnlyRunsAfterAReconnect() {
+        List<String> reconnected = new ArrayList<>();
+        channel.onReconnect(() -> reconnected.add("reconnected"));
+        StompSession first = connect();
+        assertEquals(List.of(), reconnected);
+
+        when(first.isConnected()).thenReturn(false);
+        handlers.get(0).handleTransportError(first, new IllegalStateException("Connection closed"));
+        ArgumentCaptor<Runnable> reconnect = ArgumentCaptor.forClass(Runnable.class);
+        verify(reconnects).schedule(reconnect.capture(), anyLong(), eq(TimeUnit.MILLISECONDS));
+        reconnect.getValue().run();
+        connect();
+
+        assertEquals(List.of("reconnected"), reconnected);
+    }
+
+    @Test
+    void lostConnectionIsOnlyRetriedOnce() {
+        StompSession session = connect();
+        when(session.isConnected()).thenReturn(false);
+
+        handlers.get(0).handleTransportError(session, new IllegalStateException("Connection closed"));
+        handlers.get(0).handleTransportError(session, new IllegalStateException("Connection closed"));
+
+        verify(reconnects, times(1)).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+    }
+
+    @Test
+    void topicHasOneType() {
+        channel.subscribe(TOPIC, Participant.class, participant -> { });
+
+        assertThrows(IllegalArgumentException.class, () -> channel.subscribe(TOPIC, String.class, text -> { }));
+    }
+
+    @Test
+    void sendingNeedsAConnection() {
+        assertThrows(IllegalStateException.class, () -> channel.send("/app/participants", participant(4)));
+
+        StompSession session = connect();
+        channel.send("/app/participants", participant(4));
+        verify(session).send(eq("/app/participants"), any(Participant.class));
+    }
+}
@@ -0,0 +1,186 @@
+package commons;
+
+import jakarta.persistence.*;
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import static org.apache.commons.lang3.builder.ToStringStyle.MULTI_LINE_STYLE;
+
+// ONE CHANGE OF AN EVENT, ITS PARTICIPANTS OR ITS EXPENSES, SO CLIENTS CAN ASK FOR ONLY WHAT CHANGED
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"event_id", "version"}))
+public class ChangeLogEntry {
+
+    /**
+     * what was changed
+     */
+    public enum EntityType {
+        EVENT, PARTICIPANT, EXPENSE
+    }
+
+    /**
+     * how it was changed
+     */
+    public enum Kind {
+        INSERTED, UPDATED, DELETED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private long id;
+    @Column(name = "event_id", nullable = false)
+    private long eventId;
+    @Column(name = "version", nullable = false)
+    private long version;
+    @Enumerated(EnumType.STRING)
+    private EntityType entityType;
+    private long entityId;
+    @Enumerated(EnumType.STRING)
+    private Kind kind;
+
+    /**
+     * Constructor for a change log entry
+     * @param eventId the id of the event
+     * @param version the version of the event after the change
+     * @param entityType whether the event, a participant or an expense changed
+     * @param entityId the id of what changed
+     * @param kind whether it was inserted, updated or deleted
+     */
+    public ChangeLogEntry(long eventId, long version, EntityType entityType, long entityId, Kind kind) {
+        this.eventId = eventId;
+        this.version = version;
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.kind = kind;
+    }
+
+    /**
+     * Default constructor for JPA and serialization/deserialization
+     */
+    public ChangeLogEntry() {}
+
+    /**
+     * getter for the id
+     * @return the id of the entry
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * setter for the id
+     * @param id the id of the entry
+     */
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    /**
+     * getter for the event id
+     * @return the id of the event
+     */
+    public long getEventId() {
+        return eventId;
+    }
+
+    /**
+     * setter for the event id
+     * @param eventId the id of the event
+     */
+    public void setEventId(long eventId) {
+        this.eventId = eventId;
+    }
+
+    /**
+     * getter for the version
+     * @return the version of the event after the change
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * setter for the version
+     * @param version the version of the event after the change
+     */
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    /**
+     * getter for the entity type
+     * @return whether the event, a participant or an expense changed
+     */
+    public EntityType getEntityType() {
+        return entityType;
+    }
+
+    /**
+     * setter for the entity type
+     * @param entityType whether the event, a participant or an expense changed
+     */
+    public void setEntityType(EntityType entityType) {
+        this.entityType = entityType;
+    }
+
+    /**
+     * getter for the entity id
+     * @return the id of what changed
+     */
+    public long getEntityId() {
+        return entityId;
+    }
+
+    /**
+     * setter for the entity id
+     * @param entityId the id of what changed
+     */
+    public void setEntityId(long entityId) {
+        this.entityId = entityId;
+    }
+
+    /**
+     * getter for the kind of change
+     * @return whether it was inserted, updated or deleted
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * setter for the kind of change
+     * @param kind whether it was inserted, updated or deleted
+     */
+    public void setKind(Kind kind) {
+        this.kind = kind;
+    }
+
+    /**
+     * equals method using equals builder
+     * @param obj object to be compared
+     * @return boolean
+     */
+    @Override
+    public boolean equals(Object obj) {
+        return EqualsBuilder.reflectionEquals(this, obj);
+    }
+
+    /**
+     * hashcode using hash builder
+     * @return int representing hash
+     */
+    @Override
+    public int hashCode() {
+        return HashCodeBuilder.reflectionHashCode(this);
+    }
+
+    /**
+     * toString using ToStringBuilder
+     * @return string
+     */
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this, MULTI_LINE_STYLE);
+    }
+}
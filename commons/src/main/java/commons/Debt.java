@@ -1,4 +1,5 @@
 package commons;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import java.util.*;
 
@@ -11,8 +12,9 @@ public class Debt {
     private Participant debtor;
     @ManyToOne
     private Participant lender;
-    @Column(name = "amount_of_money", nullable = false)
-    private double amountOfMoney;
+    // kept in cents so sums are exact, the JSON keeps the decimal "amountOfMoney"
+    @Column(name = "amount_in_cents", nullable = false)
+    private long amountInCents;
     private boolean debtCollective;
     private String description;
 
@@ -28,7 +30,7 @@ public class Debt {
                 boolean debtCollective, String description) {
         this.debtor = debtor;
         this.lender = lender;
-        this.amountOfMoney = amountOfMoney;
+        this.amountInCents = Money.toMinorUnits(amountOfMoney);
         this.debtCollective = debtCollective;
         this.description = description;
     }
@@ -61,7 +63,7 @@ public class Debt {
         this.id = id;
         this.debtor = debtor;
         this.lender = lender;
-        this.amountOfMoney = amountOfMoney;
+        this.amountInCents = Money.toMinorUnits(amountOfMoney);
         this.debtCollective = debtCollective;
         this.description = description;
     }
@@ -98,7 +100,16 @@ public class Debt {
      * @return double
      */
     public double getAmountOfMoney() {
-        return amountOfMoney;
+        return Money.toDouble(amountInCents);
+    }
+
+    /**
+     * getter for money owed in cents
+     * @return long
+     */
+    @JsonIgnore
+    public long getAmountInCents() {
+        return amountInCents;
     }
     /**
      * getter for checking if debt is collective (otherwise it's partial)
@@ -139,7 +150,7 @@ public class Debt {
         if(amountOfMoney < 0) {
             throw new IllegalArgumentException("Amount of money can't be negative!");
         }
-        this.amountOfMoney = amountOfMoney;
+        this.amountInCents = Money.toMinorUnits(amountOfMoney);
     }
 
 
@@ -171,7 +182,7 @@ public class Debt {
 
         Debt debt = (Debt) o;
 
-        if (Double.compare(amountOfMoney, debt.amountOfMoney) != 0) return false;
+        if (amountInCents != debt.amountInCents) return false;
         if (debtCollective != debt.debtCollective) return false;
         if (!debtor.equals(debt.debtor) || !lender.equals(debt.lender)) return false;
         return Objects.equals(description, debt.description);
@@ -184,11 +195,9 @@ public class Debt {
     @Override
     public int hashCode() {
         int result;
-        long temp;
         result = debtor.hashCode();
         result = 31 * result + lender.hashCode();
-        temp = Double.doubleToLongBits(amountOfMoney);
-        result = 31 * result + (int) (temp ^ (temp >>> 32));
+        result = 31 * result + Long.hashCode(amountInCents);
         result = 31 * result + (debtCollective ? 1 : 0);
         result = 31 * result + (description != null ? description.hashCode() : 0);
         return result;
@@ -217,7 +226,7 @@ public class Debt {
         sb.append("Debt Details:\n");
         sb.append("  Debtor: ").append(debtor.getFirstName()).append("\n");
         sb.append("  Creditor: ").append(lender.getFirstName()).append("\n");
-        sb.append("  Amount: $").append(amountOfMoney).append("\n");
+        sb.append("  Amount: $").append(getAmountOfMoney()).append("\n");
         sb.append("  Debt Type: ").append(type).append("\n");
         sb.append("  Description: ").append(debtDescription);
 
@@ -22,9 +22,9 @@ public class Event {
     private long id;
     private String title;
     private long inviteCode;
-    @OneToMany(fetch = FetchType.EAGER)
+    @OneToMany(fetch = FetchType.LAZY)
     private List<Participant> people;
-    @OneToMany(fetch = FetchType.EAGER)
+    @OneToMany(fetch = FetchType.LAZY)
     private List<Expense> expenses;
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
     @Column(columnDefinition = "TIMESTAMP(0)")
@@ -32,6 +32,9 @@ public class Event {
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
     @Column(columnDefinition = "TIMESTAMP(0)")
     private LocalDateTime lastActivity;
+    // only increased by the server, with one update statement per change, see ChangeLogEntry
+    @Column(nullable = false, insertable = false, updatable = false, columnDefinition = "BIGINT DEFAULT 0 NOT NULL")
+    private long version;
 
 
     /**
@@ -175,6 +178,24 @@ public class Event {
         return lastActivity;
     }
 
+    /**
+     * Getter for the version of the event, which the server increases on every change
+     * of the event, its participants or its expenses
+     * @return the version of the event
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Setter for the version, only used for deserialization,
+     * the server ignores the version that is sent to it
+     * @param version the version of the event
+     */
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     /**
      * setter for the ID (might need to delete later)
      * @param id Respective Events ID
@@ -293,6 +314,19 @@ public class Event {
         return this.expenses.add(expense);
     }
 
+    /**
+     * This method adds expenses that were just created, so unlike addExpense it does not
+     * compare them with every expense the event already has
+     * @param newExpenses the new Expenses
+     */
+    public void addNewExpenses(List<Expense> newExpenses){
+        if (newExpenses.isEmpty()){
+            return;
+        }
+        updateLastActivity();
+        this.expenses.addAll(newExpenses);
+    }
+
     /**
      *
      * This method removes an expense from the list of Expenses in the Event
@@ -314,7 +348,7 @@ public class Event {
             if (expense.getId() == expenseDetails.getId()) {
                 expense.setParticipant(expenseDetails.getParticipant());
                 expense.setCategory(expenseDetails.getCategory());
-                expense.setAmount(expenseDetails.getAmount());
+                expense.setAmountInCents(expenseDetails.getAmountInCents());
                 expense.setCurrency(expenseDetails.getCurrency());
                 expense.setDate(expenseDetails.getDate());
                 expense.setSplittingOption(expenseDetails.getSplittingOption());
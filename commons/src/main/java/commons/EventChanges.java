@@ -0,0 +1,247 @@
+package commons;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.apache.commons.lang3.builder.ToStringStyle.MULTI_LINE_STYLE;
+
+// THIS CLASS CONTAINS WHAT CHANGED IN AN EVENT SINCE A VERSION THE CLIENT ALREADY HAS
+public class EventChanges {
+    private long eventId;
+    private long since;
+    private long version;
+    private String title;
+    private List<Participant> insertedParticipants;
+    private List<Participant> updatedParticipants;
+    private List<Long> deletedParticipantIds;
+    private List<Expense> insertedExpenses;
+    private List<Expense> updatedExpenses;
+    private List<Long> deletedExpenseIds;
+
+    /**
+     * Constructor, the lists are empty
+     * @param eventId the id of the event
+     * @param since the version the changes start after
+     * @param version the version of the event that includes all changes
+     * @param title the current title of the event
+     */
+    public EventChanges(long eventId, long since, long version, String title) {
+        this();
+        this.eventId = eventId;
+        this.since = since;
+        this.version = version;
+        this.title = title;
+    }
+
+    /**
+     * Default constructor for serialization/deserialization
+     */
+    public EventChanges() {
+        this.insertedParticipants = new ArrayList<>();
+        this.updatedParticipants = new ArrayList<>();
+        this.deletedParticipantIds = new ArrayList<>();
+        this.insertedExpenses = new ArrayList<>();
+        this.updatedExpenses = new ArrayList<>();
+        this.deletedExpenseIds = new ArrayList<>();
+    }
+
+    /**
+     * checks if anything changed
+     * @return true if the event changed since the version of the client
+     */
+    public boolean hasChanges() {
+        return version != since;
+    }
+
+    /**
+     * getter for the event id
+     * @return the id of the event
+     */
+    public long getEventId() {
+        return eventId;
+    }
+
+    /**
+     * setter for the event id
+     * @param eventId the id of the event
+     */
+    public void setEventId(long eventId) {
+        this.eventId = eventId;
+    }
+
+    /**
+     * getter for the version the changes start after
+     * @return the version the client already had
+     */
+    public long getSince() {
+        return since;
+    }
+
+    /**
+     * setter for the version the changes start after
+     * @param since the version the client already had
+     */
+    public void setSince(long since) {
+        this.since = since;
+    }
+
+    /**
+     * getter for the version of the event, the client asks for the changes since this version next time
+     * @return the version that includes all changes
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * setter for the version of the event
+     * @param version the version that includes all changes
+     */
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    /**
+     * getter for the title
+     * @return the current title of the event
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * setter for the title
+     * @param title the current title of the event
+     */
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    /**
+     * getter for the participants that joined the event
+     * @return the participants that joined since the version of the client
+     */
+    public List<Participant> getInsertedParticipants() {
+        return insertedParticipants;
+    }
+
+    /**
+     * setter for the participants that joined the event
+     * @param insertedParticipants the participants that joined since the version of the client
+     */
+    public void setInsertedParticipants(List<Participant> insertedParticipants) {
+        this.insertedParticipants = insertedParticipants;
+    }
+
+    /**
+     * getter for the participants that were changed
+     * @return the current state of the participants the client has that changed
+     */
+    public List<Participant> getUpdatedParticipants() {
+        return updatedParticipants;
+    }
+
+    /**
+     * setter for the participants that were changed
+     * @param updatedParticipants the current state of the participants the client has that changed
+     */
+    public void setUpdatedParticipants(List<Participant> updatedParticipants) {
+        this.updatedParticipants = updatedParticipants;
+    }
+
+    /**
+     * getter for the participants that left the event
+     * @return the ids of the participants that left
+     */
+    public List<Long> getDeletedParticipantIds() {
+        return deletedParticipantIds;
+    }
+
+    /**
+     * setter for the participants that left the event
+     * @param deletedParticipantIds the ids of the participants that left
+     */
+    public void setDeletedParticipantIds(List<Long> deletedParticipantIds) {
+        this.deletedParticipantIds = deletedParticipantIds;
+    }
+
+    /**
+     * getter for the expenses that were added
+     * @return the expenses added since the version of the client
+     */
+    public List<Expense> getInsertedExpenses() {
+        return insertedExpenses;
+    }
+
+    /**
+     * setter for the expenses that were added
+     * @param insertedExpenses the expenses added since the version of the client
+     */
+    public void setInsertedExpenses(List<Expense> insertedExpenses) {
+        this.insertedExpenses = insertedExpenses;
+    }
+
+    /**
+     * getter for the expenses that were changed
+     * @return the current state of the expenses the client has that changed
+     */
+    public List<Expense> getUpdatedExpenses() {
+        return updatedExpenses;
+    }
+
+    /**
+     * setter for the expenses that were changed
+     * @param updatedExpenses the current state of the expenses the client has that changed
+     */
+    public void setUpdatedExpenses(List<Expense> updatedExpenses) {
+        this.updatedExpenses = updatedExpenses;
+    }
+
+    /**
+     * getter for the expenses that were removed
+     * @return the ids of the removed expenses
+     */
+    public List<Long> getDeletedExpenseIds() {
+        return deletedExpenseIds;
+    }
+
+    /**
+     * setter for the expenses that were removed
+     * @param deletedExpenseIds the ids of the removed expenses
+     */
+    public void setDeletedExpenseIds(List<Long> deletedExpenseIds) {
+        this.deletedExpenseIds = deletedExpenseIds;
+    }
+
+    /**
+     * equals method using equals builder
+     * @param obj object to be compared
+     * @return boolean
+     */
+    @Override
+    public boolean equals(Object obj) {
+        return EqualsBuilder.reflectionEquals(this, obj);
+    }
+
+    /**
+     * hashcode using hash builder
+     * @return int representing hash
+     */
+    @Override
+    public int hashCode() {
+        return HashCodeBuilder.reflectionHashCode(this);
+    }
+
+    /**
+     * toString using ToStringBuilder
+     * @return string
+     */
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this, MULTI_LINE_STYLE);
+    }
+}
@@ -0,0 +1,136 @@
+package commons;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.apache.commons.lang3.builder.ToStringStyle.MULTI_LINE_STYLE;
+
+// THIS CLASS IS USED FOR THE STATISTICS OF AN EVENT, THE TOTALS ARE COMPUTED BY THE DATABASE
+public class EventStatistics {
+    // expenses without a tag are counted under the "other" tag, like the client does
+    public static final String UNTAGGED = "other";
+
+    private long eventId;
+    private long totalInCents;
+    private Map<String, Long> totalsByTag;
+    private Map<Long, Long> totalsByParticipant;
+
+    /**
+     * Constructor
+     * @param eventId the id of the event
+     * @param totalInCents the total of all expenses, in cents
+     * @param totalsByTag the total in cents of every tag
+     * @param totalsByParticipant the total in cents paid by every participant, by participant id
+     */
+    public EventStatistics(long eventId, long totalInCents, Map<String, Long> totalsByTag,
+                           Map<Long, Long> totalsByParticipant) {
+        this.eventId = eventId;
+        this.totalInCents = totalInCents;
+        this.totalsByTag = totalsByTag;
+        this.totalsByParticipant = totalsByParticipant;
+    }
+
+    /**
+     * Default constructor for serialization/deserialization
+     */
+    public EventStatistics() {
+        this.totalsByTag = new HashMap<>();
+        this.totalsByParticipant = new HashMap<>();
+    }
+
+    /**
+     * getter for the event id
+     * @return the id of the event
+     */
+    public long getEventId() {
+        return eventId;
+    }
+
+    /**
+     * setter for the event id
+     * @param eventId the id of the event
+     */
+    public void setEventId(long eventId) {
+        this.eventId = eventId;
+    }
+
+    /**
+     * getter for the total of all expenses
+     * @return the total in cents
+     */
+    public long getTotalInCents() {
+        return totalInCents;
+    }
+
+    /**
+     * setter for the total of all expenses
+     * @param totalInCents the total in cents
+     */
+    public void setTotalInCents(long totalInCents) {
+        this.totalInCents = totalInCents;
+    }
+
+    /**
+     * getter for the totals per tag
+     * @return the total in cents of every tag
+     */
+    public Map<String, Long> getTotalsByTag() {
+        return totalsByTag;
+    }
+
+    /**
+     * setter for the totals per tag
+     * @param totalsByTag the total in cents of every tag
+     */
+    public void setTotalsByTag(Map<String, Long> totalsByTag) {
+        this.totalsByTag = totalsByTag;
+    }
+
+    /**
+     * getter for the totals per participant
+     * @return the total in cents paid by every participant, by participant id
+     */
+    public Map<Long, Long> getTotalsByParticipant() {
+        return totalsByParticipant;
+    }
+
+    /**
+     * setter for the totals per participant
+     * @param totalsByParticipant the total in cents paid by every participant, by participant id
+     */
+    public void setTotalsByParticipant(Map<Long, Long> totalsByParticipant) {
+        this.totalsByParticipant = totalsByParticipant;
+    }
+
+    /**
+     * equals method using equals builder
+     * @param obj object to be compared
+     * @return boolean
+     */
+    @Override
+    public boolean equals(Object obj) {
+        return EqualsBuilder.reflectionEquals(this, obj);
+    }
+
+    /**
+     * hashcode using hash builder
+     * @return int representing hash
+     */
+    @Override
+    public int hashCode() {
+        return HashCodeBuilder.reflectionHashCode(this);
+    }
+
+    /**
+     * toString using ToStringBuilder
+     * @return string
+     */
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this, MULTI_LINE_STYLE);
+    }
+}
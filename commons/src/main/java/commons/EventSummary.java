@@ -0,0 +1,200 @@
+package commons;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.time.LocalDateTime;
+
+import static org.apache.commons.lang3.builder.ToStringStyle.MULTI_LINE_STYLE;
+
+// THIS CLASS IS USED FOR EVENT LISTINGS, WITHOUT LOADING PARTICIPANTS AND EXPENSES
+public class EventSummary {
+    private long id;
+    private String title;
+    private long inviteCode;
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime creationDate;
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime lastActivity;
+    private int participantCount;
+    private int expenseCount;
+
+    /**
+     * Constructor used by the projection queries in the event repository
+     * @param id the id of the event
+     * @param title the title of the event
+     * @param inviteCode the invite code of the event
+     * @param creationDate when the event was created
+     * @param lastActivity when the event was last changed
+     * @param participantCount the number of participants in the event
+     * @param expenseCount the number of expenses in the event
+     */
+    public EventSummary(long id, String title, long inviteCode, LocalDateTime creationDate,
+                        LocalDateTime lastActivity, int participantCount, int expenseCount) {
+        this.id = id;
+        this.title = title;
+        this.inviteCode = inviteCode;
+        this.creationDate = creationDate;
+        this.lastActivity = lastActivity;
+        this.participantCount = participantCount;
+        this.expenseCount = expenseCount;
+    }
+
+    /**
+     * Creates the summary of an event that is already loaded
+     * @param event the event
+     */
+    public EventSummary(Event event) {
+        this(event.getId(), event.getTitle(), event.getInviteCode(), event.getCreationDate(),
+                event.getLastActivity(),
+                event.getPeople() == null ? 0 : event.getPeople().size(),
+                event.getExpenses() == null ? 0 : event.getExpenses().size());
+    }
+
+    /**
+     * Default constructor for serialization/deserialization
+     */
+    public EventSummary() {}
+
+    /**
+     * getter for the id
+     * @return the id of the event
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * setter for the id
+     * @param id the id of the event
+     */
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    /**
+     * getter for the title
+     * @return the title of the event
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * setter for the title
+     * @param title the title of the event
+     */
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    /**
+     * getter for the invite code
+     * @return the invite code of the event
+     */
+    public long getInviteCode() {
+        return inviteCode;
+    }
+
+    /**
+     * setter for the invite code
+     * @param inviteCode the invite code of the event
+     */
+    public void setInviteCode(long inviteCode) {
+        this.inviteCode = inviteCode;
+    }
+
+    /**
+     * getter for the creation date
+     * @return date and time of when the event was created
+     */
+    public LocalDateTime getCreationDate() {
+        return creationDate;
+    }
+
+    /**
+     * setter for the creation date
+     * @param creationDate date and time of when the event was created
+     */
+    public void setCreationDate(LocalDateTime creationDate) {
+        this.creationDate = creationDate;
+    }
+
+    /**
+     * getter for the last activity
+     * @return date and time of the last activity of the event
+     */
+    public LocalDateTime getLastActivity() {
+        return lastActivity;
+    }
+
+    /**
+     * setter for the last activity
+     * @param lastActivity date and time of the last activity of the event
+     */
+    public void setLastActivity(LocalDateTime lastActivity) {
+        this.lastActivity = lastActivity;
+    }
+
+    /**
+     * getter for the number of participants
+     * @return the number of participants in the event
+     */
+    public int getParticipantCount() {
+        return participantCount;
+    }
+
+    /**
+     * setter for the number of participants
+     * @param participantCount the number of participants in the event
+     */
+    public void setParticipantCount(int participantCount) {
+        this.participantCount = participantCount;
+    }
+
+    /**
+     * getter for the number of expenses
+     * @return the number of expenses in the event
+     */
+    public int getExpenseCount() {
+        return expenseCount;
+    }
+
+    /**
+     * setter for the number of expenses
+     * @param expenseCount the number of expenses in the event
+     */
+    public void setExpenseCount(int expenseCount) {
+        this.expenseCount = expenseCount;
+    }
+
+    /**
+     * equals method using equals builder
+     * @param obj object to be compared
+     * @return boolean
+     */
+    @Override
+    public boolean equals(Object obj) {
+        return EqualsBuilder.reflectionEquals(this, obj);
+    }
+
+    /**
+     * hashcode using hash builder
+     * @return int representing hash
+     */
+    @Override
+    public int hashCode() {
+        return HashCodeBuilder.reflectionHashCode(this);
+    }
+
+    /**
+     * toString using ToStringBuilder
+     * @return string
+     */
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this, MULTI_LINE_STYLE);
+    }
+}
@@ -0,0 +1,24 @@
+package commons;
+
+// THIS CLASS HOLDS THE WEBSOCKET TOPICS OF AN EVENT, SO THE SERVER AND THE CLIENT USE THE SAME DESTINATIONS
+public final class EventTopics {
+    public static final String EXPENSES = "expenses";
+    public static final String EXPENSE_UPDATES = "expenseUpdates";
+    public static final String EXPENSE_DELETION = "expenseDeletion";
+    public static final String PARTICIPANTS = "participants";
+    public static final String PARTICIPANT_DELETION = "participantDeletion";
+    public static final String TITLE = "title";
+
+    private EventTopics() {
+    }
+
+    /**
+     * the destination of a topic of one event, only the clients that have that event open subscribe to it
+     * @param eventId the id of the event
+     * @param topic one of the topics above
+     * @return the destination, for example /topic/events/12/expenses
+     */
+    public static String of(long eventId, String topic) {
+        return "/topic/events/" + eventId + "/" + topic;
+    }
+}
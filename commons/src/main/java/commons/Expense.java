@@ -1,5 +1,6 @@
 package commons;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
@@ -18,7 +19,9 @@ public class Expense {
     @JoinColumn(name = "participant_id", referencedColumnName = "id")
     private Participant participant;
     private String category;
-    private double amount;
+    // kept in cents so sums are exact, the JSON keeps the decimal "amount" the clients send
+    @Column(name = "amount_in_cents", nullable = false)
+    private long amountInCents;
     private String currency;
     private String date;
     @ManyToMany(cascade = CascadeType.ALL)
@@ -30,6 +33,9 @@ public class Expense {
     private List<Participant> splittingOption;
     private String expenseType;
     private Long eventId;
+    // chosen by the client that sends the expense, a batch that is sent again does not add it twice
+    @Column(name = "idempotency_key", unique = true)
+    private String idempotencyKey;
 
     /**
      * This is the constructor that initialises the expense
@@ -46,7 +52,7 @@ public class Expense {
                     String date, List<Participant> splittingOption, String expenseType, Long eventId) {
         this.participant = participant;
         this.category = category;
-        this.amount = amount;
+        this.amountInCents = Money.toMinorUnits(amount);
         this.currency = currency;
         this.date = date;
         this.splittingOption = splittingOption;
@@ -64,7 +70,7 @@ public class Expense {
     public Expense(Participant participant, String category, double amount,long eventId) {
         this.participant = participant;
         this.category = category;
-        this.amount = amount;
+        this.amountInCents = Money.toMinorUnits(amount);
         this.eventId=eventId;
     }
 
@@ -88,7 +94,7 @@ public class Expense {
         this.id = id;
         this.participant = participant;
         this.category = category;
-        this.amount = amount;
+        this.amountInCents = Money.toMinorUnits(amount);
         this.currency = currency;
         this.date = date;
         this.splittingOption = splittingOption;
@@ -141,6 +147,22 @@ public class Expense {
         this.eventId = eventId;
     }
 
+    /**
+     * getter for the key the client chose for this expense
+     * @return the key, null if the client did not choose one
+     */
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    /**
+     * setter for the key the client chose for this expense
+     * @param idempotencyKey the key
+     */
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
     /**
      * Setter for person
      * @param participant the person who paid for the expense
@@ -186,15 +208,52 @@ public class Expense {
      * @return the price of the expense
      */
     public double getAmount() {
-        return amount;
+        return Money.toDouble(amountInCents);
     }
 
     /**
-     * Setter for amount
+     * Setter for amount, rounded to whole cents
      * @param amount the price of the expense
      */
     public void setAmount(double amount) {
-        this.amount = amount;
+        this.amountInCents = Money.toMinorUnits(amount);
+    }
+
+    /**
+     * Getter for the amount in cents
+     * @return the price of the expense in cents
+     */
+    @JsonIgnore
+    public long getAmountInCents() {
+        return amountInCents;
+    }
+
+    /**
+     * Setter for the amount in cents
+     * @param amountInCents the price of the expense in cents
+     */
+    @JsonIgnore
+    public void setAmountInCents(long amountInCents) {
+        this.amountInCents = amountInCents;
+    }
+
+    /**
+     * Getter for the amount together with its currency
+     * @return the price of the expense
+     */
+    @JsonIgnore
+    public Money getMoney() {
+        return Money.ofMinor(amountInCents, currency);
+    }
+
+    /**
+     * Setter for the amount and the currency
+     * @param money the price of the expense
+     */
+    @JsonIgnore
+    public void setMoney(Money money) {
+        this.amountInCents = money.getMinorUnits();
+        this.currency = money.getCurrency();
     }
 
     /**
@@ -0,0 +1,120 @@
+package commons;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.apache.commons.lang3.builder.ToStringStyle.MULTI_LINE_STYLE;
+
+// ONE PAGE OF A LISTING THAT IS SCROLLED BY ID, THE CURSOR IS NULL ON THE LAST PAGE
+public class KeysetPage<T> {
+    private List<T> items;
+    private String nextCursor;
+    private int limit;
+
+    /**
+     * Constructor for a page
+     * @param items the items on this page, sorted by id
+     * @param nextCursor the cursor to request the next page with, or null if this is the last page
+     * @param limit the page size that was used
+     */
+    public KeysetPage(List<T> items, String nextCursor, int limit) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.limit = limit;
+    }
+
+    /**
+     * Default constructor for serialization/deserialization
+     */
+    public KeysetPage() {
+        this.items = new ArrayList<>();
+    }
+
+    /**
+     * getter for the items
+     * @return the items on this page
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * setter for the items
+     * @param items the items on this page
+     */
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    /**
+     * getter for the next cursor
+     * @return the cursor of the next page, null if there is none
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * setter for the next cursor
+     * @param nextCursor the cursor of the next page
+     */
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * getter for the limit
+     * @return the page size that was used
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * setter for the limit
+     * @param limit the page size that was used
+     */
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    /**
+     * checks if there is a page after this one
+     * @return true if there is a next page
+     */
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    /**
+     * equals method using equals builder
+     * @param obj object to be compared
+     * @return boolean
+     */
+    @Override
+    public boolean equals(Object obj) {
+        return EqualsBuilder.reflectionEquals(this, obj);
+    }
+
+    /**
+     * hashcode using hash builder
+     * @return int representing hash
+     */
+    @Override
+    public int hashCode() {
+        return HashCodeBuilder.reflectionHashCode(this);
+    }
+
+    /**
+     * toString using ToStringBuilder
+     * @return string
+     */
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this, MULTI_LINE_STYLE);
+    }
+}
@@ -0,0 +1,165 @@
+package commons;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import static org.apache.commons.lang3.builder.ToStringStyle.MULTI_LINE_STYLE;
+
+// A PARTICIPANT WHOSE LEDGER ENTRY DOES NOT MATCH THE TOTALS RECOMPUTED FROM THE EXPENSES
+public class LedgerDrift {
+    private long eventId;
+    private long participantId;
+    private long storedPaidInCents;
+    private long storedOwedInCents;
+    private long expectedPaidInCents;
+    private long expectedOwedInCents;
+
+    /**
+     * Constructor for a drift
+     * @param eventId the id of the event
+     * @param participantId the id of the participant
+     * @param storedPaidInCents the paid total in the ledger
+     * @param storedOwedInCents the owed total in the ledger
+     * @param expectedPaidInCents the paid total recomputed from the expenses
+     * @param expectedOwedInCents the owed total recomputed from the expenses
+     */
+    public LedgerDrift(long eventId, long participantId, long storedPaidInCents, long storedOwedInCents,
+                       long expectedPaidInCents, long expectedOwedInCents) {
+        this.eventId = eventId;
+        this.participantId = participantId;
+        this.storedPaidInCents = storedPaidInCents;
+        this.storedOwedInCents = storedOwedInCents;
+        this.expectedPaidInCents = expectedPaidInCents;
+        this.expectedOwedInCents = expectedOwedInCents;
+    }
+
+    /**
+     * Default constructor for serialization/deserialization
+     */
+    public LedgerDrift() {}
+
+    /**
+     * getter for the event id
+     * @return the id of the event
+     */
+    public long getEventId() {
+        return eventId;
+    }
+
+    /**
+     * setter for the event id
+     * @param eventId the id of the event
+     */
+    public void setEventId(long eventId) {
+        this.eventId = eventId;
+    }
+
+    /**
+     * getter for the participant id
+     * @return the id of the participant
+     */
+    public long getParticipantId() {
+        return participantId;
+    }
+
+    /**
+     * setter for the participant id
+     * @param participantId the id of the participant
+     */
+    public void setParticipantId(long participantId) {
+        this.participantId = participantId;
+    }
+
+    /**
+     * getter for the stored paid total
+     * @return the paid total in the ledger, in cents
+     */
+    public long getStoredPaidInCents() {
+        return storedPaidInCents;
+    }
+
+    /**
+     * setter for the stored paid total
+     * @param storedPaidInCents the paid total in the ledger, in cents
+     */
+    public void setStoredPaidInCents(long storedPaidInCents) {
+        this.storedPaidInCents = storedPaidInCents;
+    }
+
+    /**
+     * getter for the stored owed total
+     * @return the owed total in the ledger, in cents
+     */
+    public long getStoredOwedInCents() {
+        return storedOwedInCents;
+    }
+
+    /**
+     * setter for the stored owed total
+     * @param storedOwedInCents the owed total in the ledger, in cents
+     */
+    public void setStoredOwedInCents(long storedOwedInCents) {
+        this.storedOwedInCents = storedOwedInCents;
+    }
+
+    /**
+     * getter for the expected paid total
+     * @return the paid total recomputed from the expenses, in cents
+     */
+    public long getExpectedPaidInCents() {
+        return expectedPaidInCents;
+    }
+
+    /**
+     * setter for the expected paid total
+     * @param expectedPaidInCents the paid total recomputed from the expenses, in cents
+     */
+    public void setExpectedPaidInCents(long expectedPaidInCents) {
+        this.expectedPaidInCents = expectedPaidInCents;
+    }
+
+    /**
+     * getter for the expected owed total
+     * @return the owed total recomputed from the expenses, in cents
+     */
+    public long getExpectedOwedInCents() {
+        return expectedOwedInCents;
+    }
+
+    /**
+     * setter for the expected owed total
+     * @param expectedOwedInCents the owed total recomputed from the expenses, in cents
+     */
+    public void setExpectedOwedInCents(long expectedOwedInCents) {
+        this.expectedOwedInCents = expectedOwedInCents;
+    }
+
+    /**
+     * equals method using equals builder
+     * @param obj object to be compared
+     * @return boolean
+     */
+    @Override
+    public boolean equals(Object obj) {
+        return EqualsBuilder.reflectionEquals(this, obj);
+    }
+
+    /**
+     * hashcode using hash builder
+     * @return int representing hash
+     */
+    @Override
+    public int hashCode() {
+        return HashCodeBuilder.reflectionHashCode(this);
+    }
+
+    /**
+     * toString using ToStringBuilder
+     * @return string
+     */
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this, MULTI_LINE_STYLE);
+    }
+}
@@ -0,0 +1,160 @@
+package commons;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.persistence.*;
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import static org.apache.commons.lang3.builder.ToStringStyle.MULTI_LINE_STYLE;
+
+// THE RUNNING TOTALS OF ONE PARTICIPANT IN ONE EVENT, KEPT UP TO DATE ON EVERY EXPENSE CHANGE
+@Entity
+@JsonIgnoreProperties(value = {"balanceInCents"}, allowGetters = true)
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"event_id", "participant_id"}))
+public class LedgerEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private long id;
+    @Column(name = "event_id", nullable = false)
+    private long eventId;
+    @Column(name = "participant_id", nullable = false)
+    private long participantId;
+    private long paidInCents;
+    private long owedInCents;
+
+    /**
+     * Constructor for a ledger entry
+     * @param eventId the id of the event
+     * @param participantId the id of the participant
+     * @param paidInCents the total the participant paid for expenses of the event, in cents
+     * @param owedInCents the total of the participant's shares in expenses of the event, in cents
+     */
+    public LedgerEntry(long eventId, long participantId, long paidInCents, long owedInCents) {
+        this.eventId = eventId;
+        this.participantId = participantId;
+        this.paidInCents = paidInCents;
+        this.owedInCents = owedInCents;
+    }
+
+    /**
+     * Default constructor for JPA and serialization/deserialization
+     */
+    public LedgerEntry() {}
+
+    /**
+     * getter for the id
+     * @return the id of the entry
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * setter for the id
+     * @param id the id of the entry
+     */
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    /**
+     * getter for the event id
+     * @return the id of the event
+     */
+    public long getEventId() {
+        return eventId;
+    }
+
+    /**
+     * setter for the event id
+     * @param eventId the id of the event
+     */
+    public void setEventId(long eventId) {
+        this.eventId = eventId;
+    }
+
+    /**
+     * getter for the participant id
+     * @return the id of the participant
+     */
+    public long getParticipantId() {
+        return participantId;
+    }
+
+    /**
+     * setter for the participant id
+     * @param participantId the id of the participant
+     */
+    public void setParticipantId(long participantId) {
+        this.participantId = participantId;
+    }
+
+    /**
+     * getter for the paid amount
+     * @return the total paid, in cents
+     */
+    public long getPaidInCents() {
+        return paidInCents;
+    }
+
+    /**
+     * setter for the paid amount
+     * @param paidInCents the total paid, in cents
+     */
+    public void setPaidInCents(long paidInCents) {
+        this.paidInCents = paidInCents;
+    }
+
+    /**
+     * getter for the owed amount
+     * @return the total owed, in cents
+     */
+    public long getOwedInCents() {
+        return owedInCents;
+    }
+
+    /**
+     * setter for the owed amount
+     * @param owedInCents the total owed, in cents
+     */
+    public void setOwedInCents(long owedInCents) {
+        this.owedInCents = owedInCents;
+    }
+
+    /**
+     * getter for the balance, positive if the participant should receive money
+     * @return paid minus owed, in cents
+     */
+    public long getBalanceInCents() {
+        return paidInCents - owedInCents;
+    }
+
+    /**
+     * equals method using equals builder
+     * @param obj object to be compared
+     * @return boolean
+     */
+    @Override
+    public boolean equals(Object obj) {
+        return EqualsBuilder.reflectionEquals(this, obj);
+    }
+
+    /**
+     * hashcode using hash builder
+     * @return int representing hash
+     */
+    @Override
+    public int hashCode() {
+        return HashCodeBuilder.reflectionHashCode(this);
+    }
+
+    /**
+     * toString using ToStringBuilder
+     * @return string
+     */
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this, MULTI_LINE_STYLE);
+    }
+}
@@ -0,0 +1,278 @@
+package commons;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Locale;
+
+/**
+ * An amount of money in one currency. The amount is kept as a whole number of cents
+ * (hundredths of the currency unit), so adding and splitting amounts is exact.
+ * Money is immutable, every operation returns a new value.
+ */
+@JsonSerialize(using = MoneyJson.Serializer.class)
+@JsonDeserialize(using = MoneyJson.Deserializer.class)
+public final class Money implements Comparable<Money> {
+    public static final String DEFAULT_CURRENCY = "EUR";
+    public static final int SCALE = 2;
+
+    private final long minorUnits;
+    private final String currency;
+
+    private Money(long minorUnits, String currency) {
+        this.minorUnits = minorUnits;
+        this.currency = currency;
+    }
+
+    /**
+     * creates an amount from a number of cents
+     * @param minorUnits the amount in cents
+     * @param currency the currency code, the default currency if null or blank
+     * @return the amount
+     */
+    public static Money ofMinor(long minorUnits, String currency) {
+        return new Money(minorUnits, normalize(currency));
+    }
+
+    /**
+     * creates an amount from a decimal amount, rounding half up to whole cents
+     * @param amount the amount
+     * @param currency the currency code, the default currency if null or blank
+     * @return the amount
+     */
+    public static Money of(BigDecimal amount, String currency) {
+        return new Money(toMinorUnits(amount), normalize(currency));
+    }
+
+    /**
+     * creates an amount from a double, rounding half up to whole cents
+     * @param amount the amount
+     * @param currency the currency code, the default currency if null or blank
+     * @return the amount
+     */
+    public static Money of(double amount, String currency) {
+        return new Money(toMinorUnits(amount), normalize(currency));
+    }
+
+    /**
+     * zero in a currency
+     * @param currency the currency code, the default currency if null or blank
+     * @return the amount
+     */
+    public static Money zero(String currency) {
+        return new Money(0, normalize(currency));
+    }
+
+    /**
+     * converts an amount to cents, rounding half up. The shortest decimal representation
+     * of the double is used, so 0.1 + 0.2 becomes 30 cents.
+     * @param amount the amount
+     * @return the amount in cents
+     */
+    public static long toMinorUnits(double amount) {
+        if (Double.isNaN(amount) || Double.isInfinite(amount)) {
+            throw new IllegalArgumentException("Amount of money must be a finite number");
+        }
+        return toMinorUnits(BigDecimal.valueOf(amount));
+    }
+
+    /**
+     * converts an amount to cents, rounding half up
+     * @param amount the amount
+     * @return the amount in cents
+     */
+    public static long toMinorUnits(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * converts a number of cents to a double, only meant for displaying and charts
+     * @param minorUnits the amount in cents
+     * @return the amount
+     */
+    public static double toDouble(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, SCALE).doubleValue();
+    }
+
+    /**
+     * parses an amount written as by {@link #toString()}, for example "12.34 EUR".
+     * Without a currency the default currency is used.
+     * @param text the amount
+     * @return the amount
+     * @throws IllegalArgumentException if the text is not an amount of money
+     */
+    public static Money parse(String text) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("Amount of money can't be empty");
+        }
+        String[] parts = text.trim().split("\\s+");
+        if (parts.length > 2) {
+            throw new IllegalArgumentException("Not an amount of money: " + text);
+        }
+        try {
+            return of(new BigDecimal(parts[0]), parts.length == 2 ? parts[1] : null);
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new IllegalArgumentException("Not an amount of money: " + text, e);
+        }
+    }
+
+    /**
+     * getter for the amount in cents
+     * @return the amount in cents
+     */
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    /**
+     * getter for the currency
+     * @return the upper case currency code
+     */
+    public String getCurrency() {
+        return currency;
+    }
+
+    /**
+     * the exact decimal amount
+     * @return the amount with two decimals
+     */
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    /**
+     * the amount as a double, only meant for displaying and charts
+     * @return the amount
+     */
+    public double toDouble() {
+        return toDouble(minorUnits);
+    }
+
+    /**
+     * adds two amounts
+     * @param other the amount to add, in the same currency
+     * @return the sum
+     */
+    public Money plus(Money other) {
+        checkCurrency(other);
+        return new Money(Math.addExact(minorUnits, other.minorUnits), currency);
+    }
+
+    /**
+     * subtracts an amount
+     * @param other the amount to subtract, in the same currency
+     * @return the difference
+     */
+    public Money minus(Money other) {
+        checkCurrency(other);
+        return new Money(Math.subtractExact(minorUnits, other.minorUnits), currency);
+    }
+
+    /**
+     * multiplies the amount
+     * @param factor the factor
+     * @return the product
+     */
+    public Money times(long factor) {
+        return new Money(Math.multiplyExact(minorUnits, factor), currency);
+    }
+
+    /**
+     * the amount with the opposite sign
+     * @return the negated amount
+     */
+    public Money negate() {
+        return new Money(Math.negateExact(minorUnits), currency);
+    }
+
+    /**
+     * divides the amount equally in cents, the cents that are left over go to the first parts, one each.
+     * The parts always add up to exactly this amount.
+     * @param parts the number of parts
+     * @return the parts
+     */
+    public Money[] split(int parts) {
+        if (parts <= 0) {
+            throw new IllegalArgumentException("Number of parts must be positive");
+        }
+        Money[] result = new Money[parts];
+        long base = Math.floorDiv(minorUnits, parts);
+        long remainder = Math.floorMod(minorUnits, parts);
+        for (int i = 0; i < parts; i++) {
+            result[i] = new Money(i < remainder ? base + 1 : base, currency);
+        }
+        return result;
+    }
+
+    /**
+     * checks if the amount is zero
+     * @return true if the amount is zero
+     */
+    public boolean isZero() {
+        return minorUnits == 0;
+    }
+
+    /**
+     * checks if the amount is negative
+     * @return true if the amount is less than zero
+     */
+    public boolean isNegative() {
+        return minorUnits < 0;
+    }
+
+    /**
+     * compares two amounts in the same currency
+     * @param other the amount to compare with
+     * @return negative, zero or positive like {@link Long#compare(long, long)}
+     */
+    @Override
+    public int compareTo(Money other) {
+        checkCurrency(other);
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    /**
+     * equals method, amounts are equal if they have the same cents and currency
+     * @param obj object to be compared
+     * @return boolean
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof Money that)) return false;
+        return minorUnits == that.minorUnits && currency.equals(that.currency);
+    }
+
+    /**
+     * hashcode
+     * @return int representing hash
+     */
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(minorUnits) + currency.hashCode();
+    }
+
+    /**
+     * to string method, for example "12.34 EUR"
+     * @return String
+     */
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString() + " " + currency;
+    }
+
+    private void checkCurrency(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Can't combine " + currency + " with " + other.currency);
+        }
+    }
+
+    private static String normalize(String currency) {
+        if (currency == null || currency.isBlank()) {
+            return DEFAULT_CURRENCY;
+        }
+        return currency.trim().toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,32 @@
+package commons;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores {@link Money} in one column as text like "12.34 EUR", so the currency is kept
+ * together with the amount.
+ */
+@Converter
+public class MoneyConverter implements AttributeConverter<Money, String> {
+
+    /**
+     * converts an amount to the column value
+     * @param money the amount, may be null
+     * @return the text of the amount, null if the amount is null
+     */
+    @Override
+    public String convertToDatabaseColumn(Money money) {
+        return money == null ? null : money.toString();
+    }
+
+    /**
+     * converts a column value to an amount
+     * @param text the text of the amount, may be null
+     * @return the amount, null if the column is null
+     */
+    @Override
+    public Money convertToEntityAttribute(String text) {
+        return text == null ? null : Money.parse(text);
+    }
+}
@@ -0,0 +1,89 @@
+package commons;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * Jackson (de)serializers for {@link Money}. An amount is written as
+ * {"amount": "12.34", "currency": "EUR"}, with the amount as a string so no client
+ * reads it into a double by accident. Reading also accepts a plain number or a string like "12.34 EUR".
+ */
+public final class MoneyJson {
+
+    private MoneyJson() {
+    }
+
+    public static class Serializer extends StdSerializer<Money> {
+
+        /**
+         * constructor
+         */
+        public Serializer() {
+            super(Money.class);
+        }
+
+        /**
+         * writes an amount as an object with the decimal amount and the currency
+         * @param value the amount
+         * @param gen the generator
+         * @param provider the serializer provider
+         * @throws IOException if writing fails
+         */
+        @Override
+        public void serialize(Money value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            gen.writeStringField("amount", value.toBigDecimal().toPlainString());
+            gen.writeStringField("currency", value.getCurrency());
+            gen.writeEndObject();
+        }
+    }
+
+    public static class Deserializer extends StdDeserializer<Money> {
+
+        /**
+         * constructor
+         */
+        public Deserializer() {
+            super(Money.class);
+        }
+
+        /**
+         * reads an amount written by the serializer, a number or a string
+         * @param p the parser
+         * @param ctxt the context
+         * @return the amount
+         * @throws IOException if the value is not an amount of money
+         */
+        @Override
+        public Money deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            JsonToken token = p.currentToken();
+            try {
+                if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+                    return Money.of(p.getDecimalValue(), null);
+                }
+                if (token == JsonToken.VALUE_STRING) {
+                    return Money.parse(p.getText());
+                }
+                JsonNode node = p.readValueAsTree();
+                JsonNode amount = node.get("amount");
+                if (amount == null || !(amount.isTextual() || amount.isNumber())) {
+                    return (Money) ctxt.handleUnexpectedToken(Money.class, p);
+                }
+                JsonNode currency = node.get("currency");
+                return Money.of(new BigDecimal(amount.asText()),
+                        currency == null || currency.isNull() ? null : currency.asText());
+            } catch (IllegalArgumentException | ArithmeticException e) {
+                return (Money) ctxt.handleWeirdStringValue(Money.class, p.getText(), e.getMessage());
+            }
+        }
+    }
+}
@@ -16,19 +16,21 @@ public class Participant {
     private String email;
     private String iban; // international bank account number.
     private String bic; // bank identifier code. Similar to the iban, it is required in the backlog.
-    @ElementCollection(fetch = FetchType.EAGER)
+    @ElementCollection(fetch = FetchType.LAZY)
     @CollectionTable(name = "participant_owed_amount",
             joinColumns = @JoinColumn(name = "participant_id"))
     @MapKeyJoinColumn(name = "event_id")
     @Column(name = "owed_amount")
-    private Map<Event, Double> owedAmount;
-    @ElementCollection(fetch = FetchType.EAGER)
+    @Convert(converter = MoneyConverter.class, attributeName = "value")
+    private Map<Event, Money> owedAmount;
+    @ElementCollection(fetch = FetchType.LAZY)
     @CollectionTable(name = "participant_owed_amount",
             joinColumns = @JoinColumn(name = "participant_id"))
     @MapKeyJoinColumn(name = "event_id")
     @Column(name = "owed_amount")
-    private Map<Event, Double> payedAmount;
-    @ElementCollection(fetch = FetchType.EAGER)
+    @Convert(converter = MoneyConverter.class, attributeName = "value")
+    private Map<Event, Money> payedAmount;
+    @ElementCollection(fetch = FetchType.LAZY)
     private Set<Long> eventIds;
     private String languageChoice;
 
@@ -87,8 +89,8 @@ public class Participant {
      * @param languageChoice String
      */
     public Participant(String username, String firstName, String lastName, String email,
-                       String iban, String bic, Map<Event, Double> owedAmount,
-                       Map<Event, Double> payedAmount, Set<Long> eventIds,
+                       String iban, String bic, Map<Event, Money> owedAmount,
+                       Map<Event, Money> payedAmount, Set<Long> eventIds,
                        String languageChoice) {
         this.username = username;
         this.firstName = firstName;
@@ -128,8 +130,8 @@ public class Participant {
      * @param languageChoice the participants language choice */
     public Participant(long id, String username, String firstName,
                        String lastName, String email, String iban,
-                       String bic, Map<Event, Double> owedAmount,
-                       Map<Event, Double> payedAmount, Set<Long> eventIds,
+                       String bic, Map<Event, Money> owedAmount,
+                       Map<Event, Money> payedAmount, Set<Long> eventIds,
                        String languageChoice) {
         this.id = id;
         this.username = username;
@@ -204,7 +206,7 @@ public class Participant {
      * owed Amount map getter
      * @return hashmap
      */
-    public Map<Event, Double> getOwedAmount() {
+    public Map<Event, Money> getOwedAmount() {
         return owedAmount;
     }
 
@@ -212,7 +214,7 @@ public class Participant {
      * paid amount map getter
      * @return hashmap
      */
-    public Map<Event, Double> getPayedAmount() {
+    public Map<Event, Money> getPayedAmount() {
         return payedAmount;
     }
 
@@ -268,7 +270,7 @@ public class Participant {
      * owed amount setter
      * @param owedAmount the owed amount
      */
-    public void setOwedAmount(Map<Event, Double> owedAmount) {
+    public void setOwedAmount(Map<Event, Money> owedAmount) {
         this.owedAmount = owedAmount;
     }
 
@@ -276,7 +278,7 @@ public class Participant {
      * paid amount setter
      * @param payedAmount the amount paid for the event
      */
-    public void setPayedAmount(Map<Event, Double> payedAmount) {
+    public void setPayedAmount(Map<Event, Money> payedAmount) {
         this.payedAmount = payedAmount;
     }
 
@@ -299,18 +301,18 @@ public class Participant {
     /**
      * Get owed amount for a particular event in a hashmap
      * @param event Event
-     * @return Integer
+     * @return the amount, zero in the default currency if nothing is owed
      */
-    public Double getOwedAmountForEvent(Event event) {
-        return owedAmount.getOrDefault(event, (double) 0);
+    public Money getOwedAmountForEvent(Event event) {
+        return owedAmount.getOrDefault(event, Money.zero(null));
     }
     /**
      * Get paid amount for a particular event in a hashmap
      * @param event Event
-     * @return Integer
+     * @return the amount, zero in the default currency if nothing was paid
      */
-    public Double getPaidAmountForEvent(Event event) {
-        return payedAmount.getOrDefault(event, (double) 0);
+    public Money getPaidAmountForEvent(Event event) {
+        return payedAmount.getOrDefault(event, Money.zero(null));
     }
 
     /**
@@ -364,14 +366,14 @@ public class Participant {
         sb.append("BIC: ").append(bic).append("\n");
         sb.append("Language Choice: ").append(languageChoice).append("\n");
         sb.append("Events Owed Amount:\n");
-        for (Map.Entry<Event, Double> entry : owedAmount.entrySet()) {
+        for (Map.Entry<Event, Money> entry : owedAmount.entrySet()) {
             sb.append("Owes for ").
                     append(entry.getKey().getTitle()).
                     append(": ").append(entry.getValue()).
                     append("\n");
         }
         sb.append("Events Paid Amount:\n");
-        for (Map.Entry<Event, Double> entry : payedAmount.entrySet()) {
+        for (Map.Entry<Event, Money> entry : payedAmount.entrySet()) {
             sb.append("Paid for ").
                     append(entry.getKey().getTitle()).
                     append(": ").append(entry.getValue()).
@@ -386,10 +388,10 @@ public class Participant {
     /**
      * adding into hashmap owed amount
      * @param event Event
-     * @param amount int
+     * @param amount Money
      */
-    public void addOwedAmountForSpecificEvent(Event event, double amount) {
-        if(amount < 0) {
+    public void addOwedAmountForSpecificEvent(Event event, Money amount) {
+        if(amount.isNegative()) {
             throw new IllegalArgumentException("Amount of money can't be negative!");
         }
         owedAmount.put(event, amount);
@@ -397,10 +399,10 @@ public class Participant {
     /**
      * adding into hashmap paid amount
      * @param event Event
-     * @param amount int
+     * @param amount Money
      */
-    public void addPaidAmountForSpecificEvent(Event event, double amount) {
-        if(amount < 0) {
+    public void addPaidAmountForSpecificEvent(Event event, Money amount) {
+        if(amount.isNegative()) {
             throw new IllegalArgumentException("Amount of money can't be negative!");
         }
         payedAmount.put(event, amount);
@@ -412,7 +414,8 @@ public class Participant {
      * @return boolean
      */
     public boolean owesForEvent(Event event) {
-        return owedAmount.containsKey(event) && owedAmount.get(event) > 0;
+        Money amount = owedAmount.get(event);
+        return amount != null && amount.getMinorUnits() > 0;
     }
 
     /**
@@ -421,31 +424,39 @@ public class Participant {
      * @return boolean
      */
     public boolean hasPaidForEvent(Event event) {
-        return payedAmount.containsKey(event) && payedAmount.get(event) > 0;
+        Money amount = payedAmount.get(event);
+        return amount != null && amount.getMinorUnits() > 0;
     }
 
     /**
      * calculates total owed amount
-     * @return int
+     * @return the total, in the default currency if nothing is owed
+     * @throws IllegalArgumentException if the amounts are in different currencies
      */
-    public double calculateOwed() {
-        double totalOwed = 0;
-        for (double amount : owedAmount.values()) {
-            totalOwed = totalOwed +  amount;
-        }
-        return totalOwed;
+    public Money calculateOwed() {
+        return total(owedAmount.values());
     }
 
     /**
      * calculates total paid amount
-     * @return int
-     */
-    public double calculatePaid() {
-        double totalPaid = 0;
-        for (double amount : payedAmount.values()) {
-            totalPaid = totalPaid + amount;
+     * @return the total, in the default currency if nothing was paid
+     * @throws IllegalArgumentException if the amounts are in different currencies
+     */
+    public Money calculatePaid() {
+        return total(payedAmount.values());
+    }
+
+    private static Money total(Iterable<Money> amounts) {
+        String currency = null;
+        long total = 0;
+        for (Money amount : amounts) {
+            if (currency != null && !currency.equals(amount.getCurrency())) {
+                throw new IllegalArgumentException("Can't add up " + currency + " and " + amount.getCurrency());
+            }
+            currency = amount.getCurrency();
+            total = Math.addExact(total, amount.getMinorUnits());
         }
-        return totalPaid;
+        return Money.ofMinor(total, currency);
     }
 
     /**
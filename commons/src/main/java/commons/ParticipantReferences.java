@@ -0,0 +1,168 @@
+package commons;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compact way to write expenses: the payer and the people an expense is split between are written as
+ * their id instead of as the whole participant with all their amounts. The participants are sent once with
+ * the event, or are already known to the client, so {@link #resolve(Collection, Collection)} puts them
+ * back after reading.
+ * <p>
+ * The plain JSON of the API does not use this, so older clients keep working. Reading accepts both a
+ * reference and a whole participant.
+ */
+public final class ParticipantReferences {
+
+    private ParticipantReferences() {
+    }
+
+    /**
+     * the Jackson module that writes the participants of expenses as references
+     * @return the module
+     */
+    public static Module module() {
+        SimpleModule module = new SimpleModule("ParticipantReferences");
+        module.setMixInAnnotation(Expense.class, ExpenseMixin.class);
+        return module;
+    }
+
+    /**
+     * checks if an expense was read with references that still have to be resolved
+     * @param expenses the expenses
+     * @return true if a payer or a person in a splitting option is only a reference
+     */
+    public static boolean hasReferences(Collection<Expense> expenses) {
+        for (Expense expense : expenses) {
+            if (expense.getParticipant() instanceof Reference) {
+                return true;
+            }
+            if (expense.getSplittingOption() != null
+                    && expense.getSplittingOption().stream().anyMatch(Reference.class::isInstance)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * replaces the references in expenses by the participants they refer to. References to participants
+     * that are not given stay as they are, with only their id
+     * @param expenses the expenses, changed in place
+     * @param participants the participants of the event
+     */
+    public static void resolve(Collection<Expense> expenses, Collection<Participant> participants) {
+        if (expenses == null || participants == null) {
+            return;
+        }
+        Map<Long, Participant> byId = new HashMap<>();
+        participants.forEach(participant -> byId.put(participant.getId(), participant));
+        for (Expense expense : expenses) {
+            expense.setParticipant(resolve(expense.getParticipant(), byId));
+            List<Participant> splittingOption = expense.getSplittingOption();
+            if (splittingOption != null) {
+                splittingOption.replaceAll(participant -> resolve(participant, byId));
+            }
+        }
+    }
+
+    /**
+     * replaces the references in the expenses of an event by the participants of the event
+     * @param event the event, changed in place
+     */
+    public static void resolve(Event event) {
+        if (event != null) {
+            resolve(event.getExpenses(), event.getPeople());
+        }
+    }
+
+    private static Participant resolve(Participant participant, Map<Long, Participant> byId) {
+        if (participant instanceof Reference) {
+            return byId.getOrDefault(participant.getId(), participant);
+        }
+        return participant;
+    }
+
+    /**
+     * a participant of which only the id was read
+     */
+    private static final class Reference extends Participant {
+        private Reference(long id) {
+            setId(id);
+        }
+    }
+
+    /**
+     * the annotations that make Jackson write the participants of an expense as references
+     */
+    private abstract static class ExpenseMixin {
+        @JsonSerialize(using = Serializer.class)
+        @JsonDeserialize(using = Deserializer.class)
+        private Participant participant;
+
+        @JsonSerialize(contentUsing = Serializer.class)
+        @JsonDeserialize(contentUsing = Deserializer.class)
+        private List<Participant> splittingOption;
+    }
+
+    public static class Serializer extends StdSerializer<Participant> {
+
+        /**
+         * constructor
+         */
+        public Serializer() {
+            super(Participant.class);
+        }
+
+        /**
+         * writes a participant as its id
+         * @param value the participant
+         * @param gen the generator
+         * @param provider the serializer provider
+         * @throws IOException if writing fails
+         */
+        @Override
+        public void serialize(Participant value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeNumber(value.getId());
+        }
+    }
+
+    public static class Deserializer extends StdDeserializer<Participant> {
+
+        /**
+         * constructor
+         */
+        public Deserializer() {
+            super(Participant.class);
+        }
+
+        /**
+         * reads a reference, or a whole participant if the server sent one
+         * @param p the parser
+         * @param ctxt the deserialization context
+         * @return the participant, only with its id if it was a reference
+         * @throws IOException if reading fails
+         */
+        @Override
+        public Participant deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (p.currentToken().isNumeric()) {
+                return new Reference(p.getLongValue());
+            }
+            return ctxt.readValue(p, Participant.class);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package commons;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import static org.apache.commons.lang3.builder.ToStringStyle.MULTI_LINE_STYLE;
+
+// ONE PAYMENT OF THE SETTLEMENT OF AN EVENT, THE AMOUNT IS IN CENTS
+public class Transfer {
+    private long debtorId;
+    private long lenderId;
+    private long amountInCents;
+
+    /**
+     * Constructor for a transfer
+     * @param debtorId the id of the participant who has to pay
+     * @param lenderId the id of the participant who receives the money
+     * @param amountInCents the amount to pay, in cents
+     */
+    public Transfer(long debtorId, long lenderId, long amountInCents) {
+        this.debtorId = debtorId;
+        this.lenderId = lenderId;
+        this.amountInCents = amountInCents;
+    }
+
+    /**
+     * Default constructor for serialization/deserialization
+     */
+    public Transfer() {}
+
+    /**
+     * getter for the debtor id
+     * @return the id of the participant who has to pay
+     */
+    public long getDebtorId() {
+        return debtorId;
+    }
+
+    /**
+     * setter for the debtor id
+     * @param debtorId the id of the participant who has to pay
+     */
+    public void setDebtorId(long debtorId) {
+        this.debtorId = debtorId;
+    }
+
+    /**
+     * getter for the lender id
+     * @return the id of the participant who receives the money
+     */
+    public long getLenderId() {
+        return lenderId;
+    }
+
+    /**
+     * setter for the lender id
+     * @param lenderId the id of the participant who receives the money
+     */
+    public void setLenderId(long lenderId) {
+        this.lenderId = lenderId;
+    }
+
+    /**
+     * getter for the amount
+     * @return the amount to pay, in cents
+     */
+    public long getAmountInCents() {
+        return amountInCents;
+    }
+
+    /**
+     * setter for the amount
+     * @param amountInCents the amount to pay, in cents
+     */
+    public void setAmountInCents(long amountInCents) {
+        this.amountInCents = amountInCents;
+    }
+
+    /**
+     * equals method using equals builder
+     * @param obj object to be compared
+     * @return boolean
+     */
+    @Override
+    public boolean equals(Object obj) {
+        return EqualsBuilder.reflectionEquals(this, obj);
+    }
+
+    /**
+     * hashcode using hash builder
+     * @return int representing hash
+     */
+    @Override
+    public int hashCode() {
+        return HashCodeBuilder.reflectionHashCode(this);
+    }
+
+    /**
+     * toString using ToStringBuilder
+     * @return string
+     */
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this, MULTI_LINE_STYLE);
+    }
+}
@@ -0,0 +1,21 @@
+package commons;
+
+// THIS CLASS HOLDS THE CONTENT TYPES OF THE COMPACT BINARY FORMAT, SO THE SERVER AND THE CLIENT NEGOTIATE THE SAME ONE
+public final class WireFormat {
+    /**
+     * CBOR (RFC 8949) with the participants of expenses written as references, see {@link ParticipantReferences}
+     */
+    public static final String CBOR = "application/cbor";
+    /**
+     * the same format in STOMP messages. Spring only sends octet streams as binary websocket frames,
+     * the parameter tells the client how to read the bytes
+     */
+    public static final String STOMP_CBOR = "application/octet-stream;format=cbor";
+    /**
+     * the Accept header of a client that reads both formats, a server without CBOR answers with JSON
+     */
+    public static final String[] ACCEPT = {CBOR, "application/json;q=0.9"};
+
+    private WireFormat() {
+    }
+}
@@ -0,0 +1,51 @@
+package commons;
+
+import commons.ChangeLogEntry.EntityType;
+import commons.ChangeLogEntry.Kind;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeLogEntryTest {
+
+    @Test
+    void testConstructor() {
+        ChangeLogEntry entry = new ChangeLogEntry(1L, 5L, EntityType.EXPENSE, 3L, Kind.UPDATED);
+        assertEquals(1L, entry.getEventId());
+        assertEquals(5L, entry.getVersion());
+        assertEquals(EntityType.EXPENSE, entry.getEntityType());
+        assertEquals(3L, entry.getEntityId());
+        assertEquals(Kind.UPDATED, entry.getKind());
+    }
+
+    @Test
+    void testSetters() {
+        ChangeLogEntry entry = new ChangeLogEntry();
+        entry.setId(7L);
+        entry.setEventId(1L);
+        entry.setVersion(2L);
+        entry.setEntityType(EntityType.PARTICIPANT);
+        entry.setEntityId(4L);
+        entry.setKind(Kind.DELETED);
+        assertEquals(7L, entry.getId());
+        assertEquals(1L, entry.getEventId());
+        assertEquals(2L, entry.getVersion());
+        assertEquals(EntityType.PARTICIPANT, entry.getEntityType());
+        assertEquals(4L, entry.getEntityId());
+        assertEquals(Kind.DELETED, entry.getKind());
+    }
+
+    @Test
+    void testEqualsAndHashCode() {
+        ChangeLogEntry entry1 = new ChangeLogEntry(1L, 5L, EntityType.EXPENSE, 3L, Kind.UPDATED);
+        ChangeLogEntry entry2 = new ChangeLogEntry(1L, 5L, EntityType.EXPENSE, 3L, Kind.UPDATED);
+        assertEquals(entry1, entry2);
+        assertEquals(entry1.hashCode(), entry2.hashCode());
+        assertNotEquals(entry1, new ChangeLogEntry(1L, 6L, EntityType.EXPENSE, 3L, Kind.UPDATED));
+    }
+
+    @Test
+    void testToString() {
+        assertTrue(new ChangeLogEntry(1L, 5L, EntityType.EXPENSE, 3L, Kind.UPDATED).toString().contains("kind=UPDATED"));
+    }
+}
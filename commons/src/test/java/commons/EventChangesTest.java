@@ -0,0 +1,78 @@
+package commons;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventChangesTest {
+
+    @Test
+    void testConstructor() {
+        EventChanges changes = new EventChanges(1L, 3L, 5L, "Trip");
+        assertEquals(1L, changes.getEventId());
+        assertEquals(3L, changes.getSince());
+        assertEquals(5L, changes.getVersion());
+        assertEquals("Trip", changes.getTitle());
+        assertTrue(changes.getInsertedParticipants().isEmpty());
+        assertTrue(changes.getDeletedExpenseIds().isEmpty());
+        assertTrue(changes.hasChanges());
+    }
+
+    @Test
+    void testHasChanges() {
+        assertFalse(new EventChanges(1L, 5L, 5L, "Trip").hasChanges());
+    }
+
+    @Test
+    void testSetters() {
+        EventChanges changes = new EventChanges();
+        Participant participant = new Participant();
+        Expense expense = new Expense();
+        changes.setEventId(2L);
+        changes.setSince(1L);
+        changes.setVersion(4L);
+        changes.setTitle("Dinner");
+        changes.setInsertedParticipants(List.of(participant));
+        changes.setUpdatedParticipants(List.of(participant));
+        changes.setDeletedParticipantIds(List.of(3L));
+        changes.setInsertedExpenses(List.of(expense));
+        changes.setUpdatedExpenses(List.of(expense));
+        changes.setDeletedExpenseIds(List.of(6L));
+        assertEquals(2L, changes.getEventId());
+        assertEquals("Dinner", changes.getTitle());
+        assertEquals(List.of(participant), changes.getInsertedParticipants());
+        assertEquals(List.of(participant), changes.getUpdatedParticipants());
+        assertEquals(List.of(3L), changes.getDeletedParticipantIds());
+        assertEquals(List.of(expense), changes.getInsertedExpenses());
+        assertEquals(List.of(expense), changes.getUpdatedExpenses());
+        assertEquals(List.of(6L), changes.getDeletedExpenseIds());
+    }
+
+    @Test
+    void testJsonRoundTrip() throws JsonProcessingException {
+        ObjectMapper mapper = new ObjectMapper();
+        EventChanges changes = new EventChanges(1L, 3L, 5L, "Trip");
+        changes.setDeletedParticipantIds(List.of(2L));
+        String json = mapper.writeValueAsString(changes);
+        assertFalse(json.contains("hasChanges"));
+        assertEquals(changes, mapper.readValue(json, EventChanges.class));
+    }
+
+    @Test
+    void testEqualsAndHashCode() {
+        EventChanges changes1 = new EventChanges(1L, 3L, 5L, "Trip");
+        EventChanges changes2 = new EventChanges(1L, 3L, 5L, "Trip");
+        assertEquals(changes1, changes2);
+        assertEquals(changes1.hashCode(), changes2.hashCode());
+        assertNotEquals(changes1, new EventChanges(1L, 3L, 6L, "Trip"));
+    }
+
+    @Test
+    void testToString() {
+        assertTrue(new EventChanges(1L, 3L, 5L, "Trip").toString().contains("version=5"));
+    }
+}
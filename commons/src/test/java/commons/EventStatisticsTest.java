@@ -0,0 +1,54 @@
+package commons;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventStatisticsTest {
+
+    @Test
+    void testFullConstructor() {
+        EventStatistics statistics = new EventStatistics(1L, 1500L,
+                Map.of("food", 1000L, "other", 500L), Map.of(2L, 1500L));
+        assertEquals(1L, statistics.getEventId());
+        assertEquals(1500L, statistics.getTotalInCents());
+        assertEquals(1000L, statistics.getTotalsByTag().get("food"));
+        assertEquals(1500L, statistics.getTotalsByParticipant().get(2L));
+    }
+
+    @Test
+    void testDefaultConstructorIsEmpty() {
+        EventStatistics statistics = new EventStatistics();
+        assertEquals(0L, statistics.getTotalInCents());
+        assertTrue(statistics.getTotalsByTag().isEmpty());
+        assertTrue(statistics.getTotalsByParticipant().isEmpty());
+    }
+
+    @Test
+    void testSetters() {
+        EventStatistics statistics = new EventStatistics();
+        statistics.setEventId(3L);
+        statistics.setTotalInCents(200L);
+        statistics.setTotalsByTag(Map.of("travel", 200L));
+        statistics.setTotalsByParticipant(Map.of(4L, 200L));
+        assertEquals(new EventStatistics(3L, 200L, Map.of("travel", 200L), Map.of(4L, 200L)), statistics);
+    }
+
+    @Test
+    void testEqualsAndHashCode() {
+        EventStatistics statistics1 = new EventStatistics(1L, 10L, Map.of("food", 10L), Map.of(1L, 10L));
+        EventStatistics statistics2 = new EventStatistics(1L, 10L, Map.of("food", 10L), Map.of(1L, 10L));
+        EventStatistics statistics3 = new EventStatistics(2L, 10L, Map.of("food", 10L), Map.of(1L, 10L));
+        assertEquals(statistics1, statistics2);
+        assertEquals(statistics1.hashCode(), statistics2.hashCode());
+        assertNotEquals(statistics1, statistics3);
+    }
+
+    @Test
+    void testToString() {
+        String string = new EventStatistics(1L, 10L, Map.of(), Map.of()).toString();
+        assertTrue(string.contains("totalInCents=10"));
+    }
+}
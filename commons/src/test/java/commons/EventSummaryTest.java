@@ -0,0 +1,91 @@
+package commons;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventSummaryTest {
+
+    LocalDateTime created = LocalDateTime.of(2024, 3, 1, 12, 0);
+    LocalDateTime changed = LocalDateTime.of(2024, 3, 2, 13, 30);
+
+    @Test
+    void testFullConstructor() {
+        EventSummary summary = new EventSummary(1L, "Trip", 123456L, created, changed, 3, 5);
+        assertEquals(1L, summary.getId());
+        assertEquals("Trip", summary.getTitle());
+        assertEquals(123456L, summary.getInviteCode());
+        assertEquals(created, summary.getCreationDate());
+        assertEquals(changed, summary.getLastActivity());
+        assertEquals(3, summary.getParticipantCount());
+        assertEquals(5, summary.getExpenseCount());
+    }
+
+    @Test
+    void testEventConstructor() {
+        Event event = new Event("Trip");
+        event.setId(2L);
+        List<Participant> people = new ArrayList<>();
+        people.add(new Participant("Lewis", "Hamilton"));
+        people.add(new Participant("Max", "Verstappen"));
+        event.setPeople(people);
+        event.setExpenses(new ArrayList<>());
+
+        EventSummary summary = new EventSummary(event);
+        assertEquals(2L, summary.getId());
+        assertEquals("Trip", summary.getTitle());
+        assertEquals(event.getInviteCode(), summary.getInviteCode());
+        assertEquals(2, summary.getParticipantCount());
+        assertEquals(0, summary.getExpenseCount());
+    }
+
+    @Test
+    void testEventConstructorWithoutCollections() {
+        Event event = new Event("Trip");
+        event.setPeople(null);
+        event.setExpenses(null);
+        EventSummary summary = new EventSummary(event);
+        assertEquals(0, summary.getParticipantCount());
+        assertEquals(0, summary.getExpenseCount());
+    }
+
+    @Test
+    void testSetters() {
+        EventSummary summary = new EventSummary();
+        summary.setId(4L);
+        summary.setTitle("Dinner");
+        summary.setInviteCode(42L);
+        summary.setCreationDate(created);
+        summary.setLastActivity(changed);
+        summary.setParticipantCount(6);
+        summary.setExpenseCount(7);
+        assertEquals(new EventSummary(4L, "Dinner", 42L, created, changed, 6, 7), summary);
+    }
+
+    @Test
+    void testEquals() {
+        EventSummary summary1 = new EventSummary(1L, "Trip", 1L, created, changed, 3, 5);
+        EventSummary summary2 = new EventSummary(1L, "Trip", 1L, created, changed, 3, 5);
+        assertEquals(summary1, summary2);
+        assertEquals(summary1.hashCode(), summary2.hashCode());
+    }
+
+    @Test
+    void testNotEquals() {
+        EventSummary summary1 = new EventSummary(1L, "Trip", 1L, created, changed, 3, 5);
+        EventSummary summary2 = new EventSummary(1L, "Trip", 1L, created, changed, 3, 6);
+        assertNotEquals(summary1, summary2);
+    }
+
+    @Test
+    void testToString() {
+        EventSummary summary = new EventSummary(1L, "Trip", 1L, created, changed, 3, 5);
+        String string = summary.toString();
+        assertTrue(string.contains("Trip"));
+        assertTrue(string.contains("participantCount=3"));
+    }
+}
@@ -92,6 +92,13 @@ class EventTest {
         assertEquals(12345L, event.getId());
     }
 
+    @Test
+    void testVersion() {
+        assertEquals(0L, event.getVersion());
+        event.setVersion(3L);
+        assertEquals(3L, event.getVersion());
+    }
+
     @Test
     void testSetTitle() {
         event.setTitle("new title");
@@ -171,6 +178,16 @@ class EventTest {
         assertTrue(event.getExpenses().contains(a));
     }
     @Test
+    void addNewExpenses() {
+        Participant participant = new Participant("John", "Foo");
+        Expense a = new Expense(participant, "dinner", 12, "Euros", "01-01-2024", new ArrayList<>(), "food", (long)123);
+        Expense b = new Expense(participant, "lunch", 8, "Euros", "02-01-2024", new ArrayList<>(), "food", (long)123);
+        event.addExpense(a);
+        event.addNewExpenses(List.of(b));
+        assertEquals(List.of(a, b), event.getExpenses());
+        assertNotNull(event.getLastActivity());
+    }
+    @Test
     void updateExpense() {
         Participant participant = new Participant("John", "Foo");
         List<Participant> splitOption = new ArrayList<>();
@@ -0,0 +1,20 @@
+package commons;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventTopicsTest {
+
+    @Test
+    void testOf() {
+        assertEquals("/topic/events/12/expenses", EventTopics.of(12L, EventTopics.EXPENSES));
+        assertEquals("/topic/events/3/participantDeletion", EventTopics.of(3L, EventTopics.PARTICIPANT_DELETION));
+        assertEquals("/topic/events/3/expenseDeletion", EventTopics.of(3L, EventTopics.EXPENSE_DELETION));
+    }
+
+    @Test
+    void testEventsHaveDifferentTopics() {
+        assertNotEquals(EventTopics.of(1L, EventTopics.TITLE), EventTopics.of(2L, EventTopics.TITLE));
+    }
+}
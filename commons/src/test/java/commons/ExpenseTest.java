@@ -280,6 +280,20 @@ class ExpenseTest {
         assertEquals(e.toString(), e.toString());
     }
 
+    @Test
+    void amountIsKeptInCentsTest() {
+        Expense e = new Expense();
+        e.setAmount(0.1 + 0.2);
+        assertEquals(30L, e.getAmountInCents());
+        assertEquals(0.3, e.getAmount());
+    }
 
-
-}
\ No newline at end of file
+    @Test
+    void moneyTest() {
+        Expense e = new Expense();
+        e.setMoney(Money.ofMinor(1999, "USD"));
+        assertEquals(19.99, e.getAmount());
+        assertEquals("USD", e.getCurrency());
+        assertEquals(Money.ofMinor(1999, "USD"), e.getMoney());
+    }
+}
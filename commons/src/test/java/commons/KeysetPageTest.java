@@ -0,0 +1,46 @@
+package commons;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetPageTest {
+
+    @Test
+    void testConstructor() {
+        KeysetPage<String> page = new KeysetPage<>(List.of("a", "b"), "next", 2);
+        assertEquals(List.of("a", "b"), page.getItems());
+        assertEquals("next", page.getNextCursor());
+        assertEquals(2, page.getLimit());
+        assertTrue(page.hasNext());
+    }
+
+    @Test
+    void testEmptyConstructor() {
+        KeysetPage<String> page = new KeysetPage<>();
+        assertTrue(page.getItems().isEmpty());
+        assertNull(page.getNextCursor());
+        assertFalse(page.hasNext());
+    }
+
+    @Test
+    void testSetters() {
+        KeysetPage<String> page = new KeysetPage<>();
+        page.setItems(List.of("a"));
+        page.setNextCursor("next");
+        page.setLimit(1);
+        assertEquals(new KeysetPage<>(List.of("a"), "next", 1), page);
+    }
+
+    @Test
+    void testEqualsAndHashCode() {
+        KeysetPage<String> page1 = new KeysetPage<>(List.of("a"), null, 5);
+        KeysetPage<String> page2 = new KeysetPage<>(List.of("a"), null, 5);
+        KeysetPage<String> page3 = new KeysetPage<>(List.of("b"), null, 5);
+        assertEquals(page1, page2);
+        assertEquals(page1.hashCode(), page2.hashCode());
+        assertNotEquals(page1, page3);
+    }
+}
@@ -0,0 +1,40 @@
+package commons;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LedgerDriftTest {
+
+    @Test
+    void testConstructor() {
+        LedgerDrift drift = new LedgerDrift(1L, 2L, 100, 200, 300, 400);
+        assertEquals(1L, drift.getEventId());
+        assertEquals(2L, drift.getParticipantId());
+        assertEquals(100, drift.getStoredPaidInCents());
+        assertEquals(200, drift.getStoredOwedInCents());
+        assertEquals(300, drift.getExpectedPaidInCents());
+        assertEquals(400, drift.getExpectedOwedInCents());
+    }
+
+    @Test
+    void testSetters() {
+        LedgerDrift drift = new LedgerDrift();
+        drift.setEventId(1L);
+        drift.setParticipantId(2L);
+        drift.setStoredPaidInCents(100);
+        drift.setStoredOwedInCents(200);
+        drift.setExpectedPaidInCents(300);
+        drift.setExpectedOwedInCents(400);
+        assertEquals(new LedgerDrift(1L, 2L, 100, 200, 300, 400), drift);
+    }
+
+    @Test
+    void testEqualsAndHashCode() {
+        LedgerDrift drift1 = new LedgerDrift(1L, 2L, 100, 200, 300, 400);
+        LedgerDrift drift2 = new LedgerDrift(1L, 2L, 100, 200, 300, 400);
+        assertEquals(drift1, drift2);
+        assertEquals(drift1.hashCode(), drift2.hashCode());
+        assertNotEquals(drift1, new LedgerDrift(1L, 2L, 100, 200, 300, 401));
+    }
+}
@@ -0,0 +1,49 @@
+package commons;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LedgerEntryTest {
+
+    @Test
+    void testConstructor() {
+        LedgerEntry entry = new LedgerEntry(1L, 2L, 1500, 500);
+        assertEquals(1L, entry.getEventId());
+        assertEquals(2L, entry.getParticipantId());
+        assertEquals(1500, entry.getPaidInCents());
+        assertEquals(500, entry.getOwedInCents());
+    }
+
+    @Test
+    void testBalance() {
+        assertEquals(1000, new LedgerEntry(1L, 2L, 1500, 500).getBalanceInCents());
+        assertEquals(-500, new LedgerEntry(1L, 2L, 0, 500).getBalanceInCents());
+    }
+
+    @Test
+    void testSetters() {
+        LedgerEntry entry = new LedgerEntry();
+        entry.setId(3L);
+        entry.setEventId(1L);
+        entry.setParticipantId(2L);
+        entry.setPaidInCents(10);
+        entry.setOwedInCents(20);
+        assertEquals(3L, entry.getId());
+        assertEquals(-10, entry.getBalanceInCents());
+    }
+
+    @Test
+    void testEqualsAndHashCode() {
+        LedgerEntry entry1 = new LedgerEntry(1L, 2L, 1500, 500);
+        LedgerEntry entry2 = new LedgerEntry(1L, 2L, 1500, 500);
+        assertEquals(entry1, entry2);
+        assertEquals(entry1.hashCode(), entry2.hashCode());
+        assertNotEquals(entry1, new LedgerEntry(1L, 2L, 1500, 501));
+    }
+
+    @Test
+    void testToString() {
+        assertTrue(new LedgerEntry(1L, 2L, 1500, 500).toString().contains("paidInCents=1500"));
+    }
+}
@@ -0,0 +1,23 @@
+package commons;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyConverterTest {
+    private final MoneyConverter converter = new MoneyConverter();
+
+    @Test
+    void testRoundTrip() {
+        Money money = Money.ofMinor(1234, "USD");
+        String column = converter.convertToDatabaseColumn(money);
+        assertEquals("12.34 USD", column);
+        assertEquals(money, converter.convertToEntityAttribute(column));
+    }
+
+    @Test
+    void testNull() {
+        assertNull(converter.convertToDatabaseColumn(null));
+        assertNull(converter.convertToEntityAttribute(null));
+    }
+}
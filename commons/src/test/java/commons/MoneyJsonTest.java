@@ -0,0 +1,36 @@
+package commons;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyJsonTest {
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void testSerialize() throws JsonProcessingException {
+        assertEquals("{\"amount\":\"12.30\",\"currency\":\"EUR\"}",
+                mapper.writeValueAsString(Money.ofMinor(1230, "EUR")));
+    }
+
+    @Test
+    void testRoundTrip() throws JsonProcessingException {
+        Money money = Money.ofMinor(-99, "USD");
+        assertEquals(money, mapper.readValue(mapper.writeValueAsString(money), Money.class));
+    }
+
+    @Test
+    void testDeserializeNumberAndString() throws JsonProcessingException {
+        assertEquals(Money.ofMinor(1235, "EUR"), mapper.readValue("12.345", Money.class));
+        assertEquals(Money.ofMinor(500, "CHF"), mapper.readValue("\"5 CHF\"", Money.class));
+        assertEquals(Money.ofMinor(500, "EUR"), mapper.readValue("{\"amount\":5}", Money.class));
+    }
+
+    @Test
+    void testDeserializeInvalid() {
+        assertThrows(JsonProcessingException.class, () -> mapper.readValue("\"lots\"", Money.class));
+        assertThrows(JsonProcessingException.class, () -> mapper.readValue("{\"currency\":\"EUR\"}", Money.class));
+    }
+}
@@ -0,0 +1,99 @@
+package commons;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void testToMinorUnitsRoundsHalfUp() {
+        assertEquals(1234L, Money.toMinorUnits(12.34));
+        assertEquals(1L, Money.toMinorUnits(0.005));
+        assertEquals(30L, Money.toMinorUnits(0.1 + 0.2));
+        assertEquals(-1L, Money.toMinorUnits(-0.005));
+    }
+
+    @Test
+    void testToMinorUnitsRejectsNaN() {
+        assertThrows(IllegalArgumentException.class, () -> Money.toMinorUnits(Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> Money.toMinorUnits(Double.POSITIVE_INFINITY));
+    }
+
+    @Test
+    void testOf() {
+        Money money = Money.of(12.5, "usd");
+        assertEquals(1250L, money.getMinorUnits());
+        assertEquals("USD", money.getCurrency());
+        assertEquals(new BigDecimal("12.50"), money.toBigDecimal());
+        assertEquals(12.5, money.toDouble());
+    }
+
+    @Test
+    void testDefaultCurrency() {
+        assertEquals(Money.DEFAULT_CURRENCY, Money.ofMinor(1, null).getCurrency());
+        assertEquals(Money.DEFAULT_CURRENCY, Money.zero(" ").getCurrency());
+    }
+
+    @Test
+    void testArithmetic() {
+        Money a = Money.ofMinor(1000, "EUR");
+        Money b = Money.ofMinor(250, "EUR");
+        assertEquals(Money.ofMinor(1250, "EUR"), a.plus(b));
+        assertEquals(Money.ofMinor(750, "EUR"), a.minus(b));
+        assertEquals(Money.ofMinor(3000, "EUR"), a.times(3));
+        assertEquals(Money.ofMinor(-1000, "EUR"), a.negate());
+        assertTrue(a.minus(a).isZero());
+        assertTrue(b.minus(a).isNegative());
+        assertTrue(a.compareTo(b) > 0);
+    }
+
+    @Test
+    void testDifferentCurrencies() {
+        Money euros = Money.ofMinor(100, "EUR");
+        Money dollars = Money.ofMinor(100, "USD");
+        assertThrows(IllegalArgumentException.class, () -> euros.plus(dollars));
+        assertThrows(IllegalArgumentException.class, () -> euros.compareTo(dollars));
+        assertNotEquals(euros, dollars);
+    }
+
+    @Test
+    void testOverflow() {
+        Money max = Money.ofMinor(Long.MAX_VALUE, "EUR");
+        assertThrows(ArithmeticException.class, () -> max.plus(Money.ofMinor(1, "EUR")));
+    }
+
+    @Test
+    void testSplitAddsUp() {
+        Money[] parts = Money.ofMinor(1000, "EUR").split(3);
+        assertEquals(Money.ofMinor(334, "EUR"), parts[0]);
+        assertEquals(Money.ofMinor(333, "EUR"), parts[1]);
+        assertEquals(Money.ofMinor(333, "EUR"), parts[2]);
+        assertThrows(IllegalArgumentException.class, () -> Money.ofMinor(1000, "EUR").split(0));
+    }
+
+    @Test
+    void testToStringAndParse() {
+        Money money = Money.ofMinor(-1205, "CHF");
+        assertEquals("-12.05 CHF", money.toString());
+        assertEquals(money, Money.parse(money.toString()));
+        assertEquals(Money.ofMinor(700, "EUR"), Money.parse("7"));
+    }
+
+    @Test
+    void testParseInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> Money.parse(""));
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("twelve EUR"));
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("1 2 EUR"));
+    }
+
+    @Test
+    void testEqualsAndHashCode() {
+        Money money1 = Money.of(new BigDecimal("1.5"), "EUR");
+        Money money2 = Money.ofMinor(150, "eur");
+        assertEquals(money1, money2);
+        assertEquals(money1.hashCode(), money2.hashCode());
+    }
+}
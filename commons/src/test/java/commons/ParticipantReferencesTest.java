@@ -0,0 +1,87 @@
+package commons;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParticipantReferencesTest {
+    private final ObjectMapper plain = new ObjectMapper();
+    private final ObjectMapper compact = new ObjectMapper().registerModule(ParticipantReferences.module());
+
+    private static Participant participant(long id, String firstName) {
+        Participant participant = new Participant(firstName, "Smith");
+        participant.setId(id);
+        return participant;
+    }
+
+    private static Expense expense(Participant payer, Participant... splitBetween) {
+        Expense expense = new Expense(payer, "food", 12.5, "EUR", "2024-03-01",
+                new ArrayList<>(List.of(splitBetween)), "food", 3L);
+        expense.setId(9);
+        return expense;
+    }
+
+    @Test
+    void testParticipantsAreWrittenAsIds() throws JsonProcessingException {
+        Participant ann = participant(1, "Ann");
+        Participant bob = participant(2, "Bob");
+
+        JsonNode json = compact.readTree(compact.writeValueAsString(expense(ann, ann, bob)));
+
+        assertEquals(1, json.get("participant").asLong());
+        assertEquals(2, json.get("splittingOption").get(1).asLong());
+        assertEquals("food", json.get("category").asText());
+    }
+
+    @Test
+    void testPlainJsonIsUnchanged() throws JsonProcessingException {
+        JsonNode json = plain.readTree(plain.writeValueAsString(expense(participant(1, "Ann"))));
+
+        assertEquals("Ann", json.get("participant").get("firstName").asText());
+    }
+
+    @Test
+    void testReferencesAreResolved() throws JsonProcessingException {
+        Participant ann = participant(1, "Ann");
+        Participant bob = participant(2, "Bob");
+        String written = compact.writeValueAsString(List.of(expense(ann, ann, bob)));
+
+        List<Expense> read = new ArrayList<>(List.of(compact.readValue(written, Expense[].class)));
+        assertTrue(ParticipantReferences.hasReferences(read));
+        assertNull(read.get(0).getParticipant().getFirstName());
+
+        ParticipantReferences.resolve(read, List.of(ann, bob));
+
+        assertFalse(ParticipantReferences.hasReferences(read));
+        assertSame(ann, read.get(0).getParticipant());
+        assertSame(bob, read.get(0).getSplittingOption().get(1));
+    }
+
+    @Test
+    void testUnknownReferenceKeepsItsId() throws JsonProcessingException {
+        String written = compact.writeValueAsString(expense(participant(5, "Eve")));
+        List<Expense> read = new ArrayList<>(List.of(compact.readValue(written, Expense.class)));
+
+        ParticipantReferences.resolve(read, List.of(participant(1, "Ann")));
+
+        assertEquals(5, read.get(0).getParticipant().getId());
+        assertTrue(ParticipantReferences.hasReferences(read));
+    }
+
+    @Test
+    void testWholeParticipantIsAlsoRead() throws JsonProcessingException {
+        String written = plain.writeValueAsString(expense(participant(1, "Ann"), participant(2, "Bob")));
+
+        Expense read = compact.readValue(written, Expense.class);
+
+        assertEquals("Ann", read.getParticipant().getFirstName());
+        assertEquals("Bob", read.getSplittingOption().get(0).getFirstName());
+        assertFalse(ParticipantReferences.hasReferences(List.of(read)));
+    }
+}
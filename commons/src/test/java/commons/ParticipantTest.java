@@ -162,26 +162,26 @@ class ParticipantTest {
 
     @Test
     void getOwedAmountForEventDefault(){
-        assertEquals(0, participant.getOwedAmountForEvent(event1));
+        assertEquals(Money.zero("EUR"), participant.getOwedAmountForEvent(event1));
     }
 
     @Test
     void getPaidAmountForEventDefault(){
-        assertEquals(0, participant.getPaidAmountForEvent(event1));
+        assertEquals(Money.zero("EUR"), participant.getPaidAmountForEvent(event1));
     }
 
     @Test
     void setOwedAmount() {
-        Map<Event, Double> newOwed = new HashMap<>();
-        newOwed.put(event1, 100.0);
+        Map<Event, Money> newOwed = new HashMap<>();
+        newOwed.put(event1, Money.of(100.0, "EUR"));
         participant.setOwedAmount(newOwed);
         assertEquals(newOwed, participant.getOwedAmount());
     }
 
     @Test
     void setPayedAmount() {
-        Map<Event, Double> newPaid = new HashMap<>();
-        newPaid.put(event1, 100.0);
+        Map<Event, Money> newPaid = new HashMap<>();
+        newPaid.put(event1, Money.of(100.0, "EUR"));
         participant.setPayedAmount(newPaid);
         assertEquals(newPaid, participant.getPayedAmount());
     }
@@ -277,29 +277,29 @@ class ParticipantTest {
     @Test
     void addOwedAmountForSpecificEventNegative() {
         Exception exception = assertThrows(IllegalArgumentException.class, ()
-                -> participant.addOwedAmountForSpecificEvent(event1,-10.0));
+                -> participant.addOwedAmountForSpecificEvent(event1,Money.of(-10.0, "EUR")));
         assertEquals("Amount of money can't be negative!", exception.getMessage());
     }
 
     @Test
     void addPaidAmountForSpecificEventNegative() {
         Exception exception = assertThrows(IllegalArgumentException.class, ()
-                -> participant.addPaidAmountForSpecificEvent(event1,-10.0));
+                -> participant.addPaidAmountForSpecificEvent(event1,Money.of(-10.0, "EUR")));
         assertEquals("Amount of money can't be negative!", exception.getMessage());
     }
 
     @Test
     void calculateOwed() {
-        participant.addOwedAmountForSpecificEvent(event1, 50);
-        participant.addOwedAmountForSpecificEvent(event2, 100);
-        assertEquals(150, participant.calculateOwed());
+        participant.addOwedAmountForSpecificEvent(event1, Money.of(50, "EUR"));
+        participant.addOwedAmountForSpecificEvent(event2, Money.of(100, "EUR"));
+        assertEquals(Money.of(150, "EUR"), participant.calculateOwed());
     }
 
     @Test
     void calculatePaid() {
-        participant.addPaidAmountForSpecificEvent(event1, 30);
-        participant.addPaidAmountForSpecificEvent(event2, 70);
-        assertEquals(100, participant.calculatePaid());
+        participant.addPaidAmountForSpecificEvent(event1, Money.of(30, "EUR"));
+        participant.addPaidAmountForSpecificEvent(event2, Money.of(70, "EUR"));
+        assertEquals(Money.of(100, "EUR"), participant.calculatePaid());
     }
     @Test
     void setFirstName() {
@@ -323,7 +323,7 @@ class ParticipantTest {
     @Test
     void testOwesForEventTrue() {
         Event testEvent = new Event();
-        participant.addOwedAmountForSpecificEvent(testEvent, 100.0);
+        participant.addOwedAmountForSpecificEvent(testEvent, Money.of(100.0, "EUR"));
         assertTrue(participant.owesForEvent(testEvent));
     }
 
@@ -336,7 +336,7 @@ class ParticipantTest {
     @Test
     void testHasPaidForEventTrue() {
         Event testEvent = new Event();
-        participant.addPaidAmountForSpecificEvent(testEvent, 100.0);
+        participant.addPaidAmountForSpecificEvent(testEvent, Money.of(100.0, "EUR"));
         assertTrue(participant.hasPaidForEvent(testEvent));
     }
 
@@ -349,49 +349,49 @@ class ParticipantTest {
     @Test
     void testAddOwedAmountForSpecificEvent() {
         Event testEvent = new Event();
-        participant.addOwedAmountForSpecificEvent(testEvent, 50.0);
-        assertEquals(50.0, participant.getOwedAmount().get(testEvent));
+        participant.addOwedAmountForSpecificEvent(testEvent, Money.of(50.0, "EUR"));
+        assertEquals(Money.of(50.0, "EUR"), participant.getOwedAmount().get(testEvent));
     }
 
     @Test
     void testAddPaidAmountForSpecificEvent() {
         Event testEvent = new Event();
-        participant.addPaidAmountForSpecificEvent(testEvent, 75.0);
-        assertEquals(75.0, participant.getPayedAmount().get(testEvent));
+        participant.addPaidAmountForSpecificEvent(testEvent, Money.of(75.0, "EUR"));
+        assertEquals(Money.of(75.0, "EUR"), participant.getPayedAmount().get(testEvent));
     }
 
     @Test
     void testCalculateOwed() {
         Event event1 = new Event();
         Event event2 = new Event();
-        participant.addOwedAmountForSpecificEvent(event1, 50.0);
-        participant.addOwedAmountForSpecificEvent(event2, 100.0);
-        double totalOwed = participant.calculateOwed();
-        assertEquals(150.0, totalOwed);
+        participant.addOwedAmountForSpecificEvent(event1, Money.of(50.0, "EUR"));
+        participant.addOwedAmountForSpecificEvent(event2, Money.of(100.0, "EUR"));
+        Money totalOwed = participant.calculateOwed();
+        assertEquals(15000, totalOwed.getMinorUnits());
     }
 
     @Test
     void testCalculatePaid() {
         Event event1 = new Event();
         Event event2 = new Event();
-        participant.addPaidAmountForSpecificEvent(event1, 30.0);
-        participant.addPaidAmountForSpecificEvent(event2, 70.0);
-        double totalPaid = participant.calculatePaid();
-        assertEquals(100.0, totalPaid);
+        participant.addPaidAmountForSpecificEvent(event1, Money.of(30.0, "EUR"));
+        participant.addPaidAmountForSpecificEvent(event2, Money.of(70.0, "EUR"));
+        Money totalPaid = participant.calculatePaid();
+        assertEquals(10000, totalPaid.getMinorUnits());
     }
 
     @Test
     void testAddOwedAmountForSpecificEventNegative() {
         Event testEvent = new Event();
         assertThrows(IllegalArgumentException.class,
-                () -> participant.addOwedAmountForSpecificEvent(testEvent, -10.0));
+                () -> participant.addOwedAmountForSpecificEvent(testEvent, Money.of(-10.0, "EUR")));
     }
 
     @Test
     void testAddPaidAmountForSpecificEventNegative() {
         Event testEvent = new Event();
         assertThrows(IllegalArgumentException.class,
-                () -> participant.addPaidAmountForSpecificEvent(testEvent, -10.0));
+                () -> participant.addPaidAmountForSpecificEvent(testEvent, Money.of(-10.0, "EUR")));
     }
 
     @Test
@@ -414,8 +414,8 @@ class ParticipantTest {
     }
     @Test
     void testToString() {
-        Map<Event, Double> owedAmount = new HashMap<>();
-        Map<Event, Double> payedAmount = new HashMap<>();
+        Map<Event, Money> owedAmount = new HashMap<>();
+        Map<Event, Money> payedAmount = new HashMap<>();
         Set<Long> eventIds = new HashSet<>();
 
         Event event1 = new Event("Event 1");
@@ -423,8 +423,8 @@ class ParticipantTest {
         event1.setId(1);
         event2.setId(2);
 
-        owedAmount.put(event1, 100.0);
-        payedAmount.put(event2, 50.0);
+        owedAmount.put(event1, Money.of(100.0, "EUR"));
+        payedAmount.put(event2, Money.of(50.0, "EUR"));
         eventIds.add(event1.getId());
         eventIds.add(event2.getId());
 
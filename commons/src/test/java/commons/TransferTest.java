@@ -0,0 +1,39 @@
+package commons;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransferTest {
+
+    @Test
+    void testConstructor() {
+        Transfer transfer = new Transfer(1L, 2L, 500L);
+        assertEquals(1L, transfer.getDebtorId());
+        assertEquals(2L, transfer.getLenderId());
+        assertEquals(500L, transfer.getAmountInCents());
+    }
+
+    @Test
+    void testSetters() {
+        Transfer transfer = new Transfer();
+        transfer.setDebtorId(3L);
+        transfer.setLenderId(4L);
+        transfer.setAmountInCents(25L);
+        assertEquals(new Transfer(3L, 4L, 25L), transfer);
+    }
+
+    @Test
+    void testEqualsAndHashCode() {
+        Transfer transfer1 = new Transfer(1L, 2L, 500L);
+        Transfer transfer2 = new Transfer(1L, 2L, 500L);
+        assertEquals(transfer1, transfer2);
+        assertEquals(transfer1.hashCode(), transfer2.hashCode());
+        assertNotEquals(transfer1, new Transfer(2L, 1L, 500L));
+    }
+
+    @Test
+    void testToString() {
+        assertTrue(new Transfer(1L, 2L, 500L).toString().contains("amountInCents=500"));
+    }
+}
@@ -0,0 +1,219 @@
+package server;
+
+import commons.ChangeLogEntry;
+import commons.ChangeLogEntry.EntityType;
+import commons.ChangeLogEntry.Kind;
+import commons.Event;
+import commons.EventChanges;
+import commons.Expense;
+import commons.Participant;
+import io.micrometer.core.annotation.Timed;
+import jakarta.transaction.Transactional;
+import org.hibernate.service.spi.ServiceException;
+import org.springframework.stereotype.Service;
+import server.database.ChangeLogRepository;
+import server.database.EventRepository;
+import server.database.ExpenseRepository;
+import server.database.ParticipantRepository;
+
+import java.util.*;
+import java.util.function.ToLongFunction;
+
+/**
+ * Gives every event a version that increases on every change of the event, its participants
+ * or its expenses, and logs what changed in every version. A client that has an event at some
+ * version only has to download what changed after it, instead of all participants and expenses.
+ */
+@Service
+@Timed("splitty.service")
+public class ChangeLogService {
+    private final ChangeLogRepository changeLogRepository;
+    private final EventRepository eventRepository;
+    private final ParticipantRepository participantRepository;
+    private final ExpenseRepository expenseRepository;
+
+    /**
+     * constructor
+     * @param changeLogRepository the change log repository
+     * @param eventRepository the event repository
+     * @param participantRepository the participant repository
+     * @param expenseRepository the expense repository
+     */
+    public ChangeLogService(ChangeLogRepository changeLogRepository, EventRepository eventRepository,
+                            ParticipantRepository participantRepository, ExpenseRepository expenseRepository) {
+        this.changeLogRepository = changeLogRepository;
+        this.eventRepository = eventRepository;
+        this.participantRepository = participantRepository;
+        this.expenseRepository = expenseRepository;
+    }
+
+    /**
+     * increases the version of an event and logs the change, must be called in the transaction
+     * that makes the change
+     * @param eventId the id of the event
+     * @param entityType whether the event, a participant or an expense changed
+     * @param entityId the id of what changed
+     * @param kind whether it was inserted, updated or deleted
+     * @return the new version of the event, -1 if the event does not exist
+     */
+    @Transactional
+    public long record(long eventId, EntityType entityType, long entityId, Kind kind) {
+        if (eventRepository.incrementVersion(eventId) == 0) {
+            return -1;
+        }
+        long version = eventRepository.versionOf(eventId).orElseThrow();
+        changeLogRepository.save(new ChangeLogEntry(eventId, version, entityType, entityId, kind));
+        return version;
+    }
+
+    /**
+     * logs many changes of the same kind at once, every change gets its own version
+     * @param eventId the id of the event
+     * @param entityType whether the event, participants or expenses changed
+     * @param entityIds the ids of what changed
+     * @param kind whether they were inserted, updated or deleted
+     * @return the new version of the event, -1 if the event does not exist
+     */
+    @Transactional
+    public long recordAll(long eventId, EntityType entityType, List<Long> entityIds, Kind kind) {
+        if (entityIds.isEmpty()) {
+            return eventRepository.versionOf(eventId).orElse(-1L);
+        }
+        if (eventRepository.addToVersion(eventId, entityIds.size()) == 0) {
+            return -1;
+        }
+        long version = eventRepository.versionOf(eventId).orElseThrow();
+        long first = version - entityIds.size() + 1;
+        List<ChangeLogEntry> entries = new ArrayList<>(entityIds.size());
+        for (int i = 0; i < entityIds.size(); i++) {
+            entries.add(new ChangeLogEntry(eventId, first + i, entityType, entityIds.get(i), kind));
+        }
+        changeLogRepository.saveAll(entries);
+        return version;
+    }
+
+    /**
+     * collects what changed in an event after a version. Something that changed several times is only
+     * sent once with its current state, and something that was added and removed again is not sent.
+     * @param eventId the id of the event
+     * @param since the version the client has, 0 if it has nothing
+     * @return the changes and the version they bring the client to
+     * @throws IllegalArgumentException if the id or version is negative
+     * @throws NoSuchElementException if the event does not exist
+     * @throws IllegalStateException if the version is newer than the event, the client has to
+     *                               download the whole event again
+     */
+    public EventChanges changesSince(long eventId, long since) {
+        if (eventId < 0 || since < 0) {
+            throw new IllegalArgumentException("Event ID and version must not be negative.");
+        }
+        Event event = eventRepository.findById(eventId)
+                .orElseThrow(() -> new NoSuchElementException("Event not found with ID: " + eventId));
+        long version = event.getVersion();
+        if (since > version) {
+            throw new IllegalStateException("Event " + eventId + " is at version " + version
+                    + ", not at version " + since + " or later");
+        }
+        EventChanges changes = new EventChanges(eventId, since, version, event.getTitle());
+        if (since == version) {
+            return changes;
+        }
+        try {
+            Map<Long, Kind[]> participants = new LinkedHashMap<>();
+            Map<Long, Kind[]> expenses = new LinkedHashMap<>();
+            for (ChangeLogEntry entry : changeLogRepository
+                    .findByEventIdAndVersionBetweenOrderByVersionAsc(eventId, since + 1, version)) {
+                if (entry.getEntityType() == EntityType.PARTICIPANT) {
+                    collapse(participants, entry);
+                } else if (entry.getEntityType() == EntityType.EXPENSE) {
+                    collapse(expenses, entry);
+                }
+            }
+
+            Map<Kind, List<Long>> participantIds = byKind(participants);
+            changes.setInsertedParticipants(sorted(participantRepository
+                    .findAllById(participantIds.get(Kind.INSERTED)), Participant::getId));
+            changes.setUpdatedParticipants(sorted(participantRepository
+                    .findAllById(participantIds.get(Kind.UPDATED)), Participant::getId));
+            changes.setDeletedParticipantIds(participantIds.get(Kind.DELETED));
+
+            Map<Kind, List<Long>> expenseIds = byKind(expenses);
+            changes.setInsertedExpenses(sorted(expenseRepository
+                    .findAllById(expenseIds.get(Kind.INSERTED)), Expense::getId));
+            changes.setUpdatedExpenses(sorted(expenseRepository
+                    .findAllById(expenseIds.get(Kind.UPDATED)), Expense::getId));
+            changes.setDeletedExpenseIds(expenseIds.get(Kind.DELETED));
+            return changes;
+        } catch (Exception e) {
+            throw new ServiceException("Error retrieving the changes of event " + eventId, e);
+        }
+    }
+
+    /**
+     * removes the change log of an event that is deleted
+     * @param eventId the id of the event
+     */
+    @Transactional
+    public void eventDeleted(long eventId) {
+        changeLogRepository.deleteByEventId(eventId);
+    }
+
+    /**
+     * removes the change logs of all events, when all events are deleted
+     */
+    @Transactional
+    public void allEventsDeleted() {
+        changeLogRepository.deleteAllInBatch();
+    }
+
+    /**
+     * keeps the first and the last kind of change of every id
+     * @param kinds the first and last kind per id
+     * @param entry the next change
+     */
+    private static void collapse(Map<Long, Kind[]> kinds, ChangeLogEntry entry) {
+        Kind[] firstAndLast = kinds.computeIfAbsent(entry.getEntityId(), id -> new Kind[] {entry.getKind(), null});
+        firstAndLast[1] = entry.getKind();
+    }
+
+    /**
+     * combines the changes of every id into one kind of change
+     * @param kinds the first and last kind per id
+     * @return the sorted ids per kind of change
+     */
+    private static Map<Kind, List<Long>> byKind(Map<Long, Kind[]> kinds) {
+        Map<Kind, List<Long>> ids = new EnumMap<>(Kind.class);
+        for (Kind kind : Kind.values()) {
+            ids.put(kind, new ArrayList<>());
+        }
+        for (Map.Entry<Long, Kind[]> entry : kinds.entrySet()) {
+            Kind first = entry.getValue()[0];
+            Kind last = entry.getValue()[1];
+            if (last == Kind.DELETED) {
+                // something added after the version of the client and removed again is skipped
+                if (first != Kind.INSERTED) {
+                    ids.get(Kind.DELETED).add(entry.getKey());
+                }
+            } else if (first == Kind.INSERTED) {
+                ids.get(Kind.INSERTED).add(entry.getKey());
+            } else {
+                ids.get(Kind.UPDATED).add(entry.getKey());
+            }
+        }
+        ids.values().forEach(Collections::sort);
+        return ids;
+    }
+
+    /**
+     * sorts entities by their id, since findAllById does not keep any order
+     * @param entities the entities
+     * @param id the getter for the id
+     * @param <T> the type of the entities
+     * @return the entities sorted by id
+     */
+    private static <T> List<T> sorted(List<T> entities, ToLongFunction<T> id) {
+        List<T> result = new ArrayList<>(entities);
+        result.sort(Comparator.comparingLong(id));
+        return result;
+    }
+}
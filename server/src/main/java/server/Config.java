@@ -17,8 +17,13 @@ package server;
 
 import java.util.Random;
 
+import commons.Participant;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 
 @Configuration
 public class Config {
@@ -31,4 +36,20 @@ public class Config {
     public Random getRandom() {
         return new Random();
     }
-}
\ No newline at end of file
+
+    /**
+     * the clients waiting for new participants of an event. With virtual threads the waiting clients
+     * are completed on a virtual thread instead of the request thread that added the participant
+     * @param capacityPerEvent the maximum number of clients waiting for one event
+     * @param environment tells if virtual threads are enabled
+     * @return the registry
+     */
+    @Bean
+    public LongPollRegistry<Participant> participantUpdates(
+            @Value("${splitty.long-poll.capacity-per-event:10000}") int capacityPerEvent, Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return new LongPollRegistry<>(capacityPerEvent, new VirtualThreadTaskExecutor("splitty-long-poll-"));
+        }
+        return new LongPollRegistry<>(capacityPerEvent);
+    }
+}
@@ -1,13 +1,17 @@
 package server;
 
+import io.micrometer.core.annotation.Timed;
 import org.hibernate.service.spi.ServiceException;
 import server.database.DebtRepository;
 import commons.Debt;
+import commons.KeysetPage;
+import commons.Money;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import java.util.*;
 
 @Service
+@Timed("splitty.service")
 public class DebtService {
     //The debt repository interface that we created (with all CRUD + extra operations)
     private final DebtRepository debtRepository;
@@ -65,6 +69,25 @@ public class DebtService {
         }
     }
 
+    /**
+     * query that returns one page of the debts, sorted by id
+     * @param cursor the cursor of the previous page, null for the first page
+     * @param limit the page size, null for the default
+     * @return a page of debts
+     * @throws IllegalArgumentException if the cursor or page size is invalid.
+     */
+    public KeysetPage<Debt> findDebtPage(String cursor, Integer limit) {
+        int pageSize = KeysetPagination.limit(limit);
+        long afterId = KeysetPagination.afterId(cursor);
+        try {
+            List<Debt> rows = debtRepository
+                    .findByIdGreaterThanOrderByIdAsc(afterId, KeysetPagination.request(pageSize));
+            return KeysetPagination.page(rows, pageSize, Debt::getId);
+        } catch (Exception ex) {
+            throw new ServiceException("Error retrieving a page of debts", ex);
+        }
+    }
+
     /**
      * Query that deleted a debt when a specific id is provided
      * @param id in format of a long number
@@ -160,7 +183,7 @@ public class DebtService {
             throw new IllegalArgumentException("Amount must not be negative");
         }
         try {
-            return debtRepository.costlierDebts(amount);
+            return debtRepository.costlierDebts(Money.toMinorUnits(amount));
         } catch (Exception ex) {
             throw new ServiceException("Error finding costlier debts", ex);
         }
@@ -178,7 +201,7 @@ public class DebtService {
             throw new IllegalArgumentException("Amount must not be negative");
         }
         try {
-            return debtRepository.cheaperDebts(amount);
+            return debtRepository.cheaperDebts(Money.toMinorUnits(amount));
         } catch (Exception ex) {
             throw new ServiceException("Error finding cheaper debts", ex);
         }
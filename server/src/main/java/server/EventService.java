@@ -1,9 +1,17 @@
 package server;
 
+import commons.ChangeLogEntry.EntityType;
+import commons.ChangeLogEntry.Kind;
 import commons.Event;
+import commons.EventStatistics;
+import commons.EventSummary;
 import commons.Expense;
+import commons.KeysetPage;
+import commons.LedgerEntry;
 import commons.Participant;
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
+import org.hibernate.Hibernate;
 import org.hibernate.service.spi.ServiceException;
 import org.springframework.stereotype.Service;
 import server.database.EventRepository;
@@ -14,12 +22,19 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("splitty.service")
 public class EventService {
+    /**
+     * the maximum number of expenses addExpensesToEvent adds at once
+     */
+    public static final int MAX_BATCH_SIZE = 10000;
 
     //private final Map<Long, Event> events = new HashMap<>();
     private final EventRepository eventRepository;
     private final ParticipantRepository participantRepository;
     private final ExpenseRepository expenseRepository;
+    private final LedgerService ledgerService;
+    private final ChangeLogService changeLogService;
 
     //private long nextId = 1;
     /**
@@ -28,12 +43,17 @@ public class EventService {
      * @param eventRepository       this eventRepository
      * @param participantRepository participant repo
      * @param expenseRepository the expense repository
+     * @param ledgerService the ledger service, which keeps the balances up to date
+     * @param changeLogService the change log service, which logs the changes of every event
      */
     public EventService(EventRepository eventRepository, ParticipantRepository participantRepository,
-                        ExpenseRepository expenseRepository) {
+                        ExpenseRepository expenseRepository, LedgerService ledgerService,
+                        ChangeLogService changeLogService) {
         this.eventRepository = eventRepository;
         this.participantRepository=participantRepository;
         this.expenseRepository = expenseRepository;
+        this.ledgerService = ledgerService;
+        this.changeLogService = changeLogService;
     }
 
     /**
@@ -48,17 +68,71 @@ public class EventService {
         }
     }
 
+    /**
+     * getter for the summaries of all events, the participants and expenses are not loaded
+     * @return an array list of event summaries
+     */
+    public List<EventSummary> getEventSummaries() {
+        try{
+            return eventRepository.eventSummaries();
+        } catch (Exception e){
+            throw new ServiceException("Error retrieving the event summaries", e);
+        }
+    }
+
+    /**
+     * getter for one page of the events, sorted by id
+     * @param cursor the cursor of the previous page, null for the first page
+     * @param limit the page size, null for the default
+     * @return a page of events
+     */
+    public KeysetPage<Event> getEventPage(String cursor, Integer limit) {
+        int pageSize = KeysetPagination.limit(limit);
+        long afterId = KeysetPagination.afterId(cursor);
+        try{
+            List<Event> rows = eventRepository
+                    .findByIdGreaterThanOrderByIdAsc(afterId, KeysetPagination.request(pageSize));
+            return KeysetPagination.page(rows, pageSize, Event::getId);
+        } catch (Exception e){
+            throw new ServiceException("Error retrieving a page of events", e);
+        }
+    }
+
+    /**
+     * getter for one page of the event summaries, sorted by id
+     * @param cursor the cursor of the previous page, null for the first page
+     * @param limit the page size, null for the default
+     * @return a page of event summaries
+     */
+    public KeysetPage<EventSummary> getEventSummaryPage(String cursor, Integer limit) {
+        int pageSize = KeysetPagination.limit(limit);
+        long afterId = KeysetPagination.afterId(cursor);
+        try{
+            List<EventSummary> rows = eventRepository
+                    .eventSummariesAfter(afterId, KeysetPagination.request(pageSize));
+            return KeysetPagination.page(rows, pageSize, EventSummary::getId);
+        } catch (Exception e){
+            throw new ServiceException("Error retrieving a page of event summaries", e);
+        }
+    }
+
     /**
      * create an event
      * @param event Event
      * @return an Event
      */
+    @Transactional
     public Event createEvent(Event event) {
         if(event==null){
             throw new IllegalArgumentException("Event is not allowed to be null");
         }
         try{
-            return eventRepository.save(event);
+            Event saved = eventRepository.save(event);
+            if (saved.getExpenses() != null && !saved.getExpenses().isEmpty()) {
+                // expenses that come with a new event were not added to its ledger yet
+                ledgerService.rebuild(saved.getId());
+            }
+            return saved;
         } catch (Exception e){
             throw new ServiceException("Error saving the event", e);
         }
@@ -74,6 +148,8 @@ public class EventService {
         }
         try {
             eventRepository.deleteById(id);
+            ledgerService.eventDeleted(id);
+            changeLogService.eventDeleted(id);
         } catch (Exception e){
             throw new ServiceException("Error deleting the event", e);
         }
@@ -86,6 +162,8 @@ public class EventService {
     public void deleteAllEvents() {
         try {
             eventRepository.deleteAllInBatch();
+            ledgerService.allEventsDeleted();
+            changeLogService.allEventsDeleted();
         } catch (Exception e) {
             throw new ServiceException("Error deleting all events", e);
         }
@@ -109,6 +187,16 @@ public class EventService {
         }
     }
 
+    /**
+     * get the version of an event without loading the event, the version changes with every change
+     * of the event, its participants and its expenses
+     * @param id id of event
+     * @return the version, empty if the event does not exist
+     */
+    public Optional<Long> findVersionById(long id) {
+        return eventRepository.versionOf(id);
+    }
+
     /**
      * get event by the title
      * @param title title of event
@@ -171,12 +259,15 @@ public class EventService {
      * @param newTitle the new title
      * @return the changed event
      */
+    @Transactional
     public Event updateEventTitle(Long eventId, String newTitle) {
         Optional<Event> optionalEvent = eventRepository.findById(eventId);
         if (optionalEvent.isPresent()) {
             Event event = optionalEvent.get();
             event.setTitle(newTitle);
-            return eventRepository.save(event);
+            Event saved = eventRepository.save(event);
+            saved.setVersion(changeLogService.record(eventId, EntityType.EVENT, eventId, Kind.UPDATED));
+            return initializeEvent(saved);
         } else {
             throw new IllegalArgumentException("Event not found with ID: " + eventId);
         }
@@ -188,12 +279,15 @@ public class EventService {
      * @param participant Participant
      * @return a Participant
      */
+    @Transactional
     public Participant addParticipantToEvent(long eventId, Participant participant) {
         participantRepository.save(participant);
         Event event = eventRepository.findById(eventId)
                 .orElseThrow(() -> new IllegalArgumentException("Event not found"));
         event.addParticipant(participant);
         eventRepository.save(event);
+        ledgerService.participantsChanged(eventId);
+        changeLogService.record(eventId, EntityType.PARTICIPANT, participant.getId(), Kind.INSERTED);
         return participant;
     }
 
@@ -215,7 +309,9 @@ public class EventService {
                 .orElseThrow(() -> new IllegalArgumentException("Participant not found"));
         participant.getEventIds().removeIf(eId -> eId == eventId);
         participantRepository.save(participant);
-        return participant;
+        ledgerService.participantsChanged(eventId);
+        changeLogService.record(eventId, EntityType.PARTICIPANT, participantId, Kind.DELETED);
+        return initializeParticipant(participant);
     }
 
     /**
@@ -225,6 +321,7 @@ public class EventService {
      * @param participantDetails participant
      * @return the updated participant
      */
+    @Transactional
     public Participant updateParticipantInEvent(Long eventId, Long participantId, Participant participantDetails) {
         Event event = eventRepository.findById(eventId)
                 .orElseThrow(() -> new IllegalArgumentException("Event not found with ID: " + eventId));
@@ -237,7 +334,9 @@ public class EventService {
                     + " not found in event with ID: " + eventId);
         }
 
-        return participantRepository.save(participantDetails);
+        Participant saved = participantRepository.save(participantDetails);
+        changeLogService.record(eventId, EntityType.PARTICIPANT, participantId, Kind.UPDATED);
+        return saved;
     }
 
     /**
@@ -249,28 +348,195 @@ public class EventService {
         return eventRepository.expensesOfEventById(id);
     }
 
+    /**
+     * computes the totals of the expenses of an event per tag and per participant who paid,
+     * with two GROUP BY queries instead of loading the expenses
+     * @param eventId the id of the event
+     * @return the statistics, amounts in cents
+     * @throws IllegalArgumentException if the id is negative or the event does not exist.
+     */
+    public EventStatistics getEventStatistics(long eventId) {
+        if (eventId < 0) {
+            throw new IllegalArgumentException("Event ID must be positive and not null.");
+        }
+        if (!eventRepository.existsById(eventId)) {
+            throw new IllegalArgumentException("Event not found with ID: " + eventId);
+        }
+        try {
+            Map<String, Long> totalsByTag = new HashMap<>();
+            long total = 0;
+            for (Object[] row : expenseRepository.totalsByTagOfEvent(eventId)) {
+                String tag = row[0] == null ? EventStatistics.UNTAGGED : (String) row[0];
+                long amount = ((Number) row[1]).longValue();
+                totalsByTag.merge(tag, amount, Long::sum);
+                total += amount;
+            }
+            Map<Long, Long> totalsByParticipant = new HashMap<>();
+            for (Object[] row : expenseRepository.totalsByParticipantOfEvent(eventId)) {
+                totalsByParticipant.put((Long) row[0], ((Number) row[1]).longValue());
+            }
+            return new EventStatistics(eventId, total, totalsByTag, totalsByParticipant);
+        } catch (Exception e) {
+            throw new ServiceException("Error computing the statistics of event " + eventId, e);
+        }
+    }
+
     /**
      * adds expense to an event
      * @param eventId long
      * @param expense expense
      * @return an expense
      */
+    @Transactional
     public Expense addExpenseToEvent(long eventId, Expense expense) {
+        if (expense.getEventId() == null) {
+            expense.setEventId(eventId);
+        }
         expenseRepository.save(expense);
         Event event = eventRepository.findById(eventId)
                 .orElseThrow(() -> new IllegalArgumentException("Event not found"));
         event.addExpense(expense);
         eventRepository.save(event);
+        ledgerService.expenseAdded(expense);
+        changeLogService.record(eventId, EntityType.EXPENSE, expense.getId(), Kind.INSERTED);
         return expense;
     }
 
+    /**
+     * adds many expenses to an event in one transaction. The event and the participants are loaded once,
+     * and the expenses, join table rows and change log entries are inserted in JDBC batches.
+     * Expenses with an idempotency key that was sent before are not added again.
+     * @param eventId the id of the event
+     * @param expenses the new expenses, their ids are ignored
+     * @return the created expenses in the order they were given, for a key that was sent before
+     *         the expense that was created then
+     * @throws IllegalArgumentException if there are no or too many expenses, the event does not exist,
+     *                                  an expense refers to a participant that is not in the event, or a key
+     *                                  was sent before for another event
+     */
+    @Transactional
+    public List<Expense> addExpensesToEvent(long eventId, List<Expense> expenses) {
+        if (expenses == null || expenses.isEmpty() || expenses.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("A batch must have between 1 and " + MAX_BATCH_SIZE + " expenses");
+        }
+        Event event = eventRepository.findById(eventId)
+                .orElseThrow(() -> new IllegalArgumentException("Event not found"));
+        useLoadedParticipants(eventId, expenses);
+        List<Expense> added = replaceSentExpenses(eventId, expenses);
+        List<Expense> fresh = new ArrayList<>(expenses.size());
+        for (int i = 0; i < expenses.size(); i++) {
+            if (added.get(i) == expenses.get(i)) {
+                fresh.add(expenses.get(i));
+            }
+        }
+
+        try {
+            if (!fresh.isEmpty()) {
+                expenseRepository.saveAll(fresh);
+                event.addNewExpenses(fresh);
+                ledgerService.expensesAdded(fresh);
+                changeLogService.recordAll(eventId, EntityType.EXPENSE,
+                        fresh.stream().map(Expense::getId).toList(), Kind.INSERTED);
+            }
+            return added;
+        } catch (Exception e) {
+            throw new ServiceException("Error adding expenses to event " + eventId, e);
+        }
+    }
+
+    /**
+     * prepares new expenses for the insert, their payers and sharers only have an id and are replaced
+     * by the participants of the event, which are loaded with one query
+     * @param eventId the id of the event
+     * @param expenses the new expenses
+     * @throws IllegalArgumentException if an expense is null or refers to a participant that is not in the event
+     */
+    private void useLoadedParticipants(long eventId, List<Expense> expenses) {
+        Set<Long> members = new HashSet<>(eventRepository.participantIdsOfEvent(eventId));
+        Map<Long, Participant> participants = participantRepository.findAllById(participantIdsOf(expenses))
+                .stream().filter(p -> members.contains(p.getId()))
+                .collect(Collectors.toMap(Participant::getId, p -> p));
+        for (Expense expense : expenses) {
+            expense.setId(0);
+            expense.setEventId(eventId);
+            if (expense.getParticipant() != null) {
+                expense.setParticipant(loaded(participants, expense.getParticipant().getId()));
+            }
+            if (expense.getSplittingOption() != null) {
+                expense.setSplittingOption(expense.getSplittingOption().stream()
+                        .map(p -> loaded(participants, p.getId())).collect(Collectors.toList()));
+            }
+        }
+    }
+
+    private static Set<Long> participantIdsOf(List<Expense> expenses) {
+        Set<Long> participantIds = new HashSet<>();
+        for (Expense expense : expenses) {
+            if (expense == null) {
+                throw new IllegalArgumentException("Expense not allowed to be null");
+            }
+            if (expense.getParticipant() != null) {
+                participantIds.add(expense.getParticipant().getId());
+            }
+            if (expense.getSplittingOption() != null) {
+                expense.getSplittingOption().forEach(p -> participantIds.add(p.getId()));
+            }
+        }
+        return participantIds;
+    }
+
+    /**
+     * a client sends a batch again when it did not get the answer, the expenses that were added the
+     * first time are returned instead of being added again
+     * @param eventId the id of the event
+     * @param expenses the new expenses
+     * @return the expenses in the same order, an expense with a key that was sent before is replaced by
+     *         the one that was added then
+     * @throws IllegalArgumentException if a key was sent before for another event
+     */
+    private List<Expense> replaceSentExpenses(long eventId, List<Expense> expenses) {
+        Map<String, Expense> byKey = sentBefore(eventId, expenses);
+        List<Expense> added = new ArrayList<>(expenses.size());
+        for (Expense expense : expenses) {
+            String key = expense.getIdempotencyKey();
+            Expense sent = key == null ? null : byKey.putIfAbsent(key, expense);
+            added.add(sent == null ? expense : sent);
+        }
+        return added;
+    }
+
+    private Map<String, Expense> sentBefore(long eventId, List<Expense> expenses) {
+        Map<String, Expense> byKey = new HashMap<>();
+        Set<String> keys = expenses.stream().map(Expense::getIdempotencyKey)
+                .filter(Objects::nonNull).collect(Collectors.toSet());
+        if (!keys.isEmpty()) {
+            for (Expense sent : expenseRepository.findAllByIdempotencyKeyIn(keys)) {
+                if (!Objects.equals(sent.getEventId(), eventId)) {
+                    throw new IllegalArgumentException("Expense " + sent.getIdempotencyKey()
+                            + " was added to another event");
+                }
+                byKey.put(sent.getIdempotencyKey(), sent);
+            }
+        }
+        return byKey;
+    }
+
+    private static Participant loaded(Map<Long, Participant> participants, long id) {
+        Participant participant = participants.get(id);
+        if (participant == null) {
+            throw new IllegalArgumentException("Participant not found in the event with ID: " + id);
+        }
+        return participant;
+    }
+
     /**
      * remove expense from an event
      * @param eventId long
      * @param expenseId long
+     * @return the removed expense
      */
-
-    public void removeExpenseFromEvent(long eventId, long expenseId) {
+    @Transactional
+    public Expense removeExpenseFromEvent(long eventId, long expenseId) {
         Event event = eventRepository.findById(eventId)
                 .orElseThrow(() -> new IllegalArgumentException("Event not found"));
 
@@ -287,10 +553,15 @@ public class EventService {
 
         Expense expense = expenseRepository.findById(expenseId)
                 .orElseThrow(() -> new IllegalArgumentException("Expense not found"));
+        List<LedgerEntry> contribution = List.of();
         if (expense.getEventId() == eventId) {
+            contribution = ledgerService.contributionOf(expense);
             expense.setEventId(null);
         }
         expenseRepository.save(expense);
+        ledgerService.expenseRemoved(contribution);
+        changeLogService.record(eventId, EntityType.EXPENSE, expenseId, Kind.DELETED);
+        return expense;
     }
 
 
@@ -301,11 +572,16 @@ public class EventService {
      * @param expenseDetails the updated expense
      * @return the updated expense
      */
+    @Transactional
     public Expense updateExpenseInEvent(Long eventId, Long expenseId, Expense expenseDetails) {
         Event event = eventRepository.findById(eventId)
                 .orElseThrow(() -> new IllegalArgumentException("Event not found with ID: " + eventId));
 
         expenseDetails.setId(expenseId);
+        // the stored expense is changed in place below, so its old shares are computed first
+        List<LedgerEntry> before = expenseRepository.findById(expenseId)
+                .map(ledgerService::contributionOf)
+                .orElse(List.of());
 
         boolean isUpdated = event.updateExpense(expenseDetails);
         if (!isUpdated) {
@@ -313,7 +589,10 @@ public class EventService {
                     + " not found in event with ID: " + eventId);
         }
 
-        return expenseRepository.save(expenseDetails);
+        Expense saved = expenseRepository.save(expenseDetails);
+        ledgerService.expenseUpdated(before, saved);
+        changeLogService.record(eventId, EntityType.EXPENSE, expenseId, Kind.UPDATED);
+        return saved;
     }
 
     /**
@@ -322,6 +601,7 @@ public class EventService {
      * @param participantId participant ID
      * @return list of filtered expenses by participant id
      */
+    @Transactional
     public List<Expense> filterByParticipantId(Long eventId, long participantId) {
         if (eventId == null || eventId < 0) {
             throw new IllegalArgumentException("Event ID must be positive and not null.");
@@ -341,4 +621,42 @@ public class EventService {
 
         return filteredExpenses;
     }
+
+    /**
+     * The people and expenses of an event are loaded lazily. Websocket replies are serialized
+     * after the transaction has ended, so the collections they need are loaded here.
+     * @param event the event to initialize
+     * @return the same event
+     */
+    private Event initializeEvent(Event event) {
+        Hibernate.initialize(event.getPeople());
+        Hibernate.initialize(event.getExpenses());
+        if (event.getPeople() != null) {
+            event.getPeople().forEach(this::initializeParticipant);
+        }
+        if (event.getExpenses() != null) {
+            for (Expense expense : event.getExpenses()) {
+                Hibernate.initialize(expense.getSplittingOption());
+                if (expense.getParticipant() != null) {
+                    initializeParticipant(expense.getParticipant());
+                }
+                if (expense.getSplittingOption() != null) {
+                    expense.getSplittingOption().forEach(this::initializeParticipant);
+                }
+            }
+        }
+        return event;
+    }
+
+    /**
+     * Loads the lazy collections of a participant
+     * @param participant the participant to initialize
+     * @return the same participant
+     */
+    private Participant initializeParticipant(Participant participant) {
+        Hibernate.initialize(participant.getOwedAmount());
+        Hibernate.initialize(participant.getPayedAmount());
+        Hibernate.initialize(participant.getEventIds());
+        return participant;
+    }
 }
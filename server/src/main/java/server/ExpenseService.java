@@ -1,6 +1,12 @@
 package server;
 
+import commons.ChangeLogEntry.EntityType;
+import commons.ChangeLogEntry.Kind;
 import commons.Expense;
+import commons.KeysetPage;
+import commons.LedgerEntry;
+import io.micrometer.core.annotation.Timed;
+import jakarta.transaction.Transactional;
 import org.hibernate.service.spi.ServiceException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
@@ -17,18 +23,26 @@ import java.util.Optional;
 import org.springframework.stereotype.Service;
 
 @Service
+@Timed("splitty.service")
 public class ExpenseService {
 
     private final ExpenseRepository expenseRepository;
+    private final LedgerService ledgerService;
+    private final ChangeLogService changeLogService;
 
     /**
      * Dependency Injection through the constructor
      *
      * @param expenseRepository of type ExpenseRepository
+     * @param ledgerService the ledger service, which keeps the balances up to date
+     * @param changeLogService the change log service, which logs the changes of every event
      */
     @Autowired
-    public ExpenseService(ExpenseRepository expenseRepository) {
+    public ExpenseService(ExpenseRepository expenseRepository, LedgerService ledgerService,
+                          ChangeLogService changeLogService) {
         this.expenseRepository = expenseRepository;
+        this.ledgerService = ledgerService;
+        this.changeLogService = changeLogService;
     }
 
     /**
@@ -56,6 +70,25 @@ public class ExpenseService {
         }
     }
 
+    /**
+     * gets one page of the expenses, sorted by id
+     *
+     * @param cursor the cursor of the previous page, null for the first page
+     * @param limit the page size, null for the default
+     * @return a page of expenses
+     */
+    public KeysetPage<Expense> getExpensePage(String cursor, Integer limit) {
+        int pageSize = KeysetPagination.limit(limit);
+        long afterId = KeysetPagination.afterId(cursor);
+        try {
+            List<Expense> rows = expenseRepository
+                    .findByIdGreaterThanOrderByIdAsc(afterId, KeysetPagination.request(pageSize));
+            return KeysetPagination.page(rows, pageSize, Expense::getId);
+        } catch (Exception ex) {
+            throw new ServiceException("Error retrieving a page of expenses", ex);
+        }
+    }
+
     /**
      * Filter expenses by date.
      *
@@ -127,13 +160,20 @@ public class ExpenseService {
      * creates a new expense
      * @param expense the new expense
      * @return the new expense
+     * @throws ServiceException if the expense could not be saved, nothing is saved then
      */
-    public ResponseEntity<String> createExpense(Expense expense) {
+    @Transactional
+    public Expense createExpense(Expense expense) {
         try {
             Expense savedExpense = expenseRepository.save(expense);
-            return ResponseEntity.ok().body("Expense created successfully with ID: " + savedExpense.getId());
+            ledgerService.expenseAdded(savedExpense);
+            if (savedExpense.getEventId() != null) {
+                changeLogService.record(savedExpense.getEventId(), EntityType.EXPENSE, savedExpense.getId(),
+                        Kind.INSERTED);
+            }
+            return savedExpense;
         } catch (Exception e) {
-            return ResponseEntity.internalServerError().body("Error creating expense: " + e.getMessage());
+            throw new ServiceException("Error creating expense", e);
         }
     }
 
@@ -144,12 +184,30 @@ public class ExpenseService {
      * @param expense as an Expense Object
      * @return an Expense Object
      */
+    @Transactional
     public Expense updateExpense ( long expenseId, Expense expense){
         if (!expenseRepository.existsById(expenseId)) {
             throw new IllegalArgumentException("Expense not found with ID: " + expenseId);
         }
+        Optional<Expense> stored = expenseRepository.findById(expenseId);
+        List<LedgerEntry> before = stored
+                .map(ledgerService::contributionOf)
+                .orElse(List.of());
+        // the stored expense is changed by the save, so the event it was in is read first
+        Long eventBefore = stored.map(Expense::getEventId).orElse(null);
         expense.setId(expenseId);
-        return expenseRepository.save(expense);
+        Expense saved = expenseRepository.save(expense);
+        ledgerService.expenseUpdated(before, saved);
+        if (eventBefore != null && !eventBefore.equals(saved.getEventId())) {
+            changeLogService.record(eventBefore, EntityType.EXPENSE, expenseId, Kind.DELETED);
+            if (saved.getEventId() != null) {
+                changeLogService.record(saved.getEventId(), EntityType.EXPENSE, expenseId, Kind.INSERTED);
+            }
+        } else if (saved.getEventId() != null) {
+            Kind kind = eventBefore == null ? Kind.INSERTED : Kind.UPDATED;
+            changeLogService.record(saved.getEventId(), EntityType.EXPENSE, expenseId, kind);
+        }
+        return saved;
     }
 
     /**
@@ -157,11 +215,21 @@ public class ExpenseService {
      * @param expenseId the id of the expense that needs to be deleted
      * @return ResponseEntity<Void>
      */
+    @Transactional
     public ResponseEntity<Void> deleteExpense ( long expenseId){
         if (!expenseRepository.existsById(expenseId)) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
+        Optional<Expense> stored = expenseRepository.findById(expenseId);
+        List<LedgerEntry> contribution = stored
+                .map(ledgerService::contributionOf)
+                .orElse(List.of());
+        Long eventId = stored.map(Expense::getEventId).orElse(null);
         expenseRepository.deleteById(expenseId);
+        ledgerService.expenseRemoved(contribution);
+        if (eventId != null) {
+            changeLogService.record(eventId, EntityType.EXPENSE, expenseId, Kind.DELETED);
+        }
         return ResponseEntity.ok().build();
     }
 }
@@ -0,0 +1,71 @@
+package server;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import commons.Event;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.springframework.stereotype.Service;
+import server.database.EventRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exports all events with their participants and expenses as newline delimited JSON, one event per
+ * line. The events are read from a scrollable query and written one at a time, so the memory that
+ * an export needs does not grow with the number of events.
+ */
+@Service
+@Timed("splitty.service")
+public class ExportService {
+    private final EventRepository eventRepository;
+    private final EntityManager entityManager;
+    private final ObjectWriter eventWriter;
+
+    /**
+     * constructor
+     * @param eventRepository the event repository
+     * @param entityManager the entity manager, which forgets the events that were written
+     * @param objectMapper the JSON mapper of the server, the export can be read back by the import
+     */
+    public ExportService(EventRepository eventRepository, EntityManager entityManager, ObjectMapper objectMapper) {
+        this.eventRepository = eventRepository;
+        this.entityManager = entityManager;
+        // the generator is flushed once at the end, the output stream decides when bytes are sent
+        this.eventWriter = objectMapper.writerFor(Event.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * writes all events, sorted by id, one per line
+     * @param out where the events are written, it is flushed but not closed
+     * @return the number of events that were written
+     * @throws IOException if the events could not be written
+     */
+    @Transactional
+    public int exportEvents(OutputStream out) throws IOException {
+        int count = 0;
+        try (Stream<Event> events = eventRepository.streamAll();
+             JsonGenerator generator = eventWriter.createGenerator(out)
+                     .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                     // every event ends with a newline instead of being separated by a space
+                     .setRootValueSeparator(null)) {
+            Iterator<Event> iterator = events.iterator();
+            while (iterator.hasNext()) {
+                Event event = iterator.next();
+                eventWriter.writeValue(generator, event);
+                generator.writeRaw('\n');
+                count++;
+                // the written event, its participants and expenses are not needed anymore
+                entityManager.clear();
+            }
+            generator.flush();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,202 @@
+package server;
+
+import commons.ChangeLogEntry.EntityType;
+import commons.ChangeLogEntry.Kind;
+import commons.Event;
+import commons.EventSummary;
+import commons.Expense;
+import commons.Participant;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.hibernate.service.spi.ServiceException;
+import org.springframework.stereotype.Service;
+import server.database.EventRepository;
+import server.database.ExpenseRepository;
+import server.database.ParticipantRepository;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Imports events that were exported as JSON, with their participants and expenses. Everything gets
+ * a new id, the references between them are changed to the new ids, and all events are inserted
+ * in one transaction, so a failed import leaves nothing behind. The events are read one at a time and
+ * written in chunks, so the memory that an import needs does not grow with the number of events.
+ */
+@Service
+@Timed("splitty.service")
+public class ImportService {
+    /**
+     * how many events are written before the persistence context forgets them
+     */
+    static final int EVENTS_PER_FLUSH = 50;
+
+    private final EventRepository eventRepository;
+    private final ParticipantRepository participantRepository;
+    private final ExpenseRepository expenseRepository;
+    private final LedgerService ledgerService;
+    private final ChangeLogService changeLogService;
+    private final EntityManager entityManager;
+
+    /**
+     * constructor
+     * @param eventRepository the event repository
+     * @param participantRepository the participant repository
+     * @param expenseRepository the expense repository
+     * @param ledgerService the ledger service, which computes the balances of the imported events
+     * @param changeLogService the change log service, which logs the imported participants and expenses
+     * @param entityManager the entity manager, which forgets the events that were written
+     */
+    public ImportService(EventRepository eventRepository, ParticipantRepository participantRepository,
+                         ExpenseRepository expenseRepository, LedgerService ledgerService,
+                         ChangeLogService changeLogService, EntityManager entityManager) {
+        this.eventRepository = eventRepository;
+        this.participantRepository = participantRepository;
+        this.expenseRepository = expenseRepository;
+        this.ledgerService = ledgerService;
+        this.changeLogService = changeLogService;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * imports exported events. The participants are matched by their old id within each event,
+     * since a participant is only in one event. The invite codes are kept unless another event has them.
+     * @param events the exported events, read while they are imported
+     * @return the summaries of the imported events, in the order they were given
+     * @throws IllegalArgumentException if there are no events, one of them is null or the iterator
+     *                                  could not read one, nothing is imported then
+     */
+    @Transactional
+    public List<EventSummary> importEvents(Iterator<Event> events) {
+        if (events == null || !events.hasNext()) {
+            throw new IllegalArgumentException("There must be at least one event");
+        }
+        try {
+            List<EventSummary> summaries = new ArrayList<>();
+            List<Event> chunk = new ArrayList<>(EVENTS_PER_FLUSH);
+            while (events.hasNext()) {
+                Event event = events.next();
+                if (event == null) {
+                    throw new IllegalArgumentException("Event " + (summaries.size() + chunk.size() + 1)
+                            + " is null");
+                }
+                chunk.add(event);
+                if (chunk.size() == EVENTS_PER_FLUSH || !events.hasNext()) {
+                    importChunk(chunk, summaries);
+                    chunk.clear();
+                }
+            }
+            return summaries;
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ServiceException("Error importing the events", e);
+        }
+    }
+
+    /**
+     * inserts some events, writes them to the database and forgets them
+     * @param chunk the exported events
+     * @param summaries where the summaries of the imported events are added
+     */
+    private void importChunk(List<Event> chunk, List<EventSummary> summaries) {
+        // the events of the earlier chunks are written already, so the database knows their invite codes
+        Set<Long> usedInviteCodes = new HashSet<>(eventRepository.existingInviteCodes(
+                chunk.stream().map(Event::getInviteCode).toList()));
+        for (Event event : chunk) {
+            summaries.add(new EventSummary(importEvent(event, usedInviteCodes)));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    /**
+     * inserts one event with new ids for it, its participants and its expenses
+     * @param event the exported event, which is changed and inserted
+     * @param usedInviteCodes the invite codes that other events already have
+     * @return the imported event
+     */
+    private Event importEvent(Event event, Set<Long> usedInviteCodes) {
+        List<Participant> people = event.getPeople() == null ? List.of() : event.getPeople();
+        List<Expense> expenses = event.getExpenses() == null ? List.of() : event.getExpenses();
+
+        event.setId(0);
+        // the version of the export belongs to the old change log, the imported event starts a new one
+        event.setVersion(0);
+        while (!usedInviteCodes.add(event.getInviteCode())) {
+            event.setInviteCode(UUID.randomUUID().getMostSignificantBits() & Long.MAX_VALUE);
+        }
+        event.setPeople(new ArrayList<>());
+        event.setExpenses(new ArrayList<>());
+        // the sequence gives the event its id here, the participants and expenses need it
+        Event saved = eventRepository.save(event);
+        ParticipantMapping mapping = new ParticipantMapping(saved.getId());
+
+        people.forEach(mapping::remap);
+        for (Expense expense : expenses) {
+            expense.setId(0);
+            expense.setEventId(saved.getId());
+            if (expense.getParticipant() != null) {
+                expense.setParticipant(mapping.remap(expense.getParticipant()));
+            }
+            if (expense.getSplittingOption() != null) {
+                expense.setSplittingOption(expense.getSplittingOption().stream()
+                        .map(mapping::remap).collect(Collectors.toList()));
+            }
+        }
+
+        participantRepository.saveAll(mapping.imported);
+        expenseRepository.saveAll(expenses);
+        saved.getPeople().addAll(mapping.imported);
+        // not addNewExpenses, which would replace the last activity of the export
+        saved.getExpenses().addAll(expenses);
+        ledgerService.expensesAdded(expenses);
+        // logged like the events that existed before the change log, participants before expenses
+        changeLogService.recordAll(saved.getId(), EntityType.PARTICIPANT,
+                mapping.imported.stream().map(Participant::getId).toList(), Kind.INSERTED);
+        saved.setVersion(changeLogService.recordAll(saved.getId(), EntityType.EXPENSE,
+                expenses.stream().map(Expense::getId).toList(), Kind.INSERTED));
+        return saved;
+    }
+
+    /**
+     * the participants of one imported event, the exported participants of the expenses are copies
+     * of the ones in the event, so they are replaced by the first one with the same old id
+     */
+    private static final class ParticipantMapping {
+        private final long eventId;
+        private final Map<Long, Participant> byOldId = new HashMap<>();
+        private final List<Participant> imported = new ArrayList<>();
+
+        /**
+         * constructor
+         * @param eventId the new id of the event
+         */
+        private ParticipantMapping(long eventId) {
+            this.eventId = eventId;
+        }
+
+        /**
+         * finds the participant to insert for an exported one
+         * @param exported the participant as it was exported
+         * @return the first participant with the same old id, prepared for the insert
+         */
+        private Participant remap(Participant exported) {
+            Participant participant = exported.getId() == 0 ? null : byOldId.get(exported.getId());
+            if (participant != null) {
+                return participant;
+            }
+            if (exported.getId() != 0) {
+                byOldId.put(exported.getId(), exported);
+            }
+            exported.setId(0);
+            // the balances are computed by the ledger, the exported ones refer to the old events
+            exported.setOwedAmount(new HashMap<>());
+            exported.setPayedAmount(new HashMap<>());
+            exported.setEventIds(new HashSet<>(Set.of(eventId)));
+            imported.add(exported);
+            return exported;
+        }
+    }
+}
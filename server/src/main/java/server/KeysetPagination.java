@@ -0,0 +1,100 @@
+package server;
+
+import commons.KeysetPage;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Helper for the keyset (seek) pagination of the listing endpoints.
+ * A page is requested with the id of the last item that was already seen, which is
+ * handed to the client as an opaque cursor, so the database never has to skip rows.
+ */
+public final class KeysetPagination {
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+    private static final String CURSOR_PREFIX = "id:";
+
+    private KeysetPagination() {
+    }
+
+    /**
+     * checks the requested page size
+     * @param limit the requested page size, null for the default
+     * @return the page size to use
+     */
+    public static int limit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_LIMIT);
+        }
+        return limit;
+    }
+
+    /**
+     * decodes a cursor into the id after which the page starts
+     * @param cursor the cursor, null or empty for the first page
+     * @return the id of the last item of the previous page
+     */
+    public static long afterId(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0L;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(CURSOR_PREFIX)) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            long id = Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+            if (id < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return id;
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException is an IllegalArgumentException as well
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * encodes the id of the last item of a page into a cursor
+     * @param id the id of the last item
+     * @return the cursor
+     */
+    public static String cursor(long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * the repository request for a page, one extra row is fetched to know if there is a next page
+     * @param limit the page size
+     * @return the pageable to pass to the repository
+     */
+    public static Pageable request(int limit) {
+        return PageRequest.of(0, limit + 1);
+    }
+
+    /**
+     * builds a page from the rows returned by the repository
+     * @param rows the rows, at most limit + 1 and sorted by id
+     * @param limit the page size
+     * @param idOf function giving the id of a row
+     * @param <T> the type of the rows
+     * @return the page
+     */
+    public static <T> KeysetPage<T> page(List<T> rows, int limit, ToLongFunction<T> idOf) {
+        if (rows.size() <= limit) {
+            return new KeysetPage<>(rows, null, limit);
+        }
+        List<T> items = new ArrayList<>(rows.subList(0, limit));
+        return new KeysetPage<>(items, cursor(idOf.applyAsLong(items.get(limit - 1))), limit);
+    }
+}
@@ -0,0 +1,289 @@
+package server;
+
+import commons.Expense;
+import commons.LedgerDrift;
+import commons.LedgerEntry;
+import commons.Participant;
+import io.micrometer.core.annotation.Timed;
+import jakarta.transaction.Transactional;
+import org.hibernate.service.spi.ServiceException;
+import org.springframework.stereotype.Service;
+import server.database.EventRepository;
+import server.database.ExpenseRepository;
+import server.database.LedgerRepository;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Keeps the paid and owed totals of every participant of every event up to date.
+ * Every change of an expense is applied as a delta, so reading the balances of an event
+ * only reads one row per participant. The shares are computed the same way as the settlement,
+ * and the ledger can be rebuilt from the expenses if it ever drifts.
+ */
+@Service
+@Timed("splitty.service")
+public class LedgerService {
+    private final LedgerRepository ledgerRepository;
+    private final EventRepository eventRepository;
+    private final ExpenseRepository expenseRepository;
+    private final SettlementService settlementService;
+
+    /**
+     * constructor
+     * @param ledgerRepository the ledger repository
+     * @param eventRepository the event repository
+     * @param expenseRepository the expense repository
+     * @param settlementService the settlement service, used to recompute the ledger
+     */
+    public LedgerService(LedgerRepository ledgerRepository, EventRepository eventRepository,
+                         ExpenseRepository expenseRepository, SettlementService settlementService) {
+        this.ledgerRepository = ledgerRepository;
+        this.eventRepository = eventRepository;
+        this.expenseRepository = expenseRepository;
+        this.settlementService = settlementService;
+    }
+
+    /**
+     * getter for the ledger of an event
+     * @param eventId the id of the event
+     * @return the entries of the event sorted by participant id
+     */
+    public List<LedgerEntry> getLedger(long eventId) {
+        if (eventId < 0) {
+            throw new IllegalArgumentException("Event ID must be positive and not null.");
+        }
+        try {
+            return ledgerRepository.findByEventIdOrderByParticipantIdAsc(eventId);
+        } catch (Exception e) {
+            throw new ServiceException("Error retrieving the ledger of event " + eventId, e);
+        }
+    }
+
+    /**
+     * computes what every participant paid and owes for one expense, this has to be done
+     * before the expense is changed when it is updated
+     * @param expense the expense
+     * @return the amounts per participant, empty if the expense is not part of an event
+     */
+    public List<LedgerEntry> contributionOf(Expense expense) {
+        return contributionOf(expense, this::participantsOf);
+    }
+
+    /**
+     * computes what every participant paid and owes for one expense
+     * @param expense the expense
+     * @param participantsOf the sorted participant ids of an event, the sharers of an expense without a
+     *                       splitting option
+     * @return the amounts per participant, empty if the expense is not part of an event
+     */
+    private List<LedgerEntry> contributionOf(Expense expense, Function<Long, long[]> participantsOf) {
+        if (expense == null || expense.getEventId() == null || expense.getParticipant() == null) {
+            return List.of();
+        }
+        long eventId = expense.getEventId();
+        long amount = expense.getAmountInCents();
+        long[] sharers = sharersOf(expense, participantsOf);
+        if (sharers.length == 0 || amount == 0) {
+            return List.of();
+        }
+
+        Map<Long, LedgerEntry> entries = new LinkedHashMap<>();
+        entries.put(expense.getParticipant().getId(),
+                new LedgerEntry(eventId, expense.getParticipant().getId(), amount, 0));
+        long[] shares = SettlementCalculator.split(amount, sharers.length);
+        for (int i = 0; i < sharers.length; i++) {
+            LedgerEntry entry = entries.computeIfAbsent(sharers[i], id -> new LedgerEntry(eventId, id, 0, 0));
+            entry.setOwedInCents(entry.getOwedInCents() + shares[i]);
+        }
+        return new ArrayList<>(entries.values());
+    }
+
+    /**
+     * adds a new expense to the ledger
+     * @param expense the expense that was added
+     */
+    @Transactional
+    public void expenseAdded(Expense expense) {
+        apply(contributionOf(expense), 1);
+    }
+
+    /**
+     * adds many new expenses to the ledger, with one update per participant instead of one per
+     * participant and expense, and the participants of every event are read once
+     * @param expenses the expenses that were added
+     */
+    @Transactional
+    public void expensesAdded(List<Expense> expenses) {
+        Map<Long, long[]> participants = new HashMap<>();
+        Function<Long, long[]> participantsOf = eventId -> participants.computeIfAbsent(eventId, this::participantsOf);
+        Map<List<Long>, LedgerEntry> total = new LinkedHashMap<>();
+        for (Expense expense : expenses) {
+            for (LedgerEntry delta : contributionOf(expense, participantsOf)) {
+                LedgerEntry entry = total.computeIfAbsent(List.of(delta.getEventId(), delta.getParticipantId()),
+                        key -> new LedgerEntry(delta.getEventId(), delta.getParticipantId(), 0, 0));
+                entry.setPaidInCents(entry.getPaidInCents() + delta.getPaidInCents());
+                entry.setOwedInCents(entry.getOwedInCents() + delta.getOwedInCents());
+            }
+        }
+        apply(new ArrayList<>(total.values()), 1);
+    }
+
+    /**
+     * removes an expense from the ledger
+     * @param contribution the contribution of the expense before it was removed
+     */
+    @Transactional
+    public void expenseRemoved(List<LedgerEntry> contribution) {
+        apply(contribution, -1);
+    }
+
+    /**
+     * replaces the contribution of an expense that was changed
+     * @param before the contribution of the expense before the change
+     * @param after the expense after the change
+     */
+    @Transactional
+    public void expenseUpdated(List<LedgerEntry> before, Expense after) {
+        apply(before, -1);
+        apply(contributionOf(after), 1);
+    }
+
+    /**
+     * must be called when participants join or leave an event, since expenses without a splitting
+     * option are shared by everyone in the event at the time the balances are computed
+     * @param eventId the id of the event
+     */
+    @Transactional
+    public void participantsChanged(long eventId) {
+        try {
+            if (expenseRepository.hasExpensesSharedByEveryone(eventId)) {
+                rebuild(eventId);
+            }
+        } catch (Exception e) {
+            throw new ServiceException("Error updating the ledger of event " + eventId, e);
+        }
+    }
+
+    /**
+     * recomputes the ledger of an event from its expenses and compares it with the stored ledger
+     * @param eventId the id of the event
+     * @return the participants whose stored totals are wrong, empty if the ledger is correct
+     */
+    public List<LedgerDrift> verify(long eventId) {
+        return compare(eventId, settlementService.calculate(eventId), ledgerRepository
+                .findByEventIdOrderByParticipantIdAsc(eventId));
+    }
+
+    /**
+     * recomputes the ledger of an event from its expenses and replaces the stored ledger
+     * @param eventId the id of the event
+     * @return the participants whose stored totals were wrong
+     */
+    @Transactional
+    public List<LedgerDrift> rebuild(long eventId) {
+        SettlementCalculator calculator = settlementService.calculate(eventId);
+        List<LedgerEntry> stored = ledgerRepository.findByEventIdOrderByParticipantIdAsc(eventId);
+        List<LedgerDrift> drift = compare(eventId, calculator, stored);
+
+        Map<Long, LedgerEntry> byParticipant = new HashMap<>();
+        stored.forEach(entry -> byParticipant.put(entry.getParticipantId(), entry));
+        Map<Long, Long> balances = calculator.getBalances();
+        List<LedgerEntry> changed = new ArrayList<>();
+        for (long participantId : calculator.getParticipantIds()) {
+            long paid = calculator.paidBy(participantId);
+            long owed = paid - balances.get(participantId);
+            LedgerEntry entry = byParticipant.remove(participantId);
+            if (entry == null) {
+                entry = new LedgerEntry(eventId, participantId, 0, 0);
+            } else if (entry.getPaidInCents() == paid && entry.getOwedInCents() == owed) {
+                continue;
+            }
+            entry.setPaidInCents(paid);
+            entry.setOwedInCents(owed);
+            changed.add(entry);
+        }
+        ledgerRepository.saveAll(changed);
+        ledgerRepository.deleteAll(new ArrayList<>(byParticipant.values()));
+        return drift;
+    }
+
+    /**
+     * recomputes the ledgers of all events
+     * @return the participants whose stored totals were wrong, of all events
+     */
+    @Transactional
+    public List<LedgerDrift> rebuildAll() {
+        List<LedgerDrift> drift = new ArrayList<>();
+        for (Long eventId : eventRepository.findAllIds()) {
+            drift.addAll(rebuild(eventId));
+        }
+        return drift;
+    }
+
+    /**
+     * removes the ledger of an event that is deleted
+     * @param eventId the id of the event
+     */
+    @Transactional
+    public void eventDeleted(long eventId) {
+        ledgerRepository.deleteByEventId(eventId);
+    }
+
+    /**
+     * removes the ledgers of all events, when all events are deleted
+     */
+    @Transactional
+    public void allEventsDeleted() {
+        ledgerRepository.deleteAllInBatch();
+    }
+
+    private long[] sharersOf(Expense expense, Function<Long, long[]> participantsOf) {
+        List<Participant> splittingOption = expense.getSplittingOption();
+        if (splittingOption == null || splittingOption.isEmpty()) {
+            return participantsOf.apply(expense.getEventId());
+        }
+        return splittingOption.stream().filter(Objects::nonNull)
+                .mapToLong(Participant::getId).sorted().distinct().toArray();
+    }
+
+    private long[] participantsOf(long eventId) {
+        return eventRepository.participantIdsOfEvent(eventId).stream()
+                .mapToLong(Long::longValue).sorted().distinct().toArray();
+    }
+
+    private void apply(List<LedgerEntry> contribution, int sign) {
+        for (LedgerEntry delta : contribution) {
+            long paid = sign * delta.getPaidInCents();
+            long owed = sign * delta.getOwedInCents();
+            // creates the entry of a participant's first change in the same statement
+            ledgerRepository.addToEntry(delta.getEventId(), delta.getParticipantId(), paid, owed);
+        }
+    }
+
+    private List<LedgerDrift> compare(long eventId, SettlementCalculator calculator, List<LedgerEntry> stored) {
+        Map<Long, LedgerEntry> byParticipant = new HashMap<>();
+        stored.forEach(entry -> byParticipant.put(entry.getParticipantId(), entry));
+        Map<Long, Long> balances = calculator.getBalances();
+
+        List<LedgerDrift> drift = new ArrayList<>();
+        for (long participantId : calculator.getParticipantIds()) {
+            long paid = calculator.paidBy(participantId);
+            long owed = paid - balances.get(participantId);
+            LedgerEntry entry = byParticipant.remove(participantId);
+            long storedPaid = entry == null ? 0 : entry.getPaidInCents();
+            long storedOwed = entry == null ? 0 : entry.getOwedInCents();
+            if (storedPaid != paid || storedOwed != owed) {
+                drift.add(new LedgerDrift(eventId, participantId, storedPaid, storedOwed, paid, owed));
+            }
+        }
+        for (LedgerEntry entry : byParticipant.values()) {
+            if (entry.getPaidInCents() != 0 || entry.getOwedInCents() != 0) {
+                drift.add(new LedgerDrift(eventId, entry.getParticipantId(),
+                        entry.getPaidInCents(), entry.getOwedInCents(), 0, 0));
+            }
+        }
+        drift.sort(Comparator.comparingLong(LedgerDrift::getParticipantId));
+        return drift;
+    }
+}
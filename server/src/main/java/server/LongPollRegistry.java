@@ -0,0 +1,145 @@
+package server;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the clients that are waiting for updates of an event with long polling.
+ * Listeners are kept per event, so an update only wakes the clients of that event,
+ * and every event has a maximum number of waiting clients.
+ * All methods can be called from any thread. The waiting clients are notified by the notifier,
+ * so an update of an event with thousands of waiting clients does not hold up the request that made it.
+ * @param <T> the type of the updates
+ */
+public class LongPollRegistry<T> {
+    private final int capacityPerEvent;
+    private final Executor notifier;
+    private final Map<Long, Map<Object, Consumer<T>>> listeners = new ConcurrentHashMap<>();
+    private final AtomicLong open = new AtomicLong();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+
+    /**
+     * constructor, the clients are notified on the thread that publishes the update
+     * @param capacityPerEvent the maximum number of clients that can wait for one event
+     */
+    public LongPollRegistry(int capacityPerEvent) {
+        this(capacityPerEvent, Runnable::run);
+    }
+
+    /**
+     * constructor
+     * @param capacityPerEvent the maximum number of clients that can wait for one event
+     * @param notifier runs the notification of the clients waiting for an update
+     */
+    public LongPollRegistry(int capacityPerEvent, Executor notifier) {
+        if (capacityPerEvent <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacityPerEvent = capacityPerEvent;
+        this.notifier = notifier;
+    }
+
+    /**
+     * registers a client that waits for the next update of an event
+     * @param eventId the id of the event
+     * @param key identifies the client, used to remove it again
+     * @param listener called with the update
+     * @return false if the event already has the maximum number of waiting clients
+     */
+    public boolean register(long eventId, Object key, Consumer<T> listener) {
+        boolean[] added = new boolean[1];
+        // compute locks the entry of the event, so the capacity check and the insert happen together
+        listeners.compute(eventId, (id, waiting) -> {
+            if (waiting == null) {
+                waiting = new ConcurrentHashMap<>();
+            }
+            if (waiting.size() < capacityPerEvent && waiting.putIfAbsent(key, listener) == null) {
+                added[0] = true;
+            }
+            return waiting;
+        });
+        if (added[0]) {
+            open.incrementAndGet();
+        } else {
+            rejected.increment();
+        }
+        return added[0];
+    }
+
+    /**
+     * removes a client, when its poll completes or times out
+     * @param eventId the id of the event
+     * @param key the key the client was registered with
+     */
+    public void unregister(long eventId, Object key) {
+        boolean[] removed = new boolean[1];
+        listeners.computeIfPresent(eventId, (id, waiting) -> {
+            removed[0] = waiting.remove(key) != null;
+            return waiting.isEmpty() ? null : waiting;
+        });
+        if (removed[0]) {
+            open.decrementAndGet();
+        }
+    }
+
+    /**
+     * sends an update to all clients waiting for an event
+     * @param eventId the id of the event
+     * @param update the update
+     * @return the number of clients that are notified
+     */
+    public int publish(long eventId, T update) {
+        Map<Object, Consumer<T>> waiting = listeners.get(eventId);
+        if (waiting == null) {
+            return 0;
+        }
+        // the clients that wait now, the ones that register after the update wait for the next one
+        List<Consumer<T>> notified = new ArrayList<>(waiting.values());
+        if (notified.isEmpty()) {
+            return 0;
+        }
+        notifier.execute(() -> notified.forEach(listener -> listener.accept(update)));
+        delivered.add(notified.size());
+        return notified.size();
+    }
+
+    /**
+     * getter for the number of clients waiting for an event
+     * @param eventId the id of the event
+     * @return the number of waiting clients
+     */
+    public int openPolls(long eventId) {
+        Map<Object, Consumer<T>> waiting = listeners.get(eventId);
+        return waiting == null ? 0 : waiting.size();
+    }
+
+    /**
+     * getter for the number of clients waiting for any event
+     * @return the number of waiting clients
+     */
+    public long openPolls() {
+        return open.get();
+    }
+
+    /**
+     * getter for the metrics of the registry
+     * @return the open polls, the events with open polls, the rejected polls and the delivered updates
+     */
+    public Map<String, Long> metrics() {
+        Map<String, Long> metrics = new LinkedHashMap<>();
+        metrics.put("openPolls", open.get());
+        metrics.put("eventsWithOpenPolls", (long) listeners.size());
+        metrics.put("rejectedPolls", rejected.sum());
+        metrics.put("deliveredUpdates", delivered.sum());
+        metrics.put("capacityPerEvent", (long) capacityPerEvent);
+        return metrics;
+    }
+}
@@ -0,0 +1,55 @@
+package server;
+
+import commons.Participant;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The metrics of the server that Spring Boot does not add by itself. Spring Boot already times
+ * every HTTP request (http.server.requests) and every repository method (spring.data.repository.invocations),
+ * this adds the service methods (splitty.service) and the long polls.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * times the methods of the classes annotated with Timed, which are the services
+     * @param registry the meter registry
+     * @return the aspect
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    /**
+     * the clients waiting for new participants, the numbers are read from the registry when they are scraped
+     * @param participantUpdates the clients waiting for new participants
+     * @return the binder that adds the meters
+     */
+    @Bean
+    public MeterBinder longPollMetrics(LongPollRegistry<Participant> participantUpdates) {
+        return registry -> {
+            Gauge.builder("splitty.long_poll.open", participantUpdates, r -> r.metrics().get("openPolls"))
+                    .description("clients waiting for new participants")
+                    .register(registry);
+            Gauge.builder("splitty.long_poll.events", participantUpdates,
+                            r -> r.metrics().get("eventsWithOpenPolls"))
+                    .description("events with clients waiting for new participants")
+                    .register(registry);
+            FunctionCounter.builder("splitty.long_poll.rejected", participantUpdates,
+                            r -> r.metrics().get("rejectedPolls"))
+                    .description("polls rejected because the event had too many waiting clients")
+                    .register(registry);
+            FunctionCounter.builder("splitty.long_poll.delivered", participantUpdates,
+                            r -> r.metrics().get("deliveredUpdates"))
+                    .description("updates sent to waiting clients")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,54 @@
+package server;
+
+import org.flywaydb.core.api.output.MigrateResult;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+/**
+ * Runs the migrations in db/migration. Some data can not be converted in SQL: the ledger is computed from
+ * the expenses the same way as the settlement, so when the migration that creates it runs on a database
+ * that already has events, the ledgers of those events are built once the application has started.
+ */
+@Configuration
+public class MigrationConfig {
+    // the migration that creates the ledger, see V3__create_ledger.sql
+    static final String LEDGER_VERSION = "3";
+
+    private final ObjectProvider<LedgerService> ledgerService;
+    private volatile boolean ledgerCreated;
+
+    /**
+     * constructor
+     * @param ledgerService the ledger service, looked up after the migrations since it needs the database
+     */
+    public MigrationConfig(ObjectProvider<LedgerService> ledgerService) {
+        this.ledgerService = ledgerService;
+    }
+
+    /**
+     * the strategy Spring Boot migrates the database with, it remembers if the ledger was just created
+     * @return the strategy
+     */
+    @Bean
+    public FlywayMigrationStrategy migrationStrategy() {
+        return flyway -> {
+            MigrateResult result = flyway.migrate();
+            ledgerCreated = result.migrations.stream().anyMatch(output -> LEDGER_VERSION.equals(output.version));
+        };
+    }
+
+    /**
+     * builds the ledgers of the events that existed before the ledger
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void fillCreatedLedger() {
+        if (ledgerCreated) {
+            ledgerService.getObject().rebuildAll();
+            ledgerCreated = false;
+        }
+    }
+}
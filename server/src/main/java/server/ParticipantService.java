@@ -1,6 +1,11 @@
 package server;
 
+import commons.ChangeLogEntry.EntityType;
+import commons.ChangeLogEntry.Kind;
+import commons.KeysetPage;
 import commons.Participant;
+import io.micrometer.core.annotation.Timed;
+import jakarta.transaction.Transactional;
 import org.hibernate.service.spi.ServiceException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -10,17 +15,21 @@ import java.util.List;
 import java.util.Optional;
 
 @Service
+@Timed("splitty.service")
 public class ParticipantService {
     private final ParticipantRepository participantRepository;
+    private final ChangeLogService changeLogService;
 
 
     /**
      * Dependency Injection through the constructor
      * @param participantRepository of type ParticipantRepository
+     * @param changeLogService the change log service, which logs the changes of every event
      */
     @Autowired
-    public ParticipantService(ParticipantRepository participantRepository) {
+    public ParticipantService(ParticipantRepository participantRepository, ChangeLogService changeLogService) {
         this.participantRepository = participantRepository;
+        this.changeLogService = changeLogService;
     }
 
     /**
@@ -69,16 +78,38 @@ public class ParticipantService {
         }
     }
 
+    /**
+     * Retrieves one page of participants, sorted by id.
+     * @param cursor the cursor of the previous page, null for the first page
+     * @param limit the page size, null for the default
+     * @return a page of participants
+     * @throws IllegalArgumentException if the cursor or page size is invalid.
+     */
+    public KeysetPage<Participant> findParticipantPage(String cursor, Integer limit) {
+        int pageSize = KeysetPagination.limit(limit);
+        long afterId = KeysetPagination.afterId(cursor);
+        try{
+            List<Participant> rows = participantRepository
+                    .findByIdGreaterThanOrderByIdAsc(afterId, KeysetPagination.request(pageSize));
+            return KeysetPagination.page(rows, pageSize, Participant::getId);
+        } catch (Exception e){
+            throw new ServiceException("Error retrieving a page of participants", e);
+        }
+    }
+
     /**
      * Deletes a participant by their ID.
      * @param id the ID of the participant to delete
      * @throws IllegalArgumentException if the id is null or negative.
      */
+    @Transactional
     public void deleteParticipantById(Long id) {
         if (id == null || id < 0) {
             throw new IllegalArgumentException("ID must be positive and not null");
         }
         try {
+            participantRepository.findById(id).ifPresent(participant ->
+                    recordInEvents(participant, Kind.DELETED));
             participantRepository.deleteById(id);
         } catch (Exception e){
             throw new ServiceException("Error deleting the participant", e);
@@ -203,6 +234,7 @@ public class ParticipantService {
      * @param updatedParticipantInfo Information for updated participant
      * @return Participant
      */
+    @Transactional
     public Participant updateParticipant(Long participantId, Participant updatedParticipantInfo) {
         Participant participant = participantRepository.findById(participantId)
                 .orElseThrow(() -> new IllegalArgumentException("Participant not found"));
@@ -215,6 +247,21 @@ public class ParticipantService {
         participant.setLanguageChoice(updatedParticipantInfo.getLanguageChoice());
 
 
-        return participantRepository.save(participant);
+        Participant saved = participantRepository.save(participant);
+        recordInEvents(saved, Kind.UPDATED);
+        return saved;
+    }
+
+    /**
+     * logs a change of a participant in every event the participant is in
+     * @param participant the participant
+     * @param kind the kind of change
+     */
+    private void recordInEvents(Participant participant, Kind kind) {
+        if (participant.getEventIds() != null) {
+            for (long eventId : participant.getEventIds()) {
+                changeLogService.record(eventId, EntityType.PARTICIPANT, participant.getId(), kind);
+            }
+        }
     }
 }
@@ -0,0 +1,196 @@
+package server;
+
+import commons.Transfer;
+
+import java.util.*;
+
+/**
+ * Computes the net balance of every participant of an event and the transfers that settle them.
+ * All amounts are whole cents, so the balances of an event always add up to exactly zero.
+ * The calculator does not touch the database, the settlement service feeds it the expenses.
+ */
+public class SettlementCalculator {
+    private final Map<Long, Integer> indexOf = new HashMap<>();
+    private long[] ids;
+    private long[] balances;
+    private long[] paid;
+    private int size;
+    private final long[] everyone;
+    // expenses shared by everyone are only summed up, the shares are subtracted when the balances are read
+    private long everyoneShare;
+    private final long[] everyoneExtra;
+
+    /**
+     * Creates a calculator for an event
+     * @param participantIds the ids of the participants of the event, used for expenses that
+     *                       do not have a splitting option
+     */
+    public SettlementCalculator(Collection<Long> participantIds) {
+        this.ids = new long[Math.max(16, participantIds.size())];
+        this.balances = new long[ids.length];
+        this.paid = new long[ids.length];
+        this.everyone = participantIds.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+        this.everyoneExtra = new long[everyone.length + 1];
+        for (long id : everyone) {
+            index(id);
+        }
+    }
+
+    /**
+     * Divides an amount equally in cents, the cents that are left over go to the first sharers, one each
+     * @param amountInCents the amount to divide, in cents
+     * @param sharers the number of sharers
+     * @return the share of every sharer, in the same order as the sharers
+     */
+    public static long[] split(long amountInCents, int sharers) {
+        long[] shares = new long[sharers];
+        long base = Math.floorDiv(amountInCents, sharers);
+        long remainder = Math.floorMod(amountInCents, sharers);
+        for (int i = 0; i < sharers; i++) {
+            shares[i] = i < remainder ? base + 1 : base;
+        }
+        return shares;
+    }
+
+    /**
+     * Adds an expense to the balances. The amount is divided equally in cents, the cents that are
+     * left over go to the participants with the lowest ids, one each.
+     * @param payerId the id of the participant who paid
+     * @param amountInCents the amount that was paid, in cents
+     * @param sharedWith the ids of the participants who share the expense, sorted ascending and
+     *                   without duplicates, an empty array means everyone in the event
+     */
+    public void addExpense(long payerId, long amountInCents, long[] sharedWith) {
+        long[] sharers = sharedWith.length == 0 ? everyone : sharedWith;
+        if (sharers.length == 0 || amountInCents == 0) {
+            return;
+        }
+        int payer = index(payerId);
+        balances[payer] += amountInCents;
+        paid[payer] += amountInCents;
+        long base = Math.floorDiv(amountInCents, sharers.length);
+        int remainder = (int) Math.floorMod(amountInCents, sharers.length);
+        if (sharers == everyone) {
+            // the participants of the event have the first indices, in order of id
+            everyoneShare += base;
+            everyoneExtra[0]++;
+            everyoneExtra[remainder]--;
+            return;
+        }
+        for (int i = 0; i < sharers.length; i++) {
+            balances[index(sharers[i])] -= i < remainder ? base + 1 : base;
+        }
+    }
+
+    /**
+     * getter for the balance of a participant, positive if they should receive money
+     * @param participantId the id of the participant
+     * @return the balance in cents
+     */
+    public long balanceOf(long participantId) {
+        applyEveryoneShares();
+        Integer index = indexOf.get(participantId);
+        return index == null ? 0 : balances[index];
+    }
+
+    /**
+     * getter for the total a participant paid
+     * @param participantId the id of the participant
+     * @return the total paid in cents
+     */
+    public long paidBy(long participantId) {
+        Integer index = indexOf.get(participantId);
+        return index == null ? 0 : paid[index];
+    }
+
+    /**
+     * getter for the participants that have a balance, which are the participants of the event
+     * and everyone who paid for or shares an expense
+     * @return the participant ids, in the order they were first seen
+     */
+    public long[] getParticipantIds() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    /**
+     * getter for all balances
+     * @return the balance in cents of every participant, by participant id
+     */
+    public Map<Long, Long> getBalances() {
+        applyEveryoneShares();
+        Map<Long, Long> result = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            result.put(ids[i], balances[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Computes the transfers that settle all balances. The participant who owes the most pays the
+     * participant who is owed the most, until everyone is even. This gives at most one transfer
+     * less than the number of participants that are not even.
+     * @return the transfers, largest first
+     */
+    public List<Transfer> settle() {
+        applyEveryoneShares();
+        // {remaining amount, participant id}, the largest amount first and the lowest id on ties
+        Comparator<long[]> largestFirst = (a, b) -> a[0] != b[0]
+                ? Long.compare(b[0], a[0])
+                : Long.compare(a[1], b[1]);
+        PriorityQueue<long[]> lenders = new PriorityQueue<>(largestFirst);
+        PriorityQueue<long[]> debtors = new PriorityQueue<>(largestFirst);
+        for (int i = 0; i < size; i++) {
+            if (balances[i] > 0) {
+                lenders.add(new long[]{balances[i], ids[i]});
+            } else if (balances[i] < 0) {
+                debtors.add(new long[]{-balances[i], ids[i]});
+            }
+        }
+
+        List<Transfer> transfers = new ArrayList<>();
+        while (!lenders.isEmpty() && !debtors.isEmpty()) {
+            long[] lender = lenders.poll();
+            long[] debtor = debtors.poll();
+            long amount = Math.min(lender[0], debtor[0]);
+            transfers.add(new Transfer(debtor[1], lender[1], amount));
+            lender[0] -= amount;
+            debtor[0] -= amount;
+            if (lender[0] > 0) {
+                lenders.add(lender);
+            }
+            if (debtor[0] > 0) {
+                debtors.add(debtor);
+            }
+        }
+        return transfers;
+    }
+
+    private void applyEveryoneShares() {
+        if (everyoneShare == 0 && everyoneExtra[0] == 0) {
+            return;
+        }
+        long extra = 0;
+        for (int i = 0; i < everyone.length; i++) {
+            extra += everyoneExtra[i];
+            balances[i] -= everyoneShare + extra;
+            everyoneExtra[i] = 0;
+        }
+        everyoneExtra[everyone.length] = 0;
+        everyoneShare = 0;
+    }
+
+    private int index(long participantId) {
+        Integer index = indexOf.get(participantId);
+        if (index != null) {
+            return index;
+        }
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+            balances = Arrays.copyOf(balances, size * 2);
+            paid = Arrays.copyOf(paid, size * 2);
+        }
+        ids[size] = participantId;
+        indexOf.put(participantId, size);
+        return size++;
+    }
+}
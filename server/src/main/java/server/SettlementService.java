@@ -0,0 +1,91 @@
+package server;
+
+import commons.Transfer;
+import io.micrometer.core.annotation.Timed;
+import org.hibernate.service.spi.ServiceException;
+import org.springframework.stereotype.Service;
+import server.database.EventRepository;
+import server.database.ExpenseRepository;
+
+import java.util.Arrays;
+import java.util.List;
+
+@Service
+@Timed("splitty.service")
+public class SettlementService {
+    private static final long[] EVERYONE = new long[0];
+
+    private final EventRepository eventRepository;
+    private final ExpenseRepository expenseRepository;
+
+    /**
+     * constructor
+     * @param eventRepository the event repository
+     * @param expenseRepository the expense repository
+     */
+    public SettlementService(EventRepository eventRepository, ExpenseRepository expenseRepository) {
+        this.eventRepository = eventRepository;
+        this.expenseRepository = expenseRepository;
+    }
+
+    /**
+     * computes the transfers that settle all the expenses of an event.
+     * Only the ids and amounts of the expenses are read, in two queries.
+     * @param eventId the id of the event
+     * @return the transfers, largest first
+     * @throws IllegalArgumentException if the id is negative or the event does not exist.
+     */
+    public List<Transfer> settleEvent(long eventId) {
+        return calculate(eventId).settle();
+    }
+
+    /**
+     * computes the balances of all participants of an event
+     * @param eventId the id of the event
+     * @return the calculator holding the balances
+     * @throws IllegalArgumentException if the id is negative or the event does not exist.
+     */
+    public SettlementCalculator calculate(long eventId) {
+        if (eventId < 0) {
+            throw new IllegalArgumentException("Event ID must be positive and not null.");
+        }
+        if (!eventRepository.existsById(eventId)) {
+            throw new IllegalArgumentException("Event not found with ID: " + eventId);
+        }
+        try {
+            SettlementCalculator calculator =
+                    new SettlementCalculator(eventRepository.participantIdsOfEvent(eventId));
+            List<Object[]> payments = expenseRepository.paymentsOfEvent(eventId);
+            List<Object[]> splits = expenseRepository.splitsOfEvent(eventId);
+
+            // both lists are sorted by expense id, so the splits of an expense are found in one pass
+            int split = 0;
+            long[] sharedWith = new long[16];
+            for (Object[] payment : payments) {
+                long expenseId = (Long) payment[0];
+                while (split < splits.size() && (Long) splits.get(split)[0] < expenseId) {
+                    split++;
+                }
+                int count = 0;
+                while (split < splits.size() && (Long) splits.get(split)[0] == expenseId) {
+                    long participantId = (Long) splits.get(split++)[1];
+                    if (count > 0 && sharedWith[count - 1] == participantId) {
+                        continue;
+                    }
+                    if (count == sharedWith.length) {
+                        sharedWith = Arrays.copyOf(sharedWith, count * 2);
+                    }
+                    sharedWith[count++] = participantId;
+                }
+                if (payment[1] == null) {
+                    continue;
+                }
+                calculator.addExpense((Long) payment[1], (Long) payment[2],
+                        count == 0 ? EVERYONE : Arrays.copyOf(sharedWith, count));
+            }
+            return calculator;
+        } catch (Exception e) {
+            throw new ServiceException("Error computing the settlement of event " + eventId, e);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package server;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the SQL statements every thread sends to the database and logs the slow ones with their
+ * parameters. It wraps the data source, so it sees every statement Hibernate and Spring Data send,
+ * including the ones that load lazy collections. Only used when splitty.sql-diagnostics.enabled is true.
+ */
+public class SqlDiagnostics {
+    private static final Logger LOG = LoggerFactory.getLogger(SqlDiagnostics.class);
+
+    private final long slowQueryNanos;
+    private final int statementBudget;
+    // the count never resets, a request compares the count before and after it, which also works nested
+    private final ThreadLocal<long[]> statements = ThreadLocal.withInitial(() -> new long[1]);
+
+    /**
+     * constructor
+     * @param slowQueryMillis statements that take longer are logged
+     * @param statementBudget the number of statements a request can send without being logged
+     */
+    public SqlDiagnostics(long slowQueryMillis, int statementBudget) {
+        if (slowQueryMillis < 0 || statementBudget <= 0) {
+            throw new IllegalArgumentException("The slow query time and statement budget must be positive");
+        }
+        this.slowQueryNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryMillis);
+        this.statementBudget = statementBudget;
+    }
+
+    /**
+     * getter for the number of statements the current thread sent so far
+     * @return the number of statements
+     */
+    public long statementCount() {
+        return statements.get()[0];
+    }
+
+    /**
+     * getter for the statement budget
+     * @return the number of statements a request can send without being logged
+     */
+    public int getStatementBudget() {
+        return statementBudget;
+    }
+
+    /**
+     * wraps a data source so the statements of its connections are counted and timed
+     * @param dataSource the data source
+     * @return the wrapped data source
+     */
+    public DataSource wrap(DataSource dataSource) {
+        return proxy(DataSource.class, dataSource, (target, method, args) -> {
+            Object result = method.invoke(target, args);
+            return result instanceof Connection connection ? wrap(connection) : result;
+        });
+    }
+
+    /**
+     * wraps a connection so its statements are counted and timed
+     * @param connection the connection
+     * @return the wrapped connection
+     */
+    Connection wrap(Connection connection) {
+        return proxy(Connection.class, connection, (target, method, args) -> {
+            Object result = method.invoke(target, args);
+            String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+            if (result instanceof CallableStatement statement) {
+                return proxy(CallableStatement.class, statement, new StatementHandler(sql));
+            } else if (result instanceof PreparedStatement statement) {
+                return proxy(PreparedStatement.class, statement, new StatementHandler(sql));
+            } else if (result instanceof Statement statement) {
+                return proxy(Statement.class, statement, new StatementHandler(null));
+            }
+            return result;
+        });
+    }
+
+    /**
+     * counts an executed statement and logs it if it was slow
+     * @param sql the SQL
+     * @param parameters the parameters by index
+     * @param nanos how long it took
+     */
+    private void executed(String sql, Map<Integer, Object> parameters, long nanos) {
+        statements.get()[0]++;
+        if (nanos >= slowQueryNanos) {
+            LOG.warn("Slow SQL ({} ms): {} {}", TimeUnit.NANOSECONDS.toMillis(nanos), sql, parameters);
+        }
+    }
+
+    /**
+     * keeps the parameters of a statement and times its executions
+     */
+    private final class StatementHandler implements Invoker<Statement> {
+        private final String preparedSql;
+        private final Map<Integer, Object> parameters = new TreeMap<>();
+
+        /**
+         * constructor
+         * @param preparedSql the SQL of a prepared statement, null for a plain statement
+         */
+        private StatementHandler(String preparedSql) {
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Statement target, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                parameters.put(index, name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                parameters.clear();
+            }
+            if (!name.startsWith("execute")) {
+                return method.invoke(target, args);
+            }
+            String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+            long start = System.nanoTime();
+            try {
+                return method.invoke(target, args);
+            } finally {
+                executed(sql, parameters, System.nanoTime() - start);
+            }
+        }
+    }
+
+    /**
+     * handles a call on a proxy
+     * @param <T> the type of the wrapped object
+     */
+    @FunctionalInterface
+    private interface Invoker<T> {
+        /**
+         * calls the method
+         * @param target the wrapped object
+         * @param method the method
+         * @param args the arguments
+         * @return the result
+         * @throws Throwable what the method throws
+         */
+        Object invoke(T target, Method method, Object[] args) throws Throwable;
+    }
+
+    /**
+     * creates a proxy that unwraps the exceptions of the wrapped object, so callers see the SQLExceptions
+     * @param type the interface of the proxy
+     * @param target the wrapped object
+     * @param invoker handles the calls
+     * @param <T> the interface of the proxy
+     * @return the proxy
+     */
+    private static <T> T proxy(Class<T> type, T target, Invoker<? super T> invoker) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            try {
+                return invoker.invoke(target, method, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        ClassLoader loader = SqlDiagnostics.class.getClassLoader();
+        return type.cast(Proxy.newProxyInstance(loader, new Class<?>[] {type}, handler));
+    }
+}
@@ -0,0 +1,58 @@
+package server;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * The diagnostic mode for the database access, turned on with splitty.sql-diagnostics.enabled=true.
+ * It counts the SQL statements of every request and logs requests over the statement budget and slow queries.
+ */
+@Configuration
+@ConditionalOnProperty(name = "splitty.sql-diagnostics.enabled", havingValue = "true")
+public class SqlDiagnosticsConfig {
+
+    /**
+     * counts and times the statements
+     * @param slowQueryMillis statements that take longer are logged
+     * @param statementBudget requests that send more statements are logged
+     * @return the diagnostics
+     */
+    @Bean
+    public SqlDiagnostics sqlDiagnostics(@Value("${splitty.sql-diagnostics.slow-query-ms:100}") long slowQueryMillis,
+                                         @Value("${splitty.sql-diagnostics.statement-budget:20}") int statementBudget) {
+        return new SqlDiagnostics(slowQueryMillis, statementBudget);
+    }
+
+    /**
+     * wraps the data source, static since post processors are created before the other beans
+     * @param diagnostics the diagnostics, looked up when the data source is created
+     * @return the post processor
+     */
+    @Bean
+    public static BeanPostProcessor sqlDiagnosticsDataSourceWrapper(ObjectProvider<SqlDiagnostics> diagnostics) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource ? diagnostics.getObject().wrap(dataSource) : bean;
+            }
+        };
+    }
+
+    /**
+     * counts the statements of every request
+     * @param diagnostics the diagnostics
+     * @param registry the meter registry
+     * @return the filter
+     */
+    @Bean
+    public SqlDiagnosticsFilter sqlDiagnosticsFilter(SqlDiagnostics diagnostics, MeterRegistry registry) {
+        return new SqlDiagnosticsFilter(diagnostics, registry);
+    }
+}
@@ -0,0 +1,59 @@
+package server;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Counts the SQL statements of every request, records them as the summary splitty.sql.statements
+ * per endpoint and logs the requests that send more statements than the budget, which usually
+ * means a lazy collection is loaded once per entity instead of in batches.
+ */
+public class SqlDiagnosticsFilter extends OncePerRequestFilter {
+    private static final Logger LOG = LoggerFactory.getLogger(SqlDiagnosticsFilter.class);
+
+    private final SqlDiagnostics diagnostics;
+    private final MeterRegistry registry;
+
+    /**
+     * constructor
+     * @param diagnostics counts the statements
+     * @param registry the meter registry
+     */
+    public SqlDiagnosticsFilter(SqlDiagnostics diagnostics, MeterRegistry registry) {
+        this.diagnostics = diagnostics;
+        this.registry = registry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long before = diagnostics.statementCount();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            long statements = diagnostics.statementCount() - before;
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+            DistributionSummary.builder("splitty.sql.statements")
+                    .description("SQL statements per request")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(registry)
+                    .record(statements);
+            if (statements > diagnostics.getStatementBudget()) {
+                LOG.warn("{} {} sent {} SQL statements, the budget is {}", request.getMethod(),
+                        request.getRequestURI(), statements, diagnostics.getStatementBudget());
+            }
+        }
+    }
+}
@@ -1,14 +1,48 @@
 package server;
 
+import commons.WireFormat;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.thread.Threading;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.MimeType;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 
+import java.util.List;
+
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebsocketConfig implements WebSocketMessageBrokerConfigurer {
+    private final boolean virtualThreads;
+    private final int channelThreads;
+    private final boolean binary;
+    private final MappingJackson2CborHttpMessageConverter cbor;
+
+    /**
+     * constructor
+     * @param environment tells if virtual threads are enabled with spring.threads.virtual.enabled
+     * @param channelThreads how many virtual threads handle the messages of each channel
+     * @param binary if the updates are sent to the clients in CBOR instead of JSON
+     * @param cbor the converter of the REST API for CBOR, its mapper is used for the messages too
+     */
+    public WebsocketConfig(Environment environment,
+                           @Value("${splitty.stomp.virtual-channel-threads:1000}") int channelThreads,
+                           @Value("${splitty.stomp.binary:false}") boolean binary,
+                           MappingJackson2CborHttpMessageConverter cbor) {
+        this.virtualThreads = Threading.VIRTUAL.isActive(environment);
+        this.channelThreads = channelThreads;
+        this.binary = binary;
+        this.cbor = cbor;
+    }
 
     /**
      * Registers stomp endpoints
@@ -20,14 +54,71 @@ public class WebsocketConfig implements WebSocketMessageBrokerConfigurer {
     }
 
     /**
-     * Configures message broker
+     * Configures message broker. The messages to one session are sent in the order they were published,
+     * the outbound channel runs on many threads and a client applies the changes of an event in order
      * @param config MessageBrokerRegistry
      */
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config){
         config.enableSimpleBroker("/topic");
         config.setApplicationDestinationPrefixes("/app");
+        config.setPreservePublishOrder(true);
+    }
+
+    /**
+     * sends the updates in CBOR if splitty.stomp.binary is set. A topic has one format for all its
+     * subscribers, so this is only turned on once all clients read CBOR. The clients send JSON,
+     * which the default converters after this one still read
+     * @param messageConverters the converters, empty before this
+     * @return true to add the default converters after the ones added here
+     */
+    @Override
+    public boolean configureMessageConverters(List<MessageConverter> messageConverters) {
+        if (binary) {
+            MappingJackson2MessageConverter converter =
+                    new MappingJackson2MessageConverter(MimeType.valueOf(WireFormat.STOMP_CBOR));
+            converter.setObjectMapper(cbor.getObjectMapper());
+            messageConverters.add(converter);
+        }
+        return true;
+    }
+
+    /**
+     * handles the messages from the clients on virtual threads if they are enabled, the handlers
+     * of /app messages query the database and would otherwise block the few platform threads
+     * @param registration the channel of the messages from the clients
+     */
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        if (virtualThreads) {
+            registration.taskExecutor(virtualChannelExecutor("splitty-stomp-in-"));
+        }
     }
 
+    /**
+     * sends the messages to the clients on virtual threads if they are enabled, a slow client then
+     * only blocks a cheap virtual thread. The broker keeps the order of the messages to each session
+     * @param registration the channel of the messages to the clients
+     */
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        if (virtualThreads) {
+            registration.taskExecutor(virtualChannelExecutor("splitty-stomp-out-"));
+        }
+    }
 
+    /**
+     * the channels take a thread pool, this one starts virtual threads. A blocked virtual thread does not
+     * hold a carrier thread, so the pool can be much larger than the default of twice the number of cores
+     * @param namePrefix the prefix of the thread names
+     * @return the executor
+     */
+    private ThreadPoolTaskExecutor virtualChannelExecutor(String namePrefix) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadFactory(new VirtualThreadTaskExecutor(namePrefix).getVirtualThreadFactory());
+        executor.setCorePoolSize(channelThreads);
+        executor.setMaxPoolSize(channelThreads);
+        executor.setAllowCoreThreadTimeOut(true);
+        return executor;
+    }
 }
@@ -0,0 +1,30 @@
+package server;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import commons.ParticipantReferences;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * The compact binary format of the API. A client that sends {@code Accept: application/cbor} gets CBOR with
+ * the participants of expenses as references, other clients keep getting the plain JSON.
+ */
+@Configuration
+public class WireFormatConfig {
+
+    /**
+     * the converter for application/cbor, Spring Boot adds it to the converters of the controllers.
+     * Its mapper has the same settings as the JSON mapper of the application
+     * @param builder the builder of the JSON mapper, configured by Spring Boot
+     * @return the converter
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper mapper = builder.factory(new CBORFactory()).build();
+        mapper.registerModule(ParticipantReferences.module());
+        return new MappingJackson2CborHttpMessageConverter(mapper);
+    }
+}
@@ -0,0 +1,141 @@
+package server.api;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import commons.Event;
+import org.hibernate.service.spi.ServiceException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import server.ExportService;
+import server.ImportService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+    private static final MediaType GZIP = MediaType.parseMediaType("application/gzip");
+
+    private final ImportService importService;
+    private final ExportService exportService;
+    private final ObjectReader eventReader;
+
+    /**
+     * Admin controller
+     * @param importService imports exported events
+     * @param exportService exports all events
+     * @param objectMapper the JSON mapper of the server, which reads the exported dates
+     */
+    @Autowired
+    public AdminController(ImportService importService, ExportService exportService, ObjectMapper objectMapper) {
+        this.importService = importService;
+        this.exportService = exportService;
+        this.eventReader = objectMapper.readerFor(Event.class);
+    }
+
+    /**
+     * exports all events with their participants and expenses, one event per line. The events are
+     * written while they are read from the database, so the export is never all in memory.
+     * @param gzip whether the export is compressed, so it can be saved as a .ndjson.gz archive
+     * @return the events as newline delimited JSON
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportEvents(
+            @RequestParam(value = "gzip", defaultValue = "false") boolean gzip) {
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 8192);
+                exportService.exportEvents(compressed);
+                compressed.finish();
+            } else {
+                exportService.exportEvents(out);
+            }
+        };
+        String fileName = gzip ? "splitty-events.ndjson.gz" : "splitty-events.ndjson";
+        return ResponseEntity.ok()
+                .contentType(gzip ? GZIP : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+
+    /**
+     * imports exported events in one transaction. The body can be the export of one event, the export
+     * of all events as a JSON array, or one event per line, so large backups can be streamed. The events
+     * are imported while they are read, the body is never all in memory.
+     * A compressed export is sent with the gzip content encoding.
+     * @param body the exported events
+     * @param contentEncoding gzip if the body is compressed
+     * @return the summaries of the imported events
+     */
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<?> importEvents(InputStream body,
+            @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding) {
+        // a JSON array is read element by element, like the lines of newline delimited JSON
+        try (MappingIterator<Event> values = eventReader.readValues(
+                "gzip".equalsIgnoreCase(contentEncoding) ? new GZIPInputStream(body) : body)) {
+            return ResponseEntity.ok(importService.importEvents(new EventIterator(values)));
+        } catch (IOException e) {
+            return new ResponseEntity<>("Invalid import: " + e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (ServiceException e) {
+            return new ResponseEntity<>("Failed to import the events: " + e.getMessage(),
+                    HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * reads the events while they are imported, an event that can not be read fails the whole import
+     */
+    private static final class EventIterator implements Iterator<Event> {
+        private final MappingIterator<Event> values;
+        private int read;
+
+        /**
+         * constructor
+         * @param values the events of the body
+         */
+        private EventIterator(MappingIterator<Event> values) {
+            this.values = values;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                return values.hasNextValue();
+            } catch (IOException e) {
+                throw invalid(e);
+            }
+        }
+
+        @Override
+        public Event next() {
+            try {
+                Event event = values.nextValue();
+                read++;
+                return event;
+            } catch (IOException e) {
+                throw invalid(e);
+            }
+        }
+
+        private IllegalArgumentException invalid(IOException e) {
+            return new IllegalArgumentException("Invalid event after " + read + " events: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package server.api;
+
+import org.hibernate.service.spi.ServiceException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import server.ChangeLogService;
+
+import java.util.NoSuchElementException;
+
+@RestController
+@RequestMapping("/api/events")
+public class ChangeLogController {
+
+    private final ChangeLogService changeLogService;
+
+    /**
+     * dependency injection through constructor
+     * @param changeLogService the change log service
+     */
+    @Autowired
+    public ChangeLogController(ChangeLogService changeLogService) {
+        this.changeLogService = changeLogService;
+    }
+
+    /**
+     * getter for what changed in an event after the version the client has
+     * @param id the id of the event
+     * @param since the version the client has, 0 if it has nothing
+     * @return the changes, or error message. 409 means the client is ahead of the server
+     * and has to download the whole event again
+     */
+    @GetMapping("/{id}/changes")
+    public ResponseEntity<?> getChanges(@PathVariable long id, @RequestParam(defaultValue = "0") long since) {
+        try {
+            return ResponseEntity.ok(changeLogService.changesSince(id, since));
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (NoSuchElementException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT);
+        } catch (ServiceException e) {
+            return new ResponseEntity<>("Failed to retrieve the changes: " + e.getMessage(),
+                    HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+}
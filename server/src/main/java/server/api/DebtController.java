@@ -90,6 +90,25 @@ public class DebtController {
         }
     }
 
+    /**
+     * find one page of the debts, sorted by id
+     * @param cursor the cursor of the previous page, empty for the first page
+     * @param limit the page size, the default is used if empty
+     * @return a page of debts and the cursor of the next page, or error message
+     */
+    @GetMapping("/page")
+    public ResponseEntity<?> findDebtPage(@RequestParam(required = false) String cursor,
+                                          @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(debtService.findDebtPage(cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (ServiceException e) {
+            return new ResponseEntity<>("Failed to retrieve the debts: " + e.getMessage(),
+                    HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     /**
      * delete a debt according to its id
      * @param id as a long number
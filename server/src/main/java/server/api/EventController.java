@@ -1,53 +1,95 @@
 package server.api;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import commons.*;
 import org.hibernate.service.spi.ServiceException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.messaging.handler.annotation.MessageMapping;
-import org.springframework.messaging.handler.annotation.SendTo;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.context.request.async.DeferredResult;
 import server.EventService;
+import server.LongPollRegistry;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.function.Consumer;
 
 @RestController
 @RequestMapping("/api/events")
 public class EventController {
-
     private final EventService eventService;
-    private Map<Object, Consumer<Participant>> listeners = new HashMap<>();
-
-    @Autowired
-    private SimpMessagingTemplate template;
+    private final LongPollRegistry<Participant> participantUpdates;
+    private final SimpMessagingTemplate template;
+    private final ObjectReader expenseReader;
 
     /**
      * Event Controller
      * @param eventService Event service
+     * @param participantUpdates the clients waiting for new participants
+     * @param template sends the changes of an event to the websocket topics of that event
+     * @param objectMapper the JSON mapper of the application, the lines of a batch are read with it
      */
     @Autowired
-    public EventController(EventService eventService) {
+    public EventController(EventService eventService, LongPollRegistry<Participant> participantUpdates,
+                           SimpMessagingTemplate template, ObjectMapper objectMapper) {
         this.eventService = eventService;
+        this.participantUpdates = participantUpdates;
+        this.template = template;
+        this.expenseReader = objectMapper.readerFor(Expense.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    /**
+     * the entity tag of the responses that are read from an event. The version is read before the data,
+     * so a change in between only makes the tag older than the data and the next request downloads it again.
+     * The tag is weak because the same version is sent as JSON and as CBOR, and Tomcat does not compress
+     * responses with a strong tag
+     * @param id the id of the event
+     * @return the tag, empty if the event does not exist
+     */
+    private Optional<String> entityTag(long id) {
+        return eventService.findVersionById(id).map(version -> "W/\"" + version + "\"");
+    }
+
+    /**
+     * a 200 response with the tag of the event, caches have to keep the JSON and the CBOR apart
+     * @param tag the tag of the event
+     * @return the response builder
+     */
+    private static ResponseEntity.BodyBuilder current(Optional<String> tag) {
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT);
+        tag.ifPresent(ok::eTag);
+        return ok;
     }
 
     /**
      * getting event by the id
      * @param id long number which is event id
+     * @param request the request, answered with 304 Not Modified if its If-None-Match has the current tag
      * @return a long id
      */
     @GetMapping("/{id}")
-    public ResponseEntity<?> getEventById(@PathVariable long id) {
+    public ResponseEntity<?> getEventById(@PathVariable long id, WebRequest request) {
         try {
+            Optional<String> tag = entityTag(id);
+            if (tag.isPresent() && request.checkNotModified(tag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(tag.get()).build();
+            }
             Optional<Event> eventOptional = eventService.findEventById(id);
             if(eventOptional.isPresent()){
-                return ResponseEntity.ok(eventOptional.get());
+                return current(tag).body(eventOptional.get());
             } else{
                 return new ResponseEntity<>("Event not found with ID: " + id, HttpStatus.NOT_FOUND);
             }
@@ -124,6 +166,58 @@ public class EventController {
         return eventService.getAllEvents();
     }
 
+    /**
+     * getter for the summaries of all events, used by the listings on the client
+     * @return an array list of event summaries
+     */
+    @GetMapping("/summaries")
+    public ResponseEntity<?> getEventSummaries() {
+        try {
+            return ResponseEntity.ok(eventService.getEventSummaries());
+        } catch (ServiceException e) {
+            return new ResponseEntity<>("Failed to retrieve the event summaries: " + e.getMessage(),
+                    HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * getter for one page of the events, sorted by id
+     * @param cursor the cursor of the previous page, empty for the first page
+     * @param limit the page size, the default is used if empty
+     * @return a page of events and the cursor of the next page, or error message
+     */
+    @GetMapping("/page")
+    public ResponseEntity<?> getEventPage(@RequestParam(required = false) String cursor,
+                                          @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(eventService.getEventPage(cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (ServiceException e) {
+            return new ResponseEntity<>("Failed to retrieve the events: " + e.getMessage(),
+                    HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * getter for one page of the event summaries, sorted by id
+     * @param cursor the cursor of the previous page, empty for the first page
+     * @param limit the page size, the default is used if empty
+     * @return a page of event summaries and the cursor of the next page, or error message
+     */
+    @GetMapping("/summaries/page")
+    public ResponseEntity<?> getEventSummaryPage(@RequestParam(required = false) String cursor,
+                                                 @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(eventService.getEventSummaryPage(cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (ServiceException e) {
+            return new ResponseEntity<>("Failed to retrieve the event summaries: " + e.getMessage(),
+                    HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     /**
      * post method to create an event
      * @param event Event
@@ -144,6 +238,7 @@ public class EventController {
     public ResponseEntity<?> updateEventTitle(@PathVariable Long eventId, @RequestParam String newTitle) {
         try {
             Event updatedEvent = eventService.updateEventTitle(eventId, newTitle);
+            template.convertAndSend(EventTopics.of(eventId, EventTopics.TITLE), updatedEvent);
             return ResponseEntity.ok(updatedEvent);
         } catch (IllegalArgumentException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
@@ -154,48 +249,65 @@ public class EventController {
     }
 
     /**
-     * websocket method for updating participant titles
+     * websocket method for updating event titles, the event is sent to the title topic of the event.
+     * Nothing is returned, since a returned value would be broadcast to every client.
      * @param payload map
-     * @return event
      */
     @MessageMapping("/eventTitle")
-    @SendTo("/topic/eventTitle")
-    public Event updateEventByTitleWebsockets(Map<String, Object> payload){
+    public void updateEventByTitleWebsockets(Map<String, Object> payload){
         long eventId = Long.parseLong(payload.get("eventId").toString());
         String newTitle = payload.get("newTitle").toString();
         Event event = eventService.updateEventTitle(eventId, newTitle);
-        return event;
+        template.convertAndSend(EventTopics.of(eventId, EventTopics.TITLE), event);
     }
 
     /**
      * finds participants by the event id
      * @param id as a long number
+     * @param request the request, answered with 304 Not Modified if its If-None-Match has the current tag
      * @return an array list of participants if possible (need to modify this later on for try-catch)
      */
     @GetMapping("/{id}/participants")
-    public ResponseEntity<List<Participant>> getParticipantsByEventId(@PathVariable Long id) {
+    public ResponseEntity<List<Participant>> getParticipantsByEventId(@PathVariable Long id, WebRequest request) {
+        Optional<String> tag = entityTag(id);
+        if (tag.isPresent() && request.checkNotModified(tag.get())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(tag.get()).build();
+        }
         List<Participant> participants = eventService.findParticipantsByEventId(id);
-        return ResponseEntity.ok(participants);
+        return current(tag).body(participants);
     }
 
     /**
      * Returns updates about participants by event ID with long polling.
      * @param id the event ID to fetch participant updates for
-     * @return a deferred result wrapped in a ResponseEntity containing participant updates or no content
+     * @return a deferred result wrapped in a ResponseEntity containing participant updates, no content,
+     *      or too many requests if too many clients are already waiting for this event
      */
     @GetMapping("/{id}/participants/updates")
     public DeferredResult<ResponseEntity<Participant>> getParticipantUpdatesByEventId(@PathVariable Long id) {
         var noContent = ResponseEntity.status(HttpStatus.NO_CONTENT).build();
         var res = new DeferredResult<ResponseEntity<Participant>>(5000L,noContent);
         var key = new Object();//since never equal to each other (always diff instances)
-        listeners.put(key, participant -> res.setResult( ResponseEntity.ok(participant)));
-        res.onCompletion(() -> listeners.remove(key));
+        if (!participantUpdates.register(id, key, participant -> res.setResult(ResponseEntity.ok(participant)))) {
+            res.setResult(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build());
+            return res;
+        }
+        res.onCompletion(() -> participantUpdates.unregister(id, key));
         return res;
+    }
 
+    /**
+     * getter for the metrics of the participant long polling
+     * @return the open polls, the events with open polls, the rejected polls and the delivered updates
+     */
+    @GetMapping("/updates/metrics")
+    public Map<String, Long> getParticipantUpdateMetrics() {
+        return participantUpdates.metrics();
     }
 
     /**
-     * Adds a participant to an event and notifies listeners.
+     * Adds a participant to an event and notifies the clients that subscribed to the participants
+     * of the event, and the clients that still poll for them
      * @param eventId the ID of the event
      * @param participant the participant to add
      * @return a ResponseEntity containing the added participant or a notFound status
@@ -204,7 +316,8 @@ public class EventController {
     public ResponseEntity<Participant> addParticipant(@PathVariable long eventId, @RequestBody Participant participant) {
         Participant addedParticipant = eventService.addParticipantToEvent(eventId, participant);
         if (addedParticipant != null) {
-            listeners.forEach((k,l) -> l.accept(addedParticipant));
+            template.convertAndSend(EventTopics.of(eventId, EventTopics.PARTICIPANTS), addedParticipant);
+            participantUpdates.publish(eventId, addedParticipant);
             return ResponseEntity.ok(addedParticipant);
         } else {
             return ResponseEntity.notFound().build();
@@ -232,13 +345,13 @@ public class EventController {
 
     /**
      * WebSockets endpoint to handle participant deletion.
+     * The removed participant is sent to the participant deletion topic of the event.
      * @param request the ParticipantDeletionRequest containing event and participant IDs
-     * @return the removed participant
      */
     @MessageMapping("/participantDeletion")
-    @SendTo("/topic/participantDeletion")
-    public Participant removeParticipantWebSockets(ParticipantDeletionRequest request){
-        return eventService.removeParticipantFromEvent(request.getEventId(), request.getParticipantId());
+    public void removeParticipantWebSockets(ParticipantDeletionRequest request){
+        Participant removed = eventService.removeParticipantFromEvent(request.getEventId(), request.getParticipantId());
+        template.convertAndSend(EventTopics.of(request.getEventId(), EventTopics.PARTICIPANT_DELETION), removed);
     }
 
     /**
@@ -255,7 +368,7 @@ public class EventController {
         try {
             Participant updatedParticipant = eventService
                     .updateParticipantInEvent(eventId, participantId, participantDetails);
-            template.convertAndSend("/topic/participants", updatedParticipant);
+            template.convertAndSend(EventTopics.of(eventId, EventTopics.PARTICIPANTS), updatedParticipant);
             return ResponseEntity.ok(updatedParticipant);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(null);
@@ -271,7 +384,6 @@ public class EventController {
      * @param participantDetails the new details for the participant
      */
     @MessageMapping("/participants")
-    @SendTo("/topic/participants")
     public void updateParticipantWebSockets( @PathVariable Long eventId,
                                              @PathVariable Long participantId,
                                              @RequestBody Participant participantDetails){
@@ -281,15 +393,37 @@ public class EventController {
     /**
      * finds expenses by the event id
      * @param id as a long number
+     * @param request the request, answered with 304 Not Modified if its If-None-Match has the current tag
      * @return an array list of expenses if possible
      */
     @GetMapping("/{id}/expenses")
-    public ResponseEntity<?> getExpensesByEventId(@PathVariable Long id) {
+    public ResponseEntity<?> getExpensesByEventId(@PathVariable Long id, WebRequest request) {
+        Optional<String> tag = entityTag(id);
+        if (tag.isPresent() && request.checkNotModified(tag.get())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(tag.get()).build();
+        }
         List<Expense> expenses = eventService.findExpensesByEventId(id);
         if (expenses.isEmpty()) {
             return ResponseEntity.notFound().build();
         } else {
-            return ResponseEntity.ok(expenses);
+            return current(tag).body(expenses);
+        }
+    }
+
+    /**
+     * getter for the totals of the expenses of an event per tag and per participant
+     * @param id the id of the event
+     * @return the statistics, amounts in cents, or error message
+     */
+    @GetMapping("/{id}/stats")
+    public ResponseEntity<?> getEventStatistics(@PathVariable long id) {
+        try {
+            return ResponseEntity.ok(eventService.getEventStatistics(id));
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
+        } catch (ServiceException e) {
+            return new ResponseEntity<>("Failed to compute the statistics: " + e.getMessage(),
+                    HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
@@ -303,18 +437,74 @@ public class EventController {
     public ResponseEntity<Expense> addExpense(@PathVariable long eventId, @RequestBody Expense expense) {
         Expense addedExpense = eventService.addExpenseToEvent(eventId, expense);
         if (addedExpense != null) {
+            template.convertAndSend(EventTopics.of(eventId, EventTopics.EXPENSES), addedExpense);
             return ResponseEntity.ok(addedExpense);
         } else {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
     }
 
+    /**
+     * adds many expenses to an event in one transaction, for imports of many receipts
+     * @param eventId the event
+     * @param expenses the expenses as a JSON array
+     * @return the ids of the created expenses in the order of the request
+     */
+    @PostMapping(value = "/{eventId}/expenses:batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> addExpenses(@PathVariable long eventId, @RequestBody List<Expense> expenses) {
+        return addExpenseBatch(eventId, expenses);
+    }
+
+    /**
+     * adds many expenses to an event in one transaction, sent as one JSON expense per line, so clients
+     * can stream them without building one large array
+     * @param eventId the event
+     * @param body the expenses as newline delimited JSON
+     * @return the ids of the created expenses in the order of the request
+     */
+    @PostMapping(value = "/{eventId}/expenses:batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<?> addExpensesNdjson(@PathVariable long eventId, InputStream body) {
+        List<Expense> expenses = new ArrayList<>();
+        try (MappingIterator<Expense> lines = expenseReader.readValues(body)) {
+            while (lines.hasNextValue()) {
+                // the rest of an oversized batch is not read
+                if (expenses.size() == EventService.MAX_BATCH_SIZE) {
+                    return new ResponseEntity<>("A batch must have at most " + EventService.MAX_BATCH_SIZE
+                            + " expenses", HttpStatus.BAD_REQUEST);
+                }
+                expenses.add(lines.nextValue());
+            }
+        } catch (IOException e) {
+            return new ResponseEntity<>("Invalid expense after " + expenses.size() + " expenses: "
+                    + e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+        return addExpenseBatch(eventId, expenses);
+    }
+
+    private ResponseEntity<?> addExpenseBatch(long eventId, List<Expense> expenses) {
+        try {
+            List<Expense> added = eventService.addExpensesToEvent(eventId, expenses);
+            for (int i = 0; i < added.size(); i++) {
+                // an expense whose key was sent before is returned as the one created then, which the
+                // clients already got
+                if (added.get(i) == expenses.get(i)) {
+                    template.convertAndSend(EventTopics.of(eventId, EventTopics.EXPENSES), added.get(i));
+                }
+            }
+            return ResponseEntity.ok(added.stream().map(Expense::getId).toList());
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (ServiceException e) {
+            return new ResponseEntity<>("Failed to add the expenses: " + e.getMessage(),
+                    HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     /**
      * WebSockets endpoint to add an expense to an event.
      * @param expenseRequest contains the details of the expense and event ID
      */
     @MessageMapping("/expense")
-    @SendTo("/topic/expense")
     public void addExpenseWS(ExpenseRequest expenseRequest){
         long eventId = expenseRequest.getEventId();
         Expense expense = expenseRequest.getExpense();
@@ -330,7 +520,8 @@ public class EventController {
     @DeleteMapping("/{eventId}/expenses/{expenseId}")
     public ResponseEntity<Void> removeExpense(@PathVariable long eventId, @PathVariable long expenseId) {
         try {
-            eventService.removeExpenseFromEvent(eventId, expenseId);
+            Expense removed = eventService.removeExpenseFromEvent(eventId, expenseId);
+            template.convertAndSend(EventTopics.of(eventId, EventTopics.EXPENSE_DELETION), removed);
             return ResponseEntity.ok().build();
         } catch (IllegalArgumentException e){
             return ResponseEntity.notFound().build();
@@ -351,6 +542,7 @@ public class EventController {
             @RequestBody Expense updatedExpense) {
         try {
             Expense updated = eventService.updateExpenseInEvent(eventId, expenseId, updatedExpense);
+            template.convertAndSend(EventTopics.of(eventId, EventTopics.EXPENSE_UPDATES), updated);
             return ResponseEntity.ok(updated);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(null);
@@ -1,13 +1,18 @@
 package server.api;
 
+import commons.EventTopics;
 import commons.Expense;
+import org.hibernate.service.spi.ServiceException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.web.bind.annotation.*;
 import server.ExpenseService;
 import server.database.ExpenseRepository;
 
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/expenses")
@@ -15,16 +20,19 @@ public class ExpenseController {
 
     private final ExpenseService expenseService;
     private ExpenseRepository db;
+    private final SimpMessagingTemplate template;
 
     /**
      * dependency injection through constructor
      * @param expenseService the ExpenseService
      * @param db ExpenseRepository
+     * @param template sends the changed and deleted expenses to the websocket topics of their event
      */
     @Autowired
-    public ExpenseController(ExpenseService expenseService, ExpenseRepository db) {
+    public ExpenseController(ExpenseService expenseService, ExpenseRepository db, SimpMessagingTemplate template) {
         this.expenseService = expenseService;
         this.db=db;
+        this.template = template;
     }
 
     /**
@@ -39,8 +47,12 @@ public class ExpenseController {
             expense.getParticipant().getLastName() == null) {
             return ResponseEntity.badRequest().build();
         }
-        expenseService.createExpense(expense);
-        return ResponseEntity.ok().build();
+        try {
+            expenseService.createExpense(expense);
+            return ResponseEntity.ok().build();
+        } catch (ServiceException e) {
+            return ResponseEntity.internalServerError().build();
+        }
     }
 
     /**
@@ -52,6 +64,25 @@ public class ExpenseController {
         return expenseService.getAllExpenses();
     }
 
+    /**
+     * get one page of the expenses, sorted by id
+     * @param cursor the cursor of the previous page, empty for the first page
+     * @param limit the page size, the default is used if empty
+     * @return a page of expenses and the cursor of the next page, or error message
+     */
+    @GetMapping("/page")
+    public ResponseEntity<?> getPage(@RequestParam(required = false) String cursor,
+                                     @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(expenseService.getExpensePage(cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (ServiceException e) {
+            return new ResponseEntity<>("Failed to retrieve the expenses: " + e.getMessage(),
+                    HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     /**
      * gets the expenses from a specific date
      * @param date the desired specific date
@@ -110,7 +141,10 @@ public class ExpenseController {
     public ResponseEntity<Void> update(@PathVariable("id")
                                            long id, @RequestBody Expense updatedExpense) {
         try {
-            expenseService.updateExpense(id, updatedExpense);
+            Expense saved = expenseService.updateExpense(id, updatedExpense);
+            if (saved.getEventId() != null) {
+                template.convertAndSend(EventTopics.of(saved.getEventId(), EventTopics.EXPENSE_UPDATES), saved);
+            }
             return ResponseEntity.ok().build();
         } catch (IllegalArgumentException e) {
             return ResponseEntity.notFound().build();
@@ -125,7 +159,11 @@ public class ExpenseController {
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable("id") long id) {
         try {
+            // the event is read first, an expense that was removed from its event before has none
+            Optional<Expense> deleted = db.findById(id);
             expenseService.deleteExpense(id);
+            deleted.filter(expense -> expense.getEventId() != null).ifPresent(expense -> template.convertAndSend(
+                    EventTopics.of(expense.getEventId(), EventTopics.EXPENSE_DELETION), expense));
             return ResponseEntity.ok().build();
         } catch (IllegalArgumentException e) {
             return ResponseEntity.notFound().build();
@@ -0,0 +1,89 @@
+package server.api;
+
+import org.hibernate.service.spi.ServiceException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import server.LedgerService;
+
+@RestController
+@RequestMapping("/api/events")
+public class LedgerController {
+
+    private final LedgerService ledgerService;
+
+    /**
+     * dependency injection through constructor
+     * @param ledgerService the ledger service
+     */
+    @Autowired
+    public LedgerController(LedgerService ledgerService) {
+        this.ledgerService = ledgerService;
+    }
+
+    /**
+     * getter for the paid and owed totals of every participant of an event
+     * @param id the id of the event
+     * @return the ledger entries of the event, or error message
+     */
+    @GetMapping("/{id}/ledger")
+    public ResponseEntity<?> getLedger(@PathVariable long id) {
+        try {
+            return ResponseEntity.ok(ledgerService.getLedger(id));
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (ServiceException e) {
+            return new ResponseEntity<>("Failed to retrieve the ledger: " + e.getMessage(),
+                    HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * recomputes the ledger of an event from its expenses without changing it
+     * @param id the id of the event
+     * @return the participants whose totals drifted, empty if the ledger is correct, or error message
+     */
+    @GetMapping("/{id}/ledger/verify")
+    public ResponseEntity<?> verifyLedger(@PathVariable long id) {
+        try {
+            return ResponseEntity.ok(ledgerService.verify(id));
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
+        } catch (ServiceException e) {
+            return new ResponseEntity<>("Failed to verify the ledger: " + e.getMessage(),
+                    HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * recomputes the ledger of an event from its expenses and stores it
+     * @param id the id of the event
+     * @return the participants whose totals were corrected, or error message
+     */
+    @PostMapping("/{id}/ledger/rebuild")
+    public ResponseEntity<?> rebuildLedger(@PathVariable long id) {
+        try {
+            return ResponseEntity.ok(ledgerService.rebuild(id));
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
+        } catch (ServiceException e) {
+            return new ResponseEntity<>("Failed to rebuild the ledger: " + e.getMessage(),
+                    HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * recomputes the ledgers of all events and stores them
+     * @return the participants whose totals were corrected, or error message
+     */
+    @PostMapping("/ledger/rebuild")
+    public ResponseEntity<?> rebuildAllLedgers() {
+        try {
+            return ResponseEntity.ok(ledgerService.rebuildAll());
+        } catch (ServiceException e) {
+            return new ResponseEntity<>("Failed to rebuild the ledgers: " + e.getMessage(),
+                    HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+}
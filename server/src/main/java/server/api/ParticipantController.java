@@ -85,6 +85,25 @@ public class ParticipantController {
         }
     }
 
+    /**
+     * Retrieve one page of participants, sorted by id.
+     * @param cursor the cursor of the previous page, empty for the first page
+     * @param limit the page size, the default is used if empty
+     * @return a page of participants and the cursor of the next page, or error message
+     */
+    @GetMapping("/page")
+    public ResponseEntity<?> findParticipantPage(@RequestParam(required = false) String cursor,
+                                                 @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(participantService.findParticipantPage(cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (ServiceException e) {
+            return new ResponseEntity<>("Failed to retrieve the participants: " + e.getMessage(),
+                    HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     /**
      * Delete a participant by their ID.
      * @param id Long
@@ -0,0 +1,73 @@
+package server.api;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Records how many items the endpoints return in a list, as the summary splitty.http.response.items
+ * with the controller method as tag, so it shows which endpoints send large lists.
+ */
+@ControllerAdvice
+public class PayloadMetricsAdvice implements ResponseBodyAdvice<Object> {
+    private final MeterRegistry registry;
+
+    /**
+     * constructor
+     * @param registry the meter registry
+     */
+    public PayloadMetricsAdvice(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * only the controllers of the server are measured
+     * @param returnType the return type of the controller method
+     * @param converterType the converter that writes the body
+     * @return true for the methods of the controllers in this package
+     */
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return returnType.getContainingClass().getPackageName().equals(PayloadMetricsAdvice.class.getPackageName());
+    }
+
+    /**
+     * records the number of items if the body is a list, and returns the body unchanged
+     * @param body the body
+     * @param returnType the return type of the controller method
+     * @param contentType the content type of the response
+     * @param converterType the converter that writes the body
+     * @param request the request
+     * @param response the response
+     * @return the same body
+     */
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType contentType,
+                                  Class<? extends HttpMessageConverter<?>> converterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        int items;
+        if (body instanceof Collection<?> collection) {
+            items = collection.size();
+        } else if (body instanceof Map<?, ?> map) {
+            items = map.size();
+        } else {
+            return body;
+        }
+        DistributionSummary.builder("splitty.http.response.items")
+                .description("number of items in list responses")
+                .tag("handler", returnType.getContainingClass().getSimpleName()
+                        + "." + returnType.getExecutable().getName())
+                .register(registry)
+                .record(items);
+        return body;
+    }
+}
@@ -0,0 +1,44 @@
+package server.api;
+
+import org.hibernate.service.spi.ServiceException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import server.SettlementService;
+
+@RestController
+@RequestMapping("/api/events")
+public class SettlementController {
+
+    private final SettlementService settlementService;
+
+    /**
+     * dependency injection through constructor
+     * @param settlementService the settlement service
+     */
+    @Autowired
+    public SettlementController(SettlementService settlementService) {
+        this.settlementService = settlementService;
+    }
+
+    /**
+     * computes who should pay whom to settle all expenses of an event
+     * @param id the id of the event
+     * @return the list of transfers, amounts in cents, or error message
+     */
+    @GetMapping("/{id}/settlement")
+    public ResponseEntity<?> getSettlement(@PathVariable long id) {
+        try {
+            return ResponseEntity.ok(settlementService.settleEvent(id));
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
+        } catch (ServiceException e) {
+            return new ResponseEntity<>("Failed to compute the settlement: " + e.getMessage(),
+                    HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package server.database;
+
+import commons.ChangeLogEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface ChangeLogRepository extends JpaRepository<ChangeLogEntry, Long> {
+
+    /**
+     * Finds the changes of an event between two versions.
+     *
+     * @param eventId the id of the event
+     * @param from the first version to include
+     * @param to the last version to include
+     * @return the changes sorted by version
+     */
+    List<ChangeLogEntry> findByEventIdAndVersionBetweenOrderByVersionAsc(long eventId, long from, long to);
+
+    /**
+     * Deletes the changes of an event.
+     *
+     * @param eventId the id of the event
+     */
+    @Modifying
+    @Query("DELETE FROM ChangeLogEntry c WHERE c.eventId = :eventId")
+    void deleteByEventId(@Param("eventId") long eventId);
+}
@@ -1,6 +1,7 @@
 package server.database;
 
 import commons.Debt;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
@@ -49,17 +50,25 @@ public interface DebtRepository extends JpaRepository<Debt, Long> {
 
     /**
      * finds all debts that are worth more money than a certain amount
-     * @param amount double
+     * @param amountInCents the amount in cents
      * @return an array list of debts
      */
 
-    @Query("SELECT d FROM Debt d WHERE d.amountOfMoney >= :amount")
-    List<Debt> costlierDebts(double amount);
+    @Query("SELECT d FROM Debt d WHERE d.amountInCents >= :amountInCents")
+    List<Debt> costlierDebts(long amountInCents);
     /**
      * finds all debts that are worth less money than a certain amount
-     * @param amount double
+     * @param amountInCents the amount in cents
      * @return an array list of debts
      */
-    @Query("SELECT d FROM Debt d WHERE d.amountOfMoney <= :amount")
-    List<Debt> cheaperDebts(double amount);
-}
\ No newline at end of file
+    @Query("SELECT d FROM Debt d WHERE d.amountInCents <= :amountInCents")
+    List<Debt> cheaperDebts(long amountInCents);
+
+    /**
+     * finds a page of debts sorted by id, that come after the given id
+     * @param afterId the id of the last debt of the previous page
+     * @param pageable the size of the page
+     * @return an array list of debts
+     */
+    List<Debt> findByIdGreaterThanOrderByIdAsc(long afterId, Pageable pageable);
+}
@@ -1,17 +1,107 @@
 package server.database;
 
 import commons.Event;
+import commons.EventSummary;
 import commons.Expense;
 import commons.Participant;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 
 public interface EventRepository extends JpaRepository<Event, Long> {
 
+    /**
+     * Finds a summary of every event, without loading their participants and expenses.
+     * Only the sizes of the collections are counted by the database.
+     *
+     * @return list of event summaries sorted by id
+     */
+    @Query("SELECT new commons.EventSummary(e.id, e.title, e.inviteCode, e.creationDate, e.lastActivity, " +
+            "SIZE(e.people), SIZE(e.expenses)) FROM Event e ORDER BY e.id")
+    List<EventSummary> eventSummaries();
+
+    /**
+     * Finds a page of event summaries, sorted by id, that come after the given id.
+     *
+     * @param afterId the id of the last event of the previous page
+     * @param pageable the size of the page
+     * @return list of event summaries sorted by id
+     */
+    @Query("SELECT new commons.EventSummary(e.id, e.title, e.inviteCode, e.creationDate, e.lastActivity, " +
+            "SIZE(e.people), SIZE(e.expenses)) FROM Event e WHERE e.id > :afterId ORDER BY e.id")
+    List<EventSummary> eventSummariesAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    /**
+     * Finds a page of events, sorted by id, that come after the given id.
+     *
+     * @param afterId the id of the last event of the previous page
+     * @param pageable the size of the page
+     * @return list of events sorted by id
+     */
+    List<Event> findByIdGreaterThanOrderByIdAsc(long afterId, Pageable pageable);
+
+    /**
+     * Streams all events, sorted by id, over a scrollable result set. The database sends the rows
+     * in chunks as the stream is read, so the events are never all in memory at once.
+     * The stream must be read in a transaction and closed afterwards.
+     *
+     * @return stream of all events sorted by id
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT e FROM Event e ORDER BY e.id")
+    Stream<Event> streamAll();
+
+    /**
+     * Finds the ids of all events.
+     *
+     * @return list of event ids sorted ascending
+     */
+    @Query("SELECT e.id FROM Event e ORDER BY e.id")
+    List<Long> findAllIds();
+
+    /**
+     * Increases the version of an event by one. The version is not updatable through the entity,
+     * so one statement both changes it and locks the row until the transaction ends, which keeps
+     * the versions of concurrent changes unique.
+     *
+     * @param id the id of the event
+     * @return the number of updated events, 0 if the event does not exist
+     */
+    @Modifying
+    @Query(value = "UPDATE event SET version = version + 1 WHERE id = :id", nativeQuery = true)
+    int incrementVersion(@Param("id") long id);
+
+    /**
+     * increases the version of an event by more than one, for changes that are made together
+     * @param id the id of the event
+     * @param count how much the version increases
+     * @return the number of updated events, 0 if the event does not exist
+     */
+    @Modifying
+    @Query(value = "UPDATE event SET version = version + :count WHERE id = :id", nativeQuery = true)
+    int addToVersion(@Param("id") long id, @Param("count") long count);
+
+    /**
+     * Finds the current version of an event.
+     *
+     * @param id the id of the event
+     * @return the version, empty if the event does not exist
+     */
+    @Query(value = "SELECT version FROM event WHERE id = :id", nativeQuery = true)
+    Optional<Long> versionOf(@Param("id") long id);
 
     /**
      * Finds participants associated with a specific event ID.
@@ -22,6 +112,15 @@ public interface EventRepository extends JpaRepository<Event, Long> {
     @Query("SELECT p FROM Participant p JOIN p.eventIds e WHERE e = :eventId")
     List<Participant> participantsOfEventById(@Param("eventId") long eventId);
 
+    /**
+     * Finds the ids of the participants associated with a specific event ID.
+     *
+     * @param eventId the ID of the event
+     * @return sorted list of participant ids
+     */
+    @Query("SELECT p.id FROM Participant p JOIN p.eventIds e WHERE e = :eventId ORDER BY p.id")
+    List<Long> participantIdsOfEvent(@Param("eventId") long eventId);
+
     /**
      * Finds expenses associated with a specific event ID.
      *
@@ -67,6 +166,14 @@ public interface EventRepository extends JpaRepository<Event, Long> {
     @Query("SELECT e FROM Event e WHERE e.inviteCode = :inviteCode")
     Event eventByInviteCode(long inviteCode);
 
+    /**
+     * finds which of the given invite codes are used by events
+     * @param inviteCodes the invite codes
+     * @return the invite codes that events have
+     */
+    @Query("SELECT e.inviteCode FROM Event e WHERE e.inviteCode IN :inviteCodes")
+    List<Long> existingInviteCodes(@Param("inviteCodes") Collection<Long> inviteCodes);
+
 
 
     /**
@@ -2,9 +2,12 @@ package server.database;
 
 
 import commons.Expense;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.sql.*;
 
@@ -32,4 +35,64 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long>
      */
     @Query("SELECT e FROM Expense e JOIN e.splittingOption p WHERE p.id = :participantId")
     List<Expense> findAllBySplittingOptionContaining(long participantId);
+
+    /**
+     * find a page of expenses sorted by id, that come after the given id
+     * @param afterId the id of the last expense of the previous page
+     * @param pageable the size of the page
+     * @return array list of expenses
+     */
+    List<Expense> findByIdGreaterThanOrderByIdAsc(long afterId, Pageable pageable);
+
+    /**
+     * finds who paid how much for every expense of an event, without loading the expenses
+     * @param eventId the id of the event
+     * @return rows of expense id, payer id (null if unknown) and amount in cents, sorted by expense id
+     */
+    @Query("SELECT e.id, p.id, e.amountInCents FROM Expense e LEFT JOIN e.participant p " +
+            "WHERE e.eventId = :eventId ORDER BY e.id")
+    List<Object[]> paymentsOfEvent(@Param("eventId") long eventId);
+
+    /**
+     * finds who shares every expense of an event, without loading the expenses
+     * @param eventId the id of the event
+     * @return rows of expense id and participant id, sorted by expense id and then participant id
+     */
+    @Query("SELECT e.id, s.id FROM Expense e JOIN e.splittingOption s " +
+            "WHERE e.eventId = :eventId ORDER BY e.id, s.id")
+    List<Object[]> splitsOfEvent(@Param("eventId") long eventId);
+
+    /**
+     * checks if an event has expenses without a splitting option, those are shared by
+     * everyone in the event
+     * @param eventId the id of the event
+     * @return true if there is such an expense
+     */
+    @Query("SELECT COUNT(e) > 0 FROM Expense e WHERE e.eventId = :eventId AND e.splittingOption IS EMPTY")
+    boolean hasExpensesSharedByEveryone(@Param("eventId") long eventId);
+
+    /**
+     * adds up the expenses of an event per tag
+     * @param eventId the id of the event
+     * @return rows of tag (null for expenses without a tag) and total amount in cents
+     */
+    @Query("SELECT e.expenseType, SUM(e.amountInCents) FROM Expense e " +
+            "WHERE e.eventId = :eventId GROUP BY e.expenseType")
+    List<Object[]> totalsByTagOfEvent(@Param("eventId") long eventId);
+
+    /**
+     * adds up the expenses of an event per participant who paid
+     * @param eventId the id of the event
+     * @return rows of participant id and total amount paid in cents
+     */
+    @Query("SELECT p.id, SUM(e.amountInCents) FROM Expense e JOIN e.participant p " +
+            "WHERE e.eventId = :eventId GROUP BY p.id")
+    List<Object[]> totalsByParticipantOfEvent(@Param("eventId") long eventId);
+
+    /**
+     * finds the expenses that clients already sent with one of the given keys
+     * @param keys the keys the clients chose
+     * @return the expenses with one of the keys
+     */
+    List<Expense> findAllByIdempotencyKeyIn(Collection<String> keys);
 }
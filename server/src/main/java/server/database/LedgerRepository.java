@@ -0,0 +1,57 @@
+package server.database;
+
+import commons.LedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface LedgerRepository extends JpaRepository<LedgerEntry, Long> {
+    /**
+     * Adds amounts to the entry of a participant, or inserts the entry with these amounts if the
+     * participant has none yet. The id is taken from the sequence for this one row, Hibernate never hands
+     * out an id from the block of a value it did not get from the sequence itself.
+     */
+    String ADD_TO_ENTRY = "MERGE INTO ledger_entry l "
+            + "USING (SELECT CAST(:eventId AS BIGINT) AS event_id, CAST(:participantId AS BIGINT) AS participant_id) d "
+            + "ON l.event_id = d.event_id AND l.participant_id = d.participant_id "
+            + "WHEN MATCHED THEN UPDATE SET paid_in_cents = l.paid_in_cents + :paid, "
+            + "owed_in_cents = l.owed_in_cents + :owed "
+            + "WHEN NOT MATCHED THEN INSERT (id, event_id, participant_id, paid_in_cents, owed_in_cents) "
+            + "VALUES (NEXT VALUE FOR ledger_entry_seq, d.event_id, d.participant_id, :paid, :owed)";
+
+    /**
+     * Finds the ledger entries of an event.
+     *
+     * @param eventId the id of the event
+     * @return the entries sorted by participant id
+     */
+    List<LedgerEntry> findByEventIdOrderByParticipantIdAsc(long eventId);
+
+    /**
+     * Adds amounts to the entry of a participant in one statement, so concurrent
+     * changes to the same entry can not overwrite each other. The entry is created in the
+     * same statement and transaction if the participant has none yet, see {@link #ADD_TO_ENTRY}.
+     *
+     * @param eventId the id of the event
+     * @param participantId the id of the participant
+     * @param paidInCents the amount to add to the paid total, may be negative
+     * @param owedInCents the amount to add to the owed total, may be negative
+     * @return the number of updated or inserted entries, always 1
+     */
+    @Modifying
+    @Query(value = ADD_TO_ENTRY, nativeQuery = true)
+    int addToEntry(@Param("eventId") long eventId, @Param("participantId") long participantId,
+                   @Param("paid") long paidInCents, @Param("owed") long owedInCents);
+
+    /**
+     * Deletes the ledger entries of an event.
+     *
+     * @param eventId the id of the event
+     */
+    @Modifying
+    @Query("DELETE FROM LedgerEntry l WHERE l.eventId = :eventId")
+    void deleteByEventId(@Param("eventId") long eventId);
+}
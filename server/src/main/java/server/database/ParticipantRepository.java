@@ -1,6 +1,7 @@
 package server.database;
 
 import commons.Participant;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
@@ -73,4 +74,12 @@ public interface ParticipantRepository extends JpaRepository<Participant, Long>
      * @return a list of participants with the specified language preference
      */
     List<Participant> findByLanguageChoice(String languageChoice);
+
+    /**
+     * Find a page of participants, sorted by id, that come after the given id.
+     * @param afterId the id of the last participant of the previous page
+     * @param pageable the size of the page
+     * @return a list of participants
+     */
+    List<Participant> findByIdGreaterThanOrderByIdAsc(long afterId, Pageable pageable);
 }
@@ -0,0 +1,93 @@
+-- The schema Hibernate created with ddl-auto=update before the migrations were introduced.
+-- Databases that already have these tables are baselined at this version and only get the later migrations,
+-- so this script must never change. Later changes of the entities get a migration of their own.
+
+CREATE SEQUENCE debt_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE event_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE expense_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE participant_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE participant (
+    id BIGINT NOT NULL,
+    username VARCHAR(255),
+    first_name VARCHAR(255),
+    last_name VARCHAR(255),
+    email VARCHAR(255),
+    iban VARCHAR(255),
+    bic VARCHAR(255),
+    language_choice VARCHAR(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE event (
+    id BIGINT NOT NULL,
+    title VARCHAR(255),
+    invite_code BIGINT NOT NULL,
+    creation_date TIMESTAMP(0),
+    last_activity TIMESTAMP(0),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE expense (
+    id BIGINT NOT NULL,
+    participant_id BIGINT,
+    category VARCHAR(255),
+    amount DOUBLE PRECISION NOT NULL,
+    currency VARCHAR(255),
+    date VARCHAR(255),
+    expense_type VARCHAR(255),
+    event_id BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_expense_participant FOREIGN KEY (participant_id) REFERENCES participant (id)
+);
+
+CREATE TABLE debt (
+    id BIGINT NOT NULL,
+    debtor_id BIGINT,
+    lender_id BIGINT,
+    amount_of_money DOUBLE PRECISION NOT NULL,
+    debt_collective BOOLEAN NOT NULL,
+    description VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_debt_debtor FOREIGN KEY (debtor_id) REFERENCES participant (id),
+    CONSTRAINT fk_debt_lender FOREIGN KEY (lender_id) REFERENCES participant (id)
+);
+
+CREATE TABLE event_people (
+    event_id BIGINT NOT NULL,
+    people_id BIGINT NOT NULL,
+    CONSTRAINT uk_event_people_people UNIQUE (people_id),
+    CONSTRAINT fk_event_people_event FOREIGN KEY (event_id) REFERENCES event (id),
+    CONSTRAINT fk_event_people_people FOREIGN KEY (people_id) REFERENCES participant (id)
+);
+
+CREATE TABLE event_expenses (
+    event_id BIGINT NOT NULL,
+    expenses_id BIGINT NOT NULL,
+    CONSTRAINT uk_event_expenses_expenses UNIQUE (expenses_id),
+    CONSTRAINT fk_event_expenses_event FOREIGN KEY (event_id) REFERENCES event (id),
+    CONSTRAINT fk_event_expenses_expenses FOREIGN KEY (expenses_id) REFERENCES expense (id)
+);
+
+CREATE TABLE expense_splitting_option (
+    expense_id BIGINT NOT NULL,
+    participant_id BIGINT NOT NULL,
+    CONSTRAINT fk_expense_splitting_option_expense FOREIGN KEY (expense_id) REFERENCES expense (id),
+    CONSTRAINT fk_expense_splitting_option_participant FOREIGN KEY (participant_id) REFERENCES participant (id)
+);
+
+CREATE TABLE participant_event_ids (
+    participant_id BIGINT NOT NULL,
+    event_ids BIGINT,
+    CONSTRAINT fk_participant_event_ids_participant FOREIGN KEY (participant_id) REFERENCES participant (id)
+);
+
+-- owedAmount and payedAmount of a participant are both mapped to this table
+CREATE TABLE participant_owed_amount (
+    participant_id BIGINT NOT NULL,
+    event_id BIGINT NOT NULL,
+    owed_amount DOUBLE PRECISION,
+    PRIMARY KEY (participant_id, event_id),
+    CONSTRAINT fk_participant_owed_amount_participant FOREIGN KEY (participant_id) REFERENCES participant (id),
+    CONSTRAINT fk_participant_owed_amount_event FOREIGN KEY (event_id) REFERENCES event (id)
+);
@@ -0,0 +1,29 @@
+-- Indexes for the columns the repositories search on, and for the columns of the join tables.
+-- IF NOT EXISTS since some databases already create an index for every foreign key.
+
+-- invite codes are random, but two events must never share one
+CREATE UNIQUE INDEX IF NOT EXISTS ux_event_invite_code ON event (invite_code);
+CREATE INDEX IF NOT EXISTS ix_event_title ON event (title);
+
+CREATE INDEX IF NOT EXISTS ix_participant_username ON participant (username);
+CREATE INDEX IF NOT EXISTS ix_participant_email ON participant (email);
+CREATE INDEX IF NOT EXISTS ix_participant_iban ON participant (iban);
+CREATE INDEX IF NOT EXISTS ix_participant_first_name ON participant (first_name);
+CREATE INDEX IF NOT EXISTS ix_participant_last_name ON participant (last_name);
+CREATE INDEX IF NOT EXISTS ix_participant_language_choice ON participant (language_choice);
+
+CREATE INDEX IF NOT EXISTS ix_expense_event_id ON expense (event_id);
+CREATE INDEX IF NOT EXISTS ix_expense_participant_id ON expense (participant_id);
+CREATE INDEX IF NOT EXISTS ix_expense_date ON expense (date);
+
+CREATE INDEX IF NOT EXISTS ix_debt_debtor_id ON debt (debtor_id);
+CREATE INDEX IF NOT EXISTS ix_debt_lender_id ON debt (lender_id);
+
+CREATE INDEX IF NOT EXISTS ix_event_people_event_id ON event_people (event_id);
+CREATE INDEX IF NOT EXISTS ix_event_expenses_event_id ON event_expenses (event_id);
+CREATE INDEX IF NOT EXISTS ix_expense_splitting_option_expense_id ON expense_splitting_option (expense_id);
+CREATE INDEX IF NOT EXISTS ix_expense_splitting_option_participant_id ON expense_splitting_option (participant_id);
+-- the participants of an event are found through this table
+CREATE INDEX IF NOT EXISTS ix_participant_event_ids_event_ids ON participant_event_ids (event_ids);
+CREATE INDEX IF NOT EXISTS ix_participant_event_ids_participant_id ON participant_event_ids (participant_id);
+CREATE INDEX IF NOT EXISTS ix_participant_owed_amount_event_id ON participant_owed_amount (event_id);
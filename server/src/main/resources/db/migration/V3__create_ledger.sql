@@ -0,0 +1,14 @@
+-- The paid and owed totals of every participant of every event, see LedgerEntry.
+-- The ledger of events that already exist is filled from their expenses when the server starts, see MigrationConfig.
+
+CREATE SEQUENCE ledger_entry_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE ledger_entry (
+    id BIGINT NOT NULL,
+    event_id BIGINT NOT NULL,
+    participant_id BIGINT NOT NULL,
+    paid_in_cents BIGINT NOT NULL,
+    owed_in_cents BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_ledger_entry_event_participant UNIQUE (event_id, participant_id)
+);
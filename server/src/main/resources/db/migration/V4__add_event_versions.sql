@@ -0,0 +1,36 @@
+-- The version of every event and the log of its changes, see ChangeLogEntry. Clients ask for the changes
+-- after the version they have, so the participants and expenses that already exist are logged as inserted,
+-- participants before expenses, and every event starts at the number of its changes.
+
+CREATE SEQUENCE change_log_entry_seq START WITH 1 INCREMENT BY 50;
+
+ALTER TABLE event ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+
+CREATE TABLE change_log_entry (
+    id BIGINT NOT NULL,
+    event_id BIGINT NOT NULL,
+    version BIGINT NOT NULL,
+    entity_type VARCHAR(255),
+    entity_id BIGINT NOT NULL,
+    kind VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_change_log_entry_event_version UNIQUE (event_id, version)
+);
+
+-- every row takes its own value of the sequence, Hibernate never hands out an id from the block of a value
+-- it did not get from the sequence itself
+INSERT INTO change_log_entry (id, event_id, version, entity_type, entity_id, kind)
+SELECT NEXT VALUE FOR change_log_entry_seq, event_id, version, entity_type, entity_id, 'INSERTED'
+FROM (
+    SELECT event_id, ROW_NUMBER() OVER (PARTITION BY event_id ORDER BY entity_order, entity_id) AS version,
+           entity_type, entity_id
+    FROM (
+        SELECT p.event_ids AS event_id, 0 AS entity_order, 'PARTICIPANT' AS entity_type, p.participant_id AS entity_id
+        FROM participant_event_ids p JOIN event e ON e.id = p.event_ids
+        UNION
+        SELECT x.event_id, 1, 'EXPENSE', x.id
+        FROM expense x JOIN event e ON e.id = x.event_id
+    ) existing
+) numbered;
+
+UPDATE event SET version = (SELECT COUNT(*) FROM change_log_entry c WHERE c.event_id = event.id);
@@ -0,0 +1,21 @@
+-- Amounts of expenses and debts are kept in cents, see Money. The owed and paid amounts of participants
+-- are kept as text with their currency, see MoneyConverter, the amounts from before were all in euros.
+-- The doubles are converted through their shortest text, like BigDecimal.valueOf in Money.toMinorUnits, and
+-- rounded half up as decimals: multiplied as doubles, 0.285 would become 28 cents instead of 29.
+
+ALTER TABLE expense ADD COLUMN amount_in_cents BIGINT;
+UPDATE expense SET amount_in_cents = ROUND(CAST(CAST(amount AS VARCHAR(255)) AS DECIMAL(38, 20)) * 100);
+ALTER TABLE expense ALTER COLUMN amount_in_cents SET NOT NULL;
+ALTER TABLE expense DROP COLUMN amount;
+
+ALTER TABLE debt ADD COLUMN amount_in_cents BIGINT;
+UPDATE debt SET amount_in_cents = ROUND(CAST(CAST(amount_of_money AS VARCHAR(255)) AS DECIMAL(38, 20)) * 100);
+ALTER TABLE debt ALTER COLUMN amount_in_cents SET NOT NULL;
+ALTER TABLE debt DROP COLUMN amount_of_money;
+
+ALTER TABLE participant_owed_amount ADD COLUMN owed_amount_text VARCHAR(255);
+UPDATE participant_owed_amount SET owed_amount_text = CAST(CAST(CAST(CAST(owed_amount AS VARCHAR(255))
+    AS DECIMAL(38, 20)) AS DECIMAL(19, 2)) AS VARCHAR(255)) || ' EUR'
+WHERE owed_amount IS NOT NULL;
+ALTER TABLE participant_owed_amount DROP COLUMN owed_amount;
+ALTER TABLE participant_owed_amount ALTER COLUMN owed_amount_text RENAME TO owed_amount;
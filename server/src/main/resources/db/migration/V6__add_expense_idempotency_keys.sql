@@ -0,0 +1,4 @@
+-- The key a client chooses for an expense it may send more than once, see EventService.addExpensesToEvent.
+-- Expenses added before this migration have none.
+ALTER TABLE expense ADD COLUMN idempotency_key VARCHAR(255);
+CREATE UNIQUE INDEX ux_expense_idempotency_key ON expense (idempotency_key);
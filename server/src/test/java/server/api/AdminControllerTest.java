@@ -0,0 +1,161 @@
+package server.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import commons.Event;
+import commons.EventSummary;
+import org.hibernate.service.spi.ServiceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import server.ExportService;
+import server.ImportService;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AdminControllerTest {
+    @Mock
+    private ImportService importService;
+    @Mock
+    private ExportService exportService;
+    private ObjectMapper objectMapper;
+    private AdminController adminController;
+    private List<EventSummary> summaries;
+    // the events of every import, the service reads them while the body is open
+    private List<List<Event>> imported;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        adminController = new AdminController(importService, exportService, objectMapper);
+        summaries = List.of(new EventSummary());
+        imported = new ArrayList<>();
+        when(importService.importEvents(any())).thenAnswer(invocation -> {
+            List<Event> events = new ArrayList<>();
+            invocation.<Iterator<Event>>getArgument(0).forEachRemaining(events::add);
+            imported.add(events);
+            return summaries;
+        });
+    }
+
+    @Test
+    void importReadsOneEvent() throws Exception {
+        ResponseEntity<?> response = adminController.importEvents(
+                body(objectMapper.writeValueAsString(new Event("Trip"))), null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(summaries, response.getBody());
+        assertEquals(1, imported.size());
+        assertEquals(1, imported.get(0).size());
+        assertEquals("Trip", imported.get(0).get(0).getTitle());
+    }
+
+    @Test
+    void importReadsAnArrayAndLines() throws Exception {
+        String array = objectMapper.writeValueAsString(List.of(new Event("First"), new Event("Second")));
+        String lines = objectMapper.writeValueAsString(new Event("First")) + "\n"
+                + objectMapper.writeValueAsString(new Event("Second")) + "\n";
+
+        adminController.importEvents(body(array), null);
+        adminController.importEvents(body(lines), null);
+
+        assertEquals(2, imported.size());
+        for (List<Event> events : imported) {
+            assertEquals(2, events.size());
+            assertEquals("Second", events.get(1).getTitle());
+        }
+    }
+
+    @Test
+    void importInvalidJson() {
+        ResponseEntity<?> response = adminController.importEvents(body("{\"title\":\"Trip\"}\n{\"title\""), null);
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertTrue(response.getBody().toString().contains("after 1 events"));
+        assertTrue(imported.isEmpty());
+    }
+
+    @Test
+    void importErrors() {
+        when(importService.importEvents(any())).thenThrow(new IllegalArgumentException("no events"));
+        assertEquals(HttpStatus.BAD_REQUEST, adminController.importEvents(body(""), null).getStatusCode());
+
+        reset(importService);
+        when(importService.importEvents(any())).thenThrow(new ServiceException("Database error"));
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR,
+                adminController.importEvents(body("{\"title\":\"Trip\"}"), null).getStatusCode());
+    }
+
+    @Test
+    void importReadsACompressedExport() throws Exception {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write((objectMapper.writeValueAsString(new Event("Trip")) + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+
+        ResponseEntity<?> response = adminController.importEvents(
+                new ByteArrayInputStream(compressed.toByteArray()), "gzip");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, imported.get(0).size());
+    }
+
+    @Test
+    void exportStreamsTheEvents() throws Exception {
+        when(exportService.exportEvents(any())).thenAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            out.write("{\"title\":\"Trip\"}\n".getBytes(StandardCharsets.UTF_8));
+            return 1;
+        });
+
+        ResponseEntity<StreamingResponseBody> response = adminController.exportEvents(false);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        assertTrue(response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION).contains("splitty-events.ndjson"));
+        assertEquals("{\"title\":\"Trip\"}\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void exportCompressesTheEvents() throws Exception {
+        when(exportService.exportEvents(any())).thenAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            out.write("{\"title\":\"Trip\"}\n".getBytes(StandardCharsets.UTF_8));
+            return 1;
+        });
+
+        ResponseEntity<StreamingResponseBody> response = adminController.exportEvents(true);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        assertEquals("application/gzip", response.getHeaders().getContentType().toString());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            assertEquals("{\"title\":\"Trip\"}\n", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private static ByteArrayInputStream body(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,69 @@
+package server.api;
+
+import commons.EventChanges;
+import org.hibernate.service.spi.ServiceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import server.ChangeLogService;
+
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+class ChangeLogControllerTest {
+
+    @Mock
+    private ChangeLogService changeLogService;
+    @InjectMocks
+    private ChangeLogController changeLogController;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void getChangesTest() {
+        EventChanges changes = new EventChanges(1L, 2L, 5L, "Trip");
+        when(changeLogService.changesSince(1L, 2L)).thenReturn(changes);
+
+        ResponseEntity<?> response = changeLogController.getChanges(1L, 2L);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(changes, response.getBody());
+    }
+
+    @Test
+    void getChangesInvalidVersion() {
+        when(changeLogService.changesSince(1L, -1L)).thenThrow(new IllegalArgumentException("negative"));
+        assertEquals(HttpStatus.BAD_REQUEST, changeLogController.getChanges(1L, -1L).getStatusCode());
+    }
+
+    @Test
+    void getChangesEventNotFound() {
+        when(changeLogService.changesSince(1L, 0L)).thenThrow(new NoSuchElementException("Event not found with ID: 1"));
+        assertEquals(HttpStatus.NOT_FOUND, changeLogController.getChanges(1L, 0L).getStatusCode());
+    }
+
+    @Test
+    void getChangesClientAhead() {
+        when(changeLogService.changesSince(1L, 9L)).thenThrow(new IllegalStateException("ahead"));
+        assertEquals(HttpStatus.CONFLICT, changeLogController.getChanges(1L, 9L).getStatusCode());
+    }
+
+    @Test
+    void getChangesError() {
+        when(changeLogService.changesSince(1L, 0L)).thenThrow(new ServiceException("Database error"));
+
+        ResponseEntity<?> response = changeLogController.getChanges(1L, 0L);
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertEquals("Failed to retrieve the changes: Database error", response.getBody());
+    }
+}
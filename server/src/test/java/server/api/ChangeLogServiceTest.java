@@ -0,0 +1,144 @@
+package server.api;
+
+import commons.ChangeLogEntry;
+import commons.ChangeLogEntry.EntityType;
+import commons.ChangeLogEntry.Kind;
+import commons.Event;
+import commons.EventChanges;
+import commons.Expense;
+import commons.Participant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import server.ChangeLogService;
+import server.database.ChangeLogRepository;
+import server.database.EventRepository;
+import server.database.ExpenseRepository;
+import server.database.ParticipantRepository;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ChangeLogServiceTest {
+
+    @Mock
+    private ChangeLogRepository changeLogRepository;
+    @Mock
+    private EventRepository eventRepository;
+    @Mock
+    private ParticipantRepository participantRepository;
+    @Mock
+    private ExpenseRepository expenseRepository;
+    @InjectMocks
+    private ChangeLogService changeLogService;
+    private Event event;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        event = new Event("Trip");
+        event.setId(1L);
+        event.setVersion(6L);
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(event));
+    }
+
+    @Test
+    void recordIncreasesVersion() {
+        when(eventRepository.incrementVersion(1L)).thenReturn(1);
+        when(eventRepository.versionOf(1L)).thenReturn(Optional.of(7L));
+
+        assertEquals(7L, changeLogService.record(1L, EntityType.EXPENSE, 3L, Kind.INSERTED));
+
+        verify(changeLogRepository).save(new ChangeLogEntry(1L, 7L, EntityType.EXPENSE, 3L, Kind.INSERTED));
+    }
+
+    @Test
+    void recordUnknownEvent() {
+        when(eventRepository.incrementVersion(2L)).thenReturn(0);
+
+        assertEquals(-1L, changeLogService.record(2L, EntityType.EXPENSE, 3L, Kind.INSERTED));
+
+        verify(changeLogRepository, never()).save(any());
+    }
+
+    @Test
+    void recordAllGivesEveryChangeAVersion() {
+        when(eventRepository.addToVersion(1L, 3L)).thenReturn(1);
+        when(eventRepository.versionOf(1L)).thenReturn(Optional.of(12L));
+
+        assertEquals(12L, changeLogService.recordAll(1L, EntityType.EXPENSE, List.of(4L, 5L, 6L), Kind.INSERTED));
+
+        verify(changeLogRepository).saveAll(List.of(
+                new ChangeLogEntry(1L, 10L, EntityType.EXPENSE, 4L, Kind.INSERTED),
+                new ChangeLogEntry(1L, 11L, EntityType.EXPENSE, 5L, Kind.INSERTED),
+                new ChangeLogEntry(1L, 12L, EntityType.EXPENSE, 6L, Kind.INSERTED)));
+        verify(eventRepository, never()).incrementVersion(anyLong());
+    }
+
+    @Test
+    void recordAllUnknownEvent() {
+        when(eventRepository.addToVersion(2L, 1L)).thenReturn(0);
+
+        assertEquals(-1L, changeLogService.recordAll(2L, EntityType.EXPENSE, List.of(4L), Kind.INSERTED));
+
+        verify(changeLogRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void changesSinceCollapsesChanges() {
+        Participant participant = new Participant();
+        participant.setId(20L);
+        Expense updated = new Expense();
+        updated.setId(10L);
+        Expense inserted = new Expense();
+        inserted.setId(11L);
+        when(changeLogRepository.findByEventIdAndVersionBetweenOrderByVersionAsc(1L, 1L, 6L)).thenReturn(List.of(
+                new ChangeLogEntry(1L, 1L, EntityType.EXPENSE, 10L, Kind.UPDATED),
+                new ChangeLogEntry(1L, 2L, EntityType.EXPENSE, 11L, Kind.INSERTED),
+                new ChangeLogEntry(1L, 3L, EntityType.EXPENSE, 11L, Kind.UPDATED),
+                new ChangeLogEntry(1L, 4L, EntityType.EXPENSE, 12L, Kind.INSERTED),
+                new ChangeLogEntry(1L, 5L, EntityType.EXPENSE, 12L, Kind.DELETED),
+                new ChangeLogEntry(1L, 6L, EntityType.PARTICIPANT, 20L, Kind.DELETED)));
+        when(expenseRepository.findAllById(List.of(10L))).thenReturn(List.of(updated));
+        when(expenseRepository.findAllById(List.of(11L))).thenReturn(List.of(inserted));
+
+        EventChanges changes = changeLogService.changesSince(1L, 0L);
+
+        assertEquals(6L, changes.getVersion());
+        assertEquals("Trip", changes.getTitle());
+        assertEquals(List.of(updated), changes.getUpdatedExpenses());
+        assertEquals(List.of(inserted), changes.getInsertedExpenses());
+        assertEquals(List.of(), changes.getDeletedExpenseIds());
+        assertEquals(List.of(20L), changes.getDeletedParticipantIds());
+        assertTrue(changes.getInsertedParticipants().isEmpty());
+    }
+
+    @Test
+    void changesSinceCurrentVersionIsEmpty() {
+        EventChanges changes = changeLogService.changesSince(1L, 6L);
+
+        assertFalse(changes.hasChanges());
+        verifyNoInteractions(changeLogRepository);
+    }
+
+    @Test
+    void changesSinceInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> changeLogService.changesSince(1L, -1L));
+        assertThrows(IllegalStateException.class, () -> changeLogService.changesSince(1L, 7L));
+        when(eventRepository.findById(2L)).thenReturn(Optional.empty());
+        assertThrows(NoSuchElementException.class, () -> changeLogService.changesSince(2L, 0L));
+    }
+
+    @Test
+    void eventDeletedDeletesChanges() {
+        changeLogService.eventDeleted(1L);
+        verify(changeLogRepository).deleteByEventId(1L);
+    }
+}
@@ -1,6 +1,7 @@
 package server.api;
 
 import commons.Debt;
+import commons.KeysetPage;
 import org.hibernate.service.spi.ServiceException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -8,6 +9,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Pageable;
 import server.DebtService;
 import server.database.DebtRepository;
 
@@ -211,15 +213,15 @@ public class DebtServiceTest {
         double amount = 100.00;
         List<Debt> expectedDebts = Arrays.asList(new Debt(), new Debt());
 
-        when(debtRepository.costlierDebts(amount)).thenReturn(expectedDebts);
+        when(debtRepository.costlierDebts(10000L)).thenReturn(expectedDebts);
         List<Debt> result = debtService.findCostlierDebts(amount);
         assertEquals(expectedDebts, result);
-        verify(debtRepository).costlierDebts(amount);
+        verify(debtRepository).costlierDebts(10000L);
     }
 
     @Test
     void testFindCostlierDebtsServiceException() {
-        when(debtRepository.costlierDebts(anyDouble())).thenThrow(new RuntimeException("Data access error"));
+        when(debtRepository.costlierDebts(anyLong())).thenThrow(new RuntimeException("Data access error"));
 
         ServiceException exception = assertThrows(ServiceException.class, () -> debtService.findCostlierDebts(anyDouble()));
         assertEquals("Error finding costlier debts", exception.getMessage());
@@ -230,15 +232,15 @@ public class DebtServiceTest {
         double amount = 50.00;
         List<Debt> expectedDebts = Arrays.asList(new Debt(), new Debt());
 
-        when(debtRepository.cheaperDebts(amount)).thenReturn(expectedDebts);
+        when(debtRepository.cheaperDebts(5000L)).thenReturn(expectedDebts);
         List<Debt> result = debtService.findCheaperDebts(amount);
         assertEquals(expectedDebts, result);
-        verify(debtRepository).cheaperDebts(amount);
+        verify(debtRepository).cheaperDebts(5000L);
     }
 
     @Test
     void testFindCheaperDebtsServiceException() {
-        when(debtRepository.cheaperDebts(anyDouble())).thenThrow(new RuntimeException("Data access error"));
+        when(debtRepository.cheaperDebts(anyLong())).thenThrow(new RuntimeException("Data access error"));
 
         ServiceException exception = assertThrows(ServiceException.class, () -> debtService.findCheaperDebts(anyDouble()));
         assertEquals("Error finding cheaper debts", exception.getMessage());
@@ -316,4 +318,17 @@ public class DebtServiceTest {
         assertEquals("Amount must not be negative", exception.getMessage());
     }
 
+    @Test
+    void testFindDebtPage() {
+        Debt debt = new Debt();
+        when(debtRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class))).thenReturn(List.of(debt));
+        KeysetPage<Debt> page = debtService.findDebtPage(null, null);
+        assertEquals(List.of(debt), page.getItems());
+    }
+
+    @Test
+    void testFindDebtPageInvalidLimit() {
+        assertThrows(IllegalArgumentException.class, () -> debtService.findDebtPage(null, 0));
+        verifyNoInteractions(debtRepository);
+    }
 }
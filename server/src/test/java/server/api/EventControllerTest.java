@@ -1,6 +1,11 @@
 package server.api;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import commons.Event;
+import commons.EventStatistics;
+import commons.EventSummary;
+import commons.EventTopics;
+import commons.KeysetPage;
 import commons.Expense;
 import commons.Participant;
 import commons.ParticipantDeletionRequest;
@@ -10,15 +15,21 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.context.request.async.DeferredResult;
 import server.EventService;
+import server.LongPollRegistry;
 
-import java.lang.reflect.Field;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.util.concurrent.TimeUnit;
-import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -27,13 +38,23 @@ import static org.mockito.Mockito.*;
 public class EventControllerTest {
     @Mock
     private EventService eventService;
+    @Spy
+    private LongPollRegistry<Participant> participantUpdates = new LongPollRegistry<>(2);
+    @Mock
+    private SimpMessagingTemplate template;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
     @InjectMocks
     private EventController eventController;
     private Participant participant;
+    private MockHttpServletRequest httpRequest;
+    private ServletWebRequest request;
 
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
+        httpRequest = new MockHttpServletRequest("GET", "/api/events/1");
+        request = new ServletWebRequest(httpRequest, new MockHttpServletResponse());
         participant = new Participant();
         participant.setId(1L);
         participant.setFirstName("Test");
@@ -45,19 +66,44 @@ public class EventControllerTest {
         Event expectedEvent = new Event();
         when(eventService.findEventById(1L)).thenReturn(Optional.of(expectedEvent));
 
-        ResponseEntity<?> responseEntity = eventController.getEventById(1L);
+        ResponseEntity<?> responseEntity = eventController.getEventById(1L, request);
         assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
         assertEquals(expectedEvent, responseEntity.getBody());
 
         verify(eventService, times(1)).findEventById(1L);
     }
 
+    @Test
+    void testGetEventByIdIsTaggedWithTheVersion() {
+        Event expectedEvent = new Event();
+        when(eventService.findVersionById(1L)).thenReturn(Optional.of(4L));
+        when(eventService.findEventById(1L)).thenReturn(Optional.of(expectedEvent));
+
+        ResponseEntity<?> responseEntity = eventController.getEventById(1L, request);
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals("W/\"4\"", responseEntity.getHeaders().getETag());
+        assertEquals(List.of(HttpHeaders.ACCEPT), responseEntity.getHeaders().getVary());
+        assertEquals(expectedEvent, responseEntity.getBody());
+    }
+
+    @Test
+    void testGetEventByIdNotModified() {
+        when(eventService.findVersionById(1L)).thenReturn(Optional.of(4L));
+        httpRequest.addHeader(HttpHeaders.IF_NONE_MATCH, "W/\"4\"");
+
+        ResponseEntity<?> responseEntity = eventController.getEventById(1L, request);
+        assertEquals(HttpStatus.NOT_MODIFIED, responseEntity.getStatusCode());
+        assertNull(responseEntity.getBody());
+
+        verify(eventService, never()).findEventById(anyLong());
+    }
+
     @Test
     void testGetEventByIdNotFound() {
         long eventId = 1L;
         when(eventService.findEventById(eventId)).thenReturn(Optional.empty());
 
-        ResponseEntity<?> responseEntity = eventController.getEventById(eventId);
+        ResponseEntity<?> responseEntity = eventController.getEventById(eventId, request);
         assertEquals(HttpStatus.NOT_FOUND, responseEntity.getStatusCode());
         assertEquals("Event not found with ID: " + eventId, responseEntity.getBody());
 
@@ -67,7 +113,7 @@ public class EventControllerTest {
     @Test
     void testGetEventByInvalidId() {
         long eventId = -1L;
-        ResponseEntity<?> responseEntity = eventController.getEventById(eventId);
+        ResponseEntity<?> responseEntity = eventController.getEventById(eventId, request);
         assertEquals(HttpStatus.NOT_FOUND, responseEntity.getStatusCode());
     }
 
@@ -75,36 +121,41 @@ public class EventControllerTest {
     void testGetEventByIdIllegalArgumentException() {
         when(eventService.findEventById(anyLong())).thenThrow(new IllegalArgumentException("Invalid ID"));
 
-        ResponseEntity<?> response = eventController.getEventById(anyLong());
+        ResponseEntity<?> response = eventController.getEventById(anyLong(), request);
 
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertEquals("Invalid ID", response.getBody());
     }
 
     @Test
-    void testGetParticipantUpdatesByEventId() throws InterruptedException {
-        long eventId = 1L;
-        Participant participant = new Participant();
-        var listeners = new HashMap<Object, Consumer<Participant>>();
-        try {
-            Field listenersField = EventController.class.getDeclaredField("listeners");
-            listenersField.setAccessible(true);
-            listenersField.set(eventController, listeners);
-        } catch (NoSuchFieldException | IllegalAccessException e) {
-            e.printStackTrace();
-        }
-
-        DeferredResult<ResponseEntity<Participant>> result = eventController.getParticipantUpdatesByEventId(eventId);
-        var key = new Object();
-        listeners.put(key, participantValue -> result.setResult(ResponseEntity.ok(participantValue)));
-
-        TimeUnit.SECONDS.sleep(1);
-        result.onCompletion(() -> {
-            ResponseEntity<Participant> responseEntity = (ResponseEntity<Participant>) result.getResult();
-            assert responseEntity != null;
-            assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
-            assertEquals(participant, responseEntity.getBody());
-        });
+    void testGetParticipantUpdatesByEventId() {
+        Participant added = new Participant("Lewis", "Hamilton");
+        when(eventService.addParticipantToEvent(1L, added)).thenReturn(added);
+
+        DeferredResult<ResponseEntity<Participant>> result = eventController.getParticipantUpdatesByEventId(1L);
+        DeferredResult<ResponseEntity<Participant>> otherEvent = eventController.getParticipantUpdatesByEventId(2L);
+        assertEquals(1, participantUpdates.openPolls(1L));
+
+        eventController.addParticipant(1L, added);
+
+        ResponseEntity<Participant> responseEntity = (ResponseEntity<Participant>) result.getResult();
+        assertNotNull(responseEntity);
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals(added, responseEntity.getBody());
+        assertFalse(otherEvent.hasResult());
+    }
+
+    @Test
+    void testGetParticipantUpdatesTooManyPolls() {
+        eventController.getParticipantUpdatesByEventId(1L);
+        eventController.getParticipantUpdatesByEventId(1L);
+
+        DeferredResult<ResponseEntity<Participant>> rejected = eventController.getParticipantUpdatesByEventId(1L);
+
+        ResponseEntity<Participant> responseEntity = (ResponseEntity<Participant>) rejected.getResult();
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, responseEntity.getStatusCode());
+        assertEquals(2, participantUpdates.openPolls(1L));
+        assertEquals(1L, eventController.getParticipantUpdateMetrics().get("rejectedPolls"));
     }
 
     @Test
@@ -112,7 +163,7 @@ public class EventControllerTest {
         long eventId = 1L;
         when(eventService.findEventById(eventId)).thenThrow(new ServiceException("Service exception"));
 
-        ResponseEntity<?> responseEntity = eventController.getEventById(eventId);
+        ResponseEntity<?> responseEntity = eventController.getEventById(eventId, request);
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, responseEntity.getStatusCode());
 
         verify(eventService, times(1)).findEventById(eventId);
@@ -204,6 +255,26 @@ public class EventControllerTest {
         assertEquals(expectedEvents, result);
     }
 
+    @Test
+    public void testGetEventSummaries() {
+        List<EventSummary> summaries = List.of(new EventSummary(1L, "Event 1", 1L, null, null, 0, 0));
+        when(eventService.getEventSummaries()).thenReturn(summaries);
+
+        ResponseEntity<?> response = eventController.getEventSummaries();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(summaries, response.getBody());
+    }
+
+    @Test
+    public void testGetEventSummariesServiceException() {
+        when(eventService.getEventSummaries()).thenThrow(new ServiceException("Service exception"));
+
+        ResponseEntity<?> response = eventController.getEventSummaries();
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+    }
+
     @Test
     public void testCreateEvent() {
         Event eventToCreate = new Event("New Event");
@@ -226,6 +297,7 @@ public class EventControllerTest {
         assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
 
         verify(eventService, times(1)).updateEventTitle(1L, "new");
+        verify(template).convertAndSend(EventTopics.of(1L, EventTopics.TITLE), responseEntity.getBody());
     }
 
     @Test
@@ -238,6 +310,7 @@ public class EventControllerTest {
         assertEquals("Failed to update event title: Update failed", responseEntity.getBody());
 
         verify(eventService, times(1)).updateEventTitle(1L, "new");
+        verifyNoInteractions(template);
     }
 
     @Test
@@ -257,7 +330,7 @@ public class EventControllerTest {
         participants.add(new Participant("ab", "cd"));
         when(eventService.findParticipantsByEventId(anyLong())).thenReturn(participants);
 
-        ResponseEntity<List<Participant>> responseEntity = eventController.getParticipantsByEventId(1L);
+        ResponseEntity<List<Participant>> responseEntity = eventController.getParticipantsByEventId(1L, request);
         assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
         assertEquals(participants, responseEntity.getBody());
 
@@ -272,6 +345,7 @@ public class EventControllerTest {
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(participant, response.getBody());
         verify(eventService).addParticipantToEvent(1L, participant);
+        verify(template).convertAndSend(EventTopics.of(1L, EventTopics.PARTICIPANTS), participant);
     }
 
     @Test
@@ -282,6 +356,7 @@ public class EventControllerTest {
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
         assertNull(response.getBody());
         verify(eventService).addParticipantToEvent(1L, participant);
+        verifyNoInteractions(template);
     }
 
     @Test
@@ -329,28 +404,54 @@ public class EventControllerTest {
         verify(eventControllerMock).updateParticipantInEvent(1L, 1L, new Participant());
     }
 
-//    @Test
-//    public void testRemoveParticipantWebSockets() {
-//        ParticipantDeletionRequest request = new ParticipantDeletionRequest(1L, 2L);
-//        Participant expectedParticipant = new Participant();
-//        when(eventService.removeParticipantFromEvent(request.getEventId(), request.getParticipantId())).thenReturn(expectedParticipant);
-//        Participant result = eventController.removeParticipantWebSockets(request);
-//        assertEquals(expectedParticipant, result);
-//    }
+    @Test
+    public void testRemoveParticipantWebSockets() {
+        ParticipantDeletionRequest request = new ParticipantDeletionRequest(1L, 2L);
+        when(eventService.removeParticipantFromEvent(1L, 2L)).thenReturn(participant);
+
+        eventController.removeParticipantWebSockets(request);
+
+        verify(template).convertAndSend("/topic/events/1/participantDeletion", participant);
+    }
 
     @Test
     void testGetExpensesByEventId() {
         when(eventService.findExpensesByEventId(1L)).thenReturn(List.of(new Expense()));
-        ResponseEntity<?> response = eventController.getExpensesByEventId(1L);
+        ResponseEntity<?> response = eventController.getExpensesByEventId(1L, request);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(List.of(new Expense()), response.getBody());
     }
 
+    @Test
+    void testGetExpensesByEventIdNotModified() {
+        when(eventService.findVersionById(1L)).thenReturn(Optional.of(4L));
+        httpRequest.addHeader(HttpHeaders.IF_NONE_MATCH, "W/\"4\"");
+
+        ResponseEntity<?> response = eventController.getExpensesByEventId(1L, request);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        verify(eventService, never()).findExpensesByEventId(anyLong());
+    }
+
+    @Test
+    void testGetParticipantsByEventIdAfterAChange() {
+        List<Participant> participants = List.of(participant);
+        when(eventService.findVersionById(1L)).thenReturn(Optional.of(5L));
+        when(eventService.findParticipantsByEventId(1L)).thenReturn(participants);
+        httpRequest.addHeader(HttpHeaders.IF_NONE_MATCH, "W/\"4\"");
+
+        ResponseEntity<List<Participant>> response = eventController.getParticipantsByEventId(1L, request);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("W/\"5\"", response.getHeaders().getETag());
+        assertEquals(participants, response.getBody());
+    }
+
     @Test
     void testGetExpensesByEventIdNothingFound() {
         when(eventService.findExpensesByEventId(1L)).thenReturn(new ArrayList<>());
-        ResponseEntity<?> response = eventController.getExpensesByEventId(1L);
+        ResponseEntity<?> response = eventController.getExpensesByEventId(1L, request);
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
     }
@@ -359,7 +460,7 @@ public class EventControllerTest {
     public void getEventByIdNotFoundCase() {
         long eventId = 2L;
         when(eventService.findEventById(eventId)).thenReturn(Optional.empty());
-        ResponseEntity<?> response = eventController.getEventById(eventId);
+        ResponseEntity<?> response = eventController.getEventById(eventId, request);
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
         assertEquals("Event not found with ID: " + eventId, response.getBody());
@@ -405,6 +506,7 @@ public class EventControllerTest {
         assertNotNull(response.getBody());
         assertEquals("Lunch", response.getBody().getExpenseType());
         verify(eventService).addExpenseToEvent(eq(eventId), any(Expense.class));
+        verify(template).convertAndSend(EventTopics.of(eventId, EventTopics.EXPENSES), expense);
     }
 
     @Test
@@ -412,6 +514,97 @@ public class EventControllerTest {
         when(eventService.addExpenseToEvent(1L, new Expense())).thenReturn(null);
         ResponseEntity<Expense> response = eventController.addExpense(1L, new Expense());
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        verifyNoInteractions(template);
+    }
+
+    @Test
+    void addExpensesReturnsTheIds() {
+        Expense first = new Expense();
+        first.setId(10L);
+        Expense second = new Expense();
+        second.setId(11L);
+        List<Expense> expenses = List.of(first, second);
+        when(eventService.addExpensesToEvent(1L, expenses)).thenReturn(expenses);
+
+        ResponseEntity<?> response = eventController.addExpenses(1L, expenses);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(10L, 11L), response.getBody());
+        verify(template).convertAndSend(EventTopics.of(1L, EventTopics.EXPENSES), first);
+        verify(template).convertAndSend(EventTopics.of(1L, EventTopics.EXPENSES), second);
+    }
+
+    @Test
+    void addExpensesDoesNotBroadcastExpensesThatWereSentBefore() {
+        Expense sent = new Expense();
+        sent.setId(10L);
+        Expense again = new Expense();
+        again.setIdempotencyKey("a");
+        Expense fresh = new Expense();
+        fresh.setId(11L);
+        List<Expense> expenses = List.of(again, fresh);
+        when(eventService.addExpensesToEvent(1L, expenses)).thenReturn(List.of(sent, fresh));
+
+        ResponseEntity<?> response = eventController.addExpenses(1L, expenses);
+
+        assertEquals(List.of(10L, 11L), response.getBody());
+        verify(template).convertAndSend(EventTopics.of(1L, EventTopics.EXPENSES), fresh);
+        verify(template, never()).convertAndSend(EventTopics.of(1L, EventTopics.EXPENSES), sent);
+    }
+
+    @Test
+    void addExpensesNdjsonReadsEveryLine() {
+        String body = "{\"amount\":12.5,\"expenseType\":\"dinner\",\"participant\":{\"id\":2}}\n"
+                + "\n{\"amount\":3,\"expenseType\":\"train\",\"unknown\":true}\n";
+        when(eventService.addExpensesToEvent(eq(1L), anyList())).thenAnswer(invocation -> {
+            List<Expense> expenses = invocation.getArgument(1);
+            for (int i = 0; i < expenses.size(); i++) {
+                expenses.get(i).setId(20L + i);
+            }
+            return expenses;
+        });
+
+        ResponseEntity<?> response = eventController.addExpensesNdjson(1L,
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(20L, 21L), response.getBody());
+        verify(eventService).addExpensesToEvent(eq(1L), argThat(expenses -> expenses.size() == 2
+                && expenses.get(0).getAmountInCents() == 1250
+                && expenses.get(0).getParticipant().getId() == 2L
+                && "train".equals(expenses.get(1).getExpenseType())));
+    }
+
+    @Test
+    void addExpensesNdjsonInvalidLine() {
+        String body = "{\"amount\":12.5}\n{\"amount\":\n";
+
+        ResponseEntity<?> response = eventController.addExpensesNdjson(1L,
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(eventService);
+    }
+
+    @Test
+    void addExpensesNdjsonStopsReadingAnOversizedBatch() {
+        // the broken last line is never read
+        String body = "{\"amount\":1}\n".repeat(EventService.MAX_BATCH_SIZE + 1) + "{\"amount\":\n";
+
+        ResponseEntity<?> response = eventController.addExpensesNdjson(1L,
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertTrue(response.getBody().toString().contains("at most " + EventService.MAX_BATCH_SIZE));
+        verifyNoInteractions(eventService);
+    }
+
+    @Test
+    void addExpensesInvalidBatch() {
+        when(eventService.addExpensesToEvent(1L, List.of())).thenThrow(new IllegalArgumentException("empty"));
+        ResponseEntity<?> response = eventController.addExpenses(1L, List.of());
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(template);
     }
 
     @Test
@@ -445,10 +638,13 @@ public class EventControllerTest {
 
     @Test
     void testRemoveExpense() {
-        doNothing().when(eventService).removeExpenseFromEvent(1L, 1L);
+        Expense removed = new Expense();
+        removed.setId(1L);
+        when(eventService.removeExpenseFromEvent(1L, 1L)).thenReturn(removed);
 
         ResponseEntity<Void> response = eventController.removeExpense(1L, 1L);
         assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(template).convertAndSend(EventTopics.of(1L, EventTopics.EXPENSE_DELETION), removed);
     }
 
     @Test
@@ -456,6 +652,7 @@ public class EventControllerTest {
         doThrow(IllegalArgumentException.class).when(eventService).removeExpenseFromEvent(1L, 1L);
         ResponseEntity<Void> response = eventController.removeExpense(1L, 1L);
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        verifyNoInteractions(template);
     }
 
     @Test
@@ -464,6 +661,7 @@ public class EventControllerTest {
         ResponseEntity<Expense> response = eventController.updateExpenseInEvent(1L, 1L, new Expense());
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(new Expense(), response.getBody());
+        verify(template).convertAndSend(EventTopics.of(1L, EventTopics.EXPENSE_UPDATES), new Expense());
     }
 
     @Test
@@ -479,4 +677,54 @@ public class EventControllerTest {
         ResponseEntity<Expense> response = eventController.updateExpenseInEvent(1L, 1L, new Expense());
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGetEventPage() {
+        KeysetPage<Event> page = new KeysetPage<>(List.of(new Event("Event 1")), null, 50);
+        when(eventService.getEventPage(null, null)).thenReturn(page);
+
+        ResponseEntity<?> response = eventController.getEventPage(null, null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(page, response.getBody());
+    }
+
+    @Test
+    public void testGetEventSummaryPageBadRequest() {
+        when(eventService.getEventSummaryPage("bad", null)).thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+        ResponseEntity<?> response = eventController.getEventSummaryPage("bad", null);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Invalid cursor", response.getBody());
+    }
+
+    @Test
+    public void testGetEventStatistics() {
+        EventStatistics statistics = new EventStatistics(1L, 100L, Map.of("food", 100L), Map.of(2L, 100L));
+        when(eventService.getEventStatistics(1L)).thenReturn(statistics);
+
+        ResponseEntity<?> response = eventController.getEventStatistics(1L);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(statistics, response.getBody());
+    }
+
+    @Test
+    public void testGetEventStatisticsNotFound() {
+        when(eventService.getEventStatistics(1L)).thenThrow(new IllegalArgumentException("Event not found"));
+
+        ResponseEntity<?> response = eventController.getEventStatistics(1L);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    @Test
+    public void testGetEventStatisticsServiceException() {
+        when(eventService.getEventStatistics(1L)).thenThrow(new ServiceException("Service exception"));
+
+        ResponseEntity<?> response = eventController.getEventStatistics(1L);
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+    }
+}
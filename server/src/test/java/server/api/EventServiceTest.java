@@ -1,7 +1,13 @@
 package server.api;
 
+import commons.ChangeLogEntry.EntityType;
+import commons.ChangeLogEntry.Kind;
 import commons.Event;
+import commons.EventStatistics;
+import commons.EventSummary;
 import commons.Expense;
+import commons.KeysetPage;
+import commons.LedgerEntry;
 import commons.Participant;
 import org.hibernate.service.spi.ServiceException;
 import org.junit.jupiter.api.Assertions;
@@ -11,7 +17,11 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import server.ChangeLogService;
 import server.EventService;
+import server.KeysetPagination;
+import server.LedgerService;
 import server.database.EventRepository;
 import server.database.ExpenseRepository;
 import server.database.ParticipantRepository;
@@ -27,6 +37,10 @@ class EventServiceTest {
     private ExpenseRepository expenseRepository;
     @Mock
     private ParticipantRepository participantRepository;
+    @Mock
+    private LedgerService ledgerService;
+    @Mock
+    private ChangeLogService changeLogService;
     @InjectMocks
     private EventService eventService;
     private Event event;
@@ -61,6 +75,21 @@ class EventServiceTest {
         verify(eventRepository, times(1)).findAll();
     }
 
+    @Test
+    void getEventSummariesTest() {
+        List<EventSummary> summaries = List.of(new EventSummary(1L, "Trip", 1L, null, null, 2, 3));
+        when(eventRepository.eventSummaries()).thenReturn(summaries);
+        assertEquals(summaries, eventService.getEventSummaries());
+        verify(eventRepository).eventSummaries();
+        verify(eventRepository, never()).findAll();
+    }
+
+    @Test
+    void getEventSummariesTestException() {
+        when(eventRepository.eventSummaries()).thenThrow(new RuntimeException("Database error"));
+        assertThrows(ServiceException.class, () -> eventService.getEventSummaries());
+    }
+
     @Test
     void createEventTest() {
         Event event = new Event();
@@ -446,6 +475,292 @@ class EventServiceTest {
         assertThrows(IllegalArgumentException.class, () ->
                 eventService.updateExpenseInEvent(event.getId(), expense.getId(), new Expense()));
     }
-}
 
+    @Test
+    void getEventPageTest() {
+        Event second = new Event();
+        second.setId(2L);
+        when(eventRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(event, second));
+        KeysetPage<Event> page = eventService.getEventPage(null, 1);
+        assertEquals(List.of(event), page.getItems());
+        assertEquals(KeysetPagination.cursor(1L), page.getNextCursor());
+    }
+
+    @Test
+    void getEventSummaryPageTest() {
+        EventSummary summary = new EventSummary(6L, "Trip", 1L, null, null, 0, 0);
+        when(eventRepository.eventSummariesAfter(eq(5L), any(Pageable.class))).thenReturn(List.of(summary));
+        KeysetPage<EventSummary> page = eventService.getEventSummaryPage(KeysetPagination.cursor(5L), null);
+        assertEquals(List.of(summary), page.getItems());
+        assertNull(page.getNextCursor());
+        assertEquals(KeysetPagination.DEFAULT_LIMIT, page.getLimit());
+    }
+
+    @Test
+    void getEventPageInvalidCursorTest() {
+        assertThrows(IllegalArgumentException.class, () -> eventService.getEventPage("invalid!", null));
+        verifyNoInteractions(eventRepository);
+    }
+
+    @Test
+    void addExpenseToEventUpdatesLedger() {
+        Expense newExpense = new Expense();
+        event.setExpenses(new ArrayList<>());
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(event));
+
+        eventService.addExpenseToEvent(1L, newExpense);
+
+        assertEquals(1L, newExpense.getEventId());
+        verify(ledgerService).expenseAdded(newExpense);
+    }
+
+    @Test
+    void updateExpenseInEventUpdatesLedgerWithOldShares() {
+        List<LedgerEntry> before = List.of(new LedgerEntry(1L, 1L, 100, 0));
+        Expense updatedDetails = new Expense();
+        event.setExpenses(new ArrayList<>(List.of(expense)));
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(event));
+        when(expenseRepository.findById(1L)).thenReturn(Optional.of(expense));
+        when(ledgerService.contributionOf(expense)).thenReturn(before);
+        when(expenseRepository.save(updatedDetails)).thenReturn(updatedDetails);
+
+        eventService.updateExpenseInEvent(1L, 1L, updatedDetails);
+
+        verify(ledgerService).expenseUpdated(before, updatedDetails);
+    }
+
+    @Test
+    void removeExpenseFromEventUpdatesLedger() {
+        List<LedgerEntry> contribution = List.of(new LedgerEntry(1L, 1L, 100, 0));
+        expense.setEventId(1L);
+        event.setExpenses(new ArrayList<>(List.of(expense)));
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(event));
+        when(expenseRepository.findById(1L)).thenReturn(Optional.of(expense));
+        when(ledgerService.contributionOf(expense)).thenReturn(contribution);
 
+        eventService.removeExpenseFromEvent(1L, 1L);
+
+        assertNull(expense.getEventId());
+        verify(ledgerService).expenseRemoved(contribution);
+    }
+
+    @Test
+    void deleteEventDeletesLedger() {
+        eventService.deleteEvent(1L);
+        verify(ledgerService).eventDeleted(1L);
+    }
+
+    @Test
+    void deleteEventDeletesChangeLog() {
+        eventService.deleteEvent(1L);
+        verify(changeLogService).eventDeleted(1L);
+    }
+
+    @Test
+    void updateEventTitleLogsChange() {
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(event));
+        when(eventRepository.save(event)).thenReturn(event);
+        when(changeLogService.record(1L, EntityType.EVENT, 1L, Kind.UPDATED)).thenReturn(4L);
+
+        Event updated = eventService.updateEventTitle(1L, "New Title");
+
+        assertEquals(4L, updated.getVersion());
+    }
+
+    @Test
+    void addExpenseToEventLogsChange() {
+        event.setExpenses(new ArrayList<>());
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(event));
+
+        eventService.addExpenseToEvent(1L, expense);
+
+        verify(changeLogService).record(1L, EntityType.EXPENSE, 1L, Kind.INSERTED);
+    }
+
+    @Test
+    void removeParticipantFromEventLogsChange() {
+        participant.setEventIds(new HashSet<>(Set.of(1L)));
+        event.setPeople(new ArrayList<>(List.of(participant)));
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(event));
+        when(participantRepository.findById(1L)).thenReturn(Optional.of(participant));
+
+        eventService.removeParticipantFromEvent(1L, 1L);
+
+        verify(changeLogService).record(1L, EntityType.PARTICIPANT, 1L, Kind.DELETED);
+    }
+
+    @Test
+    void failedChangeIsNotLogged() {
+        when(eventRepository.findById(1L)).thenReturn(Optional.empty());
+        assertThrows(IllegalArgumentException.class, () -> eventService.addExpenseToEvent(1L, expense));
+        verifyNoInteractions(changeLogService);
+    }
+
+    @Test
+    void addExpensesToEventUsesTheLoadedParticipants() {
+        Participant payer = new Participant();
+        payer.setId(2L);
+        Participant sharer = new Participant();
+        sharer.setId(3L);
+        Expense first = new Expense(idOnly(2L), "food", 10, "EUR", "2024-03-01",
+                new ArrayList<>(List.of(idOnly(2L), idOnly(3L))), "dinner", null);
+        Expense second = new Expense(idOnly(3L), "travel", 5, "EUR", "2024-03-02",
+                new ArrayList<>(), "train", 7L);
+        second.setId(99L);
+        event.setExpenses(new ArrayList<>());
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(event));
+        when(participantRepository.findAllById(any())).thenReturn(List.of(payer, sharer));
+        when(eventRepository.participantIdsOfEvent(1L)).thenReturn(List.of(2L, 3L));
+        when(expenseRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<Expense> saved = invocation.getArgument(0);
+            long id = 10L;
+            for (Expense e : saved) {
+                assertEquals(0L, e.getId());
+                e.setId(id++);
+            }
+            return saved;
+        });
+
+        List<Expense> added = eventService.addExpensesToEvent(1L, new ArrayList<>(List.of(first, second)));
+
+        assertEquals(List.of(first, second), added);
+        assertSame(payer, first.getParticipant());
+        assertSame(payer, first.getSplittingOption().get(0));
+        assertSame(sharer, first.getSplittingOption().get(1));
+        assertSame(sharer, second.getParticipant());
+        assertEquals(1L, first.getEventId());
+        assertEquals(1L, second.getEventId());
+        assertEquals(List.of(first, second), event.getExpenses());
+        verify(participantRepository).findAllById(Set.of(2L, 3L));
+        verify(ledgerService).expensesAdded(added);
+        verify(changeLogService).recordAll(1L, EntityType.EXPENSE, List.of(10L, 11L), Kind.INSERTED);
+        verify(expenseRepository, never()).save(any());
+    }
+
+    @Test
+    void addExpensesToEventSkipsKeysThatWereSentBefore() {
+        Participant payer = new Participant();
+        payer.setId(2L);
+        Expense sent = new Expense(payer, "food", 10, "EUR", "2024-03-01", new ArrayList<>(), "dinner", 1L);
+        sent.setId(40L);
+        sent.setIdempotencyKey("a");
+        Expense again = new Expense(idOnly(2L), "food", 10, "EUR", "2024-03-01", new ArrayList<>(), "dinner", null);
+        again.setIdempotencyKey("a");
+        Expense fresh = new Expense(idOnly(2L), "travel", 5, "EUR", "2024-03-02", new ArrayList<>(), "train", null);
+        fresh.setIdempotencyKey("b");
+        Expense twice = new Expense(idOnly(2L), "travel", 5, "EUR", "2024-03-02", new ArrayList<>(), "train", null);
+        twice.setIdempotencyKey("b");
+        event.setExpenses(new ArrayList<>());
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(event));
+        when(participantRepository.findAllById(any())).thenReturn(List.of(payer));
+        when(eventRepository.participantIdsOfEvent(1L)).thenReturn(List.of(2L));
+        when(expenseRepository.findAllByIdempotencyKeyIn(Set.of("a", "b"))).thenReturn(List.of(sent));
+        when(expenseRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<Expense> saved = invocation.getArgument(0);
+            saved.forEach(e -> e.setId(41L));
+            return saved;
+        });
+
+        List<Expense> added = eventService.addExpensesToEvent(1L, new ArrayList<>(List.of(again, fresh, twice)));
+
+        assertSame(sent, added.get(0));
+        assertSame(fresh, added.get(1));
+        assertSame(fresh, added.get(2));
+        verify(expenseRepository).saveAll(List.of(fresh));
+        verify(changeLogService).recordAll(1L, EntityType.EXPENSE, List.of(41L), Kind.INSERTED);
+    }
+
+    @Test
+    void addExpensesToEventRefusesAKeyOfAnotherEvent() {
+        Expense sent = new Expense(idOnly(2L), "food", 10, "EUR", "2024-03-01", new ArrayList<>(), "dinner", 5L);
+        sent.setIdempotencyKey("a");
+        Expense again = new Expense(idOnly(2L), "food", 10, "EUR", "2024-03-01", new ArrayList<>(), "dinner", null);
+        again.setIdempotencyKey("a");
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(event));
+        when(participantRepository.findAllById(any())).thenReturn(List.of(idOnly(2L)));
+        when(eventRepository.participantIdsOfEvent(1L)).thenReturn(List.of(2L));
+        when(expenseRepository.findAllByIdempotencyKeyIn(Set.of("a"))).thenReturn(List.of(sent));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> eventService.addExpensesToEvent(1L, new ArrayList<>(List.of(again))));
+        verify(expenseRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void addExpensesToEventUnknownParticipant() {
+        Expense unknownPayer = new Expense(idOnly(5L), "food", 10, "EUR", "2024-03-01",
+                new ArrayList<>(), "dinner", 1L);
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(event));
+        when(participantRepository.findAllById(any())).thenReturn(List.of());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> eventService.addExpensesToEvent(1L, List.of(unknownPayer)));
+        verify(expenseRepository, never()).saveAll(any());
+        verifyNoInteractions(changeLogService);
+    }
+
+    @Test
+    void addExpensesToEventRefusesAParticipantOfAnotherEvent() {
+        Expense otherPayer = new Expense(idOnly(2L), "food", 10, "EUR", "2024-03-01",
+                new ArrayList<>(List.of(idOnly(2L), idOnly(8L))), "dinner", 1L);
+        when(eventRepository.findById(1L)).thenReturn(Optional.of(event));
+        when(participantRepository.findAllById(any())).thenReturn(List.of(idOnly(2L), idOnly(8L)));
+        when(eventRepository.participantIdsOfEvent(1L)).thenReturn(List.of(2L));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> eventService.addExpensesToEvent(1L, List.of(otherPayer)));
+        verify(expenseRepository, never()).saveAll(any());
+        verifyNoInteractions(changeLogService);
+    }
+
+    @Test
+    void addExpensesToEventInvalidBatch() {
+        when(eventRepository.findById(1L)).thenReturn(Optional.empty());
+        assertThrows(IllegalArgumentException.class, () -> eventService.addExpensesToEvent(1L, List.of()));
+        assertThrows(IllegalArgumentException.class, () -> eventService.addExpensesToEvent(1L, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> eventService.addExpensesToEvent(1L, List.of(new Expense())));
+        List<Expense> tooMany = Collections.nCopies(EventService.MAX_BATCH_SIZE + 1, new Expense());
+        assertThrows(IllegalArgumentException.class, () -> eventService.addExpensesToEvent(1L, tooMany));
+        verify(expenseRepository, never()).saveAll(any());
+    }
+
+    private static Participant idOnly(long id) {
+        Participant participant = new Participant();
+        participant.setId(id);
+        return participant;
+    }
+
+    @Test
+    void getEventStatisticsAddsUpTheGroups() {
+        when(eventRepository.existsById(1L)).thenReturn(true);
+        when(expenseRepository.totalsByTagOfEvent(1L)).thenReturn(List.of(
+                new Object[]{"food", 1200L},
+                new Object[]{null, 300L},
+                new Object[]{"other", 200L}));
+        when(expenseRepository.totalsByParticipantOfEvent(1L)).thenReturn(List.<Object[]>of(
+                new Object[]{5L, 1700L}));
+
+        EventStatistics statistics = eventService.getEventStatistics(1L);
+
+        assertEquals(1700L, statistics.getTotalInCents());
+        assertEquals(Map.of("food", 1200L, "other", 500L), statistics.getTotalsByTag());
+        assertEquals(Map.of(5L, 1700L), statistics.getTotalsByParticipant());
+        verify(expenseRepository, never()).findAll();
+    }
+
+    @Test
+    void getEventStatisticsUnknownEvent() {
+        when(eventRepository.existsById(1L)).thenReturn(false);
+        assertThrows(IllegalArgumentException.class, () -> eventService.getEventStatistics(1L));
+        assertThrows(IllegalArgumentException.class, () -> eventService.getEventStatistics(-1L));
+    }
+
+    @Test
+    void getEventStatisticsDatabaseError() {
+        when(eventRepository.existsById(1L)).thenReturn(true);
+        when(expenseRepository.totalsByTagOfEvent(1L)).thenThrow(new RuntimeException("Database error"));
+        assertThrows(ServiceException.class, () -> eventService.getEventStatistics(1L));
+    }
+}
@@ -1,7 +1,9 @@
 package server.api;
 
+import commons.EventTopics;
 import commons.Expense;
 import commons.Participant;
+import org.hibernate.service.spi.ServiceException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -9,12 +11,15 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
 import server.ExpenseService;
+import server.database.ExpenseRepository;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -28,6 +33,12 @@ class ExpenseControllerTest {
     @Mock
     private ExpenseService expenseService;
 
+    @Mock
+    private ExpenseRepository db;
+
+    @Mock
+    private SimpMessagingTemplate template;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -38,7 +49,7 @@ class ExpenseControllerTest {
         Expense expense = new Expense(new Participant("Jodie","Zhao"),"CSE tuition fee",16000,
                 "EUR","2023-08-27",List.of(new Participant("Jodie","Zhao")),"Education", (long)1234);
 
-        when(expenseService.createExpense(any(Expense.class))).thenReturn(ResponseEntity.ok("Expense created successfully"));
+        when(expenseService.createExpense(any(Expense.class))).thenReturn(expense);
         ResponseEntity<Void> response = controller.add(expense);
 
         assertNotNull(response, "Response should not be null");
@@ -46,6 +57,17 @@ class ExpenseControllerTest {
         verify(expenseService, times(1)).createExpense(any(Expense.class));
     }
 
+    @Test
+    void addExpenseThatCanNotBeSaved() {
+        Expense expense = new Expense(new Participant("Jodie","Zhao"),"CSE tuition fee",16000,
+                "EUR","2023-08-27",List.of(new Participant("Jodie","Zhao")),"Education", (long)1234);
+        when(expenseService.createExpense(any(Expense.class))).thenThrow(new ServiceException("Database error"));
+
+        ResponseEntity<Void> response = controller.add(expense);
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+    }
+
     @Test
     void testAddBadRequest() {
         Expense expense = new Expense();
@@ -139,7 +161,7 @@ class ExpenseControllerTest {
         Expense transfer = new Expense(new Participant("Jay", "Z"), "dinner", 16000,
                 "EUR", "2023-08-03", List.of(new Participant("Jay", "Z")), "food", (long)3456);
 
-        when(expenseService.createExpense(any(Expense.class))).thenReturn(ResponseEntity.ok().body("Success"));
+        when(expenseService.createExpense(any(Expense.class))).thenReturn(transfer);
 
         ResponseEntity<Void> response = controller.add(transfer);
 
@@ -197,6 +219,7 @@ class ExpenseControllerTest {
         verify(expenseService, times(1)).updateExpense(id, updatedExpense);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(template).convertAndSend(EventTopics.of(2344L, EventTopics.EXPENSE_UPDATES), updatedExpense);
     }
 
     @Test
@@ -210,11 +233,15 @@ class ExpenseControllerTest {
         verify(expenseService, times(1)).updateExpense(id, updatedExpense);
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        verifyNoInteractions(template);
     }
 
     @Test
     public void testDeleteExpense() {
         long id = 1;
+        Expense stored = new Expense(new Participant("Yanran","Zhao"),"Lunch",12,
+                "EUR","2023-08-27",List.of(),"Food",(long)2344);
+        when(db.findById(id)).thenReturn(Optional.of(stored));
         when(expenseService.deleteExpense(id)).thenReturn(ResponseEntity.ok().build());
 
         ResponseEntity<Void> response = controller.delete(id);
@@ -222,6 +249,18 @@ class ExpenseControllerTest {
 
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(template).convertAndSend(EventTopics.of(2344L, EventTopics.EXPENSE_DELETION), stored);
+    }
+
+    @Test
+    void deleteExpenseWithoutEventIsNotBroadcast() {
+        Expense stored = new Expense();
+        when(db.findById(1L)).thenReturn(Optional.of(stored));
+
+        controller.delete(1L);
+
+        verify(expenseService).deleteExpense(1L);
+        verifyNoInteractions(template);
     }
 
     @Test
@@ -1,6 +1,9 @@
 package server.api;
 
+import commons.ChangeLogEntry.EntityType;
+import commons.ChangeLogEntry.Kind;
 import commons.Expense;
+import commons.KeysetPage;
 import org.hibernate.service.spi.ServiceException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -8,9 +11,12 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import server.ChangeLogService;
 import server.ExpenseService;
+import server.LedgerService;
 import server.database.ExpenseRepository;
 
 import java.util.*;
@@ -25,6 +31,10 @@ public class ExpenseServiceTest {
     private ExpenseController controller;
     @Mock
     private ExpenseRepository expenseRepository;
+    @Mock
+    private LedgerService ledgerService;
+    @Mock
+    private ChangeLogService changeLogService;
 
     @BeforeEach
     void setUp() {
@@ -76,10 +86,8 @@ public class ExpenseServiceTest {
         Expense expense = new Expense();
         when(expenseRepository.save(any(Expense.class))).thenReturn(expense);
 
-        ResponseEntity<String> response = expenseService.createExpense(expense);
-
-        assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertTrue(Objects.requireNonNull(response.getBody()).contains("Expense created successfully"));
+        assertSame(expense, expenseService.createExpense(expense));
+        verify(ledgerService).expenseAdded(expense);
     }
 
     @Test
@@ -88,10 +96,8 @@ public class ExpenseServiceTest {
         when(expenseRepository.save(any(Expense.class))).thenThrow(new DataAccessException("Error") {
         });
 
-        ResponseEntity<String> response = expenseService.createExpense(expense);
-
-        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
-        assertTrue(Objects.requireNonNull(response.getBody()).contains("Error creating expense"));
+        assertThrows(ServiceException.class, () -> expenseService.createExpense(expense));
+        verify(ledgerService, never()).expenseAdded(any());
     }
 
     @Test
@@ -198,6 +204,49 @@ public class ExpenseServiceTest {
         verify(expenseRepository, times(1)).deleteById(expenseId);
     }
 
+    @Test
+    void updateExpenseLogsChange() {
+        Expense stored = new Expense();
+        stored.setEventId(2L);
+        Expense expenseToUpdate = new Expense();
+        expenseToUpdate.setEventId(2L);
+        when(expenseRepository.existsById(1L)).thenReturn(true);
+        when(expenseRepository.findById(1L)).thenReturn(Optional.of(stored));
+        when(expenseRepository.save(expenseToUpdate)).thenReturn(expenseToUpdate);
+
+        expenseService.updateExpense(1L, expenseToUpdate);
+
+        verify(changeLogService).record(2L, EntityType.EXPENSE, 1L, Kind.UPDATED);
+    }
+
+    @Test
+    void updateExpenseMovedToOtherEventLogsBothEvents() {
+        Expense stored = new Expense();
+        stored.setEventId(2L);
+        Expense expenseToUpdate = new Expense();
+        expenseToUpdate.setEventId(3L);
+        when(expenseRepository.existsById(1L)).thenReturn(true);
+        when(expenseRepository.findById(1L)).thenReturn(Optional.of(stored));
+        when(expenseRepository.save(expenseToUpdate)).thenReturn(expenseToUpdate);
+
+        expenseService.updateExpense(1L, expenseToUpdate);
+
+        verify(changeLogService).record(2L, EntityType.EXPENSE, 1L, Kind.DELETED);
+        verify(changeLogService).record(3L, EntityType.EXPENSE, 1L, Kind.INSERTED);
+    }
+
+    @Test
+    void deleteExpenseLogsChange() {
+        Expense stored = new Expense();
+        stored.setEventId(2L);
+        when(expenseRepository.existsById(1L)).thenReturn(true);
+        when(expenseRepository.findById(1L)).thenReturn(Optional.of(stored));
+
+        expenseService.deleteExpense(1L);
+
+        verify(changeLogService).record(2L, EntityType.EXPENSE, 1L, Kind.DELETED);
+    }
+
     @Test
     void deleteExpenseNotFound() {
         long expenseId = 1L;
@@ -248,6 +297,14 @@ public class ExpenseServiceTest {
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
         verify(expenseRepository, times(1)).findById(1L);
     }
-}
-
 
+    @Test
+    void getExpensePageTest() {
+        Expense expense = new Expense();
+        when(expenseRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(expense));
+        KeysetPage<Expense> page = expenseService.getExpensePage(null, 5);
+        assertEquals(List.of(expense), page.getItems());
+        assertNull(page.getNextCursor());
+    }
+}
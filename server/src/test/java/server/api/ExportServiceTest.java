@@ -0,0 +1,78 @@
+package server.api;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import commons.Event;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import server.ExportService;
+import server.database.EventRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ExportServiceTest {
+    @Mock
+    private EventRepository eventRepository;
+    @Mock
+    private EntityManager entityManager;
+    private ObjectMapper objectMapper;
+    private ExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        exportService = new ExportService(eventRepository, entityManager, objectMapper);
+    }
+
+    @Test
+    void exportWritesOneEventPerLine() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(eventRepository.streamAll()).thenReturn(Stream.of(new Event("First"), new Event("Second"))
+                .onClose(() -> closed.set(true)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(2, exportService.exportEvents(out));
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertEquals(3, lines.length);
+        assertEquals("", lines[2]);
+        assertEquals("First", objectMapper.readValue(lines[0], Event.class).getTitle());
+        assertEquals("Second", objectMapper.readValue(lines[1], Event.class).getTitle());
+        assertTrue(closed.get());
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void exportCanBeImported() throws Exception {
+        when(eventRepository.streamAll()).thenReturn(Stream.of(new Event("First"), new Event("Second")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportEvents(out);
+
+        try (MappingIterator<Event> events = objectMapper.readerFor(Event.class).readValues(out.toByteArray())) {
+            assertEquals(List.of("First", "Second"), events.readAll().stream().map(Event::getTitle).toList());
+        }
+    }
+
+    @Test
+    void exportWithoutEvents() throws Exception {
+        when(eventRepository.streamAll()).thenReturn(Stream.empty());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(0, exportService.exportEvents(out));
+        assertEquals(0, out.size());
+    }
+}
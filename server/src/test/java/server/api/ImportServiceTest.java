@@ -0,0 +1,181 @@
+package server.api;
+
+import commons.ChangeLogEntry.EntityType;
+import commons.ChangeLogEntry.Kind;
+import commons.Event;
+import commons.EventSummary;
+import commons.Expense;
+import commons.Participant;
+import jakarta.persistence.EntityManager;
+import org.hibernate.service.spi.ServiceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import server.ChangeLogService;
+import server.ImportService;
+import server.LedgerService;
+import server.database.EventRepository;
+import server.database.ExpenseRepository;
+import server.database.ParticipantRepository;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ImportServiceTest {
+    @Mock
+    private EventRepository eventRepository;
+    @Mock
+    private ParticipantRepository participantRepository;
+    @Mock
+    private ExpenseRepository expenseRepository;
+    @Mock
+    private LedgerService ledgerService;
+    @Mock
+    private ChangeLogService changeLogService;
+    @Mock
+    private EntityManager entityManager;
+    @InjectMocks
+    private ImportService importService;
+
+    private long nextEventId;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        nextEventId = 100L;
+        when(eventRepository.existingInviteCodes(any())).thenReturn(List.of());
+        when(eventRepository.save(any(Event.class))).thenAnswer(invocation -> {
+            Event event = invocation.getArgument(0);
+            event.setId(nextEventId++);
+            return event;
+        });
+    }
+
+    @Test
+    void importGivesEverythingNewIds() {
+        Participant alice = exported(1L, "alice");
+        Participant bob = exported(2L, "bob");
+        // the export has copies of the participants in every expense
+        Expense expense = new Expense(exported(1L, "alice"), "food", 30, "EUR", "2024-03-01",
+                new ArrayList<>(List.of(exported(1L, "alice"), exported(2L, "bob"))), "dinner", 7L);
+        expense.setId(50L);
+        Event event = new Event(new ArrayList<>(List.of(alice, bob)), new ArrayList<>(List.of(expense)), "Trip", 42L);
+        event.setId(7L);
+
+        List<EventSummary> summaries = importService.importEvents(List.of(event).iterator());
+
+        assertEquals(1, summaries.size());
+        assertEquals(100L, summaries.get(0).getId());
+        assertEquals(42L, event.getInviteCode());
+        assertEquals(List.of(alice, bob), event.getPeople());
+        assertEquals(0L, alice.getId());
+        assertEquals(Set.of(100L), alice.getEventIds());
+        assertTrue(alice.getOwedAmount().isEmpty());
+        assertEquals(0L, expense.getId());
+        assertEquals(100L, expense.getEventId());
+        assertSame(alice, expense.getParticipant());
+        assertSame(alice, expense.getSplittingOption().get(0));
+        assertSame(bob, expense.getSplittingOption().get(1));
+        assertEquals(List.of(expense), event.getExpenses());
+        verify(participantRepository).saveAll(List.of(alice, bob));
+        verify(expenseRepository).saveAll(List.of(expense));
+        verify(ledgerService).expensesAdded(List.of(expense));
+    }
+
+    @Test
+    void participantsOfExpensesThatAreNotInTheEventAreImported() {
+        Participant carol = exported(3L, "carol");
+        Expense expense = new Expense(carol, "food", 10, "EUR", "2024-03-01", new ArrayList<>(), "lunch", 7L);
+        Event event = new Event(new ArrayList<>(), new ArrayList<>(List.of(expense)), "Trip", 42L);
+
+        importService.importEvents(List.of(event).iterator());
+
+        assertEquals(List.of(carol), event.getPeople());
+        verify(participantRepository).saveAll(List.of(carol));
+    }
+
+    @Test
+    void usedInviteCodesAreReplaced() {
+        when(eventRepository.existingInviteCodes(any())).thenReturn(List.of(42L));
+        Event first = new Event(new ArrayList<>(), new ArrayList<>(), "First", 42L);
+        Event second = new Event(new ArrayList<>(), new ArrayList<>(), "Second", 43L);
+        Event third = new Event(new ArrayList<>(), new ArrayList<>(), "Third", 43L);
+
+        List<EventSummary> summaries = importService.importEvents(List.of(first, second, third).iterator());
+
+        assertNotEquals(42L, first.getInviteCode());
+        assertEquals(43L, second.getInviteCode());
+        assertNotEquals(43L, third.getInviteCode());
+        assertEquals(List.of(100L, 101L, 102L), summaries.stream().map(EventSummary::getId).toList());
+    }
+
+    @Test
+    void importedEventsStartANewChangeLog() {
+        Participant alice = exported(1L, "alice");
+        Expense expense = new Expense(exported(1L, "alice"), "food", 30, "EUR", "2024-03-01",
+                new ArrayList<>(), "dinner", 7L);
+        Event event = new Event(new ArrayList<>(List.of(alice)), new ArrayList<>(List.of(expense)), "Trip", 42L);
+        event.setVersion(12L);
+        when(participantRepository.saveAll(any())).thenAnswer(invocation -> {
+            invocation.<List<Participant>>getArgument(0).forEach(participant -> participant.setId(500L));
+            return invocation.getArgument(0);
+        });
+        when(expenseRepository.saveAll(any())).thenAnswer(invocation -> {
+            invocation.<List<Expense>>getArgument(0).forEach(added -> added.setId(600L));
+            return invocation.getArgument(0);
+        });
+        when(changeLogService.recordAll(100L, EntityType.EXPENSE, List.of(600L), Kind.INSERTED)).thenReturn(2L);
+
+        importService.importEvents(List.of(event).iterator());
+
+        verify(changeLogService).recordAll(100L, EntityType.PARTICIPANT, List.of(500L), Kind.INSERTED);
+        verify(changeLogService).recordAll(100L, EntityType.EXPENSE, List.of(600L), Kind.INSERTED);
+        assertEquals(2L, event.getVersion());
+    }
+
+    @Test
+    void importedEventsAreWrittenInChunks() {
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            events.add(new Event(new ArrayList<>(), new ArrayList<>(), "Event " + i, i));
+        }
+
+        List<EventSummary> summaries = importService.importEvents(events.iterator());
+
+        assertEquals(120, summaries.size());
+        // 50, 50 and the last 20
+        verify(entityManager, times(3)).flush();
+        verify(entityManager, times(3)).clear();
+        verify(eventRepository, times(3)).existingInviteCodes(any());
+    }
+
+    @Test
+    void importInvalidEvents() {
+        assertThrows(IllegalArgumentException.class, () -> importService.importEvents(Collections.emptyIterator()));
+        assertThrows(IllegalArgumentException.class, () -> importService.importEvents(null));
+        assertThrows(IllegalArgumentException.class,
+                () -> importService.importEvents(Arrays.asList(new Event(), null).iterator()));
+        verify(eventRepository, never()).save(any());
+    }
+
+    @Test
+    void importDatabaseError() {
+        when(eventRepository.save(any(Event.class))).thenThrow(new RuntimeException("Database error"));
+        assertThrows(ServiceException.class, () -> importService.importEvents(List.of(new Event("Trip")).iterator()));
+    }
+
+    private static Participant exported(long id, String username) {
+        Participant participant = new Participant(username, "First", "Last", username + "@example.com",
+                "NL91ABNA0417164300", "ABNANL2A", "en");
+        participant.setId(id);
+        participant.setEventIds(new HashSet<>(Set.of(7L)));
+        participant.setOwedAmount(new HashMap<>());
+        participant.setPayedAmount(new HashMap<>());
+        return participant;
+    }
+}
@@ -0,0 +1,68 @@
+package server.api;
+
+import commons.KeysetPage;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import server.KeysetPagination;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetPaginationTest {
+
+    @Test
+    void defaultLimit() {
+        assertEquals(KeysetPagination.DEFAULT_LIMIT, KeysetPagination.limit(null));
+        assertEquals(10, KeysetPagination.limit(10));
+        assertEquals(KeysetPagination.MAX_LIMIT, KeysetPagination.limit(KeysetPagination.MAX_LIMIT));
+    }
+
+    @Test
+    void invalidLimit() {
+        assertThrows(IllegalArgumentException.class, () -> KeysetPagination.limit(0));
+        assertThrows(IllegalArgumentException.class, () -> KeysetPagination.limit(KeysetPagination.MAX_LIMIT + 1));
+    }
+
+    @Test
+    void cursorRoundTrip() {
+        assertEquals(0L, KeysetPagination.afterId(null));
+        assertEquals(0L, KeysetPagination.afterId(""));
+        assertEquals(1234L, KeysetPagination.afterId(KeysetPagination.cursor(1234L)));
+    }
+
+    @Test
+    void invalidCursor() {
+        String notANumber = Base64.getUrlEncoder().encodeToString("id:abc".getBytes(StandardCharsets.UTF_8));
+        String noPrefix = Base64.getUrlEncoder().encodeToString("12".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IllegalArgumentException.class, () -> KeysetPagination.afterId("%%%"));
+        assertThrows(IllegalArgumentException.class, () -> KeysetPagination.afterId(notANumber));
+        assertThrows(IllegalArgumentException.class, () -> KeysetPagination.afterId(noPrefix));
+    }
+
+    @Test
+    void requestFetchesOneExtraRow() {
+        Pageable pageable = KeysetPagination.request(20);
+        assertEquals(0, pageable.getPageNumber());
+        assertEquals(21, pageable.getPageSize());
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        KeysetPage<Long> page = KeysetPagination.page(List.of(1L, 2L), 2, id -> id);
+        assertEquals(List.of(1L, 2L), page.getItems());
+        assertNull(page.getNextCursor());
+        assertFalse(page.hasNext());
+        assertEquals(2, page.getLimit());
+    }
+
+    @Test
+    void fullPageHasCursorOfLastItem() {
+        KeysetPage<Long> page = KeysetPagination.page(List.of(3L, 5L, 8L), 2, id -> id);
+        assertEquals(List.of(3L, 5L), page.getItems());
+        assertTrue(page.hasNext());
+        assertEquals(5L, KeysetPagination.afterId(page.getNextCursor()));
+    }
+}
@@ -0,0 +1,81 @@
+package server.api;
+
+import commons.LedgerDrift;
+import commons.LedgerEntry;
+import org.hibernate.service.spi.ServiceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import server.LedgerService;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+class LedgerControllerTest {
+
+    @Mock
+    private LedgerService ledgerService;
+    @InjectMocks
+    private LedgerController ledgerController;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void getLedgerTest() {
+        List<LedgerEntry> ledger = List.of(new LedgerEntry(1L, 2L, 500, 250));
+        when(ledgerService.getLedger(1L)).thenReturn(ledger);
+
+        ResponseEntity<?> response = ledgerController.getLedger(1L);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(ledger, response.getBody());
+    }
+
+    @Test
+    void verifyLedgerTest() {
+        List<LedgerDrift> drift = List.of(new LedgerDrift(1L, 2L, 0, 100, 0, 0));
+        when(ledgerService.verify(1L)).thenReturn(drift);
+
+        ResponseEntity<?> response = ledgerController.verifyLedger(1L);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(drift, response.getBody());
+    }
+
+    @Test
+    void verifyLedgerEventNotFound() {
+        when(ledgerService.verify(1L)).thenThrow(new IllegalArgumentException("Event not found with ID: 1"));
+
+        ResponseEntity<?> response = ledgerController.verifyLedger(1L);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    @Test
+    void rebuildLedgerServiceException() {
+        when(ledgerService.rebuild(1L)).thenThrow(new ServiceException("Service exception"));
+
+        ResponseEntity<?> response = ledgerController.rebuildLedger(1L);
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+    }
+
+    @Test
+    void rebuildAllLedgersTest() {
+        when(ledgerService.rebuildAll()).thenReturn(List.of());
+
+        ResponseEntity<?> response = ledgerController.rebuildAllLedgers();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(ledgerService).rebuildAll();
+    }
+}
@@ -0,0 +1,202 @@
+package server.api;
+
+import commons.Expense;
+import commons.LedgerDrift;
+import commons.LedgerEntry;
+import commons.Participant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import server.LedgerService;
+import server.SettlementCalculator;
+import server.SettlementService;
+import server.database.EventRepository;
+import server.database.ExpenseRepository;
+import server.database.LedgerRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LedgerServiceTest {
+
+    @Mock
+    private LedgerRepository ledgerRepository;
+    @Mock
+    private EventRepository eventRepository;
+    @Mock
+    private ExpenseRepository expenseRepository;
+    @Mock
+    private SettlementService settlementService;
+    @InjectMocks
+    private LedgerService ledgerService;
+
+    private Participant alice;
+    private Participant bob;
+    private Participant carol;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        alice = participant(1L);
+        bob = participant(2L);
+        carol = participant(3L);
+    }
+
+    private Participant participant(long id) {
+        Participant participant = new Participant();
+        participant.setId(id);
+        return participant;
+    }
+
+    private Expense expense(Participant payer, double amount, List<Participant> splittingOption) {
+        return new Expense(payer, "Food", amount, "EUR", "2024-03-01", splittingOption, "food", 7L);
+    }
+
+    @Test
+    void contributionSplitsLikeTheSettlement() {
+        Expense expense = expense(carol, 1.00, new ArrayList<>(List.of(carol, bob, alice)));
+
+        List<LedgerEntry> contribution = ledgerService.contributionOf(expense);
+
+        assertEquals(List.of(
+                new LedgerEntry(7L, 3L, 100, 33),
+                new LedgerEntry(7L, 1L, 0, 34),
+                new LedgerEntry(7L, 2L, 0, 33)), contribution);
+    }
+
+    @Test
+    void contributionWithoutSplittingOptionUsesEveryone() {
+        when(eventRepository.participantIdsOfEvent(7L)).thenReturn(List.of(1L, 2L));
+        Expense expense = expense(alice, 10.00, new ArrayList<>());
+
+        List<LedgerEntry> contribution = ledgerService.contributionOf(expense);
+
+        assertEquals(List.of(new LedgerEntry(7L, 1L, 1000, 500), new LedgerEntry(7L, 2L, 0, 500)), contribution);
+    }
+
+    @Test
+    void contributionOfExpenseOutsideEventIsEmpty() {
+        Expense expense = expense(alice, 10.00, List.of(bob));
+        expense.setEventId(null);
+        assertTrue(ledgerService.contributionOf(expense).isEmpty());
+        assertTrue(ledgerService.contributionOf(null).isEmpty());
+    }
+
+    @Test
+    void expenseAddedUpdatesExistingEntries() {
+        when(ledgerRepository.addToEntry(anyLong(), anyLong(), anyLong(), anyLong())).thenReturn(1);
+
+        ledgerService.expenseAdded(expense(alice, 20.00, List.of(alice, bob)));
+
+        verify(ledgerRepository).addToEntry(7L, 1L, 2000, 1000);
+        verify(ledgerRepository).addToEntry(7L, 2L, 0, 1000);
+        verify(ledgerRepository, never()).save(any());
+    }
+
+    @Test
+    void expensesAddedUpdatesEveryEntryOnce() {
+        when(ledgerRepository.addToEntry(anyLong(), anyLong(), anyLong(), anyLong())).thenReturn(1);
+
+        ledgerService.expensesAdded(List.of(
+                expense(alice, 20.00, List.of(alice, bob)),
+                expense(bob, 10.00, List.of(alice, bob))));
+
+        verify(ledgerRepository).addToEntry(7L, 1L, 2000, 1500);
+        verify(ledgerRepository).addToEntry(7L, 2L, 1000, 1500);
+        verify(ledgerRepository, times(2)).addToEntry(anyLong(), anyLong(), anyLong(), anyLong());
+        verify(ledgerRepository, never()).save(any());
+    }
+
+    @Test
+    void expensesAddedReadTheParticipantsOfAnEventOnce() {
+        when(eventRepository.participantIdsOfEvent(7L)).thenReturn(List.of(1L, 2L));
+        List<Expense> expenses = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            expenses.add(expense(alice, 10.00, null));
+        }
+
+        ledgerService.expensesAdded(expenses);
+
+        verify(eventRepository, times(1)).participantIdsOfEvent(7L);
+        verify(ledgerRepository).addToEntry(7L, 1L, 100000, 50000);
+        verify(ledgerRepository).addToEntry(7L, 2L, 0, 50000);
+    }
+
+    @Test
+    void expenseRemovedSubtractsContribution() {
+        when(ledgerRepository.addToEntry(anyLong(), anyLong(), anyLong(), anyLong())).thenReturn(1);
+
+        ledgerService.expenseRemoved(List.of(new LedgerEntry(7L, 1L, 2000, 1000)));
+
+        verify(ledgerRepository).addToEntry(7L, 1L, -2000, -1000);
+    }
+
+    @Test
+    void expenseUpdatedReplacesContribution() {
+        when(ledgerRepository.addToEntry(anyLong(), anyLong(), anyLong(), anyLong())).thenReturn(1);
+        List<LedgerEntry> before = ledgerService.contributionOf(expense(alice, 20.00, List.of(bob)));
+
+        ledgerService.expenseUpdated(before, expense(alice, 30.00, List.of(bob)));
+
+        verify(ledgerRepository).addToEntry(7L, 1L, -2000, 0);
+        verify(ledgerRepository).addToEntry(7L, 2L, 0, -2000);
+        verify(ledgerRepository).addToEntry(7L, 1L, 3000, 0);
+        verify(ledgerRepository).addToEntry(7L, 2L, 0, 3000);
+    }
+
+    @Test
+    void verifyReportsDrift() {
+        SettlementCalculator calculator = new SettlementCalculator(List.of(1L, 2L));
+        calculator.addExpense(1L, 1000, new long[]{1L, 2L});
+        when(settlementService.calculate(7L)).thenReturn(calculator);
+        when(ledgerRepository.findByEventIdOrderByParticipantIdAsc(7L)).thenReturn(List.of(
+                new LedgerEntry(7L, 1L, 1000, 500),
+                new LedgerEntry(7L, 2L, 0, 400),
+                new LedgerEntry(7L, 9L, 0, 100)));
+
+        List<LedgerDrift> drift = ledgerService.verify(7L);
+
+        assertEquals(List.of(
+                new LedgerDrift(7L, 2L, 0, 400, 0, 500),
+                new LedgerDrift(7L, 9L, 0, 100, 0, 0)), drift);
+        verify(ledgerRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void rebuildFixesDrift() {
+        SettlementCalculator calculator = new SettlementCalculator(List.of(1L, 2L));
+        calculator.addExpense(1L, 1000, new long[]{1L, 2L});
+        when(settlementService.calculate(7L)).thenReturn(calculator);
+        LedgerEntry correct = new LedgerEntry(7L, 1L, 1000, 500);
+        LedgerEntry stale = new LedgerEntry(7L, 9L, 0, 100);
+        when(ledgerRepository.findByEventIdOrderByParticipantIdAsc(7L)).thenReturn(List.of(correct, stale));
+
+        List<LedgerDrift> drift = ledgerService.rebuild(7L);
+
+        assertEquals(2, drift.size());
+        verify(ledgerRepository).saveAll(List.of(new LedgerEntry(7L, 2L, 0, 500)));
+        verify(ledgerRepository).deleteAll(List.of(stale));
+    }
+
+    @Test
+    void participantsChangedOnlyRebuildsWhenNeeded() {
+        when(expenseRepository.hasExpensesSharedByEveryone(7L)).thenReturn(false);
+        ledgerService.participantsChanged(7L);
+        verifyNoInteractions(settlementService);
+
+        when(expenseRepository.hasExpensesSharedByEveryone(7L)).thenReturn(true);
+        when(settlementService.calculate(7L)).thenReturn(new SettlementCalculator(List.of()));
+        ledgerService.participantsChanged(7L);
+        verify(settlementService).calculate(7L);
+    }
+
+    @Test
+    void getLedgerNegativeId() {
+        assertThrows(IllegalArgumentException.class, () -> ledgerService.getLedger(-1L));
+    }
+}
@@ -0,0 +1,120 @@
+package server.api;
+
+import org.junit.jupiter.api.Test;
+import server.LongPollRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongPollRegistryTest {
+
+    @Test
+    void publishOnlyNotifiesTheEvent() {
+        LongPollRegistry<String> registry = new LongPollRegistry<>(10);
+        List<String> first = new ArrayList<>();
+        List<String> second = new ArrayList<>();
+        assertTrue(registry.register(1L, new Object(), first::add));
+        assertTrue(registry.register(2L, new Object(), second::add));
+
+        assertEquals(1, registry.publish(1L, "update"));
+
+        assertEquals(List.of("update"), first);
+        assertTrue(second.isEmpty());
+        assertEquals(0, registry.publish(3L, "nobody"));
+    }
+
+    @Test
+    void capacityIsPerEvent() {
+        LongPollRegistry<String> registry = new LongPollRegistry<>(2);
+        assertTrue(registry.register(1L, new Object(), s -> { }));
+        assertTrue(registry.register(1L, new Object(), s -> { }));
+        assertFalse(registry.register(1L, new Object(), s -> { }));
+        assertTrue(registry.register(2L, new Object(), s -> { }));
+
+        assertEquals(3L, registry.openPolls());
+        assertEquals(1L, registry.metrics().get("rejectedPolls"));
+    }
+
+    @Test
+    void unregisterFreesTheSlot() {
+        LongPollRegistry<String> registry = new LongPollRegistry<>(1);
+        Object key = new Object();
+        assertTrue(registry.register(1L, key, s -> { }));
+        registry.unregister(1L, key);
+        registry.unregister(1L, key);
+
+        assertEquals(0L, registry.openPolls());
+        assertEquals(0L, registry.metrics().get("eventsWithOpenPolls"));
+        assertTrue(registry.register(1L, new Object(), s -> { }));
+    }
+
+    @Test
+    void invalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new LongPollRegistry<String>(0));
+    }
+
+    @Test
+    void notifierCompletesThePolls() throws Exception {
+        ExecutorService notifier = Executors.newVirtualThreadPerTaskExecutor();
+        LongPollRegistry<String> registry = new LongPollRegistry<>(10, notifier);
+        CountDownLatch delivered = new CountDownLatch(2);
+        List<Thread> threads = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            registry.register(1L, new Object(), update -> {
+                threads.add(Thread.currentThread());
+                delivered.countDown();
+            });
+        }
+        try {
+            assertEquals(2, registry.publish(1L, "update"));
+
+            assertTrue(delivered.await(10, TimeUnit.SECONDS));
+            assertTrue(threads.stream().allMatch(Thread::isVirtual));
+            assertEquals(2L, registry.metrics().get("deliveredUpdates"));
+        } finally {
+            notifier.shutdownNow();
+        }
+    }
+
+    @Test
+    void tenThousandConcurrentPolls() throws Exception {
+        int events = 100;
+        int pollsPerEvent = 100;
+        LongPollRegistry<Integer> registry = new LongPollRegistry<>(pollsPerEvent);
+        AtomicInteger received = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> registrations = new ArrayList<>();
+        try {
+            for (int i = 0; i < events * pollsPerEvent; i++) {
+                long eventId = i % events;
+                registrations.add(executor.submit(() -> {
+                    start.await();
+                    return registry.register(eventId, new Object(), update -> received.incrementAndGet());
+                }));
+            }
+            start.countDown();
+            for (Future<Boolean> registration : registrations) {
+                assertTrue(registration.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(10_000L, registry.openPolls());
+        assertFalse(registry.register(0L, new Object(), update -> { }));
+        for (long eventId = 0; eventId < events; eventId++) {
+            assertEquals(pollsPerEvent, registry.publish(eventId, 1));
+        }
+        assertEquals(10_000, received.get());
+    }
+}
@@ -1,4 +1,5 @@
 package server.api;
+import commons.KeysetPage;
 import commons.Participant;
 import org.hibernate.service.spi.ServiceException;
 import org.junit.jupiter.api.BeforeEach;
@@ -438,4 +439,24 @@ class ParticipantControllerTest {
         assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
         assertNull(response.getBody());
     }
+
+    @Test
+    void testFindParticipantPage() {
+        KeysetPage<Participant> page = new KeysetPage<>(List.of(new Participant()), "next", 1);
+        when(participantService.findParticipantPage(null, 1)).thenReturn(page);
+
+        ResponseEntity<?> response = participantController.findParticipantPage(null, 1);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(page, response.getBody());
+    }
+
+    @Test
+    void testFindParticipantPageServiceException() {
+        when(participantService.findParticipantPage(null, null)).thenThrow(new ServiceException("Service exception"));
+
+        ResponseEntity<?> response = participantController.findParticipantPage(null, null);
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+    }
 }
@@ -1,5 +1,8 @@
 package server.api;
 
+import commons.ChangeLogEntry.EntityType;
+import commons.ChangeLogEntry.Kind;
+import commons.KeysetPage;
 import commons.Participant;
 import org.hibernate.service.spi.ServiceException;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,11 +11,14 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.data.domain.Pageable;
+import server.ChangeLogService;
 import server.ParticipantService;
 import server.database.ParticipantRepository;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
@@ -21,6 +27,8 @@ public class ParticipantServiceTest {
 
     @Mock
     private ParticipantRepository participantRepository;
+    @Mock
+    private ChangeLogService changeLogService;
 
     @InjectMocks
     private ParticipantService participantService;
@@ -330,4 +338,36 @@ public class ParticipantServiceTest {
         assertEquals("fr", updatedParticipant.getLanguageChoice());
         verify(participantRepository, times(1)).save(any());
     }
+
+    @Test
+    void testUpdateParticipantLogsChangeInEveryEvent() {
+        Participant participant = new Participant();
+        participant.setId(1L);
+        participant.setEventIds(Set.of(2L, 3L));
+        when(participantRepository.findById(1L)).thenReturn(Optional.of(participant));
+        when(participantRepository.save(participant)).thenReturn(participant);
+
+        participantService.updateParticipant(1L, new Participant());
+
+        verify(changeLogService).record(2L, EntityType.PARTICIPANT, 1L, Kind.UPDATED);
+        verify(changeLogService).record(3L, EntityType.PARTICIPANT, 1L, Kind.UPDATED);
+    }
+
+    @Test
+    public void testFindParticipantPage() {
+        Participant participant = new Participant();
+        participant.setId(3L);
+        when(participantRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(participant));
+        KeysetPage<Participant> page = participantService.findParticipantPage(null, 10);
+        assertEquals(List.of(participant), page.getItems());
+        assertEquals(10, page.getLimit());
+    }
+
+    @Test
+    public void testFindParticipantPageException() {
+        when(participantRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Pageable.class)))
+                .thenThrow(new RuntimeException("Database error"));
+        assertThrows(ServiceException.class, () -> participantService.findParticipantPage(null, null));
+    }
 }
@@ -0,0 +1,52 @@
+package server.api;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PayloadMetricsAdviceTest {
+    private SimpleMeterRegistry registry;
+    private PayloadMetricsAdvice advice;
+    private MethodParameter getEventSummaries;
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        registry = new SimpleMeterRegistry();
+        advice = new PayloadMetricsAdvice(registry);
+        getEventSummaries = new MethodParameter(EventController.class.getMethod("getEventSummaries"), -1);
+    }
+
+    @Test
+    void supportsOnlyTheControllersOfTheServer() throws NoSuchMethodException {
+        assertTrue(advice.supports(getEventSummaries, null));
+        assertFalse(advice.supports(new MethodParameter(Object.class.getMethod("toString"), -1), null));
+    }
+
+    @Test
+    void recordsTheSizeOfLists() {
+        List<String> body = List.of("a", "b", "c");
+
+        assertSame(body, advice.beforeBodyWrite(body, getEventSummaries, null, null, null, null));
+        advice.beforeBodyWrite(List.of(), getEventSummaries, null, null, null, null);
+
+        DistributionSummary summary = registry.get("splitty.http.response.items")
+                .tag("handler", "EventController.getEventSummaries").summary();
+        assertEquals(2, summary.count());
+        assertEquals(3, summary.totalAmount());
+        assertEquals(3, summary.max());
+    }
+
+    @Test
+    void ignoresOtherBodies() {
+        assertEquals("text", advice.beforeBodyWrite("text", getEventSummaries, null, null, null, null));
+        assertNull(advice.beforeBodyWrite(null, getEventSummaries, null, null, null, null));
+
+        assertTrue(registry.find("splitty.http.response.items").summaries().isEmpty());
+    }
+}
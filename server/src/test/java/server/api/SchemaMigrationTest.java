@@ -0,0 +1,174 @@
+package server.api;
+
+import commons.Money;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import server.database.LedgerRepository;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Migrates a database with the schema Hibernate created before the migrations, the way the server
+ * migrates an existing file database, and a new empty database.
+ */
+class SchemaMigrationTest {
+    private static final String URL = "jdbc:h2:mem:migration;DB_CLOSE_DELAY=-1";
+
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection(URL, "sa", "");
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    private static void migrate() {
+        Flyway.configure().dataSource(URL, "sa", "")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+    }
+
+    private void createBaselineDatabase() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("RUNSCRIPT FROM 'classpath:/db/migration/V1__create_schema.sql'");
+            statement.execute("INSERT INTO participant (id, first_name, last_name) VALUES (1, 'Ann', 'Smith'), "
+                    + "(2, 'Bob', 'Jones')");
+            statement.execute("INSERT INTO event (id, title, invite_code) VALUES (10, 'Trip', 123), "
+                    + "(11, 'Empty', 456)");
+            statement.execute("INSERT INTO participant_event_ids (participant_id, event_ids) VALUES (1, 10), (2, 10)");
+            statement.execute("INSERT INTO event_people (event_id, people_id) VALUES (10, 1), (10, 2)");
+            statement.execute("INSERT INTO expense (id, participant_id, category, amount, currency, date, "
+                    + "expense_type, event_id) VALUES (100, 1, 'food', 12.34, 'EUR', '2024-03-01', 'Dinner', 10)");
+            statement.execute("INSERT INTO expense (id, participant_id, category, amount, currency, date, "
+                    + "expense_type, event_id) VALUES (101, 2, 'food', 0.29, 'EUR', '2024-03-02', 'Coffee', 10)");
+            statement.execute("INSERT INTO event_expenses (event_id, expenses_id) VALUES (10, 100), (10, 101)");
+            statement.execute("INSERT INTO expense_splitting_option (expense_id, participant_id) VALUES (100, 1), "
+                    + "(100, 2)");
+            statement.execute("INSERT INTO debt (id, debtor_id, lender_id, amount_of_money, debt_collective, "
+                    + "description) VALUES (200, 2, 1, 6.17, FALSE, 'Dinner')");
+            statement.execute("INSERT INTO participant_owed_amount (participant_id, event_id, owed_amount) "
+                    + "VALUES (2, 10, 6.5)");
+        }
+    }
+
+    private long queryLong(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet result = statement.executeQuery(sql)) {
+            assertTrue(result.next(), sql);
+            return result.getLong(1);
+        }
+    }
+
+    private String queryString(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet result = statement.executeQuery(sql)) {
+            assertTrue(result.next(), sql);
+            return result.getString(1);
+        }
+    }
+
+    @Test
+    void baselineDatabaseGetsTheLaterMigrations() throws SQLException {
+        createBaselineDatabase();
+
+        migrate();
+
+        assertEquals(0, queryLong("SELECT COUNT(*) FROM ledger_entry"));
+        assertEquals(1, queryLong("SELECT COUNT(*) FROM \"flyway_schema_history\" WHERE \"type\" = 'BASELINE'"));
+        assertEquals(1, queryLong("SELECT COUNT(*) FROM \"flyway_schema_history\" WHERE \"version\" = '3'"));
+    }
+
+    @Test
+    void existingChangesAreLogged() throws SQLException {
+        createBaselineDatabase();
+
+        migrate();
+
+        assertEquals(4, queryLong("SELECT version FROM event WHERE id = 10"));
+        assertEquals(0, queryLong("SELECT version FROM event WHERE id = 11"));
+        assertEquals(2, queryLong("SELECT COUNT(*) FROM change_log_entry WHERE event_id = 10 "
+                + "AND entity_type = 'PARTICIPANT' AND kind = 'INSERTED' AND version <= 2"));
+        assertEquals(3, queryLong("SELECT version FROM change_log_entry WHERE event_id = 10 "
+                + "AND entity_type = 'EXPENSE' AND entity_id = 100"));
+    }
+
+    @Test
+    void amountsAreConvertedToCents() throws SQLException {
+        createBaselineDatabase();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO expense (id, participant_id, category, amount, currency, date, "
+                    + "expense_type) VALUES (102, 1, 'food', 0.285, 'EUR', '2024-03-03', 'Snack'), "
+                    + "(103, 2, 'food', 1.005, 'EUR', '2024-03-04', 'Gum')");
+        }
+
+        migrate();
+
+        assertEquals(1234, queryLong("SELECT amount_in_cents FROM expense WHERE id = 100"));
+        assertEquals(29, queryLong("SELECT amount_in_cents FROM expense WHERE id = 101"));
+        // rounded like Money.toMinorUnits, not like the doubles 28.499... and 100.499...
+        assertEquals(Money.toMinorUnits(0.285), queryLong("SELECT amount_in_cents FROM expense WHERE id = 102"));
+        assertEquals(Money.toMinorUnits(1.005), queryLong("SELECT amount_in_cents FROM expense WHERE id = 103"));
+        assertEquals(617, queryLong("SELECT amount_in_cents FROM debt WHERE id = 200"));
+        assertEquals("6.50 EUR", queryString("SELECT owed_amount FROM participant_owed_amount "
+                + "WHERE participant_id = 2 AND event_id = 10"));
+        assertEquals(0, queryLong("SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS "
+                + "WHERE TABLE_NAME IN ('EXPENSE', 'DEBT') AND COLUMN_NAME IN ('AMOUNT', 'AMOUNT_OF_MONEY')"));
+    }
+
+    @Test
+    void existingExpensesHaveNoIdempotencyKey() throws SQLException {
+        createBaselineDatabase();
+
+        migrate();
+
+        assertEquals(0, queryLong("SELECT COUNT(idempotency_key) FROM expense"));
+        assertEquals(2, queryLong("SELECT COUNT(*) FROM expense"));
+    }
+
+    private void addToEntry(long eventId, long participantId, long paid, long owed) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate(LedgerRepository.ADD_TO_ENTRY
+                    .replace(":eventId", Long.toString(eventId))
+                    .replace(":participantId", Long.toString(participantId))
+                    .replace(":paid", Long.toString(paid))
+                    .replace(":owed", Long.toString(owed)));
+        }
+    }
+
+    @Test
+    void ledgerEntryIsCreatedByTheFirstChange() throws SQLException {
+        migrate();
+
+        addToEntry(10, 1, 2000, 1000);
+        addToEntry(10, 1, -500, 250);
+        addToEntry(10, 2, 0, 1000);
+
+        assertEquals(2, queryLong("SELECT COUNT(*) FROM ledger_entry"));
+        assertEquals(1500, queryLong("SELECT paid_in_cents FROM ledger_entry WHERE event_id = 10 AND participant_id = 1"));
+        assertEquals(1250, queryLong("SELECT owed_in_cents FROM ledger_entry WHERE event_id = 10 AND participant_id = 1"));
+    }
+
+    @Test
+    void emptyDatabaseGetsEveryMigration() throws SQLException {
+        migrate();
+
+        assertEquals(0, queryLong("SELECT COUNT(*) FROM event"));
+        assertEquals(0, queryLong("SELECT COUNT(*) FROM change_log_entry"));
+        assertEquals(0, queryLong("SELECT COUNT(*) FROM ledger_entry"));
+    }
+}
@@ -0,0 +1,83 @@
+package server.api;
+
+import commons.Transfer;
+import org.junit.jupiter.api.Test;
+import server.SettlementCalculator;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SettlementCalculatorTest {
+
+    @Test
+    void splitsEquallyBetweenSharers() {
+        SettlementCalculator calculator = new SettlementCalculator(List.of(1L, 2L, 3L));
+        calculator.addExpense(1L, 3000, new long[]{1L, 2L, 3L});
+        assertEquals(2000L, calculator.balanceOf(1L));
+        assertEquals(-1000L, calculator.balanceOf(2L));
+        assertEquals(-1000L, calculator.balanceOf(3L));
+    }
+
+    @Test
+    void leftOverCentsGoToLowestIds() {
+        SettlementCalculator calculator = new SettlementCalculator(List.of(1L, 2L, 3L));
+        calculator.addExpense(3L, 100, new long[]{1L, 2L, 3L});
+        assertEquals(-34L, calculator.balanceOf(1L));
+        assertEquals(-33L, calculator.balanceOf(2L));
+        assertEquals(67L, calculator.balanceOf(3L));
+    }
+
+    @Test
+    void emptySplittingOptionMeansEveryone() {
+        SettlementCalculator calculator = new SettlementCalculator(List.of(4L, 5L));
+        calculator.addExpense(4L, 1000, new long[0]);
+        assertEquals(500L, calculator.balanceOf(4L));
+        assertEquals(-500L, calculator.balanceOf(5L));
+    }
+
+    @Test
+    void unknownParticipantsAreAdded() {
+        SettlementCalculator calculator = new SettlementCalculator(List.of());
+        calculator.addExpense(7L, 500, new long[]{8L});
+        assertEquals(Map.of(7L, 500L, 8L, -500L), calculator.getBalances());
+    }
+
+    @Test
+    void settleLargestDebtorPaysLargestLender() {
+        SettlementCalculator calculator = new SettlementCalculator(List.of(1L, 2L, 3L));
+        calculator.addExpense(1L, 9000, new long[]{1L, 2L, 3L});
+        List<Transfer> transfers = calculator.settle();
+        assertEquals(List.of(new Transfer(2L, 1L, 3000), new Transfer(3L, 1L, 3000)), transfers);
+    }
+
+    @Test
+    void settleWithoutExpenses() {
+        SettlementCalculator calculator = new SettlementCalculator(List.of(1L, 2L));
+        assertTrue(calculator.settle().isEmpty());
+    }
+
+    @Test
+    void settleEvensOutEveryBalance() {
+        Random random = new Random(42);
+        List<Long> participants = List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L);
+        SettlementCalculator calculator = new SettlementCalculator(participants);
+        for (int i = 0; i < 1000; i++) {
+            calculator.addExpense(1 + random.nextInt(10), random.nextInt(100000), new long[]{2L, 5L, 7L});
+        }
+        Map<Long, Long> balances = calculator.getBalances();
+        assertEquals(0L, balances.values().stream().mapToLong(Long::longValue).sum());
+
+        List<Transfer> transfers = calculator.settle();
+        long nonZero = balances.values().stream().filter(balance -> balance != 0).count();
+        assertTrue(transfers.size() < nonZero);
+        for (Transfer transfer : transfers) {
+            assertTrue(transfer.getAmountInCents() > 0);
+            balances.merge(transfer.getDebtorId(), transfer.getAmountInCents(), Long::sum);
+            balances.merge(transfer.getLenderId(), -transfer.getAmountInCents(), Long::sum);
+        }
+        balances.values().forEach(balance -> assertEquals(0L, balance));
+    }
+}
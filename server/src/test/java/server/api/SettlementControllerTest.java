@@ -0,0 +1,59 @@
+package server.api;
+
+import commons.Transfer;
+import org.hibernate.service.spi.ServiceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import server.SettlementService;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+class SettlementControllerTest {
+
+    @Mock
+    private SettlementService settlementService;
+    @InjectMocks
+    private SettlementController settlementController;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void getSettlementTest() {
+        List<Transfer> transfers = List.of(new Transfer(2L, 1L, 500));
+        when(settlementService.settleEvent(1L)).thenReturn(transfers);
+
+        ResponseEntity<?> response = settlementController.getSettlement(1L);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(transfers, response.getBody());
+    }
+
+    @Test
+    void getSettlementNotFound() {
+        when(settlementService.settleEvent(1L)).thenThrow(new IllegalArgumentException("Event not found with ID: 1"));
+
+        ResponseEntity<?> response = settlementController.getSettlement(1L);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    @Test
+    void getSettlementServiceException() {
+        when(settlementService.settleEvent(1L)).thenThrow(new ServiceException("Service exception"));
+
+        ResponseEntity<?> response = settlementController.getSettlement(1L);
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+    }
+}
@@ -0,0 +1,75 @@
+package server.api;
+
+import commons.Transfer;
+import org.hibernate.service.spi.ServiceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import server.SettlementService;
+import server.database.EventRepository;
+import server.database.ExpenseRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SettlementServiceTest {
+
+    @Mock
+    private EventRepository eventRepository;
+    @Mock
+    private ExpenseRepository expenseRepository;
+    @InjectMocks
+    private SettlementService settlementService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(eventRepository.existsById(1L)).thenReturn(true);
+        when(eventRepository.participantIdsOfEvent(1L)).thenReturn(List.of(1L, 2L, 3L));
+    }
+
+    @Test
+    void settleEventTest() {
+        when(expenseRepository.paymentsOfEvent(1L)).thenReturn(List.of(
+                new Object[]{10L, 1L, 3000L},
+                new Object[]{11L, 2L, 1000L}));
+        when(expenseRepository.splitsOfEvent(1L)).thenReturn(List.of(
+                new Object[]{10L, 2L},
+                new Object[]{10L, 3L}));
+
+        List<Transfer> transfers = settlementService.settleEvent(1L);
+
+        // expense 10 is shared by 2 and 3, expense 11 has no splitting option so everyone shares it
+        assertEquals(List.of(new Transfer(3L, 1L, 1833), new Transfer(2L, 1L, 833)), transfers);
+    }
+
+    @Test
+    void settleEventSkipsExpensesWithoutPayer() {
+        when(expenseRepository.paymentsOfEvent(1L)).thenReturn(List.<Object[]>of(new Object[]{10L, null, 3000L}));
+        when(expenseRepository.splitsOfEvent(1L)).thenReturn(List.<Object[]>of(new Object[]{10L, 2L}));
+
+        assertTrue(settlementService.settleEvent(1L).isEmpty());
+    }
+
+    @Test
+    void settleEventNotFound() {
+        when(eventRepository.existsById(2L)).thenReturn(false);
+        assertThrows(IllegalArgumentException.class, () -> settlementService.settleEvent(2L));
+        verifyNoInteractions(expenseRepository);
+    }
+
+    @Test
+    void settleEventNegativeId() {
+        assertThrows(IllegalArgumentException.class, () -> settlementService.settleEvent(-1L));
+    }
+
+    @Test
+    void settleEventDatabaseError() {
+        when(expenseRepository.paymentsOfEvent(1L)).thenThrow(new RuntimeException("Database error"));
+        assertThrows(ServiceException.class, () -> settlementService.settleEvent(1L));
+    }
+}
@@ -0,0 +1,84 @@
+package server.api;
+
+import commons.Event;
+import commons.Expense;
+import commons.Participant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import server.EventService;
+import server.SqlDiagnostics;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the read endpoints of an event against an in-memory database and fails when they send more
+ * statements than the budget, or when the number of statements grows with the size of the event.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statementbudget;DB_CLOSE_DELAY=-1",
+        "spring.h2.console.enabled=false",
+        "splitty.sql-diagnostics.enabled=true"})
+@AutoConfigureMockMvc
+class StatementBudgetTest {
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private EventService eventService;
+    @Autowired
+    private SqlDiagnostics diagnostics;
+
+    private long smallEvent;
+    private long largeEvent;
+
+    @BeforeEach
+    void setUp() {
+        smallEvent = createEvent(3);
+        largeEvent = createEvent(25);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "/participants", "/expenses", "/stats"})
+    void readsStayWithinTheBudget(String endpoint) throws Exception {
+        long small = statementsOf("/api/events/" + smallEvent + endpoint);
+        long large = statementsOf("/api/events/" + largeEvent + endpoint);
+
+        assertTrue(large <= diagnostics.getStatementBudget(),
+                endpoint + " sent " + large + " statements, the budget is " + diagnostics.getStatementBudget());
+        assertEquals(small, large, endpoint + " sends a statement per participant or expense");
+    }
+
+    private long statementsOf(String url) throws Exception {
+        long before = diagnostics.statementCount();
+        mvc.perform(get(url)).andExpect(status().isOk());
+        return diagnostics.statementCount() - before;
+    }
+
+    private long createEvent(int size) {
+        long eventId = eventService.createEvent(new Event("Event of " + size)).getId();
+        List<Participant> people = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Participant participant = new Participant("user" + i, "First" + i, "Last" + i,
+                    "user" + i + "@example.com", "NL91ABNA0417164300", "ABNANL2A", "en");
+            participant.setEventIds(new HashSet<>(Set.of(eventId)));
+            people.add(eventService.addParticipantToEvent(eventId, participant));
+        }
+        for (int i = 0; i < size; i++) {
+            List<Participant> sharedBy = new ArrayList<>(people.subList(0, 1 + i % people.size()));
+            eventService.addExpenseToEvent(eventId, new Expense(people.get(i), "food", 10 + i, "EUR",
+                    "2024-03-15", sharedBy, "Expense " + i, eventId));
+        }
+        return eventId;
+    }
+}
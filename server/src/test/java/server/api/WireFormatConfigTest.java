@@ -0,0 +1,59 @@
+package server.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import commons.Expense;
+import commons.Participant;
+import commons.ParticipantReferences;
+import commons.WireFormat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import server.WireFormatConfig;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WireFormatConfigTest {
+    private static final MediaType CBOR = MediaType.valueOf(WireFormat.CBOR);
+
+    private MappingJackson2CborHttpMessageConverter converter;
+    private Expense expense;
+
+    @BeforeEach
+    void setUp() {
+        converter = new WireFormatConfig().cborHttpMessageConverter(Jackson2ObjectMapperBuilder.json());
+        Participant ann = new Participant("ann", "Ann", "Smith", "ann@mail.com", "NL91ABNA0417164300", "ABNANL2A");
+        ann.setId(1);
+        Participant bob = new Participant("bob", "Bob", "Jones", "bob@mail.com", "NL91ABNA0417164301", "ABNANL2A");
+        bob.setId(2);
+        expense = new Expense(ann, "dinner", 40, "EUR", "2024-03-01", new ArrayList<>(List.of(ann, bob)), "food", 3L);
+        expense.setId(9);
+    }
+
+    @Test
+    void onlyCborIsNegotiated() {
+        assertTrue(converter.canWrite(Expense.class, CBOR));
+        assertFalse(converter.canWrite(Expense.class, MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void participantsOfExpensesAreWrittenAsReferences() throws IOException {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(expense, CBOR, output);
+
+        Expense read = (Expense) converter.read(Expense.class, new MockHttpInputMessage(output.getBodyAsBytes()));
+
+        assertEquals("dinner", read.getCategory());
+        assertEquals(4000, read.getAmountInCents());
+        assertEquals(1, read.getParticipant().getId());
+        assertTrue(ParticipantReferences.hasReferences(List.of(read)));
+        assertTrue(output.getBodyAsBytes().length < new ObjectMapper().writeValueAsBytes(expense).length / 4);
+    }
+}